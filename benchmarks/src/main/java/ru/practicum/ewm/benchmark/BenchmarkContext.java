@@ -0,0 +1,115 @@
+package ru.practicum.ewm.benchmark;
+
+import lombok.experimental.UtilityClass;
+import org.hibernate.Hibernate;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.MainServiceApplication;
+import ru.practicum.ewm.model.*;
+import ru.practicum.ewm.repository.CategoryRepository;
+import ru.practicum.ewm.repository.EventRepository;
+import ru.practicum.ewm.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * main-service without the web server on an in-memory H2 database (application-bench.yml), filled with events
+ * generated from a fixed seed so that every run measures the same data.
+ */
+@UtilityClass
+public class BenchmarkContext {
+    public static final LocalDateTime FIRST_EVENT_DATE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    public static final int USERS = 1_000;
+    public static final int CATEGORIES = 20;
+    private static final long SEED = 42;
+    private static final int BATCH_SIZE = 1_000;
+    private static final String[] WORDS = {"концерт", "театр", "выставка", "лекция", "фестиваль", "кино", "джаз",
+            "экскурсия", "мастер-класс", "спектакль", "open air", "stand-up", "quiz", "workshop", "party"};
+
+    public ConfigurableApplicationContext start(int events) {
+        return start(events, WebApplicationType.NONE);
+    }
+
+    /**
+     * @param args extra command line arguments, such as {@code --server.port=0} for a web server on a free port
+     */
+    public ConfigurableApplicationContext start(int events, WebApplicationType web, String... args) {
+        String[] arguments = new String[args.length + 1];
+        arguments[0] = "--spring.profiles.active=bench";
+        System.arraycopy(args, 0, arguments, 1, args.length);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MainServiceApplication.class)
+                .web(web)
+                .run(arguments);
+        generate(context, events);
+        return context;
+    }
+
+    /**
+     * @return all events with their category and initiator loaded, as after a query that fetches them
+     */
+    public List<Event> loadEvents(ApplicationContext context) {
+        return new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).execute(status -> {
+            List<Event> events = context.getBean(EventRepository.class).findAll();
+            events.forEach(event -> {
+                Hibernate.initialize(event.getCategory());
+                Hibernate.initialize(event.getInitiator());
+            });
+            return events;
+        });
+    }
+
+    private void generate(ApplicationContext context, int events) {
+        Random random = new Random(SEED);
+        List<User> users = context.getBean(UserRepository.class).saveAll(IntStream.range(0, USERS)
+                .mapToObj(i -> User.builder().name("User " + i).email("user" + i + "@example.com").build())
+                .toList());
+        List<Category> categories = context.getBean(CategoryRepository.class).saveAll(IntStream.range(0, CATEGORIES)
+                .mapToObj(i -> Category.builder().name("Category " + i).build())
+                .toList());
+
+        EventRepository eventRepository = context.getBean(EventRepository.class);
+        EventState[] states = EventState.values();
+        List<Event> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < events; i++) {
+            EventState state = states[random.nextInt(states.length)];
+            LocalDateTime eventDate = FIRST_EVENT_DATE.plusMinutes(random.nextInt(365 * 24 * 60));
+            batch.add(Event.builder()
+                    .annotation(text(random, 20, 2000))
+                    .description(text(random, 20, 2000))
+                    .category(categories.get(random.nextInt(categories.size())))
+                    .initiator(users.get(random.nextInt(users.size())))
+                    .eventDate(eventDate)
+                    .location(new Location(random.nextFloat() * 180 - 90, random.nextFloat() * 360 - 180))
+                    .paid(random.nextBoolean())
+                    .participantLimit(random.nextInt(3) == 0 ? 0 : random.nextInt(500))
+                    .requestModeration(random.nextBoolean())
+                    .confirmedRequests(random.nextInt(100))
+                    .state(state)
+                    .publishedOn(state == EventState.PUBLISHED ? eventDate.minusDays(7) : null)
+                    .title(text(random, 3, 120))
+                    .build());
+            if (batch.size() == BATCH_SIZE || i == events - 1) {
+                eventRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private String text(Random random, int minLength, int maxLength) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.substring(0, length);
+    }
+}
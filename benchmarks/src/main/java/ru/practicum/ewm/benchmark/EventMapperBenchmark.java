@@ -0,0 +1,66 @@
+package ru.practicum.ewm.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.ewm.mapper.EventMapper;
+import ru.practicum.ewm.model.Event;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a page of events loaded from H2 to the list (short) and single event (full) responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EventMapperBenchmark {
+    @Param({"10000"})
+    private int events;
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private List<Event> loaded;
+    private int offset;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(events);
+        loaded = BenchmarkContext.loadEvents(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void toEventShortDto(Blackhole blackhole) {
+        for (Event event : nextPage()) {
+            blackhole.consume(EventMapper.toEventShortDto(event));
+        }
+    }
+
+    @Benchmark
+    public void toEventFullDto(Blackhole blackhole) {
+        for (Event event : nextPage()) {
+            blackhole.consume(EventMapper.toEventFullDto(event));
+        }
+    }
+
+    // Walks through all events so that a page is not always hot in the cache
+    private List<Event> nextPage() {
+        if (offset + pageSize > loaded.size()) {
+            offset = 0;
+        }
+        List<Event> page = loaded.subList(offset, offset + pageSize);
+        offset += pageSize;
+        return page;
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.ewm.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.ewm.model.Event;
+import ru.practicum.ewm.model.EventState;
+import ru.practicum.ewm.repository.EventRepository;
+import ru.practicum.ewm.repository.EventSpecification;
+import ru.practicum.ewm.service.EventServiceImpl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * The steps of the admin event search: parsing the range parameters, building the {@link EventSpecification}
+ * predicate and running the query against H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EventSearchBenchmark {
+    private static final String RANGE_START = "2025-03-01 00:00:00";
+    private static final String RANGE_END = "2025-06-01 00:00:00";
+
+    @Param({"10000"})
+    private int events;
+
+    private ConfigurableApplicationContext context;
+    private MethodHandle parseDateTime;
+    private CriteriaBuilder criteriaBuilder;
+    private EventRepository eventRepository;
+    private List<Long> users;
+    private List<Long> categories;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        context = BenchmarkContext.start(events);
+        eventRepository = context.getBean(EventRepository.class);
+        criteriaBuilder = context.getBean(EntityManagerFactory.class).getCriteriaBuilder();
+        users = LongStream.rangeClosed(1, BenchmarkContext.USERS / 10).boxed().toList();
+        categories = LongStream.rangeClosed(1, BenchmarkContext.CATEGORIES / 4).boxed().toList();
+
+        // A private helper of the service, called through a handle rather than copied here
+        Object eventService = context.getBean(EventServiceImpl.class);
+        Object target = AopProxyUtils.getSingletonTarget(eventService);
+        parseDateTime = MethodHandles.privateLookupIn(EventServiceImpl.class, MethodHandles.lookup())
+                .findVirtual(EventServiceImpl.class, "parseDateTime",
+                        MethodType.methodType(LocalDateTime.class, String.class))
+                .bindTo(target != null ? target : eventService);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTime() throws Throwable {
+        return (LocalDateTime) parseDateTime.invokeExact(RANGE_START);
+    }
+
+    @Benchmark
+    public Predicate buildPredicate() {
+        CriteriaQuery<Event> query = criteriaBuilder.createQuery(Event.class);
+        Root<Event> root = query.from(Event.class);
+        return specification().toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public List<Event> findEvents() {
+        return eventRepository.findAll(specification(), PageRequest.of(0, 10)).getContent();
+    }
+
+    // Same filters and order as EventServiceImpl.getEventsByAdmin
+    private Specification<Event> specification() {
+        return Specification.<Event>where(null)
+                .and(EventSpecification.initiatorIn(users))
+                .and(EventSpecification.stateIn(List.of(EventState.PUBLISHED, EventState.PENDING)))
+                .and(EventSpecification.categoryIn(categories))
+                .and(EventSpecification.dateFrom(LocalDateTime.parse(RANGE_START.replace(' ', 'T'))))
+                .and(EventSpecification.dateTo(LocalDateTime.parse(RANGE_END.replace(' ', 'T'))));
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.ewm.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.ewm.service.StatsService;
+import ru.practicum.ewm.stat.client.StatsClient;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * {@link StatsService#getViews} merging the stats-server answer into views of every requested event. The client
+ * returns a prepared answer, so only main-service's own work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class StatsViewsBenchmark {
+    @Param({"10", "100", "1000"})
+    private int eventCount;
+
+    private StatsService statsService;
+    private List<Long> eventIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        eventIds = LongStream.rangeClosed(1, eventCount).boxed().toList();
+        // Events that were never viewed are missing from the answer
+        Map<Long, Long> hits = new HashMap<>();
+        eventIds.stream().filter(id -> random.nextInt(5) > 0).forEach(id -> hits.put(id, random.nextLong(10_000)));
+        statsService = new StatsService(new FixedStatsClient(hits));
+    }
+
+    @Benchmark
+    public Map<Long, Long> getViews() {
+        return statsService.getViews(eventIds);
+    }
+
+    private static final class FixedStatsClient extends StatsClient {
+        private final Map<Long, Long> hits;
+
+        FixedStatsClient(Map<Long, Long> hits) {
+            super(StatsClient.builder("http://localhost:9090"));
+            this.hits = hits;
+        }
+
+        @Override
+        public Map<Long, Long> getResourceStats(LocalDateTime start, LocalDateTime end, String uriPrefix,
+                                                List<Long> ids, Boolean unique) {
+            return hits;
+        }
+    }
+}
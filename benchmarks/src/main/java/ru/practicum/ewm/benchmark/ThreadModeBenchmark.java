@@ -0,0 +1,138 @@
+package ru.practicum.ewm.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.ewm.model.Event;
+import ru.practicum.ewm.model.EventState;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second of GET /events/{id} served by Tomcat's worker pool or by virtual threads, with
+ * {@value #CONCURRENCY} requests in flight. Every request reads the event from H2 and makes two calls to a stub of
+ * stats-server that answers after {@code statsLatencyMillis}, so most of its time is spent waiting.
+ * <p>
+ * The stats client runs without its bulkhead, which would otherwise cap the calls in flight in both modes. The event
+ * page keeps its JDBC connection through both stats calls, so with a small {@code poolSize} the pool, not the
+ * thread model, bounds the throughput. Without Tomcat's worker pool nothing holds excess requests back, so an
+ * overloaded virtual-thread run shows up as {@code failed} responses once Hikari's connection timeout expires.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThreadModeBenchmark {
+    private static final int CONCURRENCY = 1_000;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"20"})
+    private long statsLatencyMillis;
+
+    @Param({"10", "100"})
+    private int poolSize;
+
+    @Param({"1000"})
+    private int events;
+
+    private HttpServer statsServer;
+    private ExecutorService statsThreads;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private List<URI> uris;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        statsThreads = Executors.newVirtualThreadPerTaskExecutor();
+        statsServer = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENCY);
+        statsServer.createContext("/", this::answerStats);
+        statsServer.setExecutor(statsThreads);
+        statsServer.start();
+
+        context = BenchmarkContext.start(events, WebApplicationType.SERVLET,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--stats.server.url=http://localhost:" + statsServer.getAddress().getPort(),
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--stats.client.resilience.enabled=false",
+                "--logging.level.ru.practicum.ewm=WARN",
+                "--logging.level.org.springframework=WARN",
+                "--ewm.sql-profiler.enabled=false");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        uris = BenchmarkContext.loadEvents(context).stream()
+                .filter(event -> event.getState() == EventState.PUBLISHED)
+                .map(Event::getId)
+                .map(id -> URI.create("http://localhost:" + port + "/events/" + id))
+                .toList();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+        statsServer.stop(0);
+        statsThreads.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public void getEvent(Responses counters) {
+        List<CompletableFuture<Integer>> responses = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            HttpRequest request = HttpRequest.newBuilder(uris.get(i % uris.size())).GET().build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenApply(HttpResponse::statusCode));
+        }
+        for (CompletableFuture<Integer> response : responses) {
+            if (response.join() == 200) {
+                counters.ok++;
+            } else {
+                counters.failed++;
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Responses {
+        public long ok;
+        public long failed;
+    }
+
+    private void answerStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            Thread.sleep(statsLatencyMillis);
+            if (exchange.getRequestURI().getPath().startsWith("/stats")) {
+                byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } else {
+                exchange.sendResponseHeaders(201, -1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
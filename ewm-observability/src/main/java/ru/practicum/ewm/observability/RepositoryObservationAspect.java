@@ -0,0 +1,55 @@
+package ru.practicum.ewm.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Observes Spring Data repository calls as {@value #NAME}, so a trace shows which queries a request ran and how
+ * long each took. Tags name the repository interface and method, never the arguments. Calls outside an
+ * observation, such as scheduled jobs and startup, are left alone rather than starting traces of their own.
+ * <p>
+ * Not a component: each service registers it as a bean from its own configuration.
+ */
+@Aspect
+public class RepositoryObservationAspect {
+    public static final String NAME = "db.repository";
+
+    private final ObservationRegistry observationRegistry;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryObservationAspect(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (observationRegistry.getCurrentObservation() == null) {
+            return joinPoint.proceed();
+        }
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(),
+                RepositoryObservationAspect::repositoryName);
+        String method = joinPoint.getSignature().getName();
+        return Observation.createNotStarted(NAME, observationRegistry)
+                .contextualName(repository + "." + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method)
+                .observeChecked((Observation.CheckedCallable<Object, Throwable>) joinPoint::proceed);
+    }
+
+    // The proxy implements the application's repository interface next to Spring's own ones
+    private static String repositoryName(Class<?> proxyClass) {
+        return Arrays.stream(proxyClass.getInterfaces())
+                .filter(type -> type != Repository.class && Repository.class.isAssignableFrom(type))
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElse(proxyClass.getSimpleName());
+    }
+}
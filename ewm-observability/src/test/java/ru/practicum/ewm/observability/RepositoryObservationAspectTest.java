@@ -0,0 +1,57 @@
+package ru.practicum.ewm.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.tck.TestObservationRegistryAssert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.repository.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RepositoryObservationAspectTest {
+    private TestObservationRegistry registry;
+    private UserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        registry = TestObservationRegistry.create();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new UserRepository() {
+            @Override
+            public String findName(long id) {
+                return "user-" + id;
+            }
+        });
+        factory.addInterface(UserRepository.class);
+        factory.addAspect(new RepositoryObservationAspect(registry));
+        repository = factory.getProxy();
+    }
+
+    @Test
+    void shouldObserveCallInsideObservation() {
+        String name = Observation.createNotStarted("request", registry)
+                .observe(() -> repository.findName(1));
+
+        assertEquals("user-1", name);
+        TestObservationRegistryAssert.assertThat(registry)
+                .hasObservationWithNameEqualTo(RepositoryObservationAspect.NAME)
+                .that()
+                .hasContextualNameEqualTo("UserRepository.findName")
+                .hasLowCardinalityKeyValue("repository", "UserRepository")
+                .hasLowCardinalityKeyValue("method", "findName")
+                .hasBeenStopped();
+    }
+
+    @Test
+    void shouldNotStartObservationOutsideOne() {
+        assertEquals("user-2", repository.findName(2));
+
+        TestObservationRegistryAssert.assertThat(registry)
+                .doesNotHaveAnyObservation();
+    }
+
+    interface UserRepository extends Repository<Object, Long> {
+        String findName(long id);
+    }
+}
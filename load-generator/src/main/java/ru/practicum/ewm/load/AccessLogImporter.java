@@ -0,0 +1,52 @@
+package ru.practicum.ewm.load;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns an access log in the common or combined format (Tomcat's {@code server.tomcat.accesslog}, nginx) into a
+ * {@link RequestMix}: one template per endpoint, weighted by how often it was hit and replaying the recorded
+ * paths, so both the endpoint mix and the id popularity of the capture are kept.
+ * <p>
+ * A log has no request bodies, so only GET, HEAD and DELETE requests are replayed; writes belong in a mix file.
+ */
+@UtilityClass
+public class AccessLogImporter {
+    private static final Pattern REQUEST_LINE = Pattern.compile("\"([A-Z]+) (\\S+) HTTP/[\\d.]+\"");
+    private static final Set<String> REPLAYABLE = Set.of("GET", "HEAD", "DELETE");
+
+    public RequestMix read(Path log, String base) throws IOException {
+        Map<String, List<String>> pathsByName = new LinkedHashMap<>();
+        Map<String, String> methods = new HashMap<>();
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = REQUEST_LINE.matcher(line);
+                if (!matcher.find() || !REPLAYABLE.contains(matcher.group(1))) {
+                    skipped++;
+                    continue;
+                }
+                String name = RequestMix.endpointName(matcher.group(1), matcher.group(2));
+                pathsByName.computeIfAbsent(name, key -> new ArrayList<>()).add(matcher.group(2));
+                methods.put(name, matcher.group(1));
+            }
+        }
+        if (skipped > 0) {
+            System.out.printf("%s: skipped %d lines without a replayable request%n", log, skipped);
+        }
+
+        List<RequestMix.Template> templates = new ArrayList<>();
+        pathsByName.forEach((name, paths) -> templates.add(new RequestMix.Template(name, methods.get(name), base,
+                paths, null, Map.of(), paths.size())));
+        return new RequestMix(templates);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.ewm.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of one endpoint. Latency is counted from the moment the request was due, not from when it was sent,
+ * so a server that falls behind shows up in the percentiles instead of lowering the rate.
+ */
+public final class EndpointStats {
+    private final Histogram latency = new ConcurrentHistogram(3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    void record(long latencyNanos, int status) {
+        latency.recordValue(latencyNanos);
+        if (status < 200 || status >= 400) {
+            errors.increment();
+        }
+    }
+
+    void drop() {
+        dropped.increment();
+    }
+
+    public Histogram latency() {
+        return latency;
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+}
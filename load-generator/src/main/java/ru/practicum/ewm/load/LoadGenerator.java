@@ -0,0 +1,180 @@
+package ru.practicum.ewm.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests of a {@link RequestMix} arrive at a fixed rate, whether or not earlier
+ * ones have been answered, each sent on its own virtual thread. Reports latency percentiles per endpoint.
+ * <p>
+ * {@code java ru.practicum.ewm.load.LoadGenerator --mix=mixes/ewm.json --rps=200 --duration=5m}, see
+ * {@link LoadOptions} for the rest.
+ */
+public class LoadGenerator {
+    private static final String CSV_HEADER = "endpoint,rps,requests,errors,dropped,per_second,"
+            + "p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+    private static final String TOTAL = "TOTAL";
+
+    private final LoadOptions options;
+    private final RequestMix mix;
+    private final HttpClient client;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadGenerator(LoadOptions options, RequestMix mix) {
+        this.options = options;
+        this.mix = mix;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.getTimeout())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        RequestMix mix = RequestMix.from(options);
+        System.out.printf("%d endpoints at %.0f rps (%s) for %s after %s of warmup%n", mix.templates().size(),
+                options.getRps(), options.getArrival(), options.getDuration(), options.getWarmup());
+
+        LoadGenerator generator = new LoadGenerator(options, mix);
+        generator.run();
+        generator.report(System.out);
+    }
+
+    /**
+     * Sends requests for the warmup and the duration, then waits for the ones still in flight.
+     */
+    public Map<String, EndpointStats> run() {
+        SplittableRandom random = new SplittableRandom(options.getSeed());
+        double meanGapNanos = 1e9 / options.getRps();
+        long start = System.nanoTime();
+        long recordFrom = start + options.getWarmup().toNanos();
+        long end = recordFrom + options.getDuration().toNanos();
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            double offset = 0;
+            long due;
+            while ((due = start + (long) offset) < end) {
+                parkUntil(due);
+                RequestMix.Request request = mix.next(random);
+                boolean recorded = due >= recordFrom;
+                if (inFlight.incrementAndGet() > options.getMaxInFlight()) {
+                    inFlight.decrementAndGet();
+                    if (recorded) {
+                        stats(request.name()).drop();
+                    }
+                } else {
+                    long sendAt = due;
+                    requests.execute(() -> send(request, sendAt, recorded));
+                }
+                offset += options.getArrival() == LoadOptions.Arrival.POISSON
+                        ? -Math.log(1 - random.nextDouble()) * meanGapNanos
+                        : meanGapNanos;
+            }
+        }
+        return stats;
+    }
+
+    void report(PrintStream out) throws IOException {
+        Map<String, EndpointStats> sorted = new TreeMap<>(stats);
+        Histogram total = new Histogram(3);
+        long errors = 0;
+        long dropped = 0;
+        for (EndpointStats endpoint : sorted.values()) {
+            total.add(endpoint.latency());
+            errors += endpoint.errors();
+            dropped += endpoint.dropped();
+        }
+
+        out.printf("%-45s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "dropped",
+                "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        StringBuilder csv = new StringBuilder();
+        for (Map.Entry<String, EndpointStats> entry : sorted.entrySet()) {
+            row(out, csv, entry.getKey(), entry.getValue().latency(), entry.getValue().errors(),
+                    entry.getValue().dropped());
+            writeHistogram(entry.getKey(), entry.getValue().latency());
+        }
+        row(out, csv, TOTAL, total, errors, dropped);
+        writeHistogram(TOTAL, total);
+
+        if (options.getOutput() != null) {
+            if (Files.notExists(options.getOutput())) {
+                csv.insert(0, CSV_HEADER + System.lineSeparator());
+            }
+            Files.writeString(options.getOutput(), csv, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    private void send(RequestMix.Request request, long due, boolean recorded) {
+        int status;
+        try {
+            status = client.send(request.toHttpRequest(options.getTimeout()), HttpResponse.BodyHandlers.discarding())
+                    .statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = -1;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        if (recorded) {
+            stats(request.name()).record(System.nanoTime() - due, status);
+        }
+    }
+
+    private EndpointStats stats(String name) {
+        return stats.computeIfAbsent(name, key -> new EndpointStats());
+    }
+
+    private void row(PrintStream out, StringBuilder csv, String name, Histogram latency, long errors,
+                     long dropped) {
+        double perSecond = latency.getTotalCount() / (options.getDuration().toNanos() / 1e9);
+        out.printf("%-45s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, latency.getTotalCount(),
+                errors, dropped, perSecond, millis(latency, 50), millis(latency, 90), millis(latency, 99),
+                millis(latency, 99.9), latency.getMaxValue() / 1e6);
+        csv.append(String.format("\"%s\",%.1f,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n", name, options.getRps(),
+                latency.getTotalCount(), errors, dropped, perSecond, millis(latency, 50), millis(latency, 90),
+                millis(latency, 99), millis(latency, 99.9), latency.getMaxValue() / 1e6));
+    }
+
+    private void writeHistogram(String name, Histogram latency) throws IOException {
+        if (options.getHistograms() == null) {
+            return;
+        }
+        Files.createDirectories(options.getHistograms());
+        Path file = options.getHistograms().resolve(name.replaceAll("[^A-Za-z0-9._-]+", "_") + ".hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            latency.outputPercentileDistribution(out, 1e6);
+        }
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static void parkUntil(long due) {
+        long delay;
+        while ((delay = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(delay);
+        }
+    }
+}
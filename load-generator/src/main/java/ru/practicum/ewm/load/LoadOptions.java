@@ -0,0 +1,120 @@
+package ru.practicum.ewm.load;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Options of {@link LoadGenerator}, given as {@code --name=value} arguments.
+ */
+@Data
+public class LoadOptions {
+    private static final Pattern DURATION = Pattern.compile("(\\d+)(ms|s|m|h)");
+
+    /**
+     * JSON mix of weighted request templates, see {@link RequestMix}.
+     */
+    private Path mix;
+    /**
+     * Access log in the common or combined format to replay, see {@link AccessLogImporter}.
+     */
+    private Path accessLog;
+    private String accessLogTarget = "main";
+    /**
+     * Base urls by target name, {@code --target.main=http://localhost:8080}; override the ones of the mix.
+     */
+    private Map<String, String> targets = new HashMap<>();
+
+    private double rps = 100;
+    private Duration duration = Duration.ofSeconds(60);
+    /**
+     * Sent at the target rate but not recorded.
+     */
+    private Duration warmup = Duration.ofSeconds(10);
+    private Arrival arrival = Arrival.CONSTANT;
+    /**
+     * Requests that would exceed this many in flight are dropped and counted instead of piling up.
+     */
+    private int maxInFlight = 10_000;
+    private Duration timeout = Duration.ofSeconds(10);
+    private long seed = 42;
+
+    /**
+     * CSV file the summary is appended to.
+     */
+    private Path output;
+    /**
+     * Directory for the full latency distribution of every endpoint as HdrHistogram .hgrm files.
+     */
+    private Path histograms;
+
+    public enum Arrival {
+        /**
+         * Evenly spaced arrivals.
+         */
+        CONSTANT,
+        /**
+         * Exponentially distributed gaps, as independent users arrive.
+         */
+        POISSON
+    }
+
+    public static LoadOptions parse(String... args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+
+            if (name.startsWith("target.")) {
+                options.targets.put(name.substring("target.".length()), value);
+                continue;
+            }
+            switch (name) {
+                case "mix" -> options.mix = Path.of(value);
+                case "access-log" -> options.accessLog = Path.of(value);
+                case "access-log-target" -> options.accessLogTarget = value;
+                case "rps" -> options.rps = Double.parseDouble(value);
+                case "duration" -> options.duration = parseDuration(value);
+                case "warmup" -> options.warmup = parseDuration(value);
+                case "arrival" -> options.arrival = Arrival.valueOf(value.toUpperCase());
+                case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "timeout" -> options.timeout = parseDuration(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "output" -> options.output = Path.of(value);
+                case "histograms" -> options.histograms = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+
+        if (options.mix == null && options.accessLog == null) {
+            throw new IllegalArgumentException("Either --mix or --access-log is required");
+        }
+        if (options.rps <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        return options;
+    }
+
+    static Duration parseDuration(String value) {
+        Matcher matcher = DURATION.matcher(value);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Expected a duration like 500ms, 30s, 5m or 1h but got " + value);
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        return switch (matcher.group(2)) {
+            case "ms" -> Duration.ofMillis(amount);
+            case "s" -> Duration.ofSeconds(amount);
+            case "m" -> Duration.ofMinutes(amount);
+            default -> Duration.ofHours(amount);
+        };
+    }
+}
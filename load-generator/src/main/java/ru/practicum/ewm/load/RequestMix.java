@@ -0,0 +1,191 @@
+package ru.practicum.ewm.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.random.RandomGenerator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Weighted request templates, each picked with probability proportional to its weight.
+ * <p>
+ * A mix file is JSON:
+ * <pre>
+ * {
+ *   "targets": {"main": "http://localhost:8080", "stats": "http://localhost:9090"},
+ *   "requests": [
+ *     {"method": "GET", "path": "/events/${int:1-1000}", "weight": 40},
+ *     {"target": "stats", "method": "POST", "path": "/hit", "weight": 10,
+ *      "body": {"app": "ewm-main-service", "uri": "/events/${int:1-1000}", "ip": "${ip}", "timestamp": "${now}"}}
+ *   ]
+ * }
+ * </pre>
+ * Paths and bodies may use {@code ${int:min-max}}, {@code ${ip}}, {@code ${now}} (yyyy-MM-dd HH:mm:ss) and
+ * {@code ${uuid}}; a template may list recorded {@code paths} to pick from instead of one {@code path}.
+ * Results are reported by {@code name}, by default the method and the path with ids as {@code {id}}, so that
+ * the report has one row per endpoint rather than per uri.
+ */
+public final class RequestMix {
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(int:(\\d+)-(\\d+)|ip|now|uuid)}");
+    private static final Pattern ID_SEGMENT = Pattern.compile("\\d+|\\$\\{[^}]*}");
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<Template> templates;
+    private final double[] cumulative;
+
+    public RequestMix(List<Template> templates) {
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("Request mix is empty");
+        }
+        this.templates = List.copyOf(templates);
+        this.cumulative = new double[templates.size()];
+        double sum = 0;
+        for (int i = 0; i < templates.size(); i++) {
+            if (templates.get(i).weight() <= 0) {
+                throw new IllegalArgumentException("Weight of " + templates.get(i).name() + " must be positive");
+            }
+            sum += templates.get(i).weight();
+            cumulative[i] = sum;
+        }
+    }
+
+    /**
+     * Mix file and access log of the options combined.
+     */
+    public static RequestMix from(LoadOptions options) throws IOException {
+        List<Template> templates = new ArrayList<>();
+        if (options.getMix() != null) {
+            templates.addAll(load(options.getMix(), options.getTargets()).templates);
+        }
+        if (options.getAccessLog() != null) {
+            String base = options.getTargets().getOrDefault(options.getAccessLogTarget(),
+                    defaultTargets().get(options.getAccessLogTarget()));
+            if (base == null) {
+                throw new IllegalArgumentException("No url for target " + options.getAccessLogTarget());
+            }
+            templates.addAll(AccessLogImporter.read(options.getAccessLog(), base).templates);
+        }
+        return new RequestMix(templates);
+    }
+
+    public static RequestMix load(Path file, Map<String, String> targetOverrides) throws IOException {
+        MixFile mix = MAPPER.readValue(file.toFile(), MixFile.class);
+        Map<String, String> targets = new HashMap<>(defaultTargets());
+        targets.putAll(mix.getTargets());
+        targets.putAll(targetOverrides);
+
+        List<Template> templates = new ArrayList<>();
+        for (Entry entry : mix.getRequests()) {
+            String base = targets.get(entry.getTarget());
+            if (base == null) {
+                throw new IllegalArgumentException("No url for target " + entry.getTarget());
+            }
+            List<String> paths = entry.getPaths() != null ? entry.getPaths() : List.of(entry.getPath());
+            String method = entry.getMethod().toUpperCase();
+            String body = entry.getBody() != null ? MAPPER.writeValueAsString(entry.getBody()) : null;
+            Map<String, String> headers = new HashMap<>(entry.getHeaders());
+            if (body != null) {
+                headers.putIfAbsent("Content-Type", "application/json");
+            }
+            templates.add(new Template(entry.getName() != null ? entry.getName() : endpointName(method, paths.get(0)),
+                    method, base, paths, body, headers, entry.getWeight()));
+        }
+        return new RequestMix(templates);
+    }
+
+    public Request next(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+        Template template = templates.get(index < 0 ? -index - 1 : index);
+        String path = template.paths().get(random.nextInt(template.paths().size()));
+        return new Request(template.name(), template.method(), URI.create(template.base() + expand(path, random)),
+                template.body() != null ? expand(template.body(), random) : null, template.headers());
+    }
+
+    public List<Template> templates() {
+        return templates;
+    }
+
+    static String endpointName(String method, String path) {
+        String withoutQuery = path.split("\\?", 2)[0];
+        return method + " " + Arrays.stream(withoutQuery.split("/", -1))
+                .map(segment -> ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment)
+                .collect(Collectors.joining("/"));
+    }
+
+    static String expand(String template, RandomGenerator random) {
+        if (template.indexOf('$') < 0) {
+            return template;
+        }
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder expanded = new StringBuilder();
+        while (matcher.find()) {
+            String value;
+            if (matcher.group(2) != null) {
+                value = String.valueOf(random.nextLong(Long.parseLong(matcher.group(2)),
+                        Long.parseLong(matcher.group(3)) + 1));
+            } else if (matcher.group(1).equals("ip")) {
+                value = "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256);
+            } else if (matcher.group(1).equals("now")) {
+                value = LocalDateTime.now().format(FORMATTER);
+            } else {
+                value = new UUID(random.nextLong(), random.nextLong()).toString();
+            }
+            matcher.appendReplacement(expanded, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(expanded);
+        return expanded.toString();
+    }
+
+    private static Map<String, String> defaultTargets() {
+        return Map.of("main", "http://localhost:8080", "stats", "http://localhost:9090");
+    }
+
+    /**
+     * @param paths path templates to pick from uniformly
+     */
+    public record Template(String name, String method, String base, List<String> paths, String body,
+                           Map<String, String> headers, double weight) {
+    }
+
+    public record Request(String name, String method, URI uri, String body, Map<String, String> headers) {
+        public HttpRequest toHttpRequest(Duration timeout) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                    .timeout(timeout)
+                    .method(method, body != null
+                            ? HttpRequest.BodyPublishers.ofString(body)
+                            : HttpRequest.BodyPublishers.noBody());
+            headers.forEach(builder::header);
+            return builder.build();
+        }
+    }
+
+    @Data
+    static class MixFile {
+        private Map<String, String> targets = new HashMap<>();
+        private List<Entry> requests = new ArrayList<>();
+    }
+
+    @Data
+    static class Entry {
+        private String name;
+        private String target = "main";
+        private String method = "GET";
+        private String path;
+        private List<String> paths;
+        private JsonNode body;
+        private Map<String, String> headers = new HashMap<>();
+        private double weight = 1;
+    }
+}
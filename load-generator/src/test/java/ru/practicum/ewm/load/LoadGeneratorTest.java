@@ -0,0 +1,94 @@
+package ru.practicum.ewm.load;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGeneratorTest {
+    private HttpServer server;
+    private String base;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        base = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldKeepArrivalRateWhenServerIsSlow() throws IOException {
+        LoadOptions options = options();
+        RequestMix mix = new RequestMix(List.of(
+                new RequestMix.Template("GET /slow", "GET", base, List.of("/slow"), null, Map.of(), 3),
+                new RequestMix.Template("GET /missing", "GET", base, List.of("/missing"), null, Map.of(), 1)));
+        LoadGenerator generator = new LoadGenerator(options, mix);
+
+        Map<String, EndpointStats> stats = generator.run();
+
+        // 200 rps for a second, although a closed loop of a few clients could not do it with 200 ms responses
+        long slow = stats.get("GET /slow").latency().getTotalCount();
+        long missing = stats.get("GET /missing").latency().getTotalCount();
+        assertEquals(200, slow + missing, 2);
+        assertEquals(150, slow, 30);
+        assertEquals(0, stats.get("GET /slow").errors());
+        assertEquals(missing, stats.get("GET /missing").errors());
+        assertTrue(stats.get("GET /slow").latency().getValueAtPercentile(50) >= Duration.ofMillis(200).toNanos());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        generator.report(new PrintStream(out, true, StandardCharsets.UTF_8));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("TOTAL"));
+    }
+
+    @Test
+    void shouldDropRequestsAboveInFlightLimit() {
+        LoadOptions options = options();
+        options.setMaxInFlight(10);
+        RequestMix mix = new RequestMix(List.of(
+                new RequestMix.Template("GET /slow", "GET", base, List.of("/slow"), null, Map.of(), 1)));
+
+        EndpointStats stats = new LoadGenerator(options, mix).run().get("GET /slow");
+
+        assertTrue(stats.dropped() > 100, () -> stats.dropped() + " dropped");
+        assertEquals(200, stats.latency().getTotalCount() + stats.dropped(), 2);
+    }
+
+    private LoadOptions options() {
+        LoadOptions options = LoadOptions.parse("--mix=unused.json");
+        options.setRps(200);
+        options.setWarmup(Duration.ZERO);
+        options.setDuration(Duration.ofSeconds(1));
+        return options;
+    }
+}
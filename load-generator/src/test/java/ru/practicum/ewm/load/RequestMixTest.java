@@ -0,0 +1,123 @@
+package ru.practicum.ewm.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestMixTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void shouldPickTemplatesByWeight() {
+        RequestMix mix = new RequestMix(List.of(
+                template("GET /a", 3),
+                template("GET /b", 1)));
+        SplittableRandom random = new SplittableRandom(1);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 40_000; i++) {
+            counts.merge(mix.next(random).name(), 1, Integer::sum);
+        }
+
+        assertEquals(30_000, counts.get("GET /a"), 600);
+        assertEquals(10_000, counts.get("GET /b"), 600);
+    }
+
+    @Test
+    void shouldExpandPlaceholders() {
+        SplittableRandom random = new SplittableRandom(1);
+
+        for (int i = 0; i < 100; i++) {
+            long id = Long.parseLong(RequestMix.expand("${int:5-7}", random));
+            assertTrue(id >= 5 && id <= 7);
+        }
+        assertTrue(RequestMix.expand("${ip}", random).matches("10\\.\\d+\\.\\d+\\.\\d+"));
+        assertTrue(RequestMix.expand("{\"timestamp\":\"${now}\"}", random)
+                .matches("\\{\"timestamp\":\"\\d{4}-\\d\\d-\\d\\d \\d\\d:\\d\\d:\\d\\d\"}"));
+        assertEquals("/events?from=0", RequestMix.expand("/events?from=0", random));
+    }
+
+    @Test
+    void shouldNameEndpointsByTemplate() {
+        assertEquals("GET /events/{id}", RequestMix.endpointName("GET", "/events/${int:1-10}"));
+        assertEquals("GET /events/{id}/comments", RequestMix.endpointName("GET", "/events/15/comments?from=0"));
+        assertEquals("GET /categories", RequestMix.endpointName("GET", "/categories"));
+    }
+
+    @Test
+    void shouldLoadMixFileWithTargetOverrides() throws IOException {
+        Path file = dir.resolve("mix.json");
+        Files.writeString(file, """
+                {
+                  "targets": {"main": "http://main:8080"},
+                  "requests": [
+                    {"path": "/events/${int:1-1}", "weight": 2},
+                    {"name": "hit", "target": "stats", "method": "post", "path": "/hit",
+                     "body": {"uri": "/events/${int:9-9}"}}
+                  ]
+                }
+                """);
+
+        RequestMix mix = RequestMix.load(file, Map.of("stats", "http://stats:9090"));
+
+        assertEquals(List.of("GET /events/{id}", "hit"), mix.templates().stream()
+                .map(RequestMix.Template::name).toList());
+        SplittableRandom random = new SplittableRandom(1);
+        RequestMix.Request request;
+        do {
+            request = mix.next(random);
+        } while (!request.name().equals("hit"));
+        assertEquals("POST", request.method());
+        assertEquals("http://stats:9090/hit", request.uri().toString());
+        assertEquals("{\"uri\":\"/events/9\"}", request.body());
+        assertEquals("application/json", request.headers().get("Content-Type"));
+    }
+
+    @Test
+    void shouldReplayRecordedRequestsOfAccessLog() throws IOException {
+        Path log = dir.resolve("access.log");
+        Files.writeString(log, """
+                127.0.0.1 - - [15/Mar/2025:12:00:00 +0000] "GET /events/1 HTTP/1.1" 200 512
+                127.0.0.1 - - [15/Mar/2025:12:00:01 +0000] "GET /events/2 HTTP/1.1" 200 512
+                127.0.0.1 - - [15/Mar/2025:12:00:02 +0000] "POST /hit HTTP/1.1" 201 0
+                127.0.0.1 - - [15/Mar/2025:12:00:03 +0000] "GET /events?from=0&size=10 HTTP/1.1" 200 2048
+                garbage
+                """);
+
+        RequestMix mix = AccessLogImporter.read(log, "http://main:8080");
+
+        assertEquals(List.of("GET /events/{id}", "GET /events"), mix.templates().stream()
+                .map(RequestMix.Template::name).toList());
+        assertEquals(List.of("/events/1", "/events/2"), mix.templates().get(0).paths());
+        assertEquals(2.0, mix.templates().get(0).weight());
+    }
+
+    @Test
+    void shouldParseOptions() {
+        LoadOptions options = LoadOptions.parse("--mix=mix.json", "--rps=250.5", "--duration=2m", "--warmup=500ms",
+                "--arrival=poisson", "--target.main=http://main:8080");
+
+        assertEquals(250.5, options.getRps());
+        assertEquals(120, options.getDuration().toSeconds());
+        assertEquals(500, options.getWarmup().toMillis());
+        assertEquals(LoadOptions.Arrival.POISSON, options.getArrival());
+        assertEquals("http://main:8080", options.getTargets().get("main"));
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--rps=10"));
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--mix=mix.json", "--speed=1"));
+    }
+
+    private static RequestMix.Template template(String name, double weight) {
+        return new RequestMix.Template(name, "GET", "http://localhost", List.of(name.substring(4)), null, Map.of(),
+                weight);
+    }
+}
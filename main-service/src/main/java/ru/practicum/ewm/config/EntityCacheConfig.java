@@ -0,0 +1,65 @@
+package ru.practicum.ewm.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+@ConditionalOnProperty(prefix = "ewm.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EntityCacheConfig {
+    private static final String CATEGORIES_REGION = "categories";
+    private static final String USERS_REGION = "users";
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("ewm-entity-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(CATEGORIES_REGION, regionConfiguration(properties.getCategories()));
+        cacheManager.createCache(USERS_REGION, regionConfiguration(properties.getUsers()));
+        cacheManager.createCache(QUERY_RESULTS_REGION, regionConfiguration(properties.getQueries()));
+
+        // Timestamps must outlive every cached query result, so this region is never bounded
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStoreByValue(false);
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, timestamps);
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfiguration(EntityCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        configuration.setMaximumSize(OptionalLong.of(region.getMaxEntries()));
+        configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+        return configuration;
+    }
+}
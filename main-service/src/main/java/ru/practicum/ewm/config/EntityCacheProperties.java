@@ -0,0 +1,29 @@
+package ru.practicum.ewm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ewm.cache")
+public class EntityCacheProperties {
+    private boolean enabled = true;
+    private Region categories = new Region(1_000, Duration.ofMinutes(30));
+    private Region users = new Region(10_000, Duration.ofMinutes(10));
+    private Region queries = new Region(10_000, Duration.ofMinutes(10));
+
+    @Data
+    public static class Region {
+        private long maxEntries;
+        private Duration ttl;
+
+        public Region() {
+        }
+
+        public Region(long maxEntries, Duration ttl) {
+            this.maxEntries = maxEntries;
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.ewm.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ru.practicum.ewm.dto.EventShortDto;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Keeps the rendered JSON of each {@link EventShortDto} by event id and writes it back as a raw
+ * fragment while the DTO is unchanged, so listings only re-serialize events that actually changed.
+ * <p>
+ * Fragments are only valid for the mapper that rendered them, so an instance must be registered on
+ * one mapper only, see {@link WebMvcConfig}. Writes with an active view or a pretty printer are not
+ * cached.
+ */
+public class EventJsonFragmentModule extends SimpleModule {
+    private final Cache<Long, Fragment> fragments;
+
+    public EventJsonFragmentModule(long maxEntries) {
+        super("EventJsonFragmentModule");
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                                      JsonSerializer<?> serializer) {
+                if (beanDesc.getBeanClass() == EventShortDto.class) {
+                    return new FragmentSerializer(serializer, fragments);
+                }
+                return serializer;
+            }
+        });
+    }
+
+    public Cache<Long, Fragment> getFragments() {
+        return fragments;
+    }
+
+    // The source DTO stands in for an entity version: views, confirmed requests and comment
+    // counts change without the event row being updated.
+    public record Fragment(EventShortDto source, SerializedString json) {
+    }
+
+    private static class FragmentSerializer extends StdSerializer<EventShortDto>
+            implements ContextualSerializer, ResolvableSerializer {
+        private static final JsonFactory DEFAULT_FACTORY = new JsonFactory();
+
+        private final JsonSerializer<Object> delegate;
+        private final Cache<Long, Fragment> fragments;
+
+        @SuppressWarnings("unchecked")
+        FragmentSerializer(JsonSerializer<?> delegate, Cache<Long, Fragment> fragments) {
+            super(EventShortDto.class);
+            this.delegate = (JsonSerializer<Object>) delegate;
+            this.fragments = fragments;
+        }
+
+        @Override
+        public void serialize(EventShortDto value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            // Fragments are rendered compact and without a view
+            if (value.getId() == null || provider.getActiveView() != null || gen.getPrettyPrinter() != null) {
+                delegate.serialize(value, gen, provider);
+                return;
+            }
+
+            Fragment fragment = fragments.getIfPresent(value.getId());
+            if (fragment == null || !fragment.source().equals(value)) {
+                fragment = new Fragment(value, render(value, gen, provider));
+                fragments.put(value.getId(), fragment);
+            }
+            gen.writeRawValue(fragment.json());
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (delegate instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+                throws JsonMappingException {
+            if (!(delegate instanceof ContextualSerializer contextual)) {
+                return this;
+            }
+            JsonSerializer<?> serializer = contextual.createContextual(provider, property);
+            // Property-level overrides would render differently, so those are never cached
+            return serializer == delegate ? this : serializer;
+        }
+
+        private SerializedString render(EventShortDto value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            ObjectCodec codec = gen.getCodec();
+            JsonFactory factory = codec != null ? codec.getFactory() : DEFAULT_FACTORY;
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator fragmentGen = factory.createGenerator(writer)) {
+                delegate.serialize(value, fragmentGen, provider);
+            }
+            return new SerializedString(writer.toString());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.ewm.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded executors for work that must not compete with requests. Queue depth, active and pool threads are
+ * reported by Spring Boot as {@code executor.*} gauges tagged with the bean name; this class adds the
+ * {@value #WAIT_METRIC} and {@value #RUN_METRIC} timers and the {@value #REJECTED_METRIC} counter.
+ */
+@Configuration
+@EnableConfigurationProperties(ExecutorProperties.class)
+public class ExecutorConfig {
+    public static final String STATS_EXECUTOR = "statsExecutor";
+    public static final String CACHE_REFRESH_EXECUTOR = "cacheRefreshExecutor";
+    public static final String BACKGROUND_EXECUTOR = "backgroundExecutor";
+    // Names of Micrometer's own ExecutorServiceMetrics, so the dashboards built for them apply
+    static final String WAIT_METRIC = "executor.idle";
+    static final String RUN_METRIC = "executor";
+    static final String REJECTED_METRIC = "executor.rejected";
+
+    // Keeps the pools bounded, only their threads become virtual
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean(STATS_EXECUTOR)
+    public ThreadPoolTaskExecutor statsExecutor(ExecutorProperties properties,
+                                                ObjectProvider<MeterRegistry> meterRegistry) {
+        return executor(STATS_EXECUTOR, properties.getStats(), new ThreadPoolExecutor.DiscardPolicy(),
+                meterRegistry);
+    }
+
+    @Bean(CACHE_REFRESH_EXECUTOR)
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(ExecutorProperties properties,
+                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        return executor(CACHE_REFRESH_EXECUTOR, properties.getCacheRefresh(), new ThreadPoolExecutor.AbortPolicy(),
+                meterRegistry);
+    }
+
+    // Also the "taskExecutor" that @EnableAsync picks for methods without a qualifier
+    @Bean({BACKGROUND_EXECUTOR, "taskExecutor"})
+    public ThreadPoolTaskExecutor backgroundExecutor(ExecutorProperties properties,
+                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return executor(BACKGROUND_EXECUTOR, properties.getBackground(), new ThreadPoolExecutor.AbortPolicy(),
+                meterRegistry);
+    }
+
+    private ThreadPoolTaskExecutor executor(String name, ExecutorProperties.Pool pool,
+                                            RejectedExecutionHandler policy,
+                                            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        // Web slice tests run without the metrics auto-configuration
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+        Timer wait = Timer.builder(WAIT_METRIC)
+                .description("Time tasks spend in the queue")
+                .tag("name", name)
+                .register(meterRegistry);
+        Timer run = Timer.builder(RUN_METRIC)
+                .description("Time tasks take to run")
+                .tag("name", name)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder(REJECTED_METRIC)
+                .description("Tasks rejected because the queue was full")
+                .tag("name", name)
+                .register(meterRegistry);
+        ContextPropagatingTaskDecorator context = new ContextPropagatingTaskDecorator();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name(name + "-", 1).factory());
+        }
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(pool.getMaxSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(pool.getAwaitTermination().toMillis());
+        // Decorated on submission, so the queue wait is measured from there; the trace goes along with the task
+        executor.setTaskDecorator(task -> {
+            Runnable decorated = context.decorate(task);
+            long submitted = System.nanoTime();
+            return () -> {
+                long started = System.nanoTime();
+                wait.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    decorated.run();
+                } finally {
+                    run.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+        executor.setRejectedExecutionHandler((task, threadPool) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, threadPool);
+        });
+        return executor;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.ewm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ewm.executors")
+public class ExecutorProperties {
+    // Hits sent to stats-server off the request thread; dropped when the queue is full
+    private Pool stats = new Pool(2, 4, 1_000);
+    // Rebuilds of stale snapshots; readers keep the stale one when the queue is full
+    private Pool cacheRefresh = new Pool(1, 1, 10);
+    // Default for @Async; a full queue fails the submitting call instead of running the task on it
+    private Pool background = new Pool(2, 4, 100);
+
+    @Data
+    public static class Pool {
+        private int coreSize;
+        // Threads above coreSize are only started once the queue is full
+        private int maxSize;
+        private int queueCapacity;
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private Duration awaitTermination = Duration.ofSeconds(10);
+
+        public Pool() {
+        }
+
+        public Pool(int coreSize, int maxSize, int queueCapacity) {
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
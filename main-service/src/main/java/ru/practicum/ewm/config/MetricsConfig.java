@@ -0,0 +1,29 @@
+package ru.practicum.ewm.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.ewm.observability.RepositoryObservationAspect;
+
+/**
+ * Custom meters next to the ones Spring Boot registers itself. Everything is tagged with classes, methods and
+ * uri templates only, never with raw uris or ids, so the number of series stays bounded. Per-request SQL
+ * numbers come from {@link SqlProfilerConfig}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Times the public methods of services annotated with @Timed
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // Puts every repository call of a traced request into its trace
+    @Bean
+    public RepositoryObservationAspect repositoryObservationAspect(ObservationRegistry observationRegistry) {
+        return new RepositoryObservationAspect(observationRegistry);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.ewm.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import ru.practicum.ewm.profiling.ProfilingDataSource;
+import ru.practicum.ewm.profiling.SqlProfiler;
+import ru.practicum.ewm.profiling.SqlProfilingFilter;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(SqlProfilerProperties.class)
+@ConditionalOnProperty(prefix = "ewm.sql-profiler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlProfilerConfig {
+
+    @Bean
+    public SqlProfiler sqlProfiler() {
+        return new SqlProfiler();
+    }
+
+    // Static, so the data source is wrapped before anything takes a connection from it
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<SqlProfiler> sqlProfiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProfilingDataSource)) {
+                    return new ProfilingDataSource(dataSource, sqlProfiler.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlProfilingFilter> sqlProfilingFilter(SqlProfiler sqlProfiler,
+                                                                         SqlProfilerProperties properties,
+                                                                         MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlProfilingFilter> registration =
+                new FilterRegistrationBean<>(new SqlProfilingFilter(sqlProfiler, properties, meterRegistry));
+        // Outside the other filters, so their queries count too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.ewm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ewm.sql-profiler")
+public class SqlProfilerProperties {
+    private boolean enabled = true;
+    // Report each request's numbers in X-Sql-* response headers; meant for debugging, not for production
+    private boolean headers = false;
+    // A request over any of these limits is logged and counted in sql.requests.flagged
+    private int maxStatements = 20;
+    private long maxRows = 1_000;
+    private Duration maxTime = Duration.ofMillis(500);
+}
@@ -1,18 +1,57 @@
 package ru.practicum.ewm.config;
 
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import ru.practicum.ewm.stat.client.StatsClient;
 
+import java.time.Duration;
+
 @Configuration
+@EnableConfigurationProperties(StatsClientProperties.class)
 public class StatsClientConfig {
 
     @Value("${stats.server.url:http://localhost:9090}")
     private String statsServerUrl;
 
     @Bean
-    public StatsClient statsClient() {
-        return new StatsClient(statsServerUrl);
+    public StatsClient statsClient(StatsClientProperties properties, ObjectProvider<MeterRegistry> meterRegistry,
+                                   ObjectProvider<ObservationRegistry> observationRegistry) {
+        StatsClient.Builder builder = StatsClient.builder(statsServerUrl)
+                .binary(properties.isBinary())
+                .connectTimeout(properties.getConnectTimeout())
+                .readTimeout(properties.getReadTimeout())
+                // Web slice tests run without the metrics and observation auto-configuration
+                .meterRegistry(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry))
+                .observationRegistry(observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+
+        StatsClientProperties.Resilience resilience = properties.getResilience();
+        if (resilience.isEnabled()) {
+            builder.resilience(
+                            CircuitBreakerConfig.custom()
+                                    .slidingWindowSize(resilience.getSlidingWindowSize())
+                                    .minimumNumberOfCalls(resilience.getMinimumNumberOfCalls())
+                                    .failureRateThreshold(resilience.getFailureRateThreshold())
+                                    .slowCallDurationThreshold(resilience.getSlowCallThreshold())
+                                    .slowCallRateThreshold(resilience.getSlowCallRateThreshold())
+                                    .waitDurationInOpenState(resilience.getWaitInOpenState())
+                                    .permittedNumberOfCallsInHalfOpenState(
+                                            resilience.getPermittedCallsInHalfOpenState())
+                                    .build(),
+                            BulkheadConfig.custom()
+                                    .maxConcurrentCalls(resilience.getMaxConcurrentCalls())
+                                    .maxWaitDuration(Duration.ZERO)
+                                    .build())
+                    .hitBuffer(resilience.getHitBufferCapacity(), resilience.getFlushInterval())
+                    .viewsCache(resilience.getViewsCacheCapacity());
+        }
+        return builder.build();
     }
-}
\ No newline at end of file
+}
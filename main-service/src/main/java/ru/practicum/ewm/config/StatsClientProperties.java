@@ -0,0 +1,35 @@
+package ru.practicum.ewm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "stats.client")
+public class StatsClientProperties {
+    // Binary format instead of JSON, stats-server must support it
+    private boolean binary = false;
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration readTimeout = Duration.ofSeconds(3);
+    private Resilience resilience = new Resilience();
+
+    @Data
+    public static class Resilience {
+        private boolean enabled = true;
+        // Percentage of failed calls among the last slidingWindowSize that opens the breaker
+        private float failureRateThreshold = 50;
+        private Duration slowCallThreshold = Duration.ofSeconds(1);
+        // Percentage of calls slower than slowCallThreshold that opens the breaker
+        private float slowCallRateThreshold = 50;
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitInOpenState = Duration.ofSeconds(10);
+        private int permittedCallsInHalfOpenState = 5;
+        // Calls beyond it get the fallback at once instead of holding another request thread
+        private int maxConcurrentCalls = 20;
+        private int hitBufferCapacity = 10_000;
+        private Duration flushInterval = Duration.ofSeconds(5);
+        private int viewsCacheCapacity = 10_000;
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.ewm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    private final boolean jsonFragmentsEnabled;
+    private final long jsonFragmentsMaxEntries;
+
+    public WebMvcConfig(@Value("${ewm.json-fragments.enabled:true}") boolean jsonFragmentsEnabled,
+                        @Value("${ewm.json-fragments.max-entries:10000}") long jsonFragmentsMaxEntries) {
+        this.jsonFragmentsEnabled = jsonFragmentsEnabled;
+        this.jsonFragmentsMaxEntries = jsonFragmentsMaxEntries;
+    }
+
+    /**
+     * Caches event fragments for HTTP responses only. The converter gets a copy of the shared
+     * ObjectMapper, so other users of that bean never write cached fragments.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (!jsonFragmentsEnabled) {
+            return;
+        }
+
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2HttpMessageConverter jackson) {
+                jackson.setObjectMapper(jackson.getObjectMapper().copy()
+                        .registerModule(new EventJsonFragmentModule(jsonFragmentsMaxEntries)));
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.ewm.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.experimental.UtilityClass;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+@UtilityClass
+public class ETags {
+    // Only feeds the digest, so it does not have to match the response format
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+    private static final int DIGEST_BYTES = 16;
+
+    public static String versioned(String resource, long version, Object... params) {
+        StringBuilder tag = new StringBuilder("\"").append(resource).append('-').append(version);
+        for (Object param : params) {
+            tag.append('-').append(param);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * A 128-bit SHA-256 prefix of the serialized body, for responses without a cheaper validator.
+     */
+    public static String weak(Object body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(MAPPER.writeValueAsBytes(body));
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, DIGEST_BYTES) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot compute the ETag of " + body.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -5,11 +5,18 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.ewm.controller.ETags;
 import ru.practicum.ewm.dto.CategoryDto;
+import ru.practicum.ewm.service.CategoryCatalog;
 import ru.practicum.ewm.service.CategoryService;
 
+import java.time.Duration;
 import java.util.List;
 
 @Slf4j
@@ -18,18 +25,37 @@ import java.util.List;
 @Validated
 @RequestMapping("/categories")
 public class PublicCategoryController {
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic();
+
     private final CategoryService categoryService;
 
     @GetMapping
-    public List<CategoryDto> getCategories(@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                           @RequestParam(defaultValue = "10") @Positive Integer size) {
+    public ResponseEntity<List<CategoryDto>> getCategories(@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                           @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                           WebRequest webRequest) {
         log.info("Getting categories from: {}, size: {}", from, size);
-        return categoryService.getCategories(from, size);
+        CategoryCatalog.Page page = categoryService.getCategoriesPage(from, size);
+        String eTag = ETags.versioned("categories", page.version(), from, size);
+        // The version alone decides, the page is not rendered for a client that already has it
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CACHE_CONTROL)
+                    .eTag(eTag)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .eTag(eTag)
+                .body(page.categories());
     }
 
     @GetMapping("/{catId}")
-    public CategoryDto getCategory(@PathVariable Long catId) {
+    public ResponseEntity<CategoryDto> getCategory(@PathVariable Long catId) {
         log.info("Getting category with id: {}", catId);
-        return categoryService.getCategory(catId);
+        CategoryDto category = categoryService.getCategory(catId);
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .eTag(ETags.weak(category))
+                .body(category);
     }
 }
\ No newline at end of file
@@ -5,11 +5,15 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.ewm.controller.ETags;
 import ru.practicum.ewm.dto.CompilationDto;
 import ru.practicum.ewm.service.CompilationService;
 
+import java.time.Duration;
 import java.util.List;
 
 @Slf4j
@@ -18,19 +22,29 @@ import java.util.List;
 @Validated
 @RequestMapping("/compilations")
 public class PublicCompilationController {
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic();
+
     private final CompilationService compilationService;
 
     @GetMapping
-    public List<CompilationDto> getCompilations(@RequestParam(required = false) Boolean pinned,
-                                                @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                @RequestParam(defaultValue = "10") @Positive Integer size) {
+    public ResponseEntity<List<CompilationDto>> getCompilations(@RequestParam(required = false) Boolean pinned,
+                                                                @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                                @RequestParam(defaultValue = "10") @Positive Integer size) {
         log.info("Getting compilations with pinned={}, from={}, size={}", pinned, from, size);
-        return compilationService.getCompilations(pinned, from, size);
+        List<CompilationDto> compilations = compilationService.getCompilations(pinned, from, size);
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .eTag(ETags.weak(compilations))
+                .body(compilations);
     }
 
     @GetMapping("/{compId}")
-    public CompilationDto getCompilation(@PathVariable Long compId) {
+    public ResponseEntity<CompilationDto> getCompilation(@PathVariable Long compId) {
         log.info("Getting compilation with id: {}", compId);
-        return compilationService.getCompilation(compId);
+        CompilationDto compilation = compilationService.getCompilation(compId);
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .eTag(ETags.weak(compilation))
+                .body(compilation);
     }
 }
\ No newline at end of file
@@ -6,8 +6,11 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.ewm.controller.ETags;
 import ru.practicum.ewm.dto.EventFullDto;
 import ru.practicum.ewm.dto.EventShortDto;
 import ru.practicum.ewm.service.EventService;
@@ -20,33 +23,44 @@ import java.util.List;
 @Validated
 @RequestMapping("/events")
 public class PublicEventController {
+    // Every view is recorded as a hit, so clients must always revalidate
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache();
+
     private final EventService eventService;
 
     @GetMapping
-    public List<EventShortDto> getEvents(@RequestParam(required = false) String text,
-                                         @RequestParam(required = false) List<Long> categories,
-                                         @RequestParam(required = false) Boolean paid,
-                                         @RequestParam(required = false) String rangeStart,
-                                         @RequestParam(required = false) String rangeEnd,
-                                         @RequestParam(required = false, defaultValue = "false") Boolean onlyAvailable,
-                                         @RequestParam(required = false) String sort,
-                                         @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                         @RequestParam(defaultValue = "10") @Positive Integer size,
-                                         HttpServletRequest request) {
+    public ResponseEntity<List<EventShortDto>> getEvents(@RequestParam(required = false) String text,
+                                                         @RequestParam(required = false) List<Long> categories,
+                                                         @RequestParam(required = false) Boolean paid,
+                                                         @RequestParam(required = false) String rangeStart,
+                                                         @RequestParam(required = false) String rangeEnd,
+                                                         @RequestParam(required = false, defaultValue = "false") Boolean onlyAvailable,
+                                                         @RequestParam(required = false) String sort,
+                                                         @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                         @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                         HttpServletRequest request) {
         log.info("Getting events with filters: text={}, categories={}, paid={}, " +
                         "rangeStart={}, rangeEnd={}, onlyAvailable={}, sort={}, from={}, size={}",
                 text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size);
 
         String ip = request.getRemoteAddr();
-        return eventService.getEventsPublic(text, categories, paid, rangeStart, rangeEnd,
+        List<EventShortDto> events = eventService.getEventsPublic(text, categories, paid, rangeStart, rangeEnd,
                 onlyAvailable, sort, from, size, ip);
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .eTag(ETags.weak(events))
+                .body(events);
     }
 
     @GetMapping("/{id}")
-    public EventFullDto getEvent(@PathVariable Long id, HttpServletRequest request) {
+    public ResponseEntity<EventFullDto> getEvent(@PathVariable Long id, HttpServletRequest request) {
         log.info("Getting event with id: {}", id);
 
         String ip = request.getRemoteAddr();
-        return eventService.getEventPublic(id, ip);
+        EventFullDto event = eventService.getEventPublic(id, ip);
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .eTag(ETags.weak(event))
+                .body(event);
     }
 }
\ No newline at end of file
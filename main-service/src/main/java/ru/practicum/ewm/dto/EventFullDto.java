@@ -37,4 +37,5 @@ public class EventFullDto {
     private EventState state;
     private String title;
     private Long views;
+    private Long comments;
 }
\ No newline at end of file
@@ -2,25 +2,38 @@ package ru.practicum.ewm.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.ewm.dto.CompilationDto;
+import ru.practicum.ewm.dto.EventShortDto;
 import ru.practicum.ewm.model.Compilation;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @UtilityClass
 public class CompilationMapper {
     public static CompilationDto toCompilationDto(Compilation compilation) {
+        return toCompilationDto(compilation, Map.of());
+    }
+
+    /**
+     * @param comments comment counts by event id, events missing from it have none
+     */
+    public static CompilationDto toCompilationDto(Compilation compilation, Map<Long, Long> comments) {
         if (compilation == null) {
             CompilationDto dto = new CompilationDto();
             dto.setEvents(new ArrayList<>());
             return dto;
         }
 
-        List<ru.practicum.ewm.dto.EventShortDto> events = new ArrayList<>();
+        List<EventShortDto> events = new ArrayList<>();
         if (compilation.getEvents() != null && !compilation.getEvents().isEmpty()) {
             events = compilation.getEvents().stream()
-                    .map(EventMapper::toEventShortDto)
+                    .map(event -> {
+                        EventShortDto eventDto = EventMapper.toEventShortDto(event);
+                        eventDto.setComments(comments.getOrDefault(event.getId(), 0L));
+                        return eventDto;
+                    })
                     .collect(Collectors.toList());
         }
 
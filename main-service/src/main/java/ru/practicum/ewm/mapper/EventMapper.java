@@ -73,6 +73,7 @@ public class EventMapper {
 
         dto.setConfirmedRequests(event.getConfirmedRequests() != null ? event.getConfirmedRequests().longValue() : 0L);
         dto.setViews(event.getViews() != null ? event.getViews() : 0L);
+        dto.setComments(0L);
 
         return dto;
     }
@@ -106,6 +107,7 @@ public class EventMapper {
 
         dto.setConfirmedRequests(event.getConfirmedRequests() != null ? event.getConfirmedRequests().longValue() : 0L);
         dto.setViews(event.getViews() != null ? event.getViews() : 0L);
+        dto.setComments(0L);
 
         return dto;
     }
@@ -6,7 +6,7 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = @Index(name = "idx_comments_event", columnList = "event_id"))
 @Getter
 @Setter
 @NoArgsConstructor
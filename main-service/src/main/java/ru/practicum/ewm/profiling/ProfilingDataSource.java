@@ -0,0 +1,106 @@
+package ru.practicum.ewm.profiling;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Hands out connections whose statements report to the {@link SqlProfiler}: each {@code execute*} call counts
+ * as one statement and its duration as database time, each row a result set moves to counts as fetched.
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+    private final SqlProfiler profiler;
+
+    public ProfilingDataSource(DataSource target, SqlProfiler profiler) {
+        super(target);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private Connection connection(Connection target) {
+        return (Connection) proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            // createStatement, prepareStatement and prepareCall; the return type picks the statement interface
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return statement(method.getReturnType(), statement);
+            }
+            return result;
+        });
+    }
+
+    private Statement statement(Class<?> type, Statement target) {
+        return (Statement) proxy(type, (proxy, method, args) -> {
+            Object result;
+            if (method.getName().startsWith("execute")) {
+                SqlProfile profile = profiler.current();
+                long start = System.nanoTime();
+                try {
+                    result = invoke(target, method, args);
+                } finally {
+                    if (profile != null) {
+                        profile.statement(System.nanoTime() - start);
+                    }
+                }
+            } else {
+                result = invoke(target, method, args);
+            }
+
+            if (result instanceof ResultSet resultSet && !method.getName().equals("getGeneratedKeys")) {
+                return resultSet(resultSet, (Statement) proxy);
+            }
+            return result;
+        });
+    }
+
+    private ResultSet resultSet(ResultSet target, Statement statement) {
+        return (ResultSet) proxy(ResultSet.class, (proxy, method, args) -> {
+            // Hibernate tracks result sets by the statement they return
+            if (method.getName().equals("getStatement")) {
+                return statement;
+            }
+            Object result = invoke(target, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                SqlProfile profile = profiler.current();
+                if (profile != null) {
+                    profile.row();
+                }
+            }
+            return result;
+        });
+    }
+
+    // Equality by identity, as for the driver objects: Hibernate keeps statements in hash maps
+    private static Object proxy(Class<?> type, InvocationHandler handler) {
+        return Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
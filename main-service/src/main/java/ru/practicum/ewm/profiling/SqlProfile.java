@@ -0,0 +1,37 @@
+package ru.practicum.ewm.profiling;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * JDBC work of one request or one {@link SqlProfiler#profile(Runnable)} call. Only the thread that started the
+ * profile updates it.
+ */
+@Getter
+public class SqlProfile {
+    private int statements;
+    private long rows;
+    private long nanos;
+
+    void statement(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    void row() {
+        rows++;
+    }
+
+    /**
+     * @return time spent in {@code execute*} calls, which is where the driver waits for the database
+     */
+    public Duration getTime() {
+        return Duration.ofNanos(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + statements + ", rows=" + rows + ", time=" + getTime().toMillis() + "ms";
+    }
+}
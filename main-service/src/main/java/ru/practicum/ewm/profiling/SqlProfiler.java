@@ -0,0 +1,45 @@
+package ru.practicum.ewm.profiling;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Holds the {@link SqlProfile} of the current thread; {@link ProfilingDataSource} adds every statement, row and
+ * execution time to it. Threads without a profile are not counted.
+ */
+public class SqlProfiler {
+    private final ThreadLocal<SqlProfile> current = new ThreadLocal<>();
+
+    public SqlProfile start() {
+        SqlProfile profile = new SqlProfile();
+        current.set(profile);
+        return profile;
+    }
+
+    public void stop() {
+        current.remove();
+    }
+
+    /**
+     * Runs {@code action} with a profile of its own; the profile of the enclosing request, if any, does not
+     * include its statements.
+     */
+    public SqlProfile profile(Runnable action) {
+        SqlProfile enclosing = current.get();
+        SqlProfile profile = start();
+        try {
+            action.run();
+            return profile;
+        } finally {
+            if (enclosing != null) {
+                current.set(enclosing);
+            } else {
+                stop();
+            }
+        }
+    }
+
+    @Nullable
+    SqlProfile current() {
+        return current.get();
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.ewm.profiling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.ewm.config.SqlProfilerProperties;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profiles the JDBC work of every request: records it as metrics tagged with the uri template, logs requests
+ * over the configured limits and, when enabled, reports it in {@code X-Sql-*} response headers.
+ */
+@Slf4j
+public class SqlProfilingFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    private final SqlProfiler profiler;
+    private final SqlProfilerProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlProfilingFilter(SqlProfiler profiler, SqlProfilerProperties properties, MeterRegistry meterRegistry) {
+        this.profiler = profiler;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlProfile profile = profiler.start();
+        HeaderWritingResponse headers = properties.isHeaders() ? new HeaderWritingResponse(response, profile) : null;
+        try {
+            chain.doFilter(request, headers != null ? headers : response);
+        } finally {
+            profiler.stop();
+            if (headers != null) {
+                headers.writeHeaders();
+            }
+            report(request, profile);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlProfile profile) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        DistributionSummary.builder("sql.statements.per.request")
+                .description("JDBC statements executed per HTTP request")
+                .baseUnit("statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(profile.getStatements());
+        DistributionSummary.builder("sql.rows.per.request")
+                .description("Rows fetched from JDBC result sets per HTTP request")
+                .baseUnit("rows")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(profile.getRows());
+        Timer.builder("sql.time.per.request")
+                .description("Time spent executing JDBC statements per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(profile.getNanos(), TimeUnit.NANOSECONDS);
+
+        if (profile.getStatements() > properties.getMaxStatements()
+                || profile.getRows() > properties.getMaxRows()
+                || profile.getTime().compareTo(properties.getMaxTime()) > 0) {
+            Counter.builder("sql.requests.flagged")
+                    .description("HTTP requests over the SQL profiler limits")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("SQL limits exceeded by {} {} ({}): {}", request.getMethod(), request.getRequestURI(), uri,
+                    profile);
+        }
+    }
+
+    /**
+     * Adds the headers just before the body starts, while the response can still take them; the statements of
+     * the request have run by then.
+     */
+    private static final class HeaderWritingResponse extends HttpServletResponseWrapper {
+        private final SqlProfile profile;
+        private boolean written;
+
+        HeaderWritingResponse(HttpServletResponse response, SqlProfile profile) {
+            super(response);
+            this.profile = profile;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(profile.getStatements()));
+            setHeader(ROWS_HEADER, String.valueOf(profile.getRows()));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", profile.getNanos() / 1e6));
+        }
+    }
+}
@@ -1,10 +1,27 @@
 package ru.practicum.ewm.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.ewm.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByEventIdOrderByCreatedDesc(Long eventId);
+
+    Long countByEventId(Long eventId);
+
+    @Query("SELECT c.event.id AS eventId, COUNT(c) AS comments " +
+            "FROM Comment c " +
+            "WHERE c.event.id IN :eventIds " +
+            "GROUP BY c.event.id")
+    List<EventCommentCount> countByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    interface EventCommentCount {
+        Long getEventId();
+
+        Long getComments();
+    }
 }
\ No newline at end of file
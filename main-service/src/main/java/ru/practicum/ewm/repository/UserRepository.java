@@ -1,7 +1,12 @@
 package ru.practicum.ewm.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.ewm.model.User;
 
 import java.util.List;
@@ -10,4 +15,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByIdIn(List<Long> ids, Pageable pageable);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.id = :id")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    boolean existsById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package ru.practicum.ewm.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.config.ExecutorConfig;
+import ru.practicum.ewm.dto.CategoryDto;
+import ru.practicum.ewm.mapper.CategoryMapper;
+import ru.practicum.ewm.repository.CategoryRepository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+public class CategoryCatalog {
+    private final CategoryRepository categoryRepository;
+    private final Duration maxAge;
+    private final Executor refreshExecutor;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+    // Not synchronized: a virtual thread waiting for the query inside a monitor would pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public CategoryCatalog(CategoryRepository categoryRepository,
+                           @Value("${ewm.categories.snapshot-max-age:5m}") Duration maxAge,
+                           @Qualifier(ExecutorConfig.CACHE_REFRESH_EXECUTOR) Executor refreshExecutor) {
+        this.categoryRepository = categoryRepository;
+        this.maxAge = maxAge;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    public List<CategoryDto> getCategories(int from, int size) {
+        return getPage(from, size).categories();
+    }
+
+    /**
+     * The page and the version it belongs to, both taken from the same snapshot.
+     */
+    public Page getPage(int from, int size) {
+        Snapshot current = current();
+        List<CategoryDto> categories = current.categories();
+
+        int offset = (from / size) * size;
+        if (offset >= categories.size()) {
+            return new Page(current.version(), Collections.emptyList());
+        }
+        return new Page(current.version(), categories.subList(offset, Math.min(offset + size, categories.size())));
+    }
+
+    public long getVersion() {
+        return current().version();
+    }
+
+    public void refresh() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    // A stale snapshot is served while the next one is built in the background
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return load(null);
+        }
+        if (current.isOlderThan(maxAge) && refreshing.compareAndSet(false, true)) {
+            try {
+                refreshExecutor.execute(() -> {
+                    try {
+                        load(current);
+                    } catch (RuntimeException e) {
+                        log.warn("Category catalog refresh failed, the stale snapshot stays", e);
+                    } finally {
+                        refreshing.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                refreshing.set(false);
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load(Snapshot stale) {
+        lock.lock();
+        try {
+            if (snapshot == stale) {
+                return rebuild();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Snapshot rebuild() {
+        lock.lock();
+        try {
+            List<CategoryDto> categories = categoryRepository.findAll(Sort.by("id")).stream()
+                    .map(CategoryMapper::toCategoryDto)
+                    .toList();
+
+            snapshot = new Snapshot(contentVersion(categories), categories, System.nanoTime());
+            log.debug("Category catalog rebuilt: version={}, size={}", snapshot.version(), categories.size());
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The version only changes with the categories themselves, so periodic rebuilds keep it and every instance
+     * derives the same one.
+     */
+    static long contentVersion(List<CategoryDto> categories) {
+        MessageDigest digest = sha256();
+        for (CategoryDto category : categories) {
+            digest.update((category.getId() + "\t" + category.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong() & Long.MAX_VALUE;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record Page(long version, List<CategoryDto> categories) {
+    }
+
+    private record Snapshot(long version, List<CategoryDto> categories, long builtAtNanos) {
+        boolean isOlderThan(Duration age) {
+            return System.nanoTime() - builtAtNanos > age.toNanos();
+        }
+    }
+}
@@ -10,6 +10,8 @@ public interface CategoryService {
 
     List<CategoryDto> getCategories(Integer from, Integer size);
 
+    CategoryCatalog.Page getCategoriesPage(Integer from, Integer size);
+
     CategoryDto getCategory(Long catId);
 
     CategoryDto updateCategory(Long catId, CategoryDto categoryDto);
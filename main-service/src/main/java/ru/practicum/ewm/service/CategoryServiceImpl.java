@@ -1,7 +1,6 @@
 package ru.practicum.ewm.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.dto.CategoryDto;
@@ -14,9 +13,7 @@ import ru.practicum.ewm.model.Category;
 import ru.practicum.ewm.repository.CategoryRepository;
 import ru.practicum.ewm.repository.EventRepository;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,46 +21,27 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final EventRepository eventRepository;
+    private final CategoryCatalog categoryCatalog;
 
     @Override
     @Transactional
     public CategoryDto createCategory(NewCategoryDto newCategoryDto) {
         Category category = CategoryMapper.toCategory(newCategoryDto);
         Category savedCategory = categoryRepository.save(category);
+        categoryCatalog.refresh();
         return CategoryMapper.toCategoryDto(savedCategory);
     }
 
     @Override
     public List<CategoryDto> getCategories(Integer from, Integer size) {
-        if (from == null) {
-            from = 0;
-        }
-        if (size == null) {
-            size = 10;
-        }
-
-        if (from < 0) {
-            throw new ValidationException("Parameter 'from' must be greater than or equal to 0");
-        }
-        if (size <= 0) {
-            throw new ValidationException("Parameter 'size' must be greater than 0");
-        }
-
-        int pageNumber = 0;
-        if (size > 0) {
-            pageNumber = from / size;
-        }
-
-        PageRequest page = PageRequest.of(pageNumber, size);
-        List<Category> categories = categoryRepository.findAll(page).getContent();
-
-        if (categories.isEmpty()) {
-            return Collections.emptyList();
-        }
+        validatePage(from, size);
+        return categoryCatalog.getCategories(from == null ? 0 : from, size == null ? 10 : size);
+    }
 
-        return categories.stream()
-                .map(CategoryMapper::toCategoryDto)
-                .collect(Collectors.toList());
+    @Override
+    public CategoryCatalog.Page getCategoriesPage(Integer from, Integer size) {
+        validatePage(from, size);
+        return categoryCatalog.getPage(from == null ? 0 : from, size == null ? 10 : size);
     }
 
     @Override
@@ -82,6 +60,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         category.setName(categoryDto.getName());
         Category updatedCategory = categoryRepository.save(category);
+        categoryCatalog.refresh();
         return CategoryMapper.toCategoryDto(updatedCategory);
     }
 
@@ -97,5 +76,15 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.deleteById(catId);
+        categoryCatalog.refresh();
+    }
+
+    private static void validatePage(Integer from, Integer size) {
+        if (from != null && from < 0) {
+            throw new ValidationException("Parameter 'from' must be greater than or equal to 0");
+        }
+        if (size != null && size <= 0) {
+            throw new ValidationException("Parameter 'size' must be greater than 0");
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package ru.practicum.ewm.service;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.ewm.repository.CommentRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@UtilityClass
+class CommentCounts {
+
+    /**
+     * Comment counts of the given events in one GROUP BY query; events without comments are left out.
+     */
+    Map<Long, Long> byEventIds(CommentRepository commentRepository, Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Long> comments = new HashMap<>();
+        for (CommentRepository.EventCommentCount count : commentRepository.countByEventIds(eventIds)) {
+            comments.put(count.getEventId(), count.getComments());
+        }
+        return comments;
+    }
+}
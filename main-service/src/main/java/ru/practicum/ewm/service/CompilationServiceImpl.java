@@ -1,5 +1,6 @@
 package ru.practicum.ewm.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -12,20 +13,25 @@ import ru.practicum.ewm.exception.ValidationException;
 import ru.practicum.ewm.mapper.CompilationMapper;
 import ru.practicum.ewm.model.Compilation;
 import ru.practicum.ewm.model.Event;
+import ru.practicum.ewm.repository.CommentRepository;
 import ru.practicum.ewm.repository.CompilationRepository;
 import ru.practicum.ewm.repository.EventRepository;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = "ewm.service", description = "Service method calls")
 public class CompilationServiceImpl implements CompilationService {
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
+    private final CommentRepository commentRepository;
     private final StatsService statsService;
 
     @Override
@@ -56,7 +62,7 @@ public class CompilationServiceImpl implements CompilationService {
             }
         }
 
-        return CompilationMapper.toCompilationDto(savedCompilation);
+        return CompilationMapper.toCompilationDto(savedCompilation, getCommentCounts(List.of(savedCompilation)));
     }
 
     @Override
@@ -101,7 +107,8 @@ public class CompilationServiceImpl implements CompilationService {
             }
         }
 
-        return CompilationMapper.toCompilationDto(updatedCompilation);
+        return CompilationMapper.toCompilationDto(updatedCompilation,
+                getCommentCounts(List.of(updatedCompilation)));
     }
 
     @Override
@@ -145,8 +152,9 @@ public class CompilationServiceImpl implements CompilationService {
             }
         });
 
+        final Map<Long, Long> comments = getCommentCounts(compilations);
         return compilations.stream()
-                .map(CompilationMapper::toCompilationDto)
+                .map(compilation -> CompilationMapper.toCompilationDto(compilation, comments))
                 .collect(Collectors.toList());
     }
 
@@ -167,6 +175,16 @@ public class CompilationServiceImpl implements CompilationService {
             }
         }
 
-        return CompilationMapper.toCompilationDto(compilation);
+        return CompilationMapper.toCompilationDto(compilation, getCommentCounts(List.of(compilation)));
+    }
+
+    // One GROUP BY query for the events of all given compilations
+    private Map<Long, Long> getCommentCounts(Collection<Compilation> compilations) {
+        Set<Long> eventIds = compilations.stream()
+                .filter(compilation -> compilation.getEvents() != null)
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .map(Event::getId)
+                .collect(Collectors.toSet());
+        return CommentCounts.byEventIds(commentRepository, eventIds);
     }
 }
\ No newline at end of file
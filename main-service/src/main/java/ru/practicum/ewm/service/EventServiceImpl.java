@@ -1,5 +1,6 @@
 package ru.practicum.ewm.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -12,6 +13,7 @@ import ru.practicum.ewm.exception.*;
 import ru.practicum.ewm.mapper.EventMapper;
 import ru.practicum.ewm.model.*;
 import ru.practicum.ewm.repository.CategoryRepository;
+import ru.practicum.ewm.repository.CommentRepository;
 import ru.practicum.ewm.repository.EventRepository;
 import ru.practicum.ewm.repository.EventSpecification;
 import ru.practicum.ewm.repository.UserRepository;
@@ -26,10 +28,12 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = "ewm.service", description = "Service method calls")
 public class EventServiceImpl implements EventService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final CommentRepository commentRepository;
     private final StatsService statsService;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -121,12 +125,14 @@ public class EventServiceImpl implements EventService {
         }
 
         final Map<Long, Long> finalViews = views;
+        final Map<Long, Long> comments = getCommentCounts(events);
 
         return events.stream()
                 .map(event -> {
                     EventFullDto dto = EventMapper.toEventFullDto(event);
                     if (dto != null) {
                         dto.setViews(finalViews.getOrDefault(event.getId(), 0L));
+                        dto.setComments(comments.getOrDefault(event.getId(), 0L));
                         dto.setConfirmedRequests(event.getConfirmedRequests() != null ?
                                 event.getConfirmedRequests().longValue() : 0L);
                     }
@@ -183,7 +189,9 @@ public class EventServiceImpl implements EventService {
         }
         updatedEvent.setViews(views);
 
-        return EventMapper.toEventFullDto(updatedEvent);
+        EventFullDto dto = EventMapper.toEventFullDto(updatedEvent);
+        dto.setComments(commentRepository.countByEventId(eventId));
+        return dto;
     }
 
     @Override
@@ -233,12 +241,14 @@ public class EventServiceImpl implements EventService {
         }
 
         final Map<Long, Long> finalViews = views;
+        final Map<Long, Long> comments = getCommentCounts(events);
 
         return events.stream()
                 .map(event -> {
                     EventShortDto dto = EventMapper.toEventShortDto(event);
                     if (dto != null) {
                         dto.setViews(finalViews.getOrDefault(event.getId(), 0L));
+                        dto.setComments(comments.getOrDefault(event.getId(), 0L));
                         dto.setConfirmedRequests(event.getConfirmedRequests() != null ?
                                 event.getConfirmedRequests().longValue() : 0L);
                     }
@@ -286,7 +296,9 @@ public class EventServiceImpl implements EventService {
         }
         event.setViews(views);
 
-        return EventMapper.toEventFullDto(event);
+        EventFullDto dto = EventMapper.toEventFullDto(event);
+        dto.setComments(commentRepository.countByEventId(eventId));
+        return dto;
     }
 
     @Override
@@ -330,7 +342,9 @@ public class EventServiceImpl implements EventService {
         }
         updatedEvent.setViews(views);
 
-        return EventMapper.toEventFullDto(updatedEvent);
+        EventFullDto dto = EventMapper.toEventFullDto(updatedEvent);
+        dto.setComments(commentRepository.countByEventId(eventId));
+        return dto;
     }
 
     @Override
@@ -442,11 +456,13 @@ public class EventServiceImpl implements EventService {
         }
 
         final Map<Long, Long> finalViews = views;
+        final Map<Long, Long> comments = getCommentCounts(events);
         List<EventShortDto> result = events.stream()
                 .map(event -> {
                     EventShortDto dto = EventMapper.toEventShortDto(event);
                     if (dto != null) {
                         dto.setViews(finalViews.getOrDefault(event.getId(), 0L));
+                        dto.setComments(comments.getOrDefault(event.getId(), 0L));
                         dto.setConfirmedRequests(event.getConfirmedRequests() != null ?
                                 event.getConfirmedRequests().longValue() : 0L);
                     }
@@ -461,7 +477,7 @@ public class EventServiceImpl implements EventService {
         }
 
         try {
-            statsService.saveHit("/events", ip);
+            statsService.saveHit("/events", ip, LocalDateTime.now());
         } catch (Exception ignored) {
         }
 
@@ -488,7 +504,7 @@ public class EventServiceImpl implements EventService {
         event.setViews(views);
 
         try {
-            statsService.saveHit("/events/" + eventId, ip);
+            statsService.saveHit("/events/" + eventId, ip, LocalDateTime.now());
         } catch (Exception e) {
             log.error("Failed to save hit in getEventPublic: {}", e.getMessage());
         }
@@ -496,9 +512,16 @@ public class EventServiceImpl implements EventService {
         EventFullDto dto = EventMapper.toEventFullDto(event);
         dto.setConfirmedRequests(event.getConfirmedRequests() != null ?
                 event.getConfirmedRequests().longValue() : 0L);
+        dto.setComments(commentRepository.countByEventId(eventId));
         return dto;
     }
 
+    private Map<Long, Long> getCommentCounts(List<Event> events) {
+        return CommentCounts.byEventIds(commentRepository, events.stream()
+                .map(Event::getId)
+                .collect(Collectors.toList()));
+    }
+
     private LocalDateTime parseDateTime(String dateTime) {
         if (dateTime == null || dateTime.trim().isEmpty()) {
             return null;
@@ -1,5 +1,6 @@
 package ru.practicum.ewm.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +23,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = "ewm.service", description = "Service method calls")
 public class RequestServiceImpl implements RequestService {
     private final ParticipationRequestRepository requestRepository;
     private final UserRepository userRepository;
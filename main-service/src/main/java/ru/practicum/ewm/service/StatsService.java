@@ -2,26 +2,36 @@ package ru.practicum.ewm.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import ru.practicum.ewm.config.ExecutorConfig;
 import ru.practicum.ewm.stat.client.StatsClient;
 import ru.practicum.ewm.stat.dto.EndpointHitDto;
-import ru.practicum.ewm.stat.dto.ViewStatsDto;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Hits are recorded fire-and-forget: {@link #saveHit} returns before stats-server has the hit, so a viewer may not
+ * see their own view counted on the next read, and under load a hit that finds the stats executor's queue full is
+ * dropped. Drops are only visible as the executor's {@code executor.rejected} counter.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class StatsService {
     private final StatsClient statsClient;
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final String APP_NAME = "ewm-main-service";
-
-    public void saveHit(String uri, String ip) {
-        EndpointHitDto hitDto = new EndpointHitDto(null, APP_NAME, uri, ip, LocalDateTime.now());
+    private static final String EVENT_URI_PREFIX = "/events/";
+
+    /**
+     * Sent off the request thread; the hit is dropped when the stats executor's queue is full.
+     *
+     * @param timestamp taken by the caller on the request thread, the executor may run the task much later
+     */
+    @Async(ExecutorConfig.STATS_EXECUTOR)
+    public void saveHit(String uri, String ip, LocalDateTime timestamp) {
+        EndpointHitDto hitDto = new EndpointHitDto(null, APP_NAME, uri, ip, timestamp);
         try {
             statsClient.hit(hitDto);
             log.debug("Statistics saved for URI: {}", uri);
@@ -35,37 +45,14 @@ public class StatsService {
             return new HashMap<>();
         }
 
-        List<String> uris = eventIds.stream()
-                .map(id -> "/events/" + id)
-                .collect(Collectors.toList());
-
         LocalDateTime start = LocalDateTime.now().minusYears(1);
         LocalDateTime end = LocalDateTime.now().plusDays(1);
 
         try {
-            List<ViewStatsDto> stats = statsClient.getStats(start, end, uris, true);
+            Map<Long, Long> hits = statsClient.getResourceStats(start, end, EVENT_URI_PREFIX, eventIds, true);
 
             Map<Long, Long> viewsMap = new HashMap<>();
-            eventIds.forEach(id -> viewsMap.put(id, 0L));
-
-            for (ViewStatsDto stat : stats) {
-                String uri = stat.getUri();
-                if (uri.startsWith("/events/")) {
-                    try {
-                        String idStr = uri.substring("/events/".length());
-                        Long eventId = Long.parseLong(idStr);
-                        if (eventIds.contains(eventId)) {
-                            Long currentViews = viewsMap.get(eventId);
-                            if (stat.getHits() > currentViews) {
-                                viewsMap.put(eventId, stat.getHits());
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        log.debug("Invalid event ID in URI: {}", uri);
-                    }
-                }
-            }
-
+            eventIds.forEach(id -> viewsMap.put(id, hits.getOrDefault(id, 0L)));
             return viewsMap;
         } catch (Exception e) {
             log.error("Failed to get views statistics: {}", e.getMessage());
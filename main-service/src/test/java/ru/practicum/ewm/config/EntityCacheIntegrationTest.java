@@ -0,0 +1,78 @@
+package ru.practicum.ewm.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.ewm.model.Category;
+import ru.practicum.ewm.model.User;
+import ru.practicum.ewm.repository.CategoryRepository;
+import ru.practicum.ewm.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityCacheIntegrationTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void categoryFindById_RepeatedLookup_ServedFromSecondLevelCache() {
+        Category category = categoryRepository.save(Category.builder().name("Cached category").build());
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        categoryRepository.findById(category.getId());
+        categoryRepository.findById(category.getId());
+
+        assertEquals(1, statistics.getSecondLevelCacheMissCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertTrue(entityManagerFactory.getCache().contains(Category.class, category.getId()));
+    }
+
+    @Test
+    void categoryUpdate_CachedEntry_IsInvalidated() {
+        Category category = categoryRepository.save(Category.builder().name("Before update").build());
+        categoryRepository.findById(category.getId());
+
+        category.setName("After update");
+        categoryRepository.save(category);
+
+        assertEquals("After update", categoryRepository.findById(category.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void userExistsById_RepeatedCheck_ServedFromQueryCacheUntilDelete() {
+        User user = userRepository.save(User.builder().name("Cached user").email("cached@example.com").build());
+
+        assertTrue(userRepository.existsById(user.getId()));
+        assertTrue(userRepository.existsById(user.getId()));
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        userRepository.deleteById(user.getId());
+
+        assertFalse(userRepository.existsById(user.getId()));
+        assertTrue(userRepository.findById(user.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.ewm.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.ewm.dto.CategoryDto;
+import ru.practicum.ewm.dto.CompilationDto;
+import ru.practicum.ewm.dto.EventShortDto;
+import ru.practicum.ewm.dto.UserShortDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJsonFragmentModuleTest {
+    private EventJsonFragmentModule module;
+    private ObjectMapper mapper;
+    private ObjectMapper plainMapper;
+
+    @BeforeEach
+    void setUp() {
+        module = new EventJsonFragmentModule(100);
+        mapper = new ObjectMapper().registerModule(new JavaTimeModule()).registerModule(module);
+        plainMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    @Test
+    void serialize_EventList_MatchesPlainJackson() throws Exception {
+        List<EventShortDto> events = List.of(event(1L, 10L), event(2L, 20L));
+
+        assertEquals(plainMapper.writeValueAsString(events), mapper.writeValueAsString(events));
+        assertEquals(2, module.getFragments().estimatedSize());
+    }
+
+    @Test
+    void serialize_UnchangedEvent_ReusesFragment() throws Exception {
+        mapper.writeValueAsString(List.of(event(1L, 10L)));
+        EventJsonFragmentModule.Fragment cached = module.getFragments().getIfPresent(1L);
+
+        mapper.writeValueAsString(List.of(event(1L, 10L)));
+
+        assertSame(cached, module.getFragments().getIfPresent(1L));
+    }
+
+    @Test
+    void serialize_ChangedViews_RendersNewFragment() throws Exception {
+        mapper.writeValueAsString(List.of(event(1L, 10L)));
+
+        String json = mapper.writeValueAsString(List.of(event(1L, 11L)));
+
+        assertTrue(json.contains("\"views\":11"));
+        assertEquals(event(1L, 11L), module.getFragments().getIfPresent(1L).source());
+    }
+
+    @Test
+    void serialize_NestedInCompilation_MatchesPlainJackson() throws Exception {
+        CompilationDto compilation = new CompilationDto(List.of(event(1L, 10L)), 5L, true, "Summer");
+
+        assertEquals(plainMapper.writeValueAsString(compilation), mapper.writeValueAsString(compilation));
+    }
+
+    @Test
+    void serialize_PrettyPrinted_MatchesPlainJacksonWithoutCaching() throws Exception {
+        mapper.writeValueAsString(List.of(event(1L, 10L)));
+        List<EventShortDto> events = List.of(event(1L, 10L), event(2L, 20L));
+
+        assertEquals(plainMapper.writerWithDefaultPrettyPrinter().writeValueAsString(events),
+                mapper.writerWithDefaultPrettyPrinter().writeValueAsString(events));
+        assertNull(module.getFragments().getIfPresent(2L));
+    }
+
+    @Test
+    void serialize_WithView_MatchesPlainJacksonWithoutCaching() throws Exception {
+        mapper.writeValueAsString(List.of(event(1L, 10L)));
+        List<EventShortDto> events = List.of(event(1L, 10L), event(2L, 20L));
+
+        assertEquals(plainMapper.writerWithView(Object.class).writeValueAsString(events),
+                mapper.writerWithView(Object.class).writeValueAsString(events));
+        assertNull(module.getFragments().getIfPresent(2L));
+    }
+
+    private EventShortDto event(Long id, Long views) {
+        return new EventShortDto(id, "Annotation " + id, new CategoryDto(1L, "Concerts"), 3L,
+                LocalDateTime.of(2030, 1, 1, 12, 0), new UserShortDto(7L, "Initiator"), false,
+                "Title тест", views, 0L);
+    }
+}
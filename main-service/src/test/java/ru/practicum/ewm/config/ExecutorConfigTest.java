@@ -0,0 +1,112 @@
+package ru.practicum.ewm.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorConfigTest {
+    private final ExecutorConfig config = new ExecutorConfig();
+    private final ExecutorProperties properties = new ExecutorProperties();
+    private final List<ThreadPoolTaskExecutor> executors = new ArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        meterRegistryProvider = new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry))
+                .getBeanProvider(MeterRegistry.class);
+        properties.setStats(new ExecutorProperties.Pool(1, 1, 1));
+        properties.setBackground(new ExecutorProperties.Pool(1, 1, 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executors.forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    @Test
+    void task_IsTimedInQueueAndWhileRunning() throws InterruptedException {
+        ThreadPoolTaskExecutor executor = start(config.backgroundExecutor(properties, meterRegistryProvider));
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute(done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get(ExecutorConfig.WAIT_METRIC)
+                .tag("name", ExecutorConfig.BACKGROUND_EXECUTOR).timer().count());
+        assertEquals(1, meterRegistry.get(ExecutorConfig.RUN_METRIC)
+                .tag("name", ExecutorConfig.BACKGROUND_EXECUTOR).timer().count());
+    }
+
+    @Test
+    void statsExecutor_FullQueue_DropsTaskWithoutFailingCaller() throws InterruptedException {
+        ThreadPoolTaskExecutor executor = start(config.statsExecutor(properties, meterRegistryProvider));
+        AtomicInteger ran = new AtomicInteger();
+
+        fill(executor, ran);
+        assertDoesNotThrow(() -> executor.execute(ran::incrementAndGet));
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(2, ran.get());
+        assertEquals(1, meterRegistry.get(ExecutorConfig.REJECTED_METRIC)
+                .tag("name", ExecutorConfig.STATS_EXECUTOR).counter().count());
+    }
+
+    @Test
+    void backgroundExecutor_FullQueue_RejectsTask() throws InterruptedException {
+        ThreadPoolTaskExecutor executor = start(config.backgroundExecutor(properties, meterRegistryProvider));
+
+        fill(executor, new AtomicInteger());
+
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> {
+        }));
+        assertEquals(1, meterRegistry.get(ExecutorConfig.REJECTED_METRIC)
+                .tag("name", ExecutorConfig.BACKGROUND_EXECUTOR).counter().count());
+    }
+
+    // One task running until released, one waiting in the queue
+    private void fill(ThreadPoolTaskExecutor executor, AtomicInteger ran) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ran.incrementAndGet();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(ran::incrementAndGet);
+        assertEquals(1, executor.getQueueSize());
+    }
+
+    private ThreadPoolTaskExecutor start(ThreadPoolTaskExecutor executor) {
+        executor.initialize();
+        executors.add(executor);
+        return executor;
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.ewm.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The test application.yml shadows the main one along with its management settings
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=prometheus")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void serviceCall_IsTimedByClassMethodAndException() throws Exception {
+        mockMvc.perform(get("/compilations")).andExpect(status().isOk());
+        mockMvc.perform(get("/events/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        assertTrue(meterRegistry.get("ewm.service")
+                .tags("class", "ru.practicum.ewm.service.CompilationServiceImpl", "method", "getCompilations",
+                        "exception", "none")
+                .timer().count() >= 1);
+        assertTrue(meterRegistry.get("ewm.service")
+                .tags("method", "getEventPublic", "exception", "NotFoundException")
+                .timer().count() >= 1);
+    }
+
+    @Test
+    void request_StatementsAreRecordedByUriTemplate() throws Exception {
+        mockMvc.perform(get("/events/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/events/{id}", Long.MAX_VALUE - 1)).andExpect(status().isNotFound());
+
+        var statements = meterRegistry.get("sql.statements.per.request")
+                .tags("method", "GET", "uri", "/events/{id}")
+                .summary();
+        assertTrue(statements.count() >= 2);
+        assertTrue(statements.totalAmount() >= 2);
+    }
+
+    @Test
+    void executors_ReportQueueAndThreads() {
+        for (String executor : new String[]{ExecutorConfig.STATS_EXECUTOR, ExecutorConfig.CACHE_REFRESH_EXECUTOR,
+                ExecutorConfig.BACKGROUND_EXECUTOR}) {
+            assertNotNull(meterRegistry.get("executor.queued").tag("name", executor).gauge());
+            assertNotNull(meterRegistry.get("executor.queue.remaining").tag("name", executor).gauge());
+            assertNotNull(meterRegistry.get("executor.active").tag("name", executor).gauge());
+        }
+    }
+
+    @Test
+    void prometheusEndpoint_ExposesCustomMeters() throws Exception {
+        mockMvc.perform(get("/compilations")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("ewm_service_seconds_count{")))
+                .andExpect(content().string(containsString("sql_statements_per_request_statements_count{")));
+    }
+}
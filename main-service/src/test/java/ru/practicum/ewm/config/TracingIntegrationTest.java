@@ -0,0 +1,147 @@
+package ru.practicum.ewm.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.ewm.model.*;
+import ru.practicum.ewm.repository.CategoryRepository;
+import ru.practicum.ewm.repository.EventRepository;
+import ru.practicum.ewm.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.tracing.sampling.probability=1.0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+@ActiveProfiles("test")
+class TracingIntegrationTest {
+    private static final Map<String, String> TRACEPARENTS = new ConcurrentHashMap<>();
+    private static final HttpServer STATS_SERVER = statsServer();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @DynamicPropertySource
+    static void statsServerUrl(DynamicPropertyRegistry registry) {
+        registry.add("stats.server.url", () -> "http://localhost:" + STATS_SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopStatsServer() {
+        STATS_SERVER.stop(0);
+    }
+
+    @Test
+    void publicRequest_PropagatesTraceToStatsServerAndRecordsRepositorySpans() throws Exception {
+        Long eventId = publishedEvent();
+
+        mockMvc.perform(get("/events/{id}", eventId)).andExpect(status().isOk());
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        SpanData request = spans.stream()
+                .filter(span -> span.getParentSpanContext().getSpanId().equals("0000000000000000"))
+                .filter(span -> span.getName().contains("/events/{id}"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No server span in " + spans));
+        String traceId = request.getTraceId();
+
+        String traceparent = TRACEPARENTS.get("/hit");
+        assertNotNull(traceparent, "The hit was sent without trace context");
+        assertEquals(traceId, traceparent.split("-")[1]);
+
+        assertTrue(spans.stream().anyMatch(span -> span.getTraceId().equals(traceId)
+                        && "EventRepository".equals(span.getAttributes().get(AttributeKey.stringKey("repository")))
+                        && "findById".equals(span.getAttributes().get(AttributeKey.stringKey("method")))),
+                () -> "No repository span in " + spans);
+    }
+
+    private Long publishedEvent() {
+        Category category = categoryRepository.save(Category.builder().name("Traced category").build());
+        User initiator = userRepository.save(User.builder().name("Traced user").email("traced@example.com").build());
+        return eventRepository.save(Event.builder()
+                .annotation("Traced event annotation")
+                .description("Traced event description")
+                .title("Traced event")
+                .category(category)
+                .initiator(initiator)
+                .eventDate(LocalDateTime.now().plusDays(7))
+                .createdOn(LocalDateTime.now())
+                .publishedOn(LocalDateTime.now())
+                .location(Location.builder().lat(55.75f).lon(37.62f).build())
+                .state(EventState.PUBLISHED)
+                .build()).getId();
+    }
+
+    private static HttpServer statsServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                String traceparent = exchange.getRequestHeaders().getFirst("traceparent");
+                if (traceparent != null) {
+                    TRACEPARENTS.put(exchange.getRequestURI().getPath(), traceparent);
+                }
+                exchange.getRequestBody().readAllBytes();
+                byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TestConfiguration
+    static class SpanExporterConfig {
+
+        @Bean
+        InMemorySpanExporter spanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
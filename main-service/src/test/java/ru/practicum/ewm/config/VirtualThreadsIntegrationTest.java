@@ -0,0 +1,42 @@
+package ru.practicum.ewm.config;
+
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+class VirtualThreadsIntegrationTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    // The executor @EnableAsync picks up
+    @Autowired
+    @Qualifier("taskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @Test
+    void requests_RunOnVirtualThreads() {
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+
+        assertInstanceOf(VirtualThreadExecutor.class,
+                webServer.getTomcat().getConnector().getProtocolHandler().getExecutor());
+    }
+
+    @Test
+    void asyncTasks_RunOnVirtualThreads() throws Exception {
+        assertTrue(taskExecutor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.ewm.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebMvcConfigTest {
+
+    @Test
+    void extendMessageConverters_Enabled_RegistersFragmentsOnConverterCopyOnly() {
+        ObjectMapper shared = new ObjectMapper();
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(shared);
+
+        new WebMvcConfig(true, 100).extendMessageConverters(List.<HttpMessageConverter<?>>of(converter));
+
+        assertNotSame(shared, converter.getObjectMapper());
+        assertTrue(converter.getObjectMapper().getRegisteredModuleIds().contains("EventJsonFragmentModule"));
+        assertFalse(shared.getRegisteredModuleIds().contains("EventJsonFragmentModule"));
+    }
+
+    @Test
+    void extendMessageConverters_Disabled_KeepsSharedMapper() {
+        ObjectMapper shared = new ObjectMapper();
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(shared);
+
+        new WebMvcConfig(false, 100).extendMessageConverters(List.<HttpMessageConverter<?>>of(converter));
+
+        assertSame(shared, converter.getObjectMapper());
+    }
+}
@@ -50,12 +50,12 @@ class AdminCompilationControllerTest {
         EventShortDto event1 = new EventShortDto(
                 1L, "Annotation 1", new CategoryDto(1L, "Concerts"),
                 50L, null, new UserShortDto(1L, "User1"),
-                true, "Event 1", 100L);
+                true, "Event 1", 100L, 0L);
 
         EventShortDto event2 = new EventShortDto(
                 2L, "Annotation 2", new CategoryDto(2L, "Theater"),
                 30L, null, new UserShortDto(2L, "User2"),
-                false, "Event 2", 200L);
+                false, "Event 2", 200L, 0L);
 
         compilationDto = new CompilationDto(
                 List.of(event1, event2),
@@ -62,7 +62,8 @@ class AdminEventControllerTest {
                 true,
                 EventState.PUBLISHED,
                 "Test Event Title",
-                1000L
+                1000L,
+                0L
         );
 
         updateRequest = new UpdateEventAdminRequest();
@@ -78,7 +78,8 @@ class PrivateEventControllerTest {
                 true,
                 EventState.PENDING,
                 "Test Event Title",
-                1000L
+                1000L,
+                0L
         );
 
         updateRequest = new UpdateEventUserRequest();
@@ -130,7 +131,8 @@ class PrivateEventControllerTest {
                         new UserShortDto(1L, "User"),
                         true,
                         "Event",
-                        100L
+                        100L,
+                        0L
                 )
         );
 
@@ -156,7 +158,8 @@ class PrivateEventControllerTest {
                         new UserShortDto(1L, "User"),
                         true,
                         "Event",
-                        100L
+                        100L,
+                        0L
                 )
         );
 
@@ -12,10 +12,12 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.ewm.config.StatsClientConfig;
 import ru.practicum.ewm.dto.CategoryDto;
+import ru.practicum.ewm.service.CategoryCatalog;
 import ru.practicum.ewm.service.CategoryService;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -47,7 +49,7 @@ class PublicCategoryControllerTest {
     void getCategories_ValidRequest_ReturnsCategories() throws Exception {
         List<CategoryDto> categories = List.of(categoryDto);
 
-        when(categoryService.getCategories(anyInt(), anyInt())).thenReturn(categories);
+        when(categoryService.getCategoriesPage(anyInt(), anyInt())).thenReturn(new CategoryCatalog.Page(1L, categories));
 
         mockMvc.perform(get("/categories")
                         .param("from", "0")
@@ -57,20 +59,20 @@ class PublicCategoryControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].name").value("Concerts"));
 
-        verify(categoryService, times(1)).getCategories(0, 10);
+        verify(categoryService, times(1)).getCategoriesPage(0, 10);
     }
 
     @Test
     void getCategories_WithoutParams_ReturnsCategories() throws Exception {
         List<CategoryDto> categories = List.of(categoryDto);
 
-        when(categoryService.getCategories(eq(0), eq(10))).thenReturn(categories);
+        when(categoryService.getCategoriesPage(eq(0), eq(10))).thenReturn(new CategoryCatalog.Page(1L, categories));
 
         mockMvc.perform(get("/categories"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1));
 
-        verify(categoryService, times(1)).getCategories(eq(0), eq(10));
+        verify(categoryService, times(1)).getCategoriesPage(eq(0), eq(10));
     }
 
     @Test
@@ -81,7 +83,7 @@ class PublicCategoryControllerTest {
                         .param("size", "0"))
                 .andExpect(status().isBadRequest());
 
-        verify(categoryService, never()).getCategories(anyInt(), anyInt());
+        verify(categoryService, never()).getCategoriesPage(anyInt(), anyInt());
     }
 
     @Test
@@ -92,6 +94,48 @@ class PublicCategoryControllerTest {
                         .param("size", "10"))
                 .andExpect(status().isBadRequest());
 
-        verify(categoryService, never()).getCategories(anyInt(), anyInt());
+        verify(categoryService, never()).getCategoriesPage(anyInt(), anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCategories_MatchingIfNoneMatch_ReturnsNotModified() throws Exception {
+        when(categoryService.getCategoriesPage(anyInt(), anyInt()))
+                .thenReturn(new CategoryCatalog.Page(42L, List.of(categoryDto)));
+
+        String eTag = mockMvc.perform(get("/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=60, public"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/categories").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(header().string("Cache-Control", "max-age=60, public"))
+                .andExpect(content().string(""));
+
+        when(categoryService.getCategoriesPage(anyInt(), anyInt()))
+                .thenReturn(new CategoryCatalog.Page(43L, List.of(categoryDto)));
+
+        mockMvc.perform(get("/categories").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Concerts"));
+    }
+
+    @Test
+    void getCategory_DifferentBodies_GetDifferentETags() throws Exception {
+        when(categoryService.getCategory(1L)).thenReturn(categoryDto);
+        when(categoryService.getCategory(2L)).thenReturn(new CategoryDto(1L, "Theater"));
+
+        String first = mockMvc.perform(get("/categories/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String second = mockMvc.perform(get("/categories/2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertTrue(first.matches("W/\"[0-9a-f]{32}\""), first);
+        assertNotEquals(first, second);
+        mockMvc.perform(get("/categories/1").header("If-None-Match", first))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -58,7 +58,8 @@ class PublicEventControllerTest {
                 userShortDto,
                 true,
                 "Test Event",
-                1000L
+                1000L,
+                0L
         );
 
         eventFullDto = new EventFullDto(
@@ -77,7 +78,8 @@ class PublicEventControllerTest {
                 true,
                 ru.practicum.ewm.model.EventState.PUBLISHED,
                 "Test Event",
-                1000L
+                1000L,
+                0L
         );
     }
 
@@ -522,4 +524,20 @@ class PublicEventControllerTest {
         mockMvc.perform(get("/events/1"))
                 .andExpect(status().isInternalServerError());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getEvent_MatchingIfNoneMatch_ReturnsNotModified() throws Exception {
+        when(eventService.getEventPublic(eq(1L), anyString())).thenReturn(eventFullDto);
+
+        String eTag = mockMvc.perform(get("/events/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/events/1").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(eventService, times(2)).getEventPublic(eq(1L), anyString());
+    }
+}
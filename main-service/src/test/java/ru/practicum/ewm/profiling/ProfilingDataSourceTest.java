@@ -0,0 +1,113 @@
+package ru.practicum.ewm.profiling;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingDataSourceTest {
+    private SqlProfiler profiler;
+    private ProfilingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        profiler = new SqlProfiler();
+        dataSource = new ProfilingDataSource(h2, profiler);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table items (id int primary key, name varchar(20))");
+        }
+    }
+
+    @Test
+    void profile_CountsStatementsRowsAndTime() {
+        SqlProfile profile = profiler.profile(() -> {
+            insert(1, 2, 3);
+            assertEquals(3, select("select id from items"));
+            assertEquals(1, select("select id from items where id = 2"));
+        });
+
+        // The batch is one round trip
+        assertEquals(3, profile.getStatements());
+        assertEquals(4, profile.getRows());
+        assertTrue(profile.getNanos() > 0);
+    }
+
+    @Test
+    void withoutProfile_NothingIsCounted() {
+        SqlProfile request = profiler.start();
+        try {
+            insert(1);
+            profiler.stop();
+            select("select id from items");
+        } finally {
+            profiler.stop();
+        }
+
+        assertEquals(1, request.getStatements());
+        assertEquals(0, request.getRows());
+    }
+
+    @Test
+    void nestedProfile_IsKeptApartFromEnclosingOne() {
+        SqlProfile request = profiler.start();
+        try {
+            insert(1);
+            SqlProfile nested = profiler.profile(() -> select("select id from items"));
+            select("select name from items");
+
+            assertEquals(1, nested.getStatements());
+            assertEquals(2, request.getStatements());
+        } finally {
+            profiler.stop();
+        }
+    }
+
+    @Test
+    void resultSet_ReturnsProxiedStatement() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select id from items");
+             ResultSet resultSet = statement.executeQuery()) {
+            assertSame(statement, resultSet.getStatement());
+            assertEquals(statement, statement);
+            assertNotEquals(statement, connection.prepareStatement("select id from items"));
+        }
+    }
+
+    private void insert(int... ids) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("insert into items values (?, ?)")) {
+            for (int id : ids) {
+                statement.setInt(1, id);
+                statement.setString(2, "item " + id);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int select(String sql) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            int rows = 0;
+            while (resultSet.next()) {
+                rows++;
+            }
+            return rows;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
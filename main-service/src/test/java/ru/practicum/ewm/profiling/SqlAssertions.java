@@ -0,0 +1,38 @@
+package ru.practicum.ewm.profiling;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Assertions on the JDBC work of a piece of code or of a MockMvc request, for catching N+1 selects in tests.
+ */
+@UtilityClass
+public class SqlAssertions {
+
+    public SqlProfile assertStatements(SqlProfiler profiler, int expected, Runnable action) {
+        SqlProfile profile = profiler.profile(action);
+        assertEquals(expected, profile.getStatements(), () -> "Unexpected number of statements: " + profile);
+        return profile;
+    }
+
+    public SqlProfile assertMaxStatements(SqlProfiler profiler, int max, Runnable action) {
+        SqlProfile profile = profiler.profile(action);
+        assertTrue(profile.getStatements() <= max, () -> "Expected at most " + max + " statements: " + profile);
+        return profile;
+    }
+
+    /**
+     * Reads the {@value SqlProfilingFilter#STATEMENTS_HEADER} header, so the context needs
+     * {@code ewm.sql-profiler.headers=true}.
+     */
+    public ResultMatcher maxStatements(int max) {
+        return result -> {
+            String statements = result.getResponse().getHeader(SqlProfilingFilter.STATEMENTS_HEADER);
+            assertNotNull(statements, "No " + SqlProfilingFilter.STATEMENTS_HEADER + " header, are headers enabled?");
+            assertTrue(Integer.parseInt(statements) <= max,
+                    () -> "Expected at most " + max + " statements, the request executed " + statements);
+        };
+    }
+}
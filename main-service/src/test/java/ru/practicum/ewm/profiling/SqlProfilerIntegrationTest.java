@@ -0,0 +1,82 @@
+package ru.practicum.ewm.profiling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.ewm.model.User;
+import ru.practicum.ewm.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.ewm.profiling.SqlAssertions.*;
+
+@SpringBootTest(properties = {
+        "ewm.sql-profiler.headers=true",
+        "ewm.sql-profiler.max-rows=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlProfilerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlProfiler sqlProfiler;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void repositoryCall_IsProfiledThroughHibernate() {
+        List<User> users = userRepository.saveAll(List.of(
+                User.builder().name("Profiled one").email("profiled1@example.com").build(),
+                User.builder().name("Profiled two").email("profiled2@example.com").build()));
+        List<Long> ids = users.stream().map(User::getId).toList();
+
+        SqlProfile profile = assertStatements(sqlProfiler, 1,
+                () -> assertEquals(2, userRepository.findAllById(ids).size()));
+
+        assertEquals(2, profile.getRows());
+    }
+
+    @Test
+    void request_ReportsProfileInHeaders() throws Exception {
+        mockMvc.perform(get("/compilations"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlProfilingFilter.ROWS_HEADER))
+                .andExpect(header().exists(SqlProfilingFilter.TIME_HEADER))
+                .andExpect(maxStatements(2));
+    }
+
+    @Test
+    void errorResponse_StillGetsHeaders() throws Exception {
+        mockMvc.perform(get("/events/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(header().exists(SqlProfilingFilter.STATEMENTS_HEADER));
+    }
+
+    @Test
+    void requestOverLimits_IsFlagged() throws Exception {
+        userRepository.saveAll(List.of(
+                User.builder().name("Flagged one").email("flagged1@example.com").build(),
+                User.builder().name("Flagged two").email("flagged2@example.com").build()));
+
+        mockMvc.perform(get("/admin/users")).andExpect(status().isOk());
+
+        assertEquals(1, meterRegistry.get("sql.requests.flagged")
+                .tags("method", "GET", "uri", "/admin/users")
+                .counter().count());
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.ewm.service;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.dto.CategoryDto;
+import ru.practicum.ewm.model.Category;
+import ru.practicum.ewm.repository.CategoryRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryCatalogTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private CategoryCatalog categoryCatalog;
+
+    @BeforeEach
+    void setUp() {
+        categoryCatalog = new CategoryCatalog(categoryRepository, Duration.ofMinutes(5), Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getCategories_RepeatedReads_LoadSnapshotOnce() {
+        when(categoryRepository.findAll(Sort.by("id"))).thenReturn(categories(5));
+
+        List<CategoryDto> first = categoryCatalog.getCategories(0, 2);
+        List<CategoryDto> second = categoryCatalog.getCategories(2, 2);
+        List<CategoryDto> last = categoryCatalog.getCategories(4, 2);
+
+        assertEquals(List.of(1L, 2L), ids(first));
+        assertEquals(List.of(3L, 4L), ids(second));
+        assertEquals(List.of(5L), ids(last));
+        verify(categoryRepository, times(1)).findAll(Sort.by("id"));
+    }
+
+    @Test
+    void getCategories_FromNotMultipleOfSize_UsesPageBoundary() {
+        when(categoryRepository.findAll(Sort.by("id"))).thenReturn(categories(5));
+
+        assertEquals(List.of(3L, 4L), ids(categoryCatalog.getCategories(3, 2)));
+        assertTrue(categoryCatalog.getCategories(10, 2).isEmpty());
+    }
+
+    @Test
+    void refresh_WithoutTransaction_RebuildsAndChangesVersion() {
+        when(categoryRepository.findAll(Sort.by("id"))).thenReturn(categories(1), categories(2));
+
+        long version = categoryCatalog.getVersion();
+        categoryCatalog.refresh();
+
+        assertNotEquals(version, categoryCatalog.getVersion());
+        assertEquals(2, categoryCatalog.getCategories(0, 10).size());
+    }
+
+    @Test
+    void refresh_SameCategories_KeepsVersion() {
+        when(categoryRepository.findAll(Sort.by("id"))).thenReturn(categories(2), categories(2));
+
+        long version = categoryCatalog.getVersion();
+        categoryCatalog.refresh();
+
+        assertEquals(version, categoryCatalog.getVersion());
+        verify(categoryRepository, times(2)).findAll(Sort.by("id"));
+    }
+
+    @Test
+    void contentVersion_DependsOnIdsAndNamesOnly() {
+        List<CategoryDto> categories = List.of(new CategoryDto(1L, "Concerts"), new CategoryDto(2L, "Theater"));
+
+        assertEquals(CategoryCatalog.contentVersion(categories),
+                CategoryCatalog.contentVersion(List.copyOf(categories)));
+        assertNotEquals(CategoryCatalog.contentVersion(categories),
+                CategoryCatalog.contentVersion(List.of(new CategoryDto(1L, "Concerts"),
+                        new CategoryDto(2L, "Theatre"))));
+        assertTrue(CategoryCatalog.contentVersion(categories) >= 0);
+    }
+
+    @Test
+    void refresh_InTransaction_RebuildsAfterCommit() {
+        when(categoryRepository.findAll(Sort.by("id"))).thenReturn(categories(1), categories(2));
+        long version = categoryCatalog.getVersion();
+
+        TransactionSynchronizationManager.initSynchronization();
+        categoryCatalog.refresh();
+
+        assertEquals(version, categoryCatalog.getVersion());
+        verify(categoryRepository, times(1)).findAll(Sort.by("id"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertNotEquals(version, categoryCatalog.getVersion());
+        assertEquals(2, categoryCatalog.getCategories(0, 10).size());
+    }
+
+    @Test
+    void getCategories_StaleSnapshot_IsServedWhileRebuiltInBackground() {
+        when(categoryRepository.findAll(Sort.by("id"))).thenReturn(categories(1), categories(2));
+        List<Runnable> refreshes = new ArrayList<>();
+        categoryCatalog = new CategoryCatalog(categoryRepository, Duration.ZERO, refreshes::add);
+
+        assertEquals(1, categoryCatalog.getCategories(0, 10).size());
+        assertEquals(1, categoryCatalog.getCategories(0, 10).size());
+        assertEquals(1, categoryCatalog.getCategories(0, 10).size());
+        assertEquals(1, refreshes.size());
+
+        refreshes.get(0).run();
+
+        assertEquals(2, categoryCatalog.getCategories(0, 10).size());
+        verify(categoryRepository, times(2)).findAll(Sort.by("id"));
+    }
+
+    @Test
+    void refresh_SlowQueryOnVirtualThread_DoesNotPinCarrier() throws Exception {
+        when(categoryRepository.findAll(Sort.by("id"))).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return categories(3);
+        });
+        // Class loading pins on its own, it is done before recording
+        onVirtualThread(() -> categoryCatalog.getCategories(0, 10));
+
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            Thread thread = onVirtualThread(categoryCatalog::refresh);
+            recording.stop();
+
+            Path dump = Files.createTempFile("pinning", ".jfr");
+            try {
+                recording.dump(dump);
+                List<RecordedEvent> pinned = RecordingFile.readAllEvents(dump).stream()
+                        .filter(event -> event.getThread().getJavaThreadId() == thread.threadId())
+                        .toList();
+                assertTrue(pinned.isEmpty(), pinned::toString);
+            } finally {
+                Files.delete(dump);
+            }
+        }
+        verify(categoryRepository, times(2)).findAll(Sort.by("id"));
+    }
+
+    private List<Category> categories(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> Category.builder().id(id).name("Category " + id).build())
+                .toList();
+    }
+
+    private static Thread onVirtualThread(Runnable task) throws InterruptedException {
+        Thread thread = Thread.ofVirtual().start(task);
+        thread.join();
+        return thread;
+    }
+
+    private List<Long> ids(List<CategoryDto> categories) {
+        return categories.stream().map(CategoryDto::getId).toList();
+    }
+}
@@ -5,9 +5,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import ru.practicum.ewm.dto.CategoryDto;
 import ru.practicum.ewm.dto.NewCategoryDto;
@@ -35,6 +32,9 @@ class CategoryServiceImplTest {
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private CategoryCatalog categoryCatalog;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -52,36 +52,34 @@ class CategoryServiceImplTest {
         assertEquals(1L, result.getId());
         assertEquals("Concerts", result.getName());
         verify(categoryRepository, times(1)).save(any(Category.class));
+        verify(categoryCatalog, times(1)).refresh();
     }
 
     @Test
     void getCategories_WithPagination_ReturnsCategories() {
-        Category category1 = Category.builder().id(1L).name("Concerts").build();
-        Category category2 = Category.builder().id(2L).name("Theater").build();
-        Page<Category> page = new PageImpl<>(List.of(category1, category2));
+        CategoryDto category1 = new CategoryDto(1L, "Concerts");
+        CategoryDto category2 = new CategoryDto(2L, "Theater");
 
-        when(categoryRepository.findAll(PageRequest.of(0, 10))).thenReturn(page);
+        when(categoryCatalog.getCategories(0, 10)).thenReturn(List.of(category1, category2));
 
         List<CategoryDto> result = categoryService.getCategories(0, 10);
 
         assertEquals(2, result.size());
         assertEquals("Concerts", result.get(0).getName());
         assertEquals("Theater", result.get(1).getName());
-        verify(categoryRepository, times(1)).findAll(PageRequest.of(0, 10));
+        verify(categoryCatalog, times(1)).getCategories(0, 10);
+        verifyNoInteractions(categoryRepository);
     }
 
     @Test
     void getCategories_WithNullParams_ReturnsCategories() {
-        Category category1 = Category.builder().id(1L).name("Concerts").build();
-        Page<Category> page = new PageImpl<>(List.of(category1));
-
-        when(categoryRepository.findAll(PageRequest.of(0, 10))).thenReturn(page);
+        when(categoryCatalog.getCategories(0, 10)).thenReturn(List.of(new CategoryDto(1L, "Concerts")));
 
         List<CategoryDto> result = categoryService.getCategories(null, null);
 
         assertEquals(1, result.size());
         assertEquals("Concerts", result.get(0).getName());
-        verify(categoryRepository, times(1)).findAll(PageRequest.of(0, 10));
+        verify(categoryCatalog, times(1)).getCategories(0, 10);
     }
 
     @Test
@@ -127,6 +125,7 @@ class CategoryServiceImplTest {
         assertEquals("Updated Concerts", result.getName());
         verify(categoryRepository, times(1)).findById(categoryId);
         verify(categoryRepository, times(1)).save(any(Category.class));
+        verify(categoryCatalog, times(1)).refresh();
     }
 
     @Test
@@ -141,6 +140,7 @@ class CategoryServiceImplTest {
         assertEquals("Category with id=999 was not found", exception.getMessage());
         verify(categoryRepository, times(1)).findById(categoryId);
         verify(categoryRepository, never()).save(any());
+        verify(categoryCatalog, never()).refresh();
     }
 
     @Test
@@ -155,6 +155,7 @@ class CategoryServiceImplTest {
         verify(categoryRepository, times(1)).existsById(categoryId);
         verify(eventRepository, times(1)).countByCategoryId(categoryId);
         verify(categoryRepository, times(1)).deleteById(categoryId);
+        verify(categoryCatalog, times(1)).refresh();
     }
 
     @Test
@@ -187,8 +188,7 @@ class CategoryServiceImplTest {
 
     @Test
     void getCategories_EmptyResult_ReturnsEmptyList() {
-        Page<Category> emptyPage = new PageImpl<>(List.of());
-        when(categoryRepository.findAll(PageRequest.of(0, 10))).thenReturn(emptyPage);
+        when(categoryCatalog.getCategories(0, 10)).thenReturn(List.of());
 
         List<CategoryDto> result = categoryService.getCategories(0, 10);
 
@@ -198,11 +198,10 @@ class CategoryServiceImplTest {
 
     @Test
     void getCategories_SecondPage_ReturnsCorrectResults() {
-        Category category3 = Category.builder().id(3L).name("Cinema").build();
-        Category category4 = Category.builder().id(4L).name("Sports").build();
-        Page<Category> page = new PageImpl<>(List.of(category3, category4));
+        CategoryDto category3 = new CategoryDto(3L, "Cinema");
+        CategoryDto category4 = new CategoryDto(4L, "Sports");
 
-        when(categoryRepository.findAll(PageRequest.of(1, 2))).thenReturn(page);
+        when(categoryCatalog.getCategories(2, 2)).thenReturn(List.of(category3, category4));
 
         List<CategoryDto> result = categoryService.getCategories(2, 2);
 
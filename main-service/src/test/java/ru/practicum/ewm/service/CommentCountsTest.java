@@ -0,0 +1,38 @@
+package ru.practicum.ewm.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.ewm.repository.CommentRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentCountsTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Test
+    void byEventIds_NoEvents_DoesNotQuery() {
+        assertEquals(Map.of(), CommentCounts.byEventIds(commentRepository, List.of()));
+
+        verify(commentRepository, never()).countByEventIds(anyCollection());
+    }
+
+    @Test
+    void byEventIds_WithEvents_MapsCountsByEventId() {
+        CommentRepository.EventCommentCount count = mock(CommentRepository.EventCommentCount.class);
+        when(count.getEventId()).thenReturn(1L);
+        when(count.getComments()).thenReturn(3L);
+        when(commentRepository.countByEventIds(List.of(1L, 2L))).thenReturn(List.of(count));
+
+        assertEquals(Map.of(1L, 3L), CommentCounts.byEventIds(commentRepository, List.of(1L, 2L)));
+    }
+}
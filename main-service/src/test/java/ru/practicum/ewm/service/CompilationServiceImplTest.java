@@ -16,6 +16,7 @@ import ru.practicum.ewm.exception.NotFoundException;
 import ru.practicum.ewm.mapper.CompilationMapper;
 import ru.practicum.ewm.model.Compilation;
 import ru.practicum.ewm.model.Event;
+import ru.practicum.ewm.repository.CommentRepository;
 import ru.practicum.ewm.repository.CompilationRepository;
 import ru.practicum.ewm.repository.EventRepository;
 
@@ -36,6 +37,9 @@ class CompilationServiceImplTest {
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private CommentRepository commentRepository;
+
     @Mock
     private StatsService statsService;
 
@@ -261,6 +265,42 @@ class CompilationServiceImplTest {
         verify(statsService, times(2)).getViews(anyList());
     }
 
+    @Test
+    void getCompilations_EventsInSeveralCompilations_CountsCommentsInOneQuery() {
+        Event event1 = Event.builder().id(1L).title("Event 1").build();
+        Event event2 = Event.builder().id(2L).title("Event 2").build();
+
+        Compilation compilation1 = Compilation.builder()
+                .id(1L)
+                .events(new HashSet<>(List.of(event1, event2)))
+                .pinned(true)
+                .title("Compilation 1")
+                .build();
+
+        Compilation compilation2 = Compilation.builder()
+                .id(2L)
+                .events(new HashSet<>(List.of(event2)))
+                .pinned(true)
+                .title("Compilation 2")
+                .build();
+
+        CommentRepository.EventCommentCount count = mock(CommentRepository.EventCommentCount.class);
+        when(count.getEventId()).thenReturn(2L);
+        when(count.getComments()).thenReturn(7L);
+
+        when(compilationRepository.findByPinned(true, PageRequest.of(0, 10)))
+                .thenReturn(List.of(compilation1, compilation2));
+        when(commentRepository.countByEventIds(Set.of(1L, 2L))).thenReturn(List.of(count));
+
+        List<CompilationDto> result = compilationService.getCompilations(true, 0, 10);
+
+        Map<Long, Long> comments = new HashMap<>();
+        result.get(0).getEvents().forEach(event -> comments.put(event.getId(), event.getComments()));
+        assertEquals(Map.of(1L, 0L, 2L, 7L), comments);
+        assertEquals(7L, result.get(1).getEvents().get(0).getComments());
+        verify(commentRepository, times(1)).countByEventIds(anyCollection());
+    }
+
     @Test
     void getCompilations_WithoutPinnedFilter_ReturnsAllCompilations() {
         Compilation compilation1 = Compilation.builder()
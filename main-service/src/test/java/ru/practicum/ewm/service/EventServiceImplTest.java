@@ -13,6 +13,7 @@ import ru.practicum.ewm.dto.*;
 import ru.practicum.ewm.exception.*;
 import ru.practicum.ewm.model.*;
 import ru.practicum.ewm.repository.CategoryRepository;
+import ru.practicum.ewm.repository.CommentRepository;
 import ru.practicum.ewm.repository.EventRepository;
 import ru.practicum.ewm.repository.UserRepository;
 
@@ -39,6 +40,9 @@ class EventServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CommentRepository commentRepository;
+
     @Mock
     private StatsService statsService;
 
@@ -51,7 +55,7 @@ class EventServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        reset(eventRepository, userRepository, categoryRepository, statsService);
+        reset(eventRepository, userRepository, categoryRepository, commentRepository, statsService);
     }
 
     @Test
@@ -205,7 +209,7 @@ class EventServiceImplTest {
         )).thenReturn(new PageImpl<>(List.of(event1, event2)));
 
         when(statsService.getViews(List.of(1L, 2L))).thenReturn(Map.of(1L, 100L, 2L, 200L));
-        doNothing().when(statsService).saveHit("/events", ip);
+        doNothing().when(statsService).saveHit(eq("/events"), eq(ip), any(LocalDateTime.class));
 
         List<EventShortDto> result = eventService.getEventsPublic(
                 text, categories, paid, null, null, false, "EVENT_DATE", from, size, ip);
@@ -214,7 +218,7 @@ class EventServiceImplTest {
         assertEquals("Test Event 1", result.get(0).getTitle());
         assertEquals("Test Event 2", result.get(1).getTitle());
 
-        verify(statsService, times(1)).saveHit("/events", ip);
+        verify(statsService, times(1)).saveHit(eq("/events"), eq(ip), any(LocalDateTime.class));
         verify(eventRepository, times(1))
                 .findAll(any(Specification.class), any(Pageable.class));
         verify(statsService, times(1)).getViews(List.of(1L, 2L));
@@ -247,7 +251,7 @@ class EventServiceImplTest {
         )).thenReturn(new PageImpl<>(List.of(event)));
 
         when(statsService.getViews(List.of(1L))).thenReturn(Map.of(1L, 100L));
-        doNothing().when(statsService).saveHit("/events", ip);
+        doNothing().when(statsService).saveHit(eq("/events"), eq(ip), any(LocalDateTime.class));
 
         List<EventShortDto> result = eventService.getEventsPublic(
                 "", List.of(), null, null, null, false, null, 0, 10, ip);
@@ -256,6 +260,45 @@ class EventServiceImplTest {
         assertEquals("Test Event", result.get(0).getTitle());
     }
 
+    @Test
+    void getEventsPublic_WithComments_CountsCommentsInSingleQuery() {
+        String ip = "192.168.1.1";
+
+        Event event1 = Event.builder()
+                .id(1L)
+                .title("Event 1")
+                .state(EventState.PUBLISHED)
+                .eventDate(futureDate)
+                .participantLimit(0)
+                .confirmedRequests(0)
+                .build();
+
+        Event event2 = Event.builder()
+                .id(2L)
+                .title("Event 2")
+                .state(EventState.PUBLISHED)
+                .eventDate(futureDate.plusHours(1))
+                .participantLimit(0)
+                .confirmedRequests(0)
+                .build();
+
+        when(eventRepository.findAll(
+                any(Specification.class),
+                any(Pageable.class)
+        )).thenReturn(new PageImpl<>(List.of(event1, event2)));
+        when(statsService.getViews(List.of(1L, 2L))).thenReturn(Map.of());
+        when(commentRepository.countByEventIds(List.of(1L, 2L)))
+                .thenReturn(List.of(commentCount(1L, 3L)));
+
+        List<EventShortDto> result = eventService.getEventsPublic(
+                null, null, null, null, null, false, null, 0, 10, ip);
+
+        assertEquals(3L, result.get(0).getComments());
+        assertEquals(0L, result.get(1).getComments());
+        verify(commentRepository, times(1)).countByEventIds(List.of(1L, 2L));
+        verify(commentRepository, never()).countByEventId(any());
+    }
+
     @Test
     void getEventsPublic_InvalidSortParameter_ThrowsValidationException() {
         String ip = "192.168.1.1";
@@ -335,7 +378,7 @@ class EventServiceImplTest {
         )).thenReturn(new PageImpl<>(List.of(event1, event2)));
 
         when(statsService.getViews(List.of(1L, 2L))).thenReturn(Map.of(1L, 100L, 2L, 200L));
-        doNothing().when(statsService).saveHit("/events", ip);
+        doNothing().when(statsService).saveHit(eq("/events"), eq(ip), any(LocalDateTime.class));
 
         List<EventShortDto> result = eventService.getEventsPublic(
                 null, null, null, null, null, true, null, 0, 10, ip);
@@ -385,7 +428,7 @@ class EventServiceImplTest {
         )).thenReturn(new PageImpl<>(List.of(event1, event2)));
 
         when(statsService.getViews(List.of(1L, 2L))).thenReturn(Map.of(1L, 100L, 2L, 200L));
-        doNothing().when(statsService).saveHit("/events", ip);
+        doNothing().when(statsService).saveHit(eq("/events"), eq(ip), any(LocalDateTime.class));
 
         List<EventShortDto> result = eventService.getEventsPublic(
                 null, null, null, null, null, false, "VIEWS", 0, 10, ip);
@@ -488,15 +531,18 @@ class EventServiceImplTest {
 
         when(eventRepository.findById(eventId)).thenReturn(Optional.of(event));
         when(statsService.getViews(List.of(eventId))).thenReturn(Map.of(eventId, 100L));
-        doNothing().when(statsService).saveHit("/events/" + eventId, ip);
+        doNothing().when(statsService).saveHit(eq("/events/" + eventId), eq(ip), any(LocalDateTime.class));
+
+        when(commentRepository.countByEventId(eventId)).thenReturn(4L);
 
         EventFullDto result = eventService.getEventPublic(eventId, ip);
 
         assertNotNull(result);
         assertEquals(eventId, result.getId());
+        assertEquals(4L, result.getComments());
         verify(eventRepository, times(1)).findById(eventId);
         verify(statsService, times(1)).getViews(List.of(eventId));
-        verify(statsService, times(1)).saveHit("/events/" + eventId, ip);
+        verify(statsService, times(1)).saveHit(eq("/events/" + eventId), eq(ip), any(LocalDateTime.class));
     }
 
     @Test
@@ -891,4 +937,18 @@ class EventServiceImplTest {
         assertEquals(1, result.size());
         assertEquals("Filtered Event", result.get(0).getTitle());
     }
+
+    private CommentRepository.EventCommentCount commentCount(Long eventId, Long comments) {
+        return new CommentRepository.EventCommentCount() {
+            @Override
+            public Long getEventId() {
+                return eventId;
+            }
+
+            @Override
+            public Long getComments() {
+                return comments;
+            }
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package ru.practicum.ewm.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import ru.practicum.ewm.config.ApplicationConfig;
+import ru.practicum.ewm.config.ExecutorConfig;
+import ru.practicum.ewm.stat.client.StatsClient;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pins the fire-and-forget contract of {@link StatsService#saveHit}: the caller never waits for stats-server, and
+ * a hit that finds the stats executor full is dropped.
+ */
+@SpringJUnitConfig({ApplicationConfig.class, ExecutorConfig.class, StatsService.class})
+@TestPropertySource(properties = {
+        "ewm.executors.stats.core-size=1",
+        "ewm.executors.stats.max-size=1",
+        "ewm.executors.stats.queue-capacity=1"
+})
+class StatsServiceAsyncTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @MockBean
+    private StatsClient statsClient;
+
+    @Autowired
+    private StatsService statsService;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void saveHit_ExecutorFull_DropsHitWithoutBlockingCaller() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(statsClient).hit(argThat(hit -> hit.getUri().equals("/events/1")));
+        LocalDateTime now = LocalDateTime.now();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            statsService.saveHit("/events/1", "10.0.0.1", now);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // One hit in the queue, the next one finds it full
+            statsService.saveHit("/events/2", "10.0.0.1", now);
+            statsService.saveHit("/events/3", "10.0.0.1", now);
+        });
+        release.countDown();
+
+        verify(statsClient, timeout(5_000)).hit(argThat(hit -> hit.getUri().equals("/events/2")));
+        verify(statsClient, after(200).never()).hit(argThat(hit -> hit.getUri().equals("/events/3")));
+    }
+}
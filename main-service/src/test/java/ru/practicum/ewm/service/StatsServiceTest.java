@@ -8,7 +8,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.ActiveProfiles;
 import ru.practicum.ewm.stat.client.StatsClient;
 import ru.practicum.ewm.stat.dto.EndpointHitDto;
-import ru.practicum.ewm.stat.dto.ViewStatsDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -37,13 +36,13 @@ class StatsServiceTest {
 
         doNothing().when(statsClient).hit(any(EndpointHitDto.class));
 
-        statsService.saveHit(uri, ip);
+        statsService.saveHit(uri, ip, now);
 
         verify(statsClient, times(1)).hit(argThat(dto ->
                 dto.getApp().equals("ewm-main-service") &&
                         dto.getUri().equals(uri) &&
                         dto.getIp().equals(ip) &&
-                        dto.getTimestamp() != null
+                        dto.getTimestamp().equals(now)
         ));
     }
 
@@ -54,23 +53,17 @@ class StatsServiceTest {
 
         doThrow(new RuntimeException("Network error")).when(statsClient).hit(any());
 
-        assertDoesNotThrow(() -> statsService.saveHit(uri, ip));
+        assertDoesNotThrow(() -> statsService.saveHit(uri, ip, now));
         verify(statsClient, times(1)).hit(any());
     }
 
     @Test
     void getViews_WithEventIds_ReturnsViewsMap() {
         List<Long> eventIds = List.of(1L, 2L, 3L);
-        List<String> expectedUris = List.of("/events/1", "/events/2", "/events/3");
 
-        List<ViewStatsDto> stats = List.of(
-                new ViewStatsDto("ewm-main-service", "/events/1", 100L),
-                new ViewStatsDto("ewm-main-service", "/events/2", 200L),
-                new ViewStatsDto("ewm-main-service", "/events/3", 300L)
-        );
-
-        when(statsClient.getStats(any(LocalDateTime.class), any(LocalDateTime.class), eq(expectedUris), eq(true)))
-                .thenReturn(stats);
+        when(statsClient.getResourceStats(any(LocalDateTime.class), any(LocalDateTime.class), eq("/events/"),
+                eq(eventIds), eq(true)))
+                .thenReturn(Map.of(1L, 100L, 2L, 200L, 3L, 300L));
 
         Map<Long, Long> views = statsService.getViews(eventIds);
 
@@ -79,7 +72,7 @@ class StatsServiceTest {
         assertEquals(100L, views.get(1L));
         assertEquals(200L, views.get(2L));
         assertEquals(300L, views.get(3L));
-        verify(statsClient, times(1)).getStats(any(), any(), eq(expectedUris), eq(true));
+        verify(statsClient, times(1)).getResourceStats(any(), any(), eq("/events/"), eq(eventIds), eq(true));
     }
 
     @Test
@@ -90,7 +83,7 @@ class StatsServiceTest {
 
         assertNotNull(views);
         assertTrue(views.isEmpty());
-        verify(statsClient, never()).getStats(any(), any(), any(), any());
+        verify(statsClient, never()).getResourceStats(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -99,90 +92,46 @@ class StatsServiceTest {
 
         assertNotNull(views);
         assertTrue(views.isEmpty());
-        verify(statsClient, never()).getStats(any(), any(), any(), any());
+        verify(statsClient, never()).getResourceStats(any(), any(), any(), any(), any());
     }
 
     @Test
     void getViews_StatsClientThrowsException_ReturnsEmptyMap() {
         List<Long> eventIds = List.of(1L, 2L);
 
-        when(statsClient.getStats(any(), any(), any(), any()))
+        when(statsClient.getResourceStats(any(), any(), any(), any(), any()))
                 .thenThrow(new RuntimeException("Network error"));
 
         Map<Long, Long> views = statsService.getViews(eventIds);
 
         assertNotNull(views);
         assertTrue(views.isEmpty());
-        verify(statsClient, times(1)).getStats(any(), any(), any(), any());
-    }
-
-    @Test
-    void getViews_InvalidUriInResponse_HandlesGracefully() {
-        List<Long> eventIds = List.of(1L);
-
-        List<ViewStatsDto> stats = List.of(
-                new ViewStatsDto("ewm-main-service", "invalid-uri", 100L),
-                new ViewStatsDto("ewm-main-service", "/events/1", 200L)
-        );
-
-        when(statsClient.getStats(any(), any(), any(), any())).thenReturn(stats);
-
-        Map<Long, Long> views = statsService.getViews(eventIds);
-
-        assertEquals(1, views.size());
-        assertEquals(200L, views.get(1L));
+        verify(statsClient, times(1)).getResourceStats(any(), any(), any(), any(), any());
     }
 
     @Test
-    void getViews_EventIdParsingError_HandlesGracefully() {
-        List<Long> eventIds = List.of(1L);
-
-        List<ViewStatsDto> stats = List.of(
-                new ViewStatsDto("ewm-main-service", "/events/not-a-number", 100L)
-        );
+    void getViews_EventsWithoutHits_ReturnZero() {
+        List<Long> eventIds = List.of(1L, 2L, 3L);
 
-        when(statsClient.getStats(any(), any(), any(), any())).thenReturn(stats);
+        when(statsClient.getResourceStats(any(), any(), any(), any(), any())).thenReturn(Map.of(2L, 200L));
 
         Map<Long, Long> views = statsService.getViews(eventIds);
 
-        assertEquals(1, views.size());
+        assertEquals(3, views.size());
         assertEquals(0L, views.get(1L));
+        assertEquals(200L, views.get(2L));
+        assertEquals(0L, views.get(3L));
     }
 
     @Test
-    void getViews_UriWithoutEventId_HandlesGracefully() {
+    void getViews_UnrequestedIdsInResponse_AreIgnored() {
         List<Long> eventIds = List.of(1L);
 
-        List<ViewStatsDto> stats = List.of(
-                new ViewStatsDto("ewm-main-service", "/events/", 100L)
-        );
-
-        when(statsClient.getStats(any(), any(), any(), any())).thenReturn(stats);
+        when(statsClient.getResourceStats(any(), any(), any(), any(), any())).thenReturn(Map.of(1L, 100L, 99L, 5L));
 
         Map<Long, Long> views = statsService.getViews(eventIds);
 
-        assertEquals(1, views.size());
-        assertEquals(0L, views.get(1L));
-    }
-
-    @Test
-    void getViews_MultipleEventsSameUri_ReturnsCorrectCounts() {
-        List<Long> eventIds = List.of(1L, 2L, 3L);
-
-        List<ViewStatsDto> stats = List.of(
-                new ViewStatsDto("ewm-main-service", "/events/1", 100L),
-                new ViewStatsDto("ewm-main-service", "/events/1", 50L),
-                new ViewStatsDto("ewm-main-service", "/events/2", 200L)
-        );
-
-        when(statsClient.getStats(any(), any(), any(), any())).thenReturn(stats);
-
-        Map<Long, Long> views = statsService.getViews(eventIds);
-
-        assertEquals(3, views.size());
-        assertEquals(100L, views.get(1L));
-        assertEquals(200L, views.get(2L));
-        assertEquals(0L, views.get(3L));
+        assertEquals(Map.of(1L, 100L), views);
     }
 
     @Test
@@ -193,8 +142,8 @@ class StatsServiceTest {
 
         doNothing().when(statsClient).hit(any(EndpointHitDto.class));
 
-        statsService.saveHit(uri1, ip);
-        statsService.saveHit(uri2, ip);
+        statsService.saveHit(uri1, ip, now);
+        statsService.saveHit(uri2, ip, now);
 
         verify(statsClient, times(2)).hit(any());
         verify(statsClient).hit(argThat(dto -> dto.getUri().equals("/events")));
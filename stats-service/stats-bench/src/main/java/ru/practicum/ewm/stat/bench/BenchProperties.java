@@ -0,0 +1,46 @@
+package ru.practicum.ewm.stat.bench;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Options of {@link StatsLoadSuite}, passed as {@code --bench.*} arguments.
+ */
+@Data
+public class BenchProperties {
+    /**
+     * Table sizes to measure at, ascending; endpoint_hits is topped up with generated hits to each of them.
+     */
+    private List<Long> sizes = List.of(1_000_000L);
+    private int apps = 1;
+    private int uris = 10_000;
+    /**
+     * Zipf exponent of uri popularity, 0 for uniform.
+     */
+    private double zipf = 1.0;
+    /**
+     * Distinct client ips, at most 2^24 (10.0.0.0/8).
+     */
+    private int ips = 100_000;
+    /**
+     * Generated hits are spread over this period before now.
+     */
+    private Duration span = Duration.ofDays(90);
+    private long seed = 42;
+
+    private int loadThreads = 4;
+    private int batchSize = 1_000;
+
+    /**
+     * Concurrent clients of each measured request.
+     */
+    private int threads = 8;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(30);
+    private int queryUris = 10;
+    private Duration queryWindow = Duration.ofDays(30);
+
+    private String output = "stats-bench.csv";
+}
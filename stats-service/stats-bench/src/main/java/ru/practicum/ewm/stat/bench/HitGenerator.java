@@ -0,0 +1,77 @@
+package ru.practicum.ewm.stat.bench;
+
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic hits: {@code /events/{rank}} uris of Zipf popularity, ips drawn uniformly from a fixed set and
+ * timestamps uniformly spread over the span before {@code now}. Not thread-safe, every thread takes its own
+ * {@link #split() split}.
+ */
+public class HitGenerator {
+    private final BenchProperties properties;
+    private final ZipfDistribution uris;
+    private final LocalDateTime now;
+    private final SplittableRandom random;
+
+    public HitGenerator(BenchProperties properties, LocalDateTime now) {
+        this(properties, new ZipfDistribution(properties.getUris(), properties.getZipf()), now,
+                new SplittableRandom(properties.getSeed()));
+    }
+
+    private HitGenerator(BenchProperties properties, ZipfDistribution uris, LocalDateTime now,
+                         SplittableRandom random) {
+        this.properties = properties;
+        this.uris = uris;
+        this.now = now;
+        this.random = random;
+    }
+
+    public HitGenerator split() {
+        return new HitGenerator(properties, uris, now, random.split());
+    }
+
+    public EndpointHitDto next() {
+        return new EndpointHitDto(null, app(), uri(), ip(),
+                now.minusSeconds(random.nextLong(properties.getSpan().toSeconds())));
+    }
+
+    public List<EndpointHitDto> next(int count) {
+        List<EndpointHitDto> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hits.add(next());
+        }
+        return hits;
+    }
+
+    /**
+     * Uris to query, picked by the same popularity as the hits, so popular uris are asked for more often.
+     */
+    public List<String> queryUris(int count) {
+        List<String> picked = new ArrayList<>(count);
+        while (picked.size() < Math.min(count, uris.size())) {
+            String uri = uri();
+            if (!picked.contains(uri)) {
+                picked.add(uri);
+            }
+        }
+        return picked;
+    }
+
+    private String app() {
+        return properties.getApps() == 1 ? "ewm-main-service" : "app-" + random.nextInt(properties.getApps());
+    }
+
+    private String uri() {
+        return "/events/" + (uris.sample(random) + 1);
+    }
+
+    private String ip() {
+        int ip = random.nextInt(properties.getIps());
+        return "10." + (ip >>> 16 & 0xFF) + "." + (ip >>> 8 & 0xFF) + "." + (ip & 0xFF);
+    }
+}
@@ -0,0 +1,230 @@
+package ru.practicum.ewm.stat.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.ewm.stat.StatsServer;
+import ru.practicum.ewm.stat.repository.StatsRepository;
+import ru.practicum.ewm.stat.service.StatsService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Load suite of stats-server against a local PostgreSQL.
+ * <p>
+ * Starts the server in-process with the prod profile, then for every size of {@code bench.sizes} tops
+ * endpoint_hits up to that size with generated hits (reporting rows/sec) and measures POST /hit and
+ * GET /stats without and with unique over HTTP, reporting throughput and latency percentiles. Every row of the
+ * report is also appended to {@code bench.output} as CSV. Arguments are {@link BenchProperties} as
+ * {@code --bench.*} and any server property, e.g. {@code --spring.datasource.url=...}
+ * or {@code --stats.counters.enabled=false} to measure queries without the in-memory counters.
+ */
+public class StatsLoadSuite {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String CSV_HEADER = "rows,uris,zipf,ips,phase,requests,errors,per_second,"
+            + "p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    private final BenchProperties properties;
+    private final StatsService statsService;
+    private final StatsRepository statsRepository;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final HitGenerator generator;
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    StatsLoadSuite(BenchProperties properties, ConfigurableApplicationContext context) {
+        this.properties = properties;
+        this.statsService = context.getBean(StatsService.class);
+        this.statsRepository = context.getBean(StatsRepository.class);
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        this.generator = new HitGenerator(properties, LocalDateTime.now());
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(List.of("--spring.profiles.active=prod,bench"));
+        arguments.addAll(List.of(args));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StatsServer.class)
+                .run(arguments.toArray(String[]::new))) {
+            BenchProperties properties = Binder.get(context.getEnvironment())
+                    .bindOrCreate("bench", BenchProperties.class);
+            new StatsLoadSuite(properties, context).run();
+        }
+    }
+
+    void run() throws Exception {
+        if (Files.notExists(Path.of(properties.getOutput()))) {
+            report(CSV_HEADER);
+        }
+        for (long size : properties.getSizes()) {
+            long rows = load(size);
+            measure(rows, "hit", this::hit);
+            measure(rows, "stats", random -> stats(random, false));
+            measure(rows, "stats_unique", random -> stats(random, true));
+        }
+    }
+
+    /**
+     * Adds generated hits until the table has {@code size} rows, so consecutive runs grow the same table.
+     */
+    private long load(long size) throws InterruptedException {
+        long existing = statsRepository.count();
+        long missing = size - existing;
+        if (missing <= 0) {
+            System.out.printf("endpoint_hits already has %,d rows%n", existing);
+            return existing;
+        }
+
+        System.out.printf("Loading %,d hits into endpoint_hits (%,d rows)%n", missing, existing);
+        AtomicLong remaining = new AtomicLong(missing);
+        ExecutorService loaders = Executors.newFixedThreadPool(properties.getLoadThreads());
+        List<Future<?>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int i = 0; i < properties.getLoadThreads(); i++) {
+            HitGenerator hits = generator.split();
+            futures.add(loaders.submit(() -> {
+                long claimed;
+                while ((claimed = Math.min(properties.getBatchSize(),
+                        remaining.getAndAdd(-properties.getBatchSize()))) > 0) {
+                    statsService.saveHits(hits.next((int) claimed));
+                }
+            }));
+        }
+        loaders.shutdown();
+        while (!loaders.awaitTermination(10, TimeUnit.SECONDS)) {
+            long loaded = missing - Math.max(remaining.get(), 0);
+            System.out.printf("  %,d rows, %,.0f rows/s%n", loaded, loaded / seconds(started));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Loading hits failed", e.getCause());
+            }
+        }
+
+        double perSecond = missing / seconds(started);
+        System.out.printf("Loaded %,d hits in %.1f s, %,.0f rows/s%n", missing, seconds(started), perSecond);
+        report(String.format("%d,%d,%s,%d,load,%d,0,%.1f,,,,,", size, properties.getUris(), properties.getZipf(),
+                properties.getIps(), missing, perSecond));
+        return size;
+    }
+
+    /**
+     * Closed loop: {@code bench.threads} clients send requests back to back for the warmup, which is not
+     * recorded, and then for {@code bench.duration}.
+     */
+    private void measure(long rows, String phase, Function<HitGenerator, HttpRequest> requests)
+            throws InterruptedException {
+        Recorder recorder = new Recorder(3);
+        AtomicLong errors = new AtomicLong();
+        long recordFrom = System.nanoTime() + properties.getWarmup().toNanos();
+        long end = recordFrom + properties.getDuration().toNanos();
+
+        ExecutorService clients = Executors.newFixedThreadPool(properties.getThreads());
+        for (int i = 0; i < properties.getThreads(); i++) {
+            HitGenerator random = generator.split();
+            clients.execute(() -> {
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    int status = send(requests.apply(random));
+                    long finished = System.nanoTime();
+                    if (now >= recordFrom) {
+                        recorder.recordValue(finished - now);
+                        if (status >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(properties.getWarmup().plus(properties.getDuration()).toSeconds() + 60,
+                TimeUnit.SECONDS);
+
+        Histogram histogram = recorder.getIntervalHistogram();
+        double perSecond = histogram.getTotalCount() / (properties.getDuration().toNanos() / 1e9);
+        System.out.printf("%-12s %,12d rows  %,10.0f req/s  p50 %7.2f  p90 %7.2f  p99 %7.2f  p99.9 %7.2f  "
+                        + "max %7.2f ms  errors %d%n", phase, rows, perSecond, millis(histogram, 50),
+                millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1e6, errors.get());
+        report(String.format("%d,%d,%s,%d,%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f", rows, properties.getUris(),
+                properties.getZipf(), properties.getIps(), phase, histogram.getTotalCount(), errors.get(), perSecond,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1e6));
+    }
+
+    private HttpRequest hit(HitGenerator random) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/hit"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(random.next())))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest stats(HitGenerator random, boolean unique) {
+        LocalDateTime end = LocalDateTime.now();
+        LocalDateTime start = end.minus(properties.getQueryWindow());
+        String query = "start=" + encode(start.format(FORMATTER)) + "&end=" + encode(end.format(FORMATTER))
+                + "&uris=" + encode(String.join(",", random.queryUris(properties.getQueryUris())))
+                + "&unique=" + unique;
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/stats?" + query)).GET().build();
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return 599;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 599;
+        }
+    }
+
+    private void report(String line) {
+        try {
+            Files.writeString(Path.of(properties.getOutput()), line + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static double seconds(long startedNanos) {
+        return Math.max(System.nanoTime() - startedNanos, 1) / 1e9;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.ewm.stat.bench;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent, sampled by binary search over the
+ * cumulative weights. Immutable, so one instance can be shared between threads.
+ */
+public final class ZipfDistribution {
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0 || exponent < 0) {
+            throw new IllegalArgumentException("Size must be positive and exponent non-negative");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += Math.pow(i + 1, -exponent);
+            cumulative[i] = sum;
+        }
+    }
+
+    public int sample(RandomGenerator random) {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+        return rank < 0 ? -rank - 1 : rank;
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
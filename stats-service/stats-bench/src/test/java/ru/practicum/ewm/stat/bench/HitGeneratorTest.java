@@ -0,0 +1,84 @@
+package ru.practicum.ewm.stat.bench;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HitGeneratorTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 15, 12, 0);
+
+    @Test
+    void shouldFollowZipfPopularity() {
+        ZipfDistribution zipf = new ZipfDistribution(1_000, 1.0);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[zipf.size()];
+        for (int i = 0; i < 1_000_000; i++) {
+            counts[zipf.sample(random)]++;
+        }
+
+        // Rank r is expected 1 / (r + 1) as often as rank 0
+        assertEquals(2.0, (double) counts[0] / counts[1], 0.1);
+        assertEquals(10.0, (double) counts[0] / counts[9], 0.5);
+        assertTrue(counts[999] > 0);
+    }
+
+    @Test
+    void shouldSampleUniformlyWithZeroExponent() {
+        ZipfDistribution uniform = new ZipfDistribution(10, 0);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[uniform.size()];
+        for (int i = 0; i < 100_000; i++) {
+            counts[uniform.sample(random)]++;
+        }
+
+        for (int count : counts) {
+            assertEquals(10_000, count, 500);
+        }
+    }
+
+    @Test
+    void shouldGenerateHitsWithinConfiguredBounds() {
+        BenchProperties properties = new BenchProperties();
+        properties.setUris(50);
+        properties.setIps(300);
+
+        List<EndpointHitDto> hits = new HitGenerator(properties, NOW).next(10_000);
+
+        Set<String> uris = new HashSet<>();
+        Set<String> ips = new HashSet<>();
+        for (EndpointHitDto hit : hits) {
+            uris.add(hit.getUri());
+            ips.add(hit.getIp());
+            assertEquals("ewm-main-service", hit.getApp());
+            assertTrue(hit.getTimestamp().isAfter(NOW.minus(properties.getSpan())));
+            assertFalse(hit.getTimestamp().isAfter(NOW));
+        }
+        assertEquals(50, uris.size());
+        assertEquals(300, ips.size());
+        assertTrue(ips.contains("10.0.1.43"));
+    }
+
+    @Test
+    void shouldBeReproducibleFromSeed() {
+        BenchProperties properties = new BenchProperties();
+
+        Map<String, Long> first = countUris(new HitGenerator(properties, NOW).split().next(1_000));
+        Map<String, Long> second = countUris(new HitGenerator(properties, NOW).split().next(1_000));
+
+        assertEquals(first, second);
+        assertEquals(10, new HitGenerator(properties, NOW).queryUris(10).stream().distinct().count());
+    }
+
+    private static Map<String, Long> countUris(List<EndpointHitDto> hits) {
+        return hits.stream().collect(Collectors.groupingBy(EndpointHitDto::getUri, Collectors.counting()));
+    }
+}
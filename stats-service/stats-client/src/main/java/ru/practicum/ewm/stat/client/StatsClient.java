@@ -1,38 +1,142 @@
 package ru.practicum.ewm.stat.client;
 
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
+import ru.practicum.ewm.stat.codec.StatsBinaryHttpMessageConverter;
+import ru.practicum.ewm.stat.codec.StatsCodec;
 import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
 import ru.practicum.ewm.stat.dto.ViewStatsDto;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Client of stats-server. Built with {@link Builder#resilience}, it survives a degraded server: calls go through
+ * a circuit breaker and a bulkhead, reads fall back to the last known views (or none, which callers count as
+ * zero) and hits are buffered and sent later.
+ */
+public class StatsClient implements AutoCloseable {
+    public static final String REQUESTS_METRIC = "stats.client.requests";
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(3);
 
-public class StatsClient {
     private final RestTemplate rest;
     private final String serverUrl;
+    private final MeterRegistry meterRegistry;
+    @Nullable
+    private final StatsClientResilience resilience;
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Longer uri lists are sent in a POST body instead of a query string that grows with every uri
+    static final int POST_QUERY_THRESHOLD = 50;
+    private static final ParameterizedTypeReference<Map<Long, Long>> RESOURCE_HITS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    /**
+     * Use {@link #builder(String)}; open to subclasses that replace calls in tests and benchmarks.
+     */
+    protected StatsClient(Builder builder) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(builder.connectTimeout);
+        requestFactory.setReadTimeout(builder.readTimeout);
+        this.rest = new RestTemplate(requestFactory);
+        this.serverUrl = builder.serverUrl;
+        this.meterRegistry = builder.meterRegistry;
+        rest.setObservationRegistry(builder.observationRegistry);
+        if (builder.binary) {
+            // Ahead of the JSON converter, so it sets Content-Type and comes first in Accept
+            rest.getMessageConverters().add(0, new StatsBinaryHttpMessageConverter());
+        }
+        this.resilience = builder.circuitBreaker == null ? null : new StatsClientResilience(
+                builder.circuitBreaker, builder.bulkhead, builder.hitBufferCapacity, builder.flushInterval,
+                builder.viewsCacheCapacity, meterRegistry,
+                hits -> timed("hits", () -> makeAndSendRequest(HttpMethod.POST, "/hits", null, hits)));
+    }
 
-    public StatsClient(String serverUrl) {
-        this.rest = new RestTemplate();
-        this.serverUrl = serverUrl;
+    public static Builder builder(String serverUrl) {
+        return new Builder(serverUrl);
     }
 
     public void hit(EndpointHitDto endpointHitDto) {
-        makeAndSendRequest(HttpMethod.POST, "/hit", null, endpointHitDto);
+        Runnable call = () -> timed("hit", () -> makeAndSendRequest(HttpMethod.POST, "/hit", null, endpointHitDto));
+        if (resilience == null) {
+            call.run();
+        } else {
+            resilience.write("hit", List.of(endpointHitDto), call);
+        }
+    }
+
+    /**
+     * Saves the hits in one request and one transaction on the server.
+     */
+    public void hits(List<EndpointHitDto> endpointHitDtos) {
+        if (endpointHitDtos.isEmpty()) {
+            return;
+        }
+        Runnable call = () -> timed("hits", () -> makeAndSendRequest(HttpMethod.POST, "/hits", null, endpointHitDtos));
+        if (resilience == null) {
+            call.run();
+        } else {
+            resilience.write("hits", endpointHitDtos, call);
+        }
     }
 
     public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end,
                                        @Nullable List<String> uris,
                                        @Nullable Boolean unique) {
+        Supplier<List<ViewStatsDto>> call = () -> timed("stats", () -> requestStats(start, end, uris, unique));
+        if (resilience == null) {
+            return call.get();
+        }
+
+        String key = "stats:" + rangeKey(start, end) + ":" + unique + ":" + uris;
+        return resilience.read("stats", () -> {
+            List<ViewStatsDto> stats = call.get();
+            resilience.remember(key, stats);
+            return stats;
+        }, () -> {
+            List<ViewStatsDto> remembered = resilience.remembered(key);
+            return remembered != null ? remembered : List.of();
+        });
+    }
+
+    private List<ViewStatsDto> requestStats(LocalDateTime start, LocalDateTime end, @Nullable List<String> uris,
+                                            @Nullable Boolean unique) {
+        if (uris != null && uris.size() > POST_QUERY_THRESHOLD) {
+            ResponseEntity<ViewStatsDto[]> response = rest.postForEntity(
+                    serverUrl + "/stats",
+                    new StatsQueryDto(start, end, uris, null, null, unique),
+                    ViewStatsDto[].class
+            );
+            return response.getBody() != null ? List.of(response.getBody()) : List.of();
+        }
+
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("start", start.format(FORMATTER));
         parameters.put("end", end.format(FORMATTER));
@@ -58,6 +162,128 @@ public class StatsClient {
         return response.getBody() != null ? List.of(response.getBody()) : List.of();
     }
 
+    /**
+     * Hits of the uris {@code uriPrefix} + id as an {@code {id: hits}} map; ids without hits are left out.
+     */
+    public Map<Long, Long> getResourceStats(LocalDateTime start, LocalDateTime end, String uriPrefix,
+                                            List<Long> ids, @Nullable Boolean unique) {
+        Supplier<Map<Long, Long>> call = () -> timed("resource_stats",
+                () -> requestResourceStats(start, end, uriPrefix, ids, unique));
+        if (resilience == null) {
+            return call.get();
+        }
+
+        // Remembered per id, pages of events overlap but rarely repeat exactly
+        String keyPrefix = "resource:" + rangeKey(start, end) + ":" + Boolean.TRUE.equals(unique) + ":" + uriPrefix;
+        return resilience.read("resource_stats", () -> {
+            Map<Long, Long> hits = call.get();
+            ids.forEach(id -> resilience.remember(keyPrefix + id, hits.getOrDefault(id, 0L)));
+            return hits;
+        }, () -> {
+            Map<Long, Long> hits = new HashMap<>();
+            for (Long id : ids) {
+                Long remembered = resilience.remembered(keyPrefix + id);
+                if (remembered != null && remembered > 0) {
+                    hits.put(id, remembered);
+                }
+            }
+            return hits;
+        });
+    }
+
+    /**
+     * The range of a read, rounded so that a range sliding with the clock keeps its fallback for a while; the
+     * rounding stays a small part of the range.
+     */
+    private static String rangeKey(LocalDateTime start, LocalDateTime end) {
+        Duration length = Duration.between(start, end);
+        ChronoUnit unit = length.compareTo(Duration.ofDays(30)) > 0 ? ChronoUnit.DAYS
+                : length.compareTo(Duration.ofDays(1)) > 0 ? ChronoUnit.HOURS
+                : ChronoUnit.MINUTES;
+        return start.truncatedTo(unit) + "/" + end.truncatedTo(unit);
+    }
+
+    private Map<Long, Long> requestResourceStats(LocalDateTime start, LocalDateTime end, String uriPrefix,
+                                                 List<Long> ids, @Nullable Boolean unique) {
+        ResponseEntity<Map<Long, Long>> response;
+        if (ids.size() > POST_QUERY_THRESHOLD) {
+            response = rest.exchange(
+                    serverUrl + "/stats/resources",
+                    HttpMethod.POST,
+                    new HttpEntity<>(new StatsQueryDto(start, end, null, uriPrefix, ids, unique)),
+                    RESOURCE_HITS
+            );
+        } else {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("start", start.format(FORMATTER));
+            parameters.put("end", end.format(FORMATTER));
+            parameters.put("uriPrefix", uriPrefix);
+            parameters.put("ids", ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+            parameters.put("unique", Boolean.TRUE.equals(unique));
+
+            response = rest.exchange(
+                    serverUrl + "/stats/resources?start={start}&end={end}&uriPrefix={uriPrefix}&ids={ids}"
+                            + "&unique={unique}",
+                    HttpMethod.GET,
+                    null,
+                    RESOURCE_HITS,
+                    parameters
+            );
+        }
+
+        return response.getBody() != null ? response.getBody() : Map.of();
+    }
+
+    /**
+     * @return the breaker's state, or empty without {@link Builder#resilience}
+     */
+    public Optional<CircuitBreaker.State> getCircuitBreakerState() {
+        return Optional.ofNullable(resilience).map(r -> r.getCircuitBreaker().getState());
+    }
+
+    /**
+     * Stops the background sending of buffered hits after a last attempt.
+     */
+    @Override
+    public void close() {
+        if (resilience != null) {
+            resilience.close();
+        }
+    }
+
+    private <T> T timed(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Outcome outcome = Outcome.SUCCESS;
+        String exception = "none";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            Throwable failure = restClientFailure(e);
+            outcome = failure instanceof RestClientResponseException response
+                    ? Outcome.forStatus(response.getStatusCode().value())
+                    : Outcome.UNKNOWN;
+            exception = failure.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(REQUESTS_METRIC)
+                    .description("Requests to stats-server")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome.name())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    // makeAndSendRequest wraps status errors, the tags should name the original one
+    private static Throwable restClientFailure(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RestClientException) {
+                return cause;
+            }
+        }
+        return e;
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path,
                                                           @Nullable Map<String, Object> parameters,
                                                           @Nullable T body) {
@@ -80,4 +306,92 @@ public class StatsClient {
 
         return response;
     }
-}
\ No newline at end of file
+
+    public static final class Builder {
+        private final String serverUrl;
+        private boolean binary;
+        private MeterRegistry meterRegistry = Metrics.globalRegistry;
+        private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+        private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        private Duration readTimeout = DEFAULT_READ_TIMEOUT;
+        @Nullable
+        private CircuitBreakerConfig circuitBreaker;
+        private BulkheadConfig bulkhead = BulkheadConfig.ofDefaults();
+        private int hitBufferCapacity = 10_000;
+        private Duration flushInterval = Duration.ofSeconds(5);
+        private int viewsCacheCapacity = 10_000;
+
+        private Builder(String serverUrl) {
+            this.serverUrl = serverUrl;
+        }
+
+        /**
+         * Sends hits and reads stats as {@link StatsCodec#MEDIA_TYPE} instead of JSON; other requests and error
+         * responses stay JSON.
+         */
+        public Builder binary(boolean binary) {
+            this.binary = binary;
+            return this;
+        }
+
+        /**
+         * Gets a {@value #REQUESTS_METRIC} timer per call, tagged with the operation, the outcome and the
+         * exception, and with resilience the breaker, bulkhead, fallback and buffer metrics.
+         */
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        /**
+         * Observes every HTTP exchange; with tracing configured, the requests carry the caller's trace context to
+         * stats-server.
+         */
+        public Builder observationRegistry(ObservationRegistry observationRegistry) {
+            this.observationRegistry = observationRegistry;
+            return this;
+        }
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * Turns on the breaker and the bulkhead; a call rejected by either, or failing other than with a 4xx,
+         * gets the fallback instead of an exception.
+         */
+        public Builder resilience(CircuitBreakerConfig circuitBreaker, BulkheadConfig bulkhead) {
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+            return this;
+        }
+
+        /**
+         * @param capacity      hits kept while stats-server is unavailable, the oldest are dropped beyond it
+         * @param flushInterval how often the buffered hits are retried
+         */
+        public Builder hitBuffer(int capacity, Duration flushInterval) {
+            this.hitBufferCapacity = capacity;
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        /**
+         * @param capacity views remembered for the fallback of reads, per event for resource stats
+         */
+        public Builder viewsCache(int capacity) {
+            this.viewsCacheCapacity = capacity;
+            return this;
+        }
+
+        public StatsClient build() {
+            return new StatsClient(this);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package ru.practicum.ewm.stat.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpClientErrorException;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead around the calls to stats-server, with the fallbacks of {@link StatsClient}:
+ * reads answer from the last known views, writes park the hits in a bounded buffer that a background thread
+ * sends in bulk once stats-server takes requests again.
+ * <p>
+ * Client errors (4xx) are the caller's fault: they neither trip the breaker nor fall back.
+ */
+final class StatsClientResilience implements AutoCloseable {
+    static final String NAME = "stats-server";
+    static final String FALLBACKS_METRIC = "stats.client.fallbacks";
+    static final String BUFFERED_HITS_METRIC = "stats.client.buffered.hits";
+    static final String DROPPED_HITS_METRIC = "stats.client.dropped.hits";
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, Object> views;
+
+    private final Deque<EndpointHitDto> buffer = new ArrayDeque<>();
+    private final int bufferCapacity;
+    private final Consumer<List<EndpointHitDto>> sender;
+    private final Counter dropped;
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * @param sender sends a batch of buffered hits, it is called through the breaker and the bulkhead
+     */
+    StatsClientResilience(CircuitBreakerConfig circuitBreakerConfig, BulkheadConfig bulkheadConfig,
+                          int bufferCapacity, Duration flushInterval, int viewsCacheCapacity,
+                          MeterRegistry meterRegistry, Consumer<List<EndpointHitDto>> sender) {
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.from(circuitBreakerConfig)
+                // A full bulkhead says nothing about the server, slow calls already count against it
+                .ignoreException(e -> isClientError(e) || e instanceof BulkheadFullException)
+                .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(bulkheadConfig);
+        this.circuitBreaker = circuitBreakers.circuitBreaker(NAME);
+        this.bulkhead = bulkheads.bulkhead(NAME);
+        this.meterRegistry = meterRegistry;
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+
+        this.views = Caffeine.newBuilder().maximumSize(viewsCacheCapacity).build();
+
+        this.bufferCapacity = bufferCapacity;
+        this.sender = sender;
+        this.dropped = Counter.builder(DROPPED_HITS_METRIC)
+                .description("Hits lost because the buffer was full or stats-server rejected them")
+                .register(meterRegistry);
+        Gauge.builder(BUFFERED_HITS_METRIC, this, StatsClientResilience::getBufferedHits)
+                .description("Hits waiting for stats-server")
+                .register(meterRegistry);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-client-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    <T> T read(String operation, Supplier<T> call, Supplier<T> fallback) {
+        try {
+            return call(call);
+        } catch (RuntimeException e) {
+            if (isClientError(e)) {
+                throw e;
+            }
+            fallback(operation, e);
+            return fallback.get();
+        }
+    }
+
+    void write(String operation, List<EndpointHitDto> hits, Runnable call) {
+        try {
+            call(() -> {
+                call.run();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            if (isClientError(e)) {
+                throw e;
+            }
+            fallback(operation, e);
+            buffer(hits);
+        }
+    }
+
+    /**
+     * Remembers views for the reads that fall back; keys carry the range the views were counted over.
+     */
+    void remember(String key, Object value) {
+        views.put(key, value);
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    <T> T remembered(String key) {
+        return (T) views.getIfPresent(key);
+    }
+
+    int getBufferedHits() {
+        synchronized (buffer) {
+            return buffer.size();
+        }
+    }
+
+    /**
+     * Sends the buffered hits until the buffer is empty or stats-server is unavailable again.
+     */
+    void flush() {
+        List<EndpointHitDto> batch;
+        while (!(batch = take()).isEmpty()) {
+            List<EndpointHitDto> unsent = send(batch);
+            if (!unsent.isEmpty()) {
+                requeue(unsent);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends the hits, splitting a batch that stats-server rejects until only the rejected hits are dropped.
+     *
+     * @return the hits left unsent because stats-server is unavailable, in their order
+     */
+    private List<EndpointHitDto> send(List<EndpointHitDto> hits) {
+        try {
+            call(() -> {
+                sender.accept(hits);
+                return null;
+            });
+            return List.of();
+        } catch (RuntimeException e) {
+            if (!isClientError(e)) {
+                return hits;
+            }
+            if (hits.size() == 1) {
+                // Retrying a rejected hit would block the buffer forever
+                dropped.increment();
+                return List.of();
+            }
+        }
+
+        int half = hits.size() / 2;
+        List<EndpointHitDto> unsent = send(hits.subList(0, half));
+        if (unsent.isEmpty()) {
+            return send(hits.subList(half, hits.size()));
+        }
+        List<EndpointHitDto> rest = new ArrayList<>(unsent);
+        rest.addAll(hits.subList(half, hits.size()));
+        return rest;
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    private <T> T call(Supplier<T> call) {
+        return circuitBreaker.executeSupplier(Bulkhead.decorateSupplier(bulkhead, call));
+    }
+
+    private void fallback(String operation, RuntimeException e) {
+        String reason = e instanceof CallNotPermittedException ? "circuit_open"
+                : e instanceof BulkheadFullException ? "bulkhead_full"
+                : "error";
+        Counter.builder(FALLBACKS_METRIC)
+                .description("Calls to stats-server answered by a fallback")
+                .tag("operation", operation)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void buffer(List<EndpointHitDto> hits) {
+        synchronized (buffer) {
+            buffer.addAll(hits);
+            trim();
+        }
+    }
+
+    private List<EndpointHitDto> take() {
+        synchronized (buffer) {
+            List<EndpointHitDto> batch = new ArrayList<>(Math.min(buffer.size(), FLUSH_BATCH_SIZE));
+            while (batch.size() < FLUSH_BATCH_SIZE && !buffer.isEmpty()) {
+                batch.add(buffer.pollFirst());
+            }
+            return batch;
+        }
+    }
+
+    private void requeue(List<EndpointHitDto> hits) {
+        synchronized (buffer) {
+            for (int i = hits.size() - 1; i >= 0; i--) {
+                buffer.addFirst(hits.get(i));
+            }
+            trim();
+        }
+    }
+
+    // The oldest hits go first, they are the least likely to matter for current views
+    private void trim() {
+        while (buffer.size() > bufferCapacity) {
+            buffer.pollFirst();
+            dropped.increment();
+        }
+    }
+
+    // StatsClient wraps status errors in a RuntimeException
+    private static boolean isClientError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpClientErrorException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,241 @@
+package ru.practicum.ewm.stat.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the client against a local stub of stats-server that answers slowly or with errors on demand.
+ */
+class StatsClientResilienceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicLong delayMillis = new AtomicLong();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger savedHits = new AtomicInteger();
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private StatsClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(serverThreads);
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            status.set(400);
+            client.close();
+        }
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void shouldOpenBreakerOnSlowServerAndAnswerFromRememberedViews() {
+        client = client(breaker(Duration.ofMinutes(1)), BulkheadConfig.ofDefaults(), Duration.ofMillis(200));
+        assertEquals(Map.of(1L, 5L, 2L, 3L), resourceStats(1L, 2L));
+
+        delayMillis.set(1_000);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Map.of(1L, 5L, 2L, 3L), resourceStats(1L, 2L));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreakerState().orElseThrow());
+
+        int served = requests.get();
+        long started = System.nanoTime();
+        assertEquals(Map.of(1L, 5L), resourceStats(1L, 3L));
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 100);
+        assertEquals(served, requests.get());
+
+        assertEquals(1, meterRegistry.get(StatsClientResilience.FALLBACKS_METRIC)
+                .tag("operation", "resource_stats").tag("reason", "circuit_open").counter().count());
+        assertEquals(3, meterRegistry.get(StatsClientResilience.FALLBACKS_METRIC)
+                .tag("operation", "resource_stats").tag("reason", "error").counter().count());
+        assertEquals(1, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", StatsClientResilience.NAME).tag("state", "open").gauge().value());
+    }
+
+    @Test
+    void shouldAnswerFallbackOnlyFromViewsOfTheSameRange() {
+        client = client(breaker(Duration.ofMinutes(1)), BulkheadConfig.ofDefaults(), Duration.ofMillis(200));
+        assertEquals(Map.of(1L, 5L, 2L, 3L), resourceStats(1L, 2L));
+
+        status.set(503);
+
+        assertEquals(Map.of(1L, 5L, 2L, 3L), resourceStats(1L, 2L));
+        assertEquals(Map.of(), client.getResourceStats(START.minusYears(1), END.minusYears(1), "/events/",
+                List.of(1L, 2L), true));
+    }
+
+    @Test
+    void shouldBufferHitsWhileServerIsDownAndFlushWhenItRecovers() throws InterruptedException {
+        // Flushed after the hits are counted in the buffer, and only once the breaker lets a call through
+        client = builder(breaker(Duration.ofMillis(200)), BulkheadConfig.ofDefaults(), Duration.ofMillis(200))
+                .hitBuffer(100, Duration.ofMillis(500))
+                .build();
+        status.set(503);
+
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> client.hit(hit()));
+        }
+        client.hits(List.of(hit(), hit()));
+        assertEquals(5, bufferedHits());
+        assertEquals(0, savedHits.get());
+
+        status.set(200);
+        awaitUntil(() -> client.getCircuitBreakerState().orElseThrow() == CircuitBreaker.State.CLOSED);
+        assertEquals(5, savedHits.get());
+        assertEquals(0, bufferedHits());
+    }
+
+    @Test
+    void shouldDropOnlyRejectedHitsOfBufferedBatch() throws InterruptedException {
+        client = builder(breaker(Duration.ofMillis(200)), BulkheadConfig.ofDefaults(), Duration.ofMillis(200))
+                .hitBuffer(100, Duration.ofMillis(500))
+                .build();
+        status.set(503);
+
+        client.hits(List.of(hit(), hit(), hit("/bad"), hit(), hit()));
+        assertEquals(5, bufferedHits());
+
+        status.set(200);
+        awaitUntil(() -> savedHits.get() == 4);
+        assertEquals(0, bufferedHits());
+        assertEquals(1, meterRegistry.get(StatsClientResilience.DROPPED_HITS_METRIC).counter().count());
+    }
+
+    @Test
+    void shouldRejectCallsBeyondBulkheadWithoutWaiting() throws Exception {
+        client = client(breaker(Duration.ofMinutes(1)),
+                BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build(),
+                Duration.ofSeconds(2));
+        delayMillis.set(500);
+
+        Future<Map<Long, Long>> slow = CompletableFuture.supplyAsync(() -> resourceStats(1L));
+        awaitUntil(() -> requests.get() == 1);
+
+        long started = System.nanoTime();
+        assertEquals(Map.of(), resourceStats(1L));
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 100);
+        assertEquals(Map.of(1L, 5L, 2L, 3L), slow.get(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get(StatsClientResilience.FALLBACKS_METRIC)
+                .tag("reason", "bulkhead_full").counter().count());
+    }
+
+    @Test
+    void shouldPassClientErrorsThroughWithoutTrippingBreaker() {
+        client = client(breaker(Duration.ofMinutes(1)), BulkheadConfig.ofDefaults(), Duration.ofMillis(200));
+        status.set(400);
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(RuntimeException.class, () -> client.hit(hit()));
+        }
+        assertEquals(0, bufferedHits());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreakerState().orElseThrow());
+    }
+
+    private StatsClient client(CircuitBreakerConfig breaker, BulkheadConfig bulkhead, Duration readTimeout) {
+        return builder(breaker, bulkhead, readTimeout).build();
+    }
+
+    private StatsClient.Builder builder(CircuitBreakerConfig breaker, BulkheadConfig bulkhead, Duration readTimeout) {
+        return StatsClient.builder("http://localhost:" + server.getAddress().getPort())
+                .meterRegistry(meterRegistry)
+                .readTimeout(readTimeout)
+                .resilience(breaker, bulkhead);
+    }
+
+    private static CircuitBreakerConfig breaker(Duration waitInOpenState) {
+        return CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .build();
+    }
+
+    private Map<Long, Long> resourceStats(Long... ids) {
+        return client.getResourceStats(START, END, "/events/", List.of(ids), true);
+    }
+
+    private double bufferedHits() {
+        return meterRegistry.get(StatsClientResilience.BUFFERED_HITS_METRIC).gauge().value();
+    }
+
+    private static EndpointHitDto hit() {
+        return hit("/events/1");
+    }
+
+    private static EndpointHitDto hit(String uri) {
+        return new EndpointHitDto(null, "ewm-main-service", uri, "10.0.0.1", START);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(20);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] request = exchange.getRequestBody().readAllBytes();
+            requests.incrementAndGet();
+            Thread.sleep(delayMillis.get());
+
+            int code = status.get();
+            String path = exchange.getRequestURI().getPath();
+            if (code == 200 && new String(request, StandardCharsets.UTF_8).contains("\"/bad\"")) {
+                // Validation rejects a whole batch for one invalid hit
+                exchange.sendResponseHeaders(400, -1);
+            } else if (code != 200) {
+                exchange.sendResponseHeaders(code, -1);
+            } else if (path.startsWith("/stats/resources")) {
+                byte[] body = "{\"1\":5,\"2\":3}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } else {
+                savedHits.addAndGet(path.equals("/hits") ? mapper.readTree(request).size() : 1);
+                exchange.sendResponseHeaders(201, -1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,19 +1,27 @@
 package ru.practicum.ewm.stat.client;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import ru.practicum.ewm.stat.codec.StatsBinaryHttpMessageConverter;
 import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
 import ru.practicum.ewm.stat.dto.ViewStatsDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -24,12 +32,14 @@ class StatsClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    private SimpleMeterRegistry meterRegistry;
     private StatsClient statsClient;
 
     @BeforeEach
     void setUp() {
         // Создаем StatsClient и подменяем restTemplate через рефлексию
-        statsClient = new StatsClient("http://localhost:9090");
+        meterRegistry = new SimpleMeterRegistry();
+        statsClient = StatsClient.builder("http://localhost:9090").meterRegistry(meterRegistry).build();
         try {
             var field = StatsClient.class.getDeclaredField("rest");
             field.setAccessible(true);
@@ -41,7 +51,7 @@ class StatsClientTest {
 
     @Test
     void shouldCreateStatsClientWithServerUrl() {
-        StatsClient client = new StatsClient("http://example.com:9090");
+        StatsClient client = StatsClient.builder("http://example.com:9090").build();
         assertNotNull(client);
 
         // Проверяем, что RestTemplate был создан
@@ -130,6 +140,69 @@ class StatsClientTest {
         assertEquals("/events/1", result.get(0).getUri());
     }
 
+    @Test
+    void shouldPostLongUriLists() {
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        LocalDateTime end = LocalDateTime.now();
+        List<String> uris = IntStream.range(0, StatsClient.POST_QUERY_THRESHOLD + 1)
+                .mapToObj(i -> "/events/" + i)
+                .toList();
+
+        when(restTemplate.postForEntity(
+                eq("http://localhost:9090/stats"),
+                any(StatsQueryDto.class),
+                eq(ViewStatsDto[].class)
+        )).thenReturn(new ResponseEntity<>(new ViewStatsDto[]{new ViewStatsDto("app1", "/events/1", 3L)},
+                HttpStatus.OK));
+
+        List<ViewStatsDto> result = statsClient.getStats(start, end, uris, true);
+
+        assertEquals(1, result.size());
+        verify(restTemplate).postForEntity(
+                eq("http://localhost:9090/stats"),
+                argThat((StatsQueryDto query) -> query.getUris().equals(uris) && query.getUnique()
+                        && query.getStart().equals(start)),
+                eq(ViewStatsDto[].class)
+        );
+        verify(restTemplate, never()).getForEntity(anyString(), any(), any(Map.class));
+    }
+
+    @Test
+    void shouldGetResourceStats() {
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        LocalDateTime end = LocalDateTime.now();
+
+        when(restTemplate.exchange(
+                startsWith("http://localhost:9090/stats/resources?"),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class),
+                argThat((Map<String, Object> parameters) -> "1,2".equals(parameters.get("ids"))
+                        && "/events/".equals(parameters.get("uriPrefix")))
+        )).thenReturn(new ResponseEntity<>(Map.of(1L, 10L), HttpStatus.OK));
+
+        Map<Long, Long> result = statsClient.getResourceStats(start, end, "/events/", List.of(1L, 2L), true);
+
+        assertEquals(Map.of(1L, 10L), result);
+    }
+
+    @Test
+    void shouldPostLongResourceIdLists() {
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        LocalDateTime end = LocalDateTime.now();
+        List<Long> ids = LongStream.rangeClosed(1, StatsClient.POST_QUERY_THRESHOLD + 1).boxed().toList();
+
+        when(restTemplate.exchange(
+                eq("http://localhost:9090/stats/resources"),
+                eq(HttpMethod.POST),
+                argThat((HttpEntity<StatsQueryDto> entity) -> entity.getBody().getIds().equals(ids)
+                        && "/events/".equals(entity.getBody().getUriPrefix())),
+                any(ParameterizedTypeReference.class)
+        )).thenReturn(new ResponseEntity<>(null, HttpStatus.OK));
+
+        assertTrue(statsClient.getResourceStats(start, end, "/events/", ids, true).isEmpty());
+    }
+
     @Test
     void shouldGetStatsWithUnique() {
         ViewStatsDto[] mockResponse = {
@@ -220,4 +293,65 @@ class StatsClientTest {
 
         assertTrue(exception.getMessage().contains("Request failed with status: 500"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSendHitsInOneRequest() {
+        List<EndpointHitDto> hits = List.of(
+                new EndpointHitDto(null, "test-app", "/test/1", "192.168.1.1", LocalDateTime.now()),
+                new EndpointHitDto(null, "test-app", "/test/2", "192.168.1.2", LocalDateTime.now()));
+        when(restTemplate.exchange(eq("http://localhost:9090/hits"), eq(HttpMethod.POST),
+                argThat((HttpEntity<?> entity) -> hits.equals(entity.getBody())), eq(Object.class)))
+                .thenReturn(ResponseEntity.status(HttpStatus.CREATED).build());
+
+        statsClient.hits(hits);
+        statsClient.hits(List.of());
+
+        verify(restTemplate, times(1)).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class),
+                eq(Object.class));
+    }
+
+    @Test
+    void shouldPreferBinaryFormatWhenEnabled() throws Exception {
+        var field = StatsClient.class.getDeclaredField("rest");
+        field.setAccessible(true);
+
+        StatsClient binaryClient = StatsClient.builder("http://localhost:9090").binary(true).build();
+        RestTemplate binary = (RestTemplate) field.get(binaryClient);
+        RestTemplate json = (RestTemplate) field.get(StatsClient.builder("http://localhost:9090").build());
+
+        assertInstanceOf(StatsBinaryHttpMessageConverter.class, binary.getMessageConverters().get(0));
+        assertTrue(json.getMessageConverters().stream()
+                .noneMatch(StatsBinaryHttpMessageConverter.class::isInstance));
+    }
+
+    @Test
+    void shouldTimeCallsByOperationAndOutcome() {
+        EndpointHitDto hitDto = new EndpointHitDto(null, "test-app", "/test", "192.168.1.1", LocalDateTime.now());
+        when(restTemplate.exchange(eq("http://localhost:9090/hit"), eq(HttpMethod.POST), any(HttpEntity.class),
+                eq(Object.class)))
+                .thenReturn(ResponseEntity.ok().build())
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(),
+                any(ParameterizedTypeReference.class), any(Map.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+
+        statsClient.hit(hitDto);
+        assertThrows(RuntimeException.class, () -> statsClient.hit(hitDto));
+        assertThrows(ResourceAccessException.class, () -> statsClient.hit(hitDto));
+        assertThrows(HttpClientErrorException.class, () -> statsClient.getResourceStats(
+                LocalDateTime.now().minusDays(1), LocalDateTime.now(), "/events/", List.of(1L), false));
+
+        assertEquals(1, count("hit", "SUCCESS", "none"));
+        assertEquals(1, count("hit", "SERVER_ERROR", "HttpServerErrorException"));
+        assertEquals(1, count("hit", "UNKNOWN", "ResourceAccessException"));
+        assertEquals(1, count("resource_stats", "CLIENT_ERROR", "HttpClientErrorException"));
+    }
+
+    private long count(String operation, String outcome, String exception) {
+        return meterRegistry.get(StatsClient.REQUESTS_METRIC)
+                .tags("operation", operation, "outcome", outcome, "exception", exception)
+                .timer()
+                .count();
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.ewm.stat.codec;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.ViewStatsDto;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Reads and writes {@link StatsCodec#MEDIA_TYPE}: a single {@link EndpointHitDto}, and arrays or lists of
+ * {@link EndpointHitDto} and {@link ViewStatsDto}. Everything else is left to the JSON converter.
+ */
+public class StatsBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(StatsCodec.MEDIA_TYPE);
+
+    public StatsBinaryHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == EndpointHitDto.class || clazz == EndpointHitDto[].class || clazz == ViewStatsDto[].class;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        ResolvableType resolved = ResolvableType.forType(type);
+        boolean readable = resolved.toClass() == EndpointHitDto.class
+                || (resolved.isArray() || resolved.toClass().isAssignableFrom(ArrayList.class))
+                && elementType(resolved) != null;
+        return readable && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        ResolvableType resolved = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        // A raw collection, e.g. a request body, is checked element by element when written
+        boolean writable = supports(resolved.toClass()) || Collection.class.isAssignableFrom(resolved.toClass())
+                && (elementType(resolved) != null || resolved.asCollection().resolveGeneric() == null);
+        return writable && canWrite(mediaType);
+    }
+
+    // Called with the raw class of the value after canWrite has accepted its generic type
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return supports(clazz) || Collection.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        ResolvableType resolved = ResolvableType.forType(type);
+        try {
+            if (resolved.toClass() == EndpointHitDto.class) {
+                List<EndpointHitDto> hits = StatsCodec.readHits(inputMessage.getBody());
+                if (hits.size() != 1) {
+                    throw new HttpMessageNotReadableException("Expected a single hit but got " + hits.size(),
+                            inputMessage);
+                }
+                return hits.get(0);
+            }
+
+            if (elementType(resolved) == EndpointHitDto.class) {
+                List<EndpointHitDto> hits = StatsCodec.readHits(inputMessage.getBody());
+                return resolved.isArray() ? hits.toArray(EndpointHitDto[]::new) : hits;
+            }
+            List<ViewStatsDto> stats = StatsCodec.readStats(inputMessage.getBody());
+            return resolved.isArray() ? stats.toArray(ViewStatsDto[]::new) : stats;
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Could not read " + StatsCodec.MEDIA_TYPE + ": "
+                    + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (object instanceof EndpointHitDto hit) {
+            StatsCodec.writeHits(List.of(hit), outputMessage.getBody());
+        } else if (object instanceof EndpointHitDto[] hits) {
+            StatsCodec.writeHits(Arrays.asList(hits), outputMessage.getBody());
+        } else if (object instanceof ViewStatsDto[] stats) {
+            StatsCodec.writeStats(Arrays.asList(stats), outputMessage.getBody());
+        } else if (object instanceof Collection<?> records && allOf(records, EndpointHitDto.class)) {
+            StatsCodec.writeHits((Collection<EndpointHitDto>) records, outputMessage.getBody());
+        } else if (object instanceof Collection<?> records && allOf(records, ViewStatsDto.class)) {
+            StatsCodec.writeStats((Collection<ViewStatsDto>) records, outputMessage.getBody());
+        } else {
+            throw new HttpMessageNotWritableException("Cannot write " + object.getClass().getName() + " as "
+                    + StatsCodec.MEDIA_TYPE);
+        }
+    }
+
+    @Nullable
+    private static Class<?> elementType(ResolvableType type) {
+        Class<?> element = type.isArray() ? type.getComponentType().resolve()
+                : Collection.class.isAssignableFrom(type.toClass()) ? type.asCollection().resolveGeneric() : null;
+        return element == EndpointHitDto.class || element == ViewStatsDto.class ? element : null;
+    }
+
+    private static boolean allOf(Collection<?> records, Class<?> type) {
+        return records.stream().allMatch(type::isInstance);
+    }
+}
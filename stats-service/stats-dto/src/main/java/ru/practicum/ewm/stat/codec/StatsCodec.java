@@ -0,0 +1,204 @@
+package ru.practicum.ewm.stat.codec;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.ViewStatsDto;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Compact binary encoding of hits and stats, an alternative to JSON between stats-client and stats-server.
+ * <p>
+ * A message is a version byte, a kind byte ({@link #HITS} or {@link #STATS}), the number of records as a varint
+ * and the records. Numbers are LEB128 varints, nullable ones zigzag encoded plus one so that 0 is null;
+ * timestamps are epoch seconds of the wall clock, the precision of the JSON format. A string is written once per
+ * message: 0 is null, 1 is followed by its UTF-8 length and bytes, n &gt; 1 refers to the (n - 1)th distinct string,
+ * so the app and the uris repeated across a batch cost a byte or two.
+ */
+@UtilityClass
+public class StatsCodec {
+    public static final String MEDIA_TYPE = "application/x-ewm-stats";
+    public static final int HITS = 1;
+    public static final int STATS = 2;
+    private static final int VERSION = 1;
+    private static final int MAX_STRING_LENGTH = 64 * 1024;
+
+    public void writeHits(Collection<EndpointHitDto> hits, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder(out, HITS, hits.size());
+        for (EndpointHitDto hit : hits) {
+            encoder.writeNullableLong(hit.getId());
+            encoder.writeString(hit.getApp());
+            encoder.writeString(hit.getUri());
+            encoder.writeString(hit.getIp());
+            encoder.writeNullableLong(hit.getTimestamp() != null
+                    ? hit.getTimestamp().toEpochSecond(ZoneOffset.UTC) : null);
+        }
+        out.flush();
+    }
+
+    public void writeStats(Collection<ViewStatsDto> stats, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder(out, STATS, stats.size());
+        for (ViewStatsDto viewStats : stats) {
+            encoder.writeString(viewStats.getApp());
+            encoder.writeString(viewStats.getUri());
+            encoder.writeNullableLong(viewStats.getHits());
+        }
+        out.flush();
+    }
+
+    public List<EndpointHitDto> readHits(InputStream in) throws IOException {
+        Decoder decoder = new Decoder(in);
+        int size = decoder.readHeader(HITS);
+        List<EndpointHitDto> hits = new ArrayList<>(Math.min(size, 1024));
+        for (int i = 0; i < size; i++) {
+            Long id = decoder.readNullableLong();
+            String app = decoder.readString();
+            String uri = decoder.readString();
+            String ip = decoder.readString();
+            Long timestamp = decoder.readNullableLong();
+            hits.add(new EndpointHitDto(id, app, uri, ip,
+                    timestamp != null ? LocalDateTime.ofEpochSecond(timestamp, 0, ZoneOffset.UTC) : null));
+        }
+        return hits;
+    }
+
+    public List<ViewStatsDto> readStats(InputStream in) throws IOException {
+        Decoder decoder = new Decoder(in);
+        int size = decoder.readHeader(STATS);
+        List<ViewStatsDto> stats = new ArrayList<>(Math.min(size, 1024));
+        for (int i = 0; i < size; i++) {
+            stats.add(new ViewStatsDto(decoder.readString(), decoder.readString(), decoder.readNullableLong()));
+        }
+        return stats;
+    }
+
+    private static final class Encoder {
+        private final OutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        Encoder(OutputStream out, int kind, int size) throws IOException {
+            this.out = out;
+            out.write(VERSION);
+            out.write(kind);
+            writeVarLong(size);
+        }
+
+        void writeNullableLong(Long value) throws IOException {
+            writeVarLong(value == null ? 0 : (value << 1 ^ value >> 63) + 1);
+        }
+
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeVarLong(index + 2L);
+                return;
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(1);
+            writeVarLong(bytes.length);
+            out.write(bytes);
+            strings.put(value, strings.size());
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    private static final class Decoder {
+        private final InputStream in;
+        private final List<String> strings = new ArrayList<>();
+
+        Decoder(InputStream in) {
+            this.in = in;
+        }
+
+        int readHeader(int kind) throws IOException {
+            int version = readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version);
+            }
+            int actual = readByte();
+            long size = readVarLong();
+            // Nothing to mix up in an empty message
+            if (actual != kind && size > 0) {
+                throw new IOException("Expected message kind " + kind + " but got " + actual);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Too many records: " + size);
+            }
+            return (int) size;
+        }
+
+        Long readNullableLong() throws IOException {
+            long value = readVarLong();
+            if (value == 0) {
+                return null;
+            }
+            value--;
+            return value >>> 1 ^ -(value & 1);
+        }
+
+        String readString() throws IOException {
+            long ref = readVarLong();
+            if (ref == 0) {
+                return null;
+            }
+            if (ref > 1) {
+                if (ref - 2 >= strings.size()) {
+                    throw new IOException("Unknown string reference " + ref);
+                }
+                return strings.get((int) (ref - 2));
+            }
+
+            long length = readVarLong();
+            if (length > MAX_STRING_LENGTH) {
+                throw new IOException("String of " + length + " bytes is too long");
+            }
+            byte[] bytes = in.readNBytes((int) length);
+            if (bytes.length != length) {
+                throw new EOFException();
+            }
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        private int readByte() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            return b;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.ewm.stat.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Body of {@code POST /stats} and {@code POST /stats/resources} for uri lists too long for a query string. Uris are either listed
+ * or given as {@code uriPrefix} + id, e.g. {@code /events/} and {@code [1, 2, 3]}; both lists may be combined.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsQueryDto {
+    @NotNull(message = "Start cannot be null")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime start;
+
+    @NotNull(message = "End cannot be null")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime end;
+
+    private List<String> uris;
+
+    private String uriPrefix;
+
+    private List<Long> ids;
+
+    private Boolean unique;
+}
@@ -0,0 +1,111 @@
+package ru.practicum.ewm.stat.codec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
+import ru.practicum.ewm.stat.dto.ViewStatsDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsBinaryHttpMessageConverterTest {
+    private static final Type HITS = new ParameterizedTypeReference<List<EndpointHitDto>>() {
+    }.getType();
+    private static final Type STATS = new ParameterizedTypeReference<List<ViewStatsDto>>() {
+    }.getType();
+    private static final Type RESOURCE_HITS = new ParameterizedTypeReference<Map<Long, Long>>() {
+    }.getType();
+
+    private final StatsBinaryHttpMessageConverter converter = new StatsBinaryHttpMessageConverter();
+    private final EndpointHitDto hit = new EndpointHitDto(null, "ewm-main-service", "/events/1", "10.0.0.1",
+            LocalDateTime.of(2025, 3, 15, 12, 0));
+
+    @Test
+    void shouldOnlyHandleHitsAndStats() {
+        MediaType binary = StatsBinaryHttpMessageConverter.MEDIA_TYPE;
+
+        assertTrue(converter.canRead(EndpointHitDto.class, null, binary));
+        assertTrue(converter.canRead(HITS, null, binary));
+        assertTrue(converter.canRead(ViewStatsDto[].class, null, binary));
+        assertTrue(converter.canWrite(STATS, ArrayList.class, binary));
+        assertTrue(converter.canWrite(null, ArrayList.class, binary));
+
+        assertFalse(converter.canRead(EndpointHitDto.class, null, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(StatsQueryDto.class, null, binary));
+        assertFalse(converter.canRead(RESOURCE_HITS, null, binary));
+        assertFalse(converter.canRead(Object.class, null, binary));
+        assertFalse(converter.canWrite(RESOURCE_HITS, Map.class, binary));
+        assertFalse(converter.canWrite(StatsQueryDto.class, StatsQueryDto.class, binary));
+    }
+
+    @Test
+    void shouldReadWhatItWrites() throws IOException {
+        ViewStatsDto[] stats = {new ViewStatsDto("ewm-main-service", "/events/1", 7L)};
+
+        assertEquals(hit, converter.read(EndpointHitDto.class, null, input(write(hit, EndpointHitDto.class))));
+        assertEquals(List.of(hit, hit), converter.read(HITS, null, input(write(new ArrayList<>(List.of(hit, hit)),
+                null))));
+        assertArrayEquals(stats, (Object[]) converter.read(ViewStatsDto[].class, null,
+                input(write(List.of(stats[0]), STATS))));
+    }
+
+    @Test
+    void shouldRejectUnexpectedBodies() throws IOException {
+        byte[] twoHits = write(List.of(hit, hit), HITS);
+
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> converter.read(EndpointHitDto.class, null, input(twoHits)));
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> converter.read(STATS, null, input(twoHits)));
+        assertThrows(HttpMessageNotWritableException.class, () -> write(List.of("/events/1"), null));
+    }
+
+    private byte[] write(Object object, Type type) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        converter.write(object, type, StatsBinaryHttpMessageConverter.MEDIA_TYPE, new HttpOutputMessage() {
+            private final HttpHeaders headers = new HttpHeaders();
+
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        });
+        return body.toByteArray();
+    }
+
+    private static HttpInputMessage input(byte[] body) {
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return new HttpHeaders();
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.ewm.stat.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.ViewStatsDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsCodecTest {
+
+    @Test
+    void shouldRoundTripHits() throws IOException {
+        List<EndpointHitDto> hits = List.of(
+                new EndpointHitDto(1L, "ewm-main-service", "/events/1", "192.168.1.1",
+                        LocalDateTime.of(2025, 3, 15, 12, 30, 5)),
+                new EndpointHitDto(null, "ewm-main-service", "/events/юникод", "2001:db8::1",
+                        LocalDateTime.of(1965, 1, 1, 0, 0)),
+                new EndpointHitDto(Long.MAX_VALUE, null, null, null, null));
+
+        assertEquals(hits, StatsCodec.readHits(new ByteArrayInputStream(hits(hits))));
+    }
+
+    @Test
+    void shouldRoundTripStats() throws IOException {
+        List<ViewStatsDto> stats = List.of(
+                new ViewStatsDto("ewm-main-service", "/events/1", 0L),
+                new ViewStatsDto("ewm-main-service", "/events", Long.MAX_VALUE),
+                new ViewStatsDto(null, "/events/2", null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        StatsCodec.writeStats(stats, out);
+
+        assertEquals(stats, StatsCodec.readStats(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    void shouldWriteRepeatedStringsOnce() throws IOException {
+        List<EndpointHitDto> hits = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            hits.add(new EndpointHitDto(null, "ewm-main-service", "/events/" + i % 10, "192.168.1." + i % 50,
+                    LocalDateTime.of(2025, 3, 15, 12, 0).plusSeconds(i)));
+        }
+        ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        byte[] binary = hits(hits);
+
+        assertTrue(binary.length < json.writeValueAsBytes(hits).length / 10,
+                () -> "Binary batch takes " + binary.length + " bytes");
+    }
+
+    @Test
+    void shouldRejectTruncatedOrMismatchedMessages() throws IOException {
+        byte[] hits = hits(List.of(new EndpointHitDto(null, "app", "/uri", "10.0.0.1",
+                LocalDateTime.of(2025, 3, 15, 12, 0))));
+
+        assertThrows(EOFException.class,
+                () -> StatsCodec.readHits(new ByteArrayInputStream(Arrays.copyOf(hits, hits.length - 1))));
+        assertThrows(EOFException.class,
+                () -> StatsCodec.readHits(new ByteArrayInputStream(Arrays.copyOf(hits, 8))));
+        assertThrows(IOException.class, () -> StatsCodec.readStats(new ByteArrayInputStream(hits)));
+        assertTrue(StatsCodec.readStats(new ByteArrayInputStream(hits(List.of()))).isEmpty());
+    }
+
+    private static byte[] hits(List<EndpointHitDto> hits) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatsCodec.writeHits(hits, out);
+        return out.toByteArray();
+    }
+}
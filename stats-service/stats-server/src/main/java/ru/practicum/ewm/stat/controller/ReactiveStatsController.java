@@ -0,0 +1,119 @@
+package ru.practicum.ewm.stat.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
+import ru.practicum.ewm.stat.dto.ViewStatsDto;
+import ru.practicum.ewm.stat.service.ReactiveStatsService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The API of {@link StatsController} on WebFlux, served when {@code spring.main.web-application-type=reactive}.
+ * JSON only: the binary format of stats-client stays with the servlet stack.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveStatsController {
+    private final ReactiveStatsService statsService;
+
+    @PostMapping("/hit")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Void> hit(@Valid @RequestBody EndpointHitDto endpointHitDto) {
+        log.info("Received hit: app={}, uri={}, ip={}, timestamp={}",
+                endpointHitDto.getApp(), endpointHitDto.getUri(),
+                endpointHitDto.getIp(), endpointHitDto.getTimestamp());
+        return statsService.saveHit(endpointHitDto);
+    }
+
+    /**
+     * Saves hits a bounded batch per transaction, reading the body only as fast as the hits are inserted.
+     */
+    @PostMapping("/hits")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Void> hits(@Valid @RequestBody Flux<EndpointHitDto> endpointHitDtos) {
+        return statsService.saveHits(endpointHitDtos)
+                .doOnNext(saved -> log.info("Received {} hits", saved))
+                .then();
+    }
+
+    @GetMapping("/stats")
+    public Flux<ViewStatsDto> getStats(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+            @RequestParam(required = false) List<String> uris,
+            @RequestParam(required = false, defaultValue = "false") Boolean unique,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Get stats: start={}, end={}, uris={}, unique={}, limit={}", start, end, uris, unique, limit);
+        return statsService.getStats(start, end, uris, unique, limit);
+    }
+
+    @PostMapping("/stats")
+    public Flux<ViewStatsDto> queryStats(@Valid @RequestBody StatsQueryDto query) {
+        log.info("Query stats: start={}, end={}, uris={}, uriPrefix={}, ids={}, unique={}", query.getStart(),
+                query.getEnd(), size(query.getUris()), query.getUriPrefix(), size(query.getIds()), query.getUnique());
+        return statsService.getStats(query);
+    }
+
+    @GetMapping("/stats/resources")
+    public Mono<Map<Long, Long>> getResourceStats(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+            @RequestParam String uriPrefix,
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false, defaultValue = "false") Boolean unique) {
+        log.info("Get resource stats: start={}, end={}, uriPrefix={}, ids={}, unique={}", start, end, uriPrefix,
+                size(ids), unique);
+        return statsService.getResourceStats(start, end, uriPrefix, ids, unique);
+    }
+
+    @PostMapping("/stats/resources")
+    public Mono<Map<Long, Long>> queryResourceStats(@Valid @RequestBody StatsQueryDto query) {
+        log.info("Query resource stats: start={}, end={}, uriPrefix={}, ids={}, unique={}", query.getStart(),
+                query.getEnd(), query.getUriPrefix(), size(query.getIds()), query.getUnique());
+        return statsService.getResourceStats(query.getStart(), query.getEnd(), query.getUriPrefix(), query.getIds(),
+                query.getUnique());
+    }
+
+    @GetMapping("/stats/top")
+    public Flux<ViewStatsDto> getTop(@RequestParam(defaultValue = "1h") String window,
+                                     @RequestParam(defaultValue = "10") Integer limit) {
+        log.info("Get top: window={}, limit={}", window, limit);
+        return statsService.getTop(DurationStyle.detectAndParse(window), limit);
+    }
+
+    /**
+     * Same rows as /stats as NDJSON, each written once the database has returned it.
+     */
+    @GetMapping("/stats/stream")
+    public ResponseEntity<Flux<ViewStatsDto>> streamStats(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+            @RequestParam(required = false) List<String> uris,
+            @RequestParam(required = false, defaultValue = "false") Boolean unique,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Stream stats: start={}, end={}, uris={}, unique={}, limit={}", start, end, uris, unique, limit);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(statsService.streamStats(start, end, uris, unique, limit));
+    }
+
+    private static int size(List<?> values) {
+        return values == null ? 0 : values.size();
+    }
+}
@@ -1,23 +1,37 @@
 package ru.practicum.ewm.stat.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
 import ru.practicum.ewm.stat.dto.ViewStatsDto;
 import ru.practicum.ewm.stat.service.StatsService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @Slf4j
 public class StatsController {
     private final StatsService statsService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/hit")
     @ResponseStatus(HttpStatus.CREATED)
@@ -28,13 +42,104 @@ public class StatsController {
         statsService.saveHit(endpointHitDto);
     }
 
+    /**
+     * Saves a batch of hits in one transaction, e.g. hits buffered by a client.
+     */
+    @PostMapping("/hits")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void hits(@RequestBody List<@Valid EndpointHitDto> endpointHitDtos) {
+        log.info("Received {} hits", endpointHitDtos.size());
+        if (!endpointHitDtos.isEmpty()) {
+            statsService.saveHits(endpointHitDtos);
+        }
+    }
+
     @GetMapping("/stats")
     public List<ViewStatsDto> getStats(
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
             @RequestParam(required = false) List<String> uris,
+            @RequestParam(required = false, defaultValue = "false") Boolean unique,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Get stats: start={}, end={}, uris={}, unique={}, limit={}", start, end, uris, unique, limit);
+        return limit == null
+                ? statsService.getStats(start, end, uris, unique)
+                : statsService.getStats(start, end, uris, unique, limit);
+    }
+
+    /**
+     * Same as GET /stats for uri lists that do not fit into a query string.
+     */
+    @PostMapping("/stats")
+    public List<ViewStatsDto> queryStats(@Valid @RequestBody StatsQueryDto query) {
+        log.info("Query stats: start={}, end={}, uris={}, uriPrefix={}, ids={}, unique={}", query.getStart(),
+                query.getEnd(), size(query.getUris()), query.getUriPrefix(), size(query.getIds()), query.getUnique());
+        return statsService.getStats(query);
+    }
+
+    /**
+     * Hits of {@code uriPrefix} + id uris as an {@code {id: hits}} map, e.g. views of {@code /events/{id}}.
+     */
+    @GetMapping("/stats/resources")
+    public Map<Long, Long> getResourceStats(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+            @RequestParam String uriPrefix,
+            @RequestParam(required = false) List<Long> ids,
             @RequestParam(required = false, defaultValue = "false") Boolean unique) {
-        log.info("Get stats: start={}, end={}, uris={}, unique={}", start, end, uris, unique);
-        return statsService.getStats(start, end, uris, unique);
+        log.info("Get resource stats: start={}, end={}, uriPrefix={}, ids={}, unique={}", start, end, uriPrefix,
+                size(ids), unique);
+        return statsService.getResourceStats(start, end, uriPrefix, ids, unique);
+    }
+
+    @PostMapping("/stats/resources")
+    public Map<Long, Long> queryResourceStats(@Valid @RequestBody StatsQueryDto query) {
+        log.info("Query resource stats: start={}, end={}, uriPrefix={}, ids={}, unique={}", query.getStart(),
+                query.getEnd(), query.getUriPrefix(), size(query.getIds()), query.getUnique());
+        return statsService.getResourceStats(query.getStart(), query.getEnd(), query.getUriPrefix(), query.getIds(),
+                query.getUnique());
+    }
+
+    /**
+     * Most hit uris of the last {@code window} (up to a day), e.g. {@code 5m}, {@code 1h} or {@code 24h}.
+     */
+    @GetMapping("/stats/top")
+    public List<ViewStatsDto> getTop(@RequestParam(defaultValue = "1h") String window,
+                                     @RequestParam(defaultValue = "10") Integer limit) {
+        log.info("Get top: window={}, limit={}", window, limit);
+        return statsService.getTop(DurationStyle.detectAndParse(window), limit);
+    }
+
+    /**
+     * Same rows as /stats, written as NDJSON while they are read from the database cursor.
+     */
+    @GetMapping("/stats/stream")
+    public ResponseEntity<StreamingResponseBody> streamStats(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+            @RequestParam(required = false) List<String> uris,
+            @RequestParam(required = false, defaultValue = "false") Boolean unique,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Stream stats: start={}, end={}, uris={}, unique={}, limit={}", start, end, uris, unique, limit);
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            statsService.streamStats(start, end, uris, unique, limit, stats -> {
+                try {
+                    generator.writeObject(stats);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeRaw('\n');
+            generator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static int size(List<?> values) {
+        return values == null ? 0 : values.size();
     }
-}
\ No newline at end of file
+}
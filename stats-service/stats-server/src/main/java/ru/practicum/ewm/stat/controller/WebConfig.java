@@ -0,0 +1,22 @@
+package ru.practicum.ewm.stat.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.ewm.stat.codec.StatsBinaryHttpMessageConverter;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Added after the JSON converter, so the binary format is only used when a client asks for it.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new StatsBinaryHttpMessageConverter());
+    }
+}
@@ -0,0 +1,4 @@
+package ru.practicum.ewm.stat.counter;
+
+record BucketKey(Integer appId, Integer uriId) {
+}
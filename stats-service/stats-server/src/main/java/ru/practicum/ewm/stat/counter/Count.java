@@ -0,0 +1,20 @@
+package ru.practicum.ewm.stat.counter;
+
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
+
+record Count(Integer appId, Integer uriId, Long hits) implements HitCount {
+    @Override
+    public Integer getAppId() {
+        return appId;
+    }
+
+    @Override
+    public Integer getUriId() {
+        return uriId;
+    }
+
+    @Override
+    public Long getHits() {
+        return hits;
+    }
+}
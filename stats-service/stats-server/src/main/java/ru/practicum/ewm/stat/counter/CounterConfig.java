@@ -0,0 +1,32 @@
+package ru.practicum.ewm.stat.counter;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.ewm.stat.repository.HitRollupRepository;
+import ru.practicum.ewm.stat.repository.RollupStateRepository;
+import ru.practicum.ewm.stat.repository.StatsRepository;
+
+import java.time.Clock;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(CounterProperties.class)
+public class CounterConfig {
+
+    @Bean
+    public HitCounters hitCounters(StatsRepository statsRepository, HitRollupRepository rollupRepository,
+                                   RollupStateRepository stateRepository, PlatformTransactionManager transactionManager,
+                                   CounterProperties properties) {
+        return new HitCounters(statsRepository, rollupRepository, stateRepository, transactionManager,
+                properties, Clock.systemDefaultZone());
+    }
+
+    @Bean
+    public TrendingHits trendingHits(StatsRepository statsRepository, PlatformTransactionManager transactionManager,
+                                     CounterProperties properties) {
+        return new TrendingHits(statsRepository, transactionManager, properties.getTop(), Clock.systemDefaultZone());
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.ewm.stat.counter;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "stats.counters")
+public class CounterProperties {
+    private boolean enabled = true;
+    private Duration grace = Duration.ofMinutes(2);
+    private Duration backfill;
+    private Top top = new Top();
+
+    @Data
+    public static class Top {
+        private boolean enabled = true;
+        // Uris monitored per minute and per hour; counts are off by at most a window's hits / capacity
+        private int capacity = 1000;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.ewm.stat.counter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+final class HitBucket {
+    private final LongAdder hits = new LongAdder();
+    private final IpSketch ips = new IpSketch();
+
+    void add(long ipHash) {
+        hits.increment();
+        synchronized (ips) {
+            ips.add(ipHash);
+        }
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    IpSketch ips() {
+        synchronized (ips) {
+            return ips.copy();
+        }
+    }
+}
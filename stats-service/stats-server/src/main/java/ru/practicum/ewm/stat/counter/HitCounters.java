@@ -0,0 +1,464 @@
+package ru.practicum.ewm.stat.counter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.stat.model.EpochMillisConverter;
+import ru.practicum.ewm.stat.model.HitRollup;
+import ru.practicum.ewm.stat.model.RollupState;
+import ru.practicum.ewm.stat.repository.HitRollupRepository;
+import ru.practicum.ewm.stat.repository.RollupStateRepository;
+import ru.practicum.ewm.stat.repository.StatsRepository;
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
+import ru.practicum.ewm.stat.repository.StatsRepository.RawHit;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Real-time hit counters. Hits of the current hour live in per-minute buckets in memory; once an hour
+ * is closed the scheduled {@link #flush()} writes it to hit_rollups and advances the rolled-up watermark.
+ * <p>
+ * Queries are split into whole hours below the watermark (rollups), whole minutes above it (memory)
+ * and the partial edges of the requested range, which are read from endpoint_hits exactly.
+ * The counters assume a single stats-server instance writes endpoint_hits.
+ */
+@Slf4j
+public class HitCounters implements SmartInitializingSingleton {
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+
+    private final StatsRepository statsRepository;
+    private final HitRollupRepository rollupRepository;
+    private final RollupStateRepository stateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CounterProperties properties;
+    private final Clock clock;
+
+    private final Map<Long, MinuteSlot> slots = new ConcurrentHashMap<>();
+    // Guards only the in-memory swaps: readers copy the slots and the view, flush seals slots and publishes
+    // views. Database reads and writes run outside it
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile View view;
+    private volatile boolean ready;
+
+    public HitCounters(StatsRepository statsRepository, HitRollupRepository rollupRepository,
+                       RollupStateRepository stateRepository, PlatformTransactionManager transactionManager,
+                       CounterProperties properties, Clock clock) {
+        this.statsRepository = statsRepository;
+        this.rollupRepository = rollupRepository;
+        this.stateRepository = stateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs before the web server accepts hits, so rebuilding from endpoint_hits cannot race with ingest.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        try {
+            initialize();
+            ready = true;
+        } catch (RuntimeException e) {
+            log.error("Hit counters are disabled, stats will be read from endpoint_hits", e);
+        }
+    }
+
+    public void record(Integer appId, Integer uriId, byte[] ip, LocalDateTime timestamp) {
+        if (ready) {
+            add(appId, uriId, ip, timestamp);
+        }
+    }
+
+    /**
+     * @param uriIds uri ids to count, {@code null} for all
+     * @return counts for [start, end], or empty when the counters cannot answer the query
+     */
+    public Optional<List<HitCount>> getStats(LocalDateTime start, LocalDateTime end,
+                                             Collection<Integer> uriIds, boolean unique) {
+        // Merging sketches of every uri over long ranges costs more than the covering index scan
+        if (!ready || (unique && uriIds == null)) {
+            return Optional.empty();
+        }
+
+        long from = toMillis(start);
+        long to = toMillis(end) + 1;
+        Tally tally = new Tally(uriIds, unique);
+
+        View current;
+        List<MinuteSlot> memory;
+        lock.readLock().lock();
+        try {
+            current = view;
+            memory = new ArrayList<>(slots.values());
+            memory.addAll(current.unflushed());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long rolledUpFrom = toMillis(current.state().getRolledUpFrom());
+        long rolledUpTo = toMillis(current.state().getRolledUpTo());
+
+        if (from < rolledUpFrom) {
+            addRaw(tally, from, Math.min(to, rolledUpFrom));
+        }
+
+        long rollupStart = Math.max(from, rolledUpFrom);
+        long rollupEnd = Math.min(to, rolledUpTo);
+        if (rollupStart < rollupEnd) {
+            long hoursStart = ceil(rollupStart, HOUR);
+            long hoursEnd = Math.floorDiv(rollupEnd, HOUR) * HOUR;
+            addAligned(tally, rollupStart, rollupEnd, hoursStart, hoursEnd, () -> {
+                addRollups(tally, hoursStart, hoursEnd, current.maxRollupId());
+                addMemory(tally, memory, hoursStart, hoursEnd);
+            });
+        }
+
+        long memoryStart = Math.max(from, rolledUpTo);
+        if (memoryStart < to) {
+            long minutesStart = ceil(memoryStart, MINUTE);
+            long minutesEnd = Math.floorDiv(to, MINUTE) * MINUTE;
+            addAligned(tally, memoryStart, to, minutesStart, minutesEnd,
+                    () -> addMemory(tally, memory, minutesStart, minutesEnd));
+        }
+
+        return Optional.of(tally.toCounts());
+    }
+
+    /**
+     * Writes every hour that closed more than {@code grace} ago to hit_rollups. Slots that fail to
+     * persist stay in memory and are retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${stats.counters.flush-interval:PT1M}",
+            initialDelayString = "${stats.counters.flush-interval:PT1M}")
+    public void flush() {
+        if (!ready || !flushLock.tryLock()) {
+            return;
+        }
+
+        try {
+            long cutoff = Math.floorDiv(toMillis(LocalDateTime.now(clock)) - properties.getGrace().toMillis(), HOUR)
+                    * HOUR;
+            View sealed = seal(cutoff);
+            if (sealed == null) {
+                return;
+            }
+
+            RollupState state = sealed.state();
+            long rolledUpFrom = toMillis(state.getRolledUpFrom());
+            Map<Long, Map<BucketKey, Rollup>> hours = new HashMap<>();
+            for (MinuteSlot slot : sealed.unflushed()) {
+                // Hours before the rolled-up range are always read from endpoint_hits
+                if (slot.minute() < rolledUpFrom) {
+                    continue;
+                }
+                Map<BucketKey, Rollup> hour = hours.computeIfAbsent(Math.floorDiv(slot.minute(), HOUR) * HOUR,
+                        h -> new HashMap<>());
+                slot.buckets().forEach((key, bucket) ->
+                        hour.computeIfAbsent(key, k -> new Rollup()).add(bucket.hits(), bucket.ips()));
+            }
+
+            RollupState next = new RollupState(RollupState.ID, state.getRolledUpFrom(),
+                    toDateTime(Math.max(toMillis(state.getRolledUpTo()), cutoff)));
+            long maxRollupId;
+            try {
+                maxRollupId = Math.max(sealed.maxRollupId(), save(hours, next));
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush hit counters, {} minutes kept in memory", sealed.unflushed().size(), e);
+                return;
+            }
+
+            // Only flush changes the unflushed slots, so all of them are in hit_rollups now
+            lock.writeLock().lock();
+            try {
+                view = new View(next, maxRollupId, List.of());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the slots before {@code cutoff} out of the live map and publishes them as unflushed.
+     *
+     * @return the published view, or {@code null} when there is nothing to flush
+     */
+    private View seal(long cutoff) {
+        lock.writeLock().lock();
+        try {
+            View current = view;
+            if (cutoff <= toMillis(current.state().getRolledUpTo())
+                    && current.unflushed().isEmpty() && slots.keySet().stream().noneMatch(minute -> minute < cutoff)) {
+                return null;
+            }
+
+            List<MinuteSlot> unflushed = new ArrayList<>(current.unflushed());
+            for (Iterator<MinuteSlot> it = slots.values().iterator(); it.hasNext(); ) {
+                MinuteSlot slot = it.next();
+                if (slot.minute() < cutoff) {
+                    it.remove();
+                    slot.seal();
+                    unflushed.add(slot);
+                }
+            }
+            view = new View(current.state(), current.maxRollupId(), List.copyOf(unflushed));
+            return view;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void initialize() {
+        long now = toMillis(LocalDateTime.now(clock));
+        long cutoff = Math.floorDiv(now - properties.getGrace().toMillis(), HOUR) * HOUR;
+
+        RollupState current = stateRepository.findById(RollupState.ID)
+                .orElseGet(() -> initialState(now, cutoff));
+
+        // Hours closed while the server was down are rebuilt from endpoint_hits
+        long hour = toMillis(current.getRolledUpTo());
+        while (hour < cutoff) {
+            Optional<LocalDateTime> next = statsRepository.findFirstHitTime(toDateTime(hour));
+            if (next.isEmpty() || toMillis(next.get()) >= cutoff) {
+                break;
+            }
+
+            hour = Math.floorDiv(toMillis(next.get()), HOUR) * HOUR;
+            current = new RollupState(RollupState.ID, current.getRolledUpFrom(), toDateTime(hour + HOUR));
+            save(Map.of(hour, rollUp(hour, hour + HOUR)), current);
+            hour += HOUR;
+        }
+
+        if (toMillis(current.getRolledUpTo()) < cutoff) {
+            current = new RollupState(RollupState.ID, current.getRolledUpFrom(), toDateTime(cutoff));
+            save(Map.of(), current);
+        }
+        view = new View(current, rollupRepository.findMaxId(), List.of());
+
+        long rolledUpTo = toMillis(current.getRolledUpTo());
+        long[] replayed = new long[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<RawHit> hits = statsRepository.streamHitsFrom(toDateTime(rolledUpTo))) {
+                hits.forEach(hit -> {
+                    add(hit.getAppId(), hit.getUriId(), hit.getIp(), hit.getTimestamp());
+                    replayed[0]++;
+                });
+            }
+        });
+
+        log.info("Hit counters ready: rolled up [{}, {}), {} recent hits replayed",
+                current.getRolledUpFrom(), current.getRolledUpTo(), replayed[0]);
+    }
+
+    private RollupState initialState(long now, long cutoff) {
+        long from = statsRepository.findFirstHitTime()
+                .map(first -> Math.floorDiv(toMillis(first), HOUR) * HOUR)
+                .orElse(cutoff);
+        if (properties.getBackfill() != null) {
+            from = Math.max(from, Math.floorDiv(now - properties.getBackfill().toMillis(), HOUR) * HOUR);
+        }
+        from = Math.min(from, cutoff);
+        return new RollupState(RollupState.ID, toDateTime(from), toDateTime(from));
+    }
+
+    private Map<BucketKey, Rollup> rollUp(long from, long to) {
+        Map<BucketKey, Rollup> rollups = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<RawHit> hits = statsRepository.streamHits(toDateTime(from), toDateTime(to))) {
+                hits.forEach(hit -> rollups.computeIfAbsent(new BucketKey(hit.getAppId(), hit.getUriId()),
+                        k -> new Rollup()).add(hit.getIp()));
+            }
+        });
+        return rollups;
+    }
+
+    /**
+     * @return the highest id among the saved rows, 0 when there were none
+     */
+    private long save(Map<Long, Map<BucketKey, Rollup>> hours, RollupState next) {
+        List<HitRollup> rows = new ArrayList<>();
+        hours.forEach((hour, rollups) -> rollups.forEach((key, rollup) ->
+                rows.add(HitRollup.builder()
+                        .hourStart(toDateTime(hour))
+                        .appId(key.appId())
+                        .uriId(key.uriId())
+                        .hits(rollup.hits)
+                        .ips(rollup.ips.toBytes())
+                        .build())));
+
+        return transactionTemplate.execute(status -> {
+            long maxId = rollupRepository.saveAll(rows).stream().mapToLong(HitRollup::getId).max().orElse(0);
+            stateRepository.save(next);
+            return maxId;
+        });
+    }
+
+    private void add(Integer appId, Integer uriId, byte[] ip, LocalDateTime timestamp) {
+        long minute = Math.floorDiv(toMillis(timestamp), MINUTE) * MINUTE;
+        BucketKey key = new BucketKey(appId, uriId);
+        long ipHash = IpSketch.hash(ip);
+        // A slot sealed by a concurrent flush is already detached, the retry creates a fresh one
+        while (!slots.computeIfAbsent(minute, MinuteSlot::new).record(key, ipHash)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Counts [alignedFrom, alignedTo) with {@code aligned} and the rest of [from, to) from endpoint_hits.
+     */
+    private void addAligned(Tally tally, long from, long to, long alignedFrom, long alignedTo, Runnable aligned) {
+        if (alignedFrom >= alignedTo) {
+            addRaw(tally, from, to);
+            return;
+        }
+        if (from < alignedFrom) {
+            addRaw(tally, from, alignedFrom);
+        }
+        aligned.run();
+        if (alignedTo < to) {
+            addRaw(tally, alignedTo, to);
+        }
+    }
+
+    private void addRaw(Tally tally, long from, long to) {
+        LocalDateTime start = toDateTime(from);
+        LocalDateTime end = toDateTime(to);
+        if (tally.unique) {
+            statsRepository.findDistinctIpsByUris(start, end, tally.uriIds)
+                    .forEach(hit -> tally.sketch(hit.getAppId(), hit.getUriId()).add(IpSketch.hash(hit.getIp())));
+        } else {
+            List<HitCount> counts = tally.uriIds == null
+                    ? statsRepository.countHits(start, end)
+                    : statsRepository.countHitsByUris(start, end, tally.uriIds);
+            counts.forEach(count -> tally.addHits(count.getAppId(), count.getUriId(), count.getHits()));
+        }
+    }
+
+    private void addRollups(Tally tally, long from, long to, long maxRollupId) {
+        LocalDateTime start = toDateTime(from);
+        LocalDateTime end = toDateTime(to);
+        if (tally.unique) {
+            rollupRepository.findByUris(start, end, tally.uriIds, maxRollupId)
+                    .forEach(rollup -> tally.sketch(rollup.getAppId(), rollup.getUriId())
+                            .merge(IpSketch.fromBytes(rollup.getIps())));
+        } else {
+            List<HitCount> counts = tally.uriIds == null
+                    ? rollupRepository.sumHits(start, end, maxRollupId)
+                    : rollupRepository.sumHitsByUris(start, end, tally.uriIds, maxRollupId);
+            counts.forEach(count -> tally.addHits(count.getAppId(), count.getUriId(), count.getHits()));
+        }
+    }
+
+    private void addMemory(Tally tally, List<MinuteSlot> memory, long from, long to) {
+        for (MinuteSlot slot : memory) {
+            addMemory(tally, slot, from, to);
+        }
+    }
+
+    private void addMemory(Tally tally, MinuteSlot slot, long from, long to) {
+        if (slot.minute() < from || slot.minute() >= to) {
+            return;
+        }
+        slot.buckets().forEach((key, bucket) -> {
+            if (tally.uriIds != null && !tally.uriIds.contains(key.uriId())) {
+                return;
+            }
+            if (tally.unique) {
+                tally.sketch(key.appId(), key.uriId()).merge(bucket.ips());
+            } else {
+                tally.addHits(key.appId(), key.uriId(), bucket.hits());
+            }
+        });
+    }
+
+    private static long ceil(long millis, long unit) {
+        return -Math.floorDiv(-millis, unit) * unit;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return EpochMillisConverter.toEpochMilli(dateTime);
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return EpochMillisConverter.fromEpochMilli(millis);
+    }
+
+    /**
+     * What a reader combines: hit_rollups rows up to {@code maxRollupId} over the rolled-up range, and the
+     * sealed slots that are not among those rows yet. A flush publishes the next view only after its rows
+     * commit, so no reader counts a slot both from memory and from hit_rollups. Row ids grow from flush to
+     * flush, as a single instance writes them.
+     */
+    private record View(RollupState state, long maxRollupId, List<MinuteSlot> unflushed) {
+    }
+
+    private static final class Rollup {
+        private long hits;
+        private final IpSketch ips = new IpSketch();
+
+        void add(byte[] ip) {
+            hits++;
+            ips.add(IpSketch.hash(ip));
+        }
+
+        void add(long hits, IpSketch ips) {
+            this.hits += hits;
+            this.ips.merge(ips);
+        }
+    }
+
+    private static final class Tally {
+        private final Set<Integer> uriIds;
+        private final boolean unique;
+        private final Map<BucketKey, Long> hits = new HashMap<>();
+        private final Map<BucketKey, IpSketch> sketches = new HashMap<>();
+
+        Tally(Collection<Integer> uriIds, boolean unique) {
+            this.uriIds = uriIds == null ? null : new HashSet<>(uriIds);
+            this.unique = unique;
+        }
+
+        void addHits(Integer appId, Integer uriId, long count) {
+            hits.merge(new BucketKey(appId, uriId), count, Long::sum);
+        }
+
+        IpSketch sketch(Integer appId, Integer uriId) {
+            return sketches.computeIfAbsent(new BucketKey(appId, uriId), k -> new IpSketch());
+        }
+
+        List<HitCount> toCounts() {
+            Map<BucketKey, Long> totals = hits;
+            if (unique) {
+                totals = new HashMap<>();
+                for (Map.Entry<BucketKey, IpSketch> entry : sketches.entrySet()) {
+                    totals.put(entry.getKey(), entry.getValue().estimate());
+                }
+            }
+
+            return totals.entrySet().stream()
+                    .filter(entry -> entry.getValue() > 0)
+                    .sorted(Map.Entry.<BucketKey, Long>comparingByValue().reversed())
+                    .map(entry -> (HitCount) new Count(entry.getKey().appId(), entry.getKey().uriId(),
+                            entry.getValue()))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.ewm.stat.counter;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Distinct-IP counter: an exact sorted set of hashes while small, a HyperLogLog
+ * (4096 registers, ~1.6% standard error) once it grows past {@link #SPARSE_LIMIT}.
+ * Not thread-safe; callers synchronize on the instance.
+ */
+public final class IpSketch {
+    static final int PRECISION = 12;
+    static final int REGISTERS = 1 << PRECISION;
+    static final int SPARSE_LIMIT = 256;
+
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+
+    private long[] sparse = new long[4];
+    private int size;
+    private byte[] registers;
+
+    public static long hash(byte[] ip) {
+        long h = 0x9E3779B97F4A7C15L ^ ip.length;
+        for (byte b : ip) {
+            h = (h ^ (b & 0xff)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    public void add(long hash) {
+        if (registers != null) {
+            addToRegisters(registers, hash);
+            return;
+        }
+
+        int index = Arrays.binarySearch(sparse, 0, size, hash);
+        if (index >= 0) {
+            return;
+        }
+        if (size == SPARSE_LIMIT) {
+            densify();
+            addToRegisters(registers, hash);
+            return;
+        }
+
+        int insertAt = -index - 1;
+        if (size == sparse.length) {
+            sparse = Arrays.copyOf(sparse, sparse.length * 2);
+        }
+        System.arraycopy(sparse, insertAt, sparse, insertAt + 1, size - insertAt);
+        sparse[insertAt] = hash;
+        size++;
+    }
+
+    public void merge(IpSketch other) {
+        if (other.registers != null) {
+            if (registers == null) {
+                densify();
+            }
+            for (int i = 0; i < REGISTERS; i++) {
+                registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < other.size; i++) {
+            add(other.sparse[i]);
+        }
+    }
+
+    public IpSketch copy() {
+        IpSketch copy = new IpSketch();
+        copy.sparse = Arrays.copyOf(sparse, sparse.length);
+        copy.size = size;
+        copy.registers = registers == null ? null : registers.clone();
+        return copy;
+    }
+
+    public long estimate() {
+        if (registers == null) {
+            return size;
+        }
+
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double alpha = 0.7213 / (1 + 1.079 / REGISTERS);
+        double estimate = alpha * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        if (registers != null) {
+            return ByteBuffer.allocate(1 + REGISTERS).put(DENSE).put(registers).array();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Integer.BYTES + size * Long.BYTES).put(SPARSE).putInt(size);
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(sparse[i]);
+        }
+        return buffer.array();
+    }
+
+    public static IpSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        IpSketch sketch = new IpSketch();
+        if (buffer.get() == DENSE) {
+            sketch.registers = new byte[REGISTERS];
+            buffer.get(sketch.registers);
+            return sketch;
+        }
+
+        int size = buffer.getInt();
+        sketch.sparse = new long[Math.max(4, size)];
+        for (int i = 0; i < size; i++) {
+            sketch.sparse[i] = buffer.getLong();
+        }
+        sketch.size = size;
+        return sketch;
+    }
+
+    private void densify() {
+        registers = new byte[REGISTERS];
+        for (int i = 0; i < size; i++) {
+            addToRegisters(registers, sparse[i]);
+        }
+        sparse = null;
+        size = 0;
+    }
+
+    private static void addToRegisters(byte[] registers, long hash) {
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION), Long.SIZE - PRECISION) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
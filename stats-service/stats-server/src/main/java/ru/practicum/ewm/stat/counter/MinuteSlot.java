@@ -0,0 +1,53 @@
+package ru.practicum.ewm.stat.counter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Buckets of one minute. Writers register in a per-thread stripe so that {@link #seal()} can wait
+ * for in-flight updates without a shared lock on the ingest path.
+ */
+final class MinuteSlot {
+    private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+
+    private final long minute;
+    private final Map<BucketKey, HitBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray writers = new AtomicIntegerArray(STRIPES);
+    private volatile boolean sealed;
+
+    MinuteSlot(long minute) {
+        this.minute = minute;
+    }
+
+    long minute() {
+        return minute;
+    }
+
+    Map<BucketKey, HitBucket> buckets() {
+        return buckets;
+    }
+
+    boolean record(BucketKey key, long ipHash) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        writers.incrementAndGet(stripe);
+        try {
+            if (sealed) {
+                return false;
+            }
+            buckets.computeIfAbsent(key, k -> new HitBucket()).add(ipHash);
+            return true;
+        } finally {
+            writers.decrementAndGet(stripe);
+        }
+    }
+
+    void seal() {
+        sealed = true;
+        for (int i = 0; i < STRIPES; i++) {
+            while (writers.get(i) != 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
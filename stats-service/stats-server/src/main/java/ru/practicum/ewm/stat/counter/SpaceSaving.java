@@ -0,0 +1,136 @@
+package ru.practicum.ewm.stat.counter;
+
+import java.util.*;
+
+/**
+ * Space-Saving heavy-hitters summary (Metwally et al.) over long keys.
+ * <p>
+ * At most {@code capacity} keys are monitored; a new key replaces the one with the smallest count and
+ * inherits that count as its error. Every estimate is an upper bound that exceeds the true count by at most
+ * {@code total / capacity}, so every key more frequent than that is guaranteed to be monitored.
+ * Not thread-safe.
+ */
+final class SpaceSaving {
+    private static final Comparator<Counter> BY_COUNT = Comparator.<Counter>comparingLong(counter -> counter.count)
+            .thenComparingLong(counter -> counter.key);
+
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+    private long total;
+
+    SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    void add(long key) {
+        add(key, 1);
+    }
+
+    /**
+     * Counts {@code count} occurrences of the key at once, with the same bounds as adding them one by one.
+     */
+    void add(long key, long count) {
+        total += count;
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += count;
+            byCount.add(counter);
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            put(new Counter(key, count, 0));
+            return;
+        }
+
+        Counter evicted = byCount.pollFirst();
+        counters.remove(evicted.key);
+        put(new Counter(key, evicted.count + count, evicted.count));
+    }
+
+    /**
+     * Merges another summary (Agarwal et al.): keys missing on one side are counted with that side's minimum,
+     * which keeps the combined estimates upper bounds with error at most {@code total / capacity}.
+     */
+    void merge(SpaceSaving other) {
+        long missingHere = min();
+        long missingThere = other.min();
+        Map<Long, long[]> merged = new HashMap<>();
+        for (Counter counter : counters.values()) {
+            merged.put(counter.key, new long[]{counter.count + missingThere, counter.error + missingThere});
+        }
+        for (Counter counter : other.counters.values()) {
+            long[] mine = merged.get(counter.key);
+            if (mine == null) {
+                merged.put(counter.key, new long[]{counter.count + missingHere, counter.error + missingHere});
+            } else {
+                mine[0] += counter.count - missingThere;
+                mine[1] += counter.error - missingThere;
+            }
+        }
+
+        counters.clear();
+        byCount.clear();
+        merged.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, long[]> entry) -> entry.getValue()[0]).reversed())
+                .limit(capacity)
+                .forEach(entry -> put(new Counter(entry.getKey(), entry.getValue()[0], entry.getValue()[1])));
+        total += other.total;
+    }
+
+    /**
+     * @return up to {@code limit} monitored keys, most frequent first
+     */
+    List<Estimate> top(int limit) {
+        List<Estimate> top = new ArrayList<>(Math.min(limit, counters.size()));
+        for (Iterator<Counter> it = byCount.descendingIterator(); it.hasNext() && top.size() < limit; ) {
+            Counter counter = it.next();
+            top.add(new Estimate(counter.key, counter.count, counter.error));
+        }
+        return top;
+    }
+
+    long total() {
+        return total;
+    }
+
+    void clear() {
+        counters.clear();
+        byCount.clear();
+        total = 0;
+    }
+
+    // An unmonitored key may have occurred as often as the least counted one, but only once the summary is full
+    private long min() {
+        return counters.size() < capacity ? 0 : byCount.first().count;
+    }
+
+    private void put(Counter counter) {
+        counters.put(counter.key, counter);
+        byCount.add(counter);
+    }
+
+    /**
+     * @param count upper bound of the key's frequency
+     * @param error how much {@code count} may overestimate it
+     */
+    record Estimate(long key, long count, long error) {
+    }
+
+    private static final class Counter {
+        private final long key;
+        private long count;
+        private final long error;
+
+        Counter(long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
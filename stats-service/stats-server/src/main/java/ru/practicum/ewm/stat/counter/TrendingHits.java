@@ -0,0 +1,247 @@
+package ru.practicum.ewm.stat.counter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.stat.model.EpochMillisConverter;
+import ru.practicum.ewm.stat.repository.StatsRepository;
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
+import ru.practicum.ewm.stat.repository.StatsRepository.RawHit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Most hit uris over a sliding window of up to a day. Every hit is counted in its minute and in its hour; a
+ * window is answered by merging the {@link SpaceSaving} summaries it covers, so windows up to an hour have
+ * minute precision and longer ones hour precision.
+ * <p>
+ * Ingest takes no lock: hits go to lock-free exact counters of the slot, which a read folds into the slot's
+ * summary. Only the first hit of a new minute or hour locks its slot to reset it, and a hit that finds more
+ * exact counters than the capacity locks it to fold them, so memory stays bounded by the capacity.
+ */
+@Slf4j
+public class TrendingHits implements SmartInitializingSingleton {
+    public static final Duration MAX_WINDOW = Duration.ofDays(1);
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+
+    private final StatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CounterProperties.Top properties;
+    private final Clock clock;
+
+    private final Slot[] minutes;
+    private final Slot[] hours;
+    private volatile boolean ready;
+
+    public TrendingHits(StatsRepository statsRepository, PlatformTransactionManager transactionManager,
+                        CounterProperties.Top properties, Clock clock) {
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.clock = clock;
+        this.minutes = slots((int) (HOUR / MINUTE), properties.getCapacity());
+        this.hours = slots((int) (MAX_WINDOW.toMillis() / HOUR), properties.getCapacity());
+    }
+
+    /**
+     * Rebuilds the last day from endpoint_hits before the web server accepts hits.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        try {
+            long[] replayed = new long[1];
+            long now = now();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<RawHit> hits = statsRepository.streamHitsFrom(toDateTime(now - MAX_WINDOW.toMillis()))) {
+                    hits.forEach(hit -> {
+                        add(hit.getAppId(), hit.getUriId(), Math.min(toMillis(hit.getTimestamp()), now));
+                        replayed[0]++;
+                    });
+                }
+            });
+            ready = true;
+            log.info("Trending hits ready: {} hits of the last {} replayed", replayed[0], MAX_WINDOW);
+        } catch (RuntimeException e) {
+            log.error("Trending hits are disabled, top uris will be read from endpoint_hits", e);
+        }
+    }
+
+    public void record(Integer appId, Integer uriId, LocalDateTime timestamp) {
+        if (ready) {
+            // A timestamp ahead of the clock would recycle a slot that is still in the window
+            add(appId, uriId, Math.min(toMillis(timestamp), now()));
+        }
+    }
+
+    /**
+     * @return up to {@code limit} most hit uris of the last {@code window}, or empty when the summaries are not
+     * available; counts are upper bounds that may exceed the true ones by a window's hits / capacity
+     */
+    public Optional<List<HitCount>> getTop(Duration window, int limit) {
+        if (window.isNegative() || window.isZero() || window.compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("Window must be positive and at most " + MAX_WINDOW);
+        }
+        if (limit <= 0 || limit > properties.getCapacity()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + properties.getCapacity());
+        }
+        if (!ready) {
+            return Optional.empty();
+        }
+
+        boolean byMinute = window.toMillis() <= HOUR;
+        long unit = byMinute ? MINUTE : HOUR;
+        Slot[] slots = byMinute ? minutes : hours;
+        long last = Math.floorDiv(now(), unit) * unit;
+        long first = last - (ceil(window.toMillis(), unit) / unit - 1) * unit;
+
+        SpaceSaving merged = new SpaceSaving(properties.getCapacity());
+        for (Slot slot : slots) {
+            synchronized (slot) {
+                Window covered = slot.window;
+                if (covered.start >= first && covered.start <= last) {
+                    merged.merge(covered.fold());
+                }
+            }
+        }
+
+        return Optional.of(merged.top(limit).stream()
+                .map(estimate -> (HitCount) new Count((int) (estimate.key() >>> 32), (int) estimate.key(),
+                        estimate.count()))
+                .toList());
+    }
+
+    private void add(Integer appId, Integer uriId, long at) {
+        long key = (long) appId << 32 | (uriId & 0xFFFFFFFFL);
+        add(minutes, MINUTE, at, key);
+        add(hours, HOUR, at, key);
+    }
+
+    private void add(Slot[] slots, long unit, long at, long key) {
+        long start = Math.floorDiv(at, unit) * unit;
+        Slot slot = slots[(int) Math.floorMod(start / unit, slots.length)];
+        Window window = slot.window;
+        if (window.start < start) {
+            synchronized (slot) {
+                if (slot.window.start < start) {
+                    slot.window = new Window(start, properties.getCapacity());
+                }
+                window = slot.window;
+            }
+        }
+        // Older than the ring reaches back
+        if (window.start != start) {
+            return;
+        }
+
+        window.increment(key);
+        // Keeps the exact counters as bounded as the summary when there are more uris than reads
+        if (window.hits.size() > properties.getCapacity()) {
+            synchronized (slot) {
+                if (window.hits.size() > properties.getCapacity()) {
+                    window.fold();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the most exact counters any window holds, at most about the capacity
+     */
+    int maxWindowEntries() {
+        return Stream.concat(Arrays.stream(minutes), Arrays.stream(hours))
+                .mapToInt(slot -> slot.window.hits.size())
+                .max()
+                .orElse(0);
+    }
+
+    private long now() {
+        return toMillis(LocalDateTime.now(clock));
+    }
+
+    private static Slot[] slots(int count, int capacity) {
+        Slot[] slots = new Slot[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = new Slot(new Window(Long.MIN_VALUE, capacity));
+        }
+        return slots;
+    }
+
+    private static long ceil(long millis, long unit) {
+        return -Math.floorDiv(-millis, unit) * unit;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return EpochMillisConverter.toEpochMilli(dateTime);
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return EpochMillisConverter.fromEpochMilli(millis);
+    }
+
+    private static final class Slot {
+        private volatile Window window;
+
+        Slot(Window window) {
+            this.window = window;
+        }
+    }
+
+    /**
+     * One minute or hour of a slot. A fold moves the exact counters into the summary and removes them, so the
+     * window never holds more than the capacity of either.
+     */
+    private static final class Window {
+        private final long start;
+        private final Map<Long, LongAdder> hits = new ConcurrentHashMap<>();
+        // Guarded by the slot
+        private final SpaceSaving summary;
+
+        Window(long start, int capacity) {
+            this.start = start;
+            this.summary = new SpaceSaving(capacity);
+        }
+
+        void increment(long key) {
+            long count = 1;
+            while (count > 0) {
+                LongAdder counter = hits.computeIfAbsent(key, k -> new LongAdder());
+                counter.add(count);
+                if (hits.get(key) == counter) {
+                    // Still mapped, so the fold that removes it will count it
+                    return;
+                }
+                // Removed by a fold that may have read it before the add; whatever it left over is carried on
+                count = counter.sumThenReset();
+            }
+        }
+
+        // Guarded by the slot
+        SpaceSaving fold() {
+            for (Long key : hits.keySet()) {
+                LongAdder counter = hits.remove(key);
+                if (counter != null) {
+                    long count = counter.sumThenReset();
+                    if (count > 0) {
+                        summary.add(key, count);
+                    }
+                }
+            }
+            return summary;
+        }
+    }
+}
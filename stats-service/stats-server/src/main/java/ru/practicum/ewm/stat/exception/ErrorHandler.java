@@ -5,12 +5,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
@@ -29,13 +32,23 @@ public class ErrorHandler {
     @ExceptionHandler({MethodArgumentNotValidException.class,
             MissingServletRequestParameterException.class,
             MethodArgumentTypeMismatchException.class,
-            DateTimeParseException.class})
+            DateTimeParseException.class,
+            HttpMessageNotReadableException.class,
+            HandlerMethodValidationException.class,
+            ServerWebInputException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidationException(Exception e) {
         log.error("Validation error: {}", e.getMessage(), e);
         return new ErrorResponse("BAD_REQUEST", "Invalid request parameters", LocalDateTime.now());
     }
 
+    @ExceptionHandler(HitLogUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleHitLogUnavailableException(HitLogUnavailableException e) {
+        log.warn("Hits rejected: {}", e.getMessage());
+        return new ErrorResponse("SERVICE_UNAVAILABLE", e.getMessage(), LocalDateTime.now());
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleOtherExceptions(Exception e) {
@@ -0,0 +1,14 @@
+package ru.practicum.ewm.stat.exception;
+
+/**
+ * The hit log cannot take hits right now. None of the rejected hits were written, so the client may retry.
+ */
+public class HitLogUnavailableException extends RuntimeException {
+    public HitLogUnavailableException(String message) {
+        super(message);
+    }
+
+    public HitLogUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.ewm.stat.mapper;
+
+import lombok.experimental.UtilityClass;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Encodes hit IPs for {@code endpoint_hits.ip}: an address literal as its 4 or 16 bytes, anything else as the
+ * 32-byte SHA-256 of the value, which is then stored as is in {@code ip_text}. Equal values always get equal
+ * bytes, so distinct-IP counts work for both.
+ */
+@UtilityClass
+public class IpAddresses {
+    private static final Pattern IPV4 = Pattern.compile("(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})");
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]+");
+
+    public static byte[] toBytes(String ip) {
+        if (ip == null || ip.isBlank()) {
+            throw invalid(ip);
+        }
+        byte[] address = toAddress(ip);
+        return address != null ? address : digest(ip);
+    }
+
+    /**
+     * @return whether {@code ip} holds address bytes rather than the digest of a value kept in {@code ip_text}
+     */
+    public static boolean isAddress(byte[] ip) {
+        return ip.length == 4 || ip.length == 16;
+    }
+
+    // Null when the value is not an address literal
+    private static byte[] toAddress(String ip) {
+        String value = ip.strip();
+
+        Matcher ipv4 = IPV4.matcher(value);
+        if (ipv4.matches()) {
+            byte[] address = new byte[4];
+            for (int i = 0; i < address.length; i++) {
+                int octet = Integer.parseInt(ipv4.group(i + 1));
+                if (octet > 255) {
+                    return null;
+                }
+                address[i] = (byte) octet;
+            }
+            return address;
+        }
+
+        // Only IPv6 literals reach InetAddress, so it never falls back to a DNS lookup
+        if (value.indexOf(':') >= 0 && IPV6.matcher(value).matches()) {
+            try {
+                return InetAddress.getByName(value).getAddress();
+            } catch (UnknownHostException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static byte[] digest(String ip) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(ip.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static String toString(byte[] address) {
+        try {
+            return InetAddress.getByAddress(address).getHostAddress();
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Invalid IP address length: " + address.length);
+        }
+    }
+
+    private static IllegalArgumentException invalid(String ip) {
+        return new IllegalArgumentException("Invalid IP address: " + ip);
+    }
+}
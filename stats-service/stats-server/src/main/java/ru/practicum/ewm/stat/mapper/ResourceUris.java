@@ -0,0 +1,25 @@
+package ru.practicum.ewm.stat.mapper;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.ewm.stat.model.Uri;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@UtilityClass
+public class ResourceUris {
+    // No leading zeros, so every (prefix, id) pair stands for one uri; 18 digits always fit into a bigint
+    private static final Pattern RESOURCE = Pattern.compile("(.*/)(0|[1-9]\\d{0,17})");
+
+    public static Uri toUri(String uri) {
+        Matcher resource = RESOURCE.matcher(uri);
+        if (!resource.matches()) {
+            return Uri.builder().uri(uri).build();
+        }
+        return Uri.builder()
+                .uri(uri)
+                .prefix(resource.group(1))
+                .resourceId(Long.parseLong(resource.group(2)))
+                .build();
+    }
+}
@@ -7,30 +7,31 @@ import ru.practicum.ewm.stat.model.EndpointHit;
 @UtilityClass
 public class StatsMapper {
 
+    // App and URI are interned separately, so only the inline columns are filled here
     public static EndpointHit toEntity(EndpointHitDto dto) {
         if (dto == null) {
             return null;
         }
 
+        byte[] ip = IpAddresses.toBytes(dto.getIp());
         return EndpointHit.builder()
-                .app(dto.getApp())
-                .uri(dto.getUri())
-                .ip(dto.getIp())
+                .ip(ip)
+                .ipText(IpAddresses.isAddress(ip) ? null : dto.getIp())
                 .timestamp(dto.getTimestamp())
                 .build();
     }
 
-    public static EndpointHitDto toDto(EndpointHit entity) {
+    public static EndpointHitDto toDto(EndpointHit entity, String app, String uri) {
         if (entity == null) {
             return null;
         }
 
         return new EndpointHitDto(
                 entity.getId(),
-                entity.getApp(),
-                entity.getUri(),
-                entity.getIp(),
+                app,
+                uri,
+                entity.getIpText() != null ? entity.getIpText() : IpAddresses.toString(entity.getIp()),
                 entity.getTimestamp()
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package ru.practicum.ewm.stat.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "apps")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class App {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "name", nullable = false, unique = true)
+    private String name;
+}
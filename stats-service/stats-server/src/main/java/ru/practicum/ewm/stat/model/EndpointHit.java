@@ -6,7 +6,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "endpoint_hits")
+@Table(name = "endpoint_hits", indexes = {
+        @Index(name = "idx_endpoint_hits_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_endpoint_hits_uri_timestamp", columnList = "uri_id, timestamp")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,15 +19,21 @@ public class EndpointHit {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "app", nullable = false)
-    private String app;
+    @Column(name = "app_id", nullable = false)
+    private Integer appId;
 
-    @Column(name = "uri", nullable = false)
-    private String uri;
+    @Column(name = "uri_id", nullable = false)
+    private Integer uriId;
 
-    @Column(name = "ip", nullable = false)
-    private String ip;
+    // Address bytes, or the digest of ipText, see IpAddresses
+    @Column(name = "ip", nullable = false, length = 32)
+    private byte[] ip;
 
+    // The value as sent, only when it is not an address literal
+    @Column(name = "ip_text", length = 45)
+    private String ipText;
+
+    @Convert(converter = EpochMillisConverter.class)
     @Column(name = "timestamp", nullable = false)
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package ru.practicum.ewm.stat.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A row of {@code endpoint_hits} as R2DBC sees it, see {@link EndpointHit} for the JPA entity.
+ */
+@Table("endpoint_hits")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EndpointHitRow {
+    @Id
+    private Long id;
+
+    @Column("app_id")
+    private Integer appId;
+
+    @Column("uri_id")
+    private Integer uriId;
+
+    @Column("ip")
+    private byte[] ip;
+
+    @Column("ip_text")
+    private String ipText;
+
+    // Epoch milliseconds, see EpochMillisConverter
+    @Column("timestamp")
+    private Long timestamp;
+}
@@ -0,0 +1,31 @@
+package ru.practicum.ewm.stat.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Hit timestamps carry no zone, so the wall-clock time is stored as if it were UTC
+@Converter
+public class EpochMillisConverter implements AttributeConverter<LocalDateTime, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(LocalDateTime attribute) {
+        return attribute == null ? null : toEpochMilli(attribute);
+    }
+
+    @Override
+    public LocalDateTime convertToEntityAttribute(Long dbData) {
+        return dbData == null ? null : fromEpochMilli(dbData);
+    }
+
+    public static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime fromEpochMilli(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC);
+    }
+}
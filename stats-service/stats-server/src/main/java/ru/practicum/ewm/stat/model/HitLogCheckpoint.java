@@ -0,0 +1,25 @@
+package ru.practicum.ewm.stat.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Position in the local hit log up to which records are stored in endpoint_hits.
+ */
+@Entity
+@Table(name = "hit_log_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HitLogCheckpoint {
+    @Id
+    @Column(name = "node", length = 64)
+    private String node;
+
+    @Column(name = "segment", nullable = false)
+    private Long segment;
+
+    @Column(name = "segment_offset", nullable = false)
+    private Long segmentOffset;
+}
@@ -0,0 +1,41 @@
+package ru.practicum.ewm.stat.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hits of one app/uri within one hour. Rows are append-only: late hits for an hour that was
+ * already rolled up land in an additional row, readers sum and merge them.
+ */
+@Entity
+@Table(name = "hit_rollups", indexes = {
+        @Index(name = "idx_hit_rollups_hour", columnList = "hour_start"),
+        @Index(name = "idx_hit_rollups_uri_hour", columnList = "uri_id, hour_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HitRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Convert(converter = EpochMillisConverter.class)
+    @Column(name = "hour_start", nullable = false)
+    private LocalDateTime hourStart;
+
+    @Column(name = "app_id", nullable = false)
+    private Integer appId;
+
+    @Column(name = "uri_id", nullable = false)
+    private Integer uriId;
+
+    @Column(name = "hits", nullable = false)
+    private Long hits;
+
+    @Column(name = "ips", nullable = false, length = 4100)
+    private byte[] ips;
+}
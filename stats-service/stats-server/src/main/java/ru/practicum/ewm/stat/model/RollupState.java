@@ -0,0 +1,30 @@
+package ru.practicum.ewm.stat.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Range of hours [rolledUpFrom, rolledUpTo) for which hit_rollups is complete.
+ */
+@Entity
+@Table(name = "hit_rollup_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupState {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Convert(converter = EpochMillisConverter.class)
+    @Column(name = "rolled_up_from", nullable = false)
+    private LocalDateTime rolledUpFrom;
+
+    @Convert(converter = EpochMillisConverter.class)
+    @Column(name = "rolled_up_to", nullable = false)
+    private LocalDateTime rolledUpTo;
+}
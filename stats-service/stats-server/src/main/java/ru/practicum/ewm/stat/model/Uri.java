@@ -0,0 +1,28 @@
+package ru.practicum.ewm.stat.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "uris", indexes = {
+        @Index(name = "idx_uris_prefix_resource_id", columnList = "prefix, resource_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Uri {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "uri", nullable = false, unique = true, length = 512)
+    private String uri;
+
+    // Set for uris ending in a numeric segment: /events/42 has prefix /events/ and resource id 42
+    @Column(name = "prefix", length = 512)
+    private String prefix;
+
+    @Column(name = "resource_id")
+    private Long resourceId;
+}
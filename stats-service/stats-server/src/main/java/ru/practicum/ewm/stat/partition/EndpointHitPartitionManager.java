@@ -0,0 +1,96 @@
+package ru.practicum.ewm.stat.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.practicum.ewm.stat.model.EpochMillisConverter;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@RequiredArgsConstructor
+public class EndpointHitPartitionManager {
+    private static final String CREATE_PARTITION_SQL = "SELECT create_endpoint_hits_partition(?, ?, ?)";
+    private static final String LIST_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'endpoint_hits'::regclass";
+    private static final String DELETE_ROLLUPS_SQL = "DELETE FROM hit_rollups WHERE hour_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionProperties properties;
+    private final Clock clock;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${stats.partitions.cron:0 5 0 * * *}")
+    public void maintain() {
+        LocalDate today = LocalDate.now(clock);
+        createPartitions(today);
+        dropExpiredPartitions(today);
+    }
+
+    void createPartitions(LocalDate today) {
+        PartitionInterval interval = properties.getInterval();
+        LocalDate start = interval.floor(today);
+
+        for (int i = 0; i <= properties.getPremake(); i++) {
+            LocalDate end = interval.next(start);
+            String name = interval.partitionName(start);
+            try {
+                Boolean created = jdbcTemplate.queryForObject(CREATE_PARTITION_SQL, Boolean.class,
+                        name, EpochMillisConverter.toEpochMilli(start.atStartOfDay()),
+                        EpochMillisConverter.toEpochMilli(end.atStartOfDay()));
+                if (Boolean.TRUE.equals(created)) {
+                    log.info("Created partition {} for [{}, {})", name, start, end);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Failed to create partition {}", name, e);
+            }
+            start = end;
+        }
+    }
+
+    void dropExpiredPartitions(LocalDate today) {
+        if (properties.getRetention() == null || properties.getRetention().isZero()) {
+            return;
+        }
+
+        LocalDateTime cutoff = today.atStartOfDay().minus(properties.getRetention());
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+
+        for (String name : partitions) {
+            PartitionInterval.rangeEnd(name)
+                    .filter(end -> !end.atStartOfDay().isAfter(cutoff))
+                    .ifPresent(end -> drop(name));
+        }
+        deleteExpiredRollups(cutoff);
+    }
+
+    // The counters read these hours from hit_rollups, so they expire with the partitions
+    private void deleteExpiredRollups(LocalDateTime cutoff) {
+        try {
+            int deleted = jdbcTemplate.update(DELETE_ROLLUPS_SQL, EpochMillisConverter.toEpochMilli(cutoff));
+            if (deleted > 0) {
+                log.info("Deleted {} hit rollups before {}", deleted, cutoff);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to delete hit rollups before {}", cutoff, e);
+        }
+    }
+
+    private void drop(String name) {
+        try {
+            // Name comes from pg_class and has been matched against the partition naming scheme
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+            log.info("Dropped expired partition {}", name);
+        } catch (DataAccessException e) {
+            log.warn("Failed to drop partition {}", name, e);
+        }
+    }
+}
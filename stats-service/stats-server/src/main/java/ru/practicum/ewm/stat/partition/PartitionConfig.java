@@ -0,0 +1,23 @@
+package ru.practicum.ewm.stat.partition;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(PartitionProperties.class)
+@ConditionalOnProperty(prefix = "stats.partitions", name = "enabled", havingValue = "true")
+public class PartitionConfig {
+
+    @Bean
+    public EndpointHitPartitionManager endpointHitPartitionManager(JdbcTemplate jdbcTemplate,
+                                                                   PartitionProperties properties) {
+        return new EndpointHitPartitionManager(jdbcTemplate, properties, Clock.systemDefaultZone());
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.ewm.stat.partition;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+public enum PartitionInterval {
+    DAY(DateTimeFormatter.BASIC_ISO_DATE, ChronoUnit.DAYS),
+    MONTH(DateTimeFormatter.ofPattern("yyyyMM"), ChronoUnit.MONTHS);
+
+    static final String PREFIX = "endpoint_hits_p";
+
+    private final DateTimeFormatter suffixFormat;
+    private final ChronoUnit unit;
+
+    PartitionInterval(DateTimeFormatter suffixFormat, ChronoUnit unit) {
+        this.suffixFormat = suffixFormat;
+        this.unit = unit;
+    }
+
+    public LocalDate floor(LocalDate date) {
+        return this == MONTH ? date.withDayOfMonth(1) : date;
+    }
+
+    public LocalDate next(LocalDate start) {
+        return start.plus(1, unit);
+    }
+
+    public String partitionName(LocalDate start) {
+        return PREFIX + suffixFormat.format(start);
+    }
+
+    // Partitions of either granularity may coexist, so the range end is derived from the name itself
+    public static Optional<LocalDate> rangeEnd(String partitionName) {
+        if (!partitionName.startsWith(PREFIX)) {
+            return Optional.empty();
+        }
+
+        String suffix = partitionName.substring(PREFIX.length());
+        try {
+            if (suffix.length() == 8) {
+                return Optional.of(DAY.next(LocalDate.parse(suffix, DAY.suffixFormat)));
+            }
+            if (suffix.length() == 6) {
+                return Optional.of(MONTH.next(LocalDate.parse(suffix + "01", DAY.suffixFormat)));
+            }
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+        return Optional.empty();
+    }
+}
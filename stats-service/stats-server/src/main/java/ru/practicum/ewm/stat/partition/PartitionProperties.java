@@ -0,0 +1,15 @@
+package ru.practicum.ewm.stat.partition;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "stats.partitions")
+public class PartitionProperties {
+    private boolean enabled = false;
+    private PartitionInterval interval = PartitionInterval.MONTH;
+    private int premake = 3;
+    private Duration retention;
+}
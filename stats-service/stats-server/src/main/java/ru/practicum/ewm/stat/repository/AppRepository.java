@@ -0,0 +1,11 @@
+package ru.practicum.ewm.stat.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.ewm.stat.model.App;
+
+import java.util.Optional;
+
+public interface AppRepository extends JpaRepository<App, Integer> {
+
+    Optional<App> findByName(String name);
+}
@@ -0,0 +1,13 @@
+package ru.practicum.ewm.stat.repository;
+
+import ru.practicum.ewm.stat.model.EndpointHit;
+
+import java.util.List;
+
+public interface EndpointHitBatchRepository {
+
+    /**
+     * Inserts hits with JDBC batching, which Hibernate disables for identity ids. Generated ids are not read back.
+     */
+    void insertAll(List<EndpointHit> hits);
+}
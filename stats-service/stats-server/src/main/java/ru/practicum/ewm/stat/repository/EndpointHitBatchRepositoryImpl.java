@@ -0,0 +1,28 @@
+package ru.practicum.ewm.stat.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.ewm.stat.model.EndpointHit;
+import ru.practicum.ewm.stat.model.EpochMillisConverter;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EndpointHitBatchRepositoryImpl implements EndpointHitBatchRepository {
+    private static final String INSERT =
+            "INSERT INTO endpoint_hits (app_id, uri_id, ip, ip_text, timestamp) VALUES (?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<EndpointHit> hits) {
+        jdbcTemplate.batchUpdate(INSERT, hits, BATCH_SIZE, (statement, hit) -> {
+            statement.setInt(1, hit.getAppId());
+            statement.setInt(2, hit.getUriId());
+            statement.setBytes(3, hit.getIp());
+            statement.setString(4, hit.getIpText());
+            statement.setLong(5, EpochMillisConverter.toEpochMilli(hit.getTimestamp()));
+        });
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.ewm.stat.repository;
+
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface HitCountArrayRepository {
+
+    /**
+     * Same counts as {@link StatsRepository#getStatsByUris} and {@link StatsRepository#getStatsUniqueByUris}, with the
+     * ids bound as a single array parameter: one statement shape for any list size instead of one bind per id.
+     */
+    List<HitCount> getStatsByUriArray(LocalDateTime start, LocalDateTime end, Collection<Integer> uriIds,
+                                      boolean unique);
+}
@@ -0,0 +1,55 @@
+package ru.practicum.ewm.stat.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.ewm.stat.model.EpochMillisConverter;
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
+
+import java.sql.Array;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class HitCountArrayRepositoryImpl implements HitCountArrayRepository {
+    private static final String COUNT = "SELECT app_id, uri_id, %s AS hits " +
+            "FROM endpoint_hits " +
+            "WHERE uri_id = ANY (?) " +
+            "AND timestamp BETWEEN ? AND ? " +
+            "GROUP BY app_id, uri_id " +
+            "ORDER BY hits DESC";
+    private static final String HITS = COUNT.formatted("COUNT(ip)");
+    private static final String UNIQUE_HITS = COUNT.formatted("COUNT(DISTINCT ip)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<HitCount> getStatsByUriArray(LocalDateTime start, LocalDateTime end, Collection<Integer> uriIds,
+                                             boolean unique) {
+        return jdbcTemplate.query(connection -> {
+            Array ids = connection.createArrayOf("INTEGER", uriIds.toArray());
+            var statement = connection.prepareStatement(unique ? UNIQUE_HITS : HITS);
+            statement.setArray(1, ids);
+            statement.setLong(2, EpochMillisConverter.toEpochMilli(start));
+            statement.setLong(3, EpochMillisConverter.toEpochMilli(end));
+            return statement;
+        }, (rs, rowNum) -> new Count(rs.getInt("app_id"), rs.getInt("uri_id"), rs.getLong("hits")));
+    }
+
+    private record Count(Integer appId, Integer uriId, Long hits) implements HitCount {
+        @Override
+        public Integer getAppId() {
+            return appId;
+        }
+
+        @Override
+        public Integer getUriId() {
+            return uriId;
+        }
+
+        @Override
+        public Long getHits() {
+            return hits;
+        }
+    }
+}
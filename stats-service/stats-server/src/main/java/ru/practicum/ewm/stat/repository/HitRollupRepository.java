@@ -0,0 +1,50 @@
+package ru.practicum.ewm.stat.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.ewm.stat.model.HitRollup;
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Readers pass the highest id of the rows their view of the counters includes, rows committed later are
+ * still counted from memory.
+ */
+public interface HitRollupRepository extends JpaRepository<HitRollup, Long> {
+
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM HitRollup r")
+    long findMaxId();
+
+    @Query("SELECT r.appId AS appId, r.uriId AS uriId, SUM(r.hits) AS hits " +
+            "FROM HitRollup r " +
+            "WHERE r.hourStart >= :from AND r.hourStart < :to AND r.id <= :maxId " +
+            "GROUP BY r.appId, r.uriId")
+    List<HitCount> sumHits(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("maxId") long maxId);
+
+    @Query("SELECT r.appId AS appId, r.uriId AS uriId, SUM(r.hits) AS hits " +
+            "FROM HitRollup r " +
+            "WHERE r.uriId IN :uriIds " +
+            "AND r.hourStart >= :from AND r.hourStart < :to AND r.id <= :maxId " +
+            "GROUP BY r.appId, r.uriId")
+    List<HitCount> sumHitsByUris(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("uriIds") Collection<Integer> uriIds,
+            @Param("maxId") long maxId);
+
+    @Query("SELECT r FROM HitRollup r " +
+            "WHERE r.uriId IN :uriIds " +
+            "AND r.hourStart >= :from AND r.hourStart < :to AND r.id <= :maxId")
+    List<HitRollup> findByUris(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("uriIds") Collection<Integer> uriIds,
+            @Param("maxId") long maxId);
+}
@@ -0,0 +1,73 @@
+package ru.practicum.ewm.stat.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+
+/**
+ * R2DBC next to JPA for the reactive stack, configured from {@code spring.r2dbc.*}. Spring Boot's R2DBC
+ * auto-configuration is excluded in {@link ru.practicum.ewm.stat.StatsServer}: its transaction manager would
+ * replace the JPA one that the dictionary and the counters keep using.
+ * <p>
+ * Boot also skips the JDBC pool once a {@link ConnectionFactory} bean exists, so it is declared here from the
+ * usual {@code spring.datasource.*} properties.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties({R2dbcProperties.class, DataSourceProperties.class})
+@EnableR2dbcRepositories(basePackageClasses = ReactiveStatsRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                classes = ReactiveStatsRepository.class))
+public class R2dbcConfig extends AbstractR2dbcConfiguration {
+    private final R2dbcProperties properties;
+
+    public R2dbcConfig(R2dbcProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory() {
+        ConnectionFactoryBuilder builder = ConnectionFactoryBuilder.withUrl(properties.getUrl());
+        if (StringUtils.hasText(properties.getUsername())) {
+            builder.username(properties.getUsername());
+        }
+        if (StringUtils.hasText(properties.getPassword())) {
+            builder.password(properties.getPassword());
+        }
+        ConnectionFactory connectionFactory = builder.build();
+        R2dbcProperties.Pool pool = properties.getPool();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public TransactionalOperator r2dbcTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.ewm.stat.repository;
+
+import reactor.core.publisher.Mono;
+import ru.practicum.ewm.stat.model.EndpointHitRow;
+
+import java.util.List;
+
+public interface ReactiveEndpointHitBatchRepository {
+
+    /**
+     * Inserts hits as one batched statement. Generated ids are not read back.
+     */
+    Mono<Void> insertAll(List<EndpointHitRow> hits);
+}
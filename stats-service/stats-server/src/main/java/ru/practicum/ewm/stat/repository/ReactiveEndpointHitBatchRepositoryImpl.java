@@ -0,0 +1,46 @@
+package ru.practicum.ewm.stat.repository;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.ewm.stat.model.EndpointHitRow;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ReactiveEndpointHitBatchRepositoryImpl implements ReactiveEndpointHitBatchRepository {
+    private static final String INSERT =
+            "INSERT INTO endpoint_hits (app_id, uri_id, ip, ip_text, timestamp) VALUES ($1, $2, $3, $4, $5)";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Void> insertAll(List<EndpointHitRow> hits) {
+        if (hits.isEmpty()) {
+            return Mono.empty();
+        }
+        // Takes part in the caller's transaction, if any
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT);
+            for (int i = 0; i < hits.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                EndpointHitRow hit = hits.get(i);
+                statement.bind(0, hit.getAppId())
+                        .bind(1, hit.getUriId())
+                        .bind(2, hit.getIp());
+                if (hit.getIpText() == null) {
+                    statement.bindNull(3, String.class);
+                } else {
+                    statement.bind(3, hit.getIpText());
+                }
+                statement.bind(4, hit.getTimestamp());
+            }
+            return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+        }).then();
+    }
+}
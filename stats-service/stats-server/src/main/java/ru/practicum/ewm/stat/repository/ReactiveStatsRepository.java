@@ -0,0 +1,82 @@
+package ru.practicum.ewm.stat.repository;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import ru.practicum.ewm.stat.model.EndpointHitRow;
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
+
+/**
+ * The aggregations of {@link StatsRepository} over R2DBC. Ranges are inclusive epoch milliseconds, rows come
+ * ordered by hits and at most {@code limit} of them. Uri ids are bound as one array, so every list size shares
+ * one statement, as in {@link HitCountArrayRepositoryImpl}.
+ */
+public interface ReactiveStatsRepository extends R2dbcRepository<EndpointHitRow, Long>,
+        ReactiveEndpointHitBatchRepository {
+
+    @Query("SELECT app_id, uri_id, COUNT(ip) AS hits " +
+            "FROM endpoint_hits " +
+            "WHERE timestamp BETWEEN :start AND :end " +
+            "GROUP BY app_id, uri_id " +
+            "ORDER BY hits DESC " +
+            "LIMIT :limit")
+    Flux<Count> getStats(
+            @Param("start") long start,
+            @Param("end") long end,
+            @Param("limit") int limit);
+
+    @Query("SELECT app_id, uri_id, COUNT(ip) AS hits " +
+            "FROM endpoint_hits " +
+            "WHERE uri_id = ANY (:uriIds) " +
+            "AND timestamp BETWEEN :start AND :end " +
+            "GROUP BY app_id, uri_id " +
+            "ORDER BY hits DESC " +
+            "LIMIT :limit")
+    Flux<Count> getStatsByUris(
+            @Param("start") long start,
+            @Param("end") long end,
+            @Param("uriIds") Integer[] uriIds,
+            @Param("limit") int limit);
+
+    @Query("SELECT app_id, uri_id, COUNT(DISTINCT ip) AS hits " +
+            "FROM endpoint_hits " +
+            "WHERE timestamp BETWEEN :start AND :end " +
+            "GROUP BY app_id, uri_id " +
+            "ORDER BY hits DESC " +
+            "LIMIT :limit")
+    Flux<Count> getStatsUnique(
+            @Param("start") long start,
+            @Param("end") long end,
+            @Param("limit") int limit);
+
+    @Query("SELECT app_id, uri_id, COUNT(DISTINCT ip) AS hits " +
+            "FROM endpoint_hits " +
+            "WHERE uri_id = ANY (:uriIds) " +
+            "AND timestamp BETWEEN :start AND :end " +
+            "GROUP BY app_id, uri_id " +
+            "ORDER BY hits DESC " +
+            "LIMIT :limit")
+    Flux<Count> getStatsUniqueByUris(
+            @Param("start") long start,
+            @Param("end") long end,
+            @Param("uriIds") Integer[] uriIds,
+            @Param("limit") int limit);
+
+    record Count(Integer appId, Integer uriId, Long hits) implements HitCount {
+        @Override
+        public Integer getAppId() {
+            return appId;
+        }
+
+        @Override
+        public Integer getUriId() {
+            return uriId;
+        }
+
+        @Override
+        public Long getHits() {
+            return hits;
+        }
+    }
+}
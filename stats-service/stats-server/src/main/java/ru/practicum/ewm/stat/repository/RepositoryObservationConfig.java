@@ -0,0 +1,16 @@
+package ru.practicum.ewm.stat.repository;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.ewm.observability.RepositoryObservationAspect;
+
+@Configuration
+public class RepositoryObservationConfig {
+
+    // Puts every repository call of a traced request into its trace
+    @Bean
+    public RepositoryObservationAspect repositoryObservationAspect(ObservationRegistry observationRegistry) {
+        return new RepositoryObservationAspect(observationRegistry);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.ewm.stat.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.ewm.stat.model.RollupState;
+
+public interface RollupStateRepository extends JpaRepository<RollupState, Integer> {
+}
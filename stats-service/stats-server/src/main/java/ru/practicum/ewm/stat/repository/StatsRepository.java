@@ -1,34 +1,179 @@
 package ru.practicum.ewm.stat.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.ewm.stat.model.EndpointHit;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface StatsRepository extends JpaRepository<EndpointHit, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
-    @Query("SELECT new ru.practicum.ewm.stat.dto.ViewStatsDto(h.app, h.uri, COUNT(h.ip)) " +
+public interface StatsRepository extends JpaRepository<EndpointHit, Long>, EndpointHitBatchRepository,
+        HitCountArrayRepository {
+
+    @Query("SELECT h.appId AS appId, h.uriId AS uriId, COUNT(h.ip) AS hits " +
+            "FROM EndpointHit h " +
+            "WHERE h.timestamp BETWEEN :start AND :end " +
+            "GROUP BY h.appId, h.uriId " +
+            "ORDER BY COUNT(h.ip) DESC")
+    List<HitCount> getStats(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    @Query("SELECT h.appId AS appId, h.uriId AS uriId, COUNT(h.ip) AS hits " +
+            "FROM EndpointHit h " +
+            "WHERE h.uriId IN :uriIds " +
+            "AND h.timestamp BETWEEN :start AND :end " +
+            "GROUP BY h.appId, h.uriId " +
+            "ORDER BY COUNT(h.ip) DESC")
+    List<HitCount> getStatsByUris(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("uriIds") Collection<Integer> uriIds);
+
+    @Query("SELECT h.appId AS appId, h.uriId AS uriId, COUNT(DISTINCT h.ip) AS hits " +
+            "FROM EndpointHit h " +
+            "WHERE h.timestamp BETWEEN :start AND :end " +
+            "GROUP BY h.appId, h.uriId " +
+            "ORDER BY COUNT(DISTINCT h.ip) DESC")
+    List<HitCount> getStatsUnique(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    @Query("SELECT h.appId AS appId, h.uriId AS uriId, COUNT(DISTINCT h.ip) AS hits " +
+            "FROM EndpointHit h " +
+            "WHERE h.uriId IN :uriIds " +
+            "AND h.timestamp BETWEEN :start AND :end " +
+            "GROUP BY h.appId, h.uriId " +
+            "ORDER BY COUNT(DISTINCT h.ip) DESC")
+    List<HitCount> getStatsUniqueByUris(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("uriIds") Collection<Integer> uriIds);
+
+    // Cursor-backed variants for streaming responses; the limit is applied in SQL
+
+    @Query("SELECT h.appId AS appId, h.uriId AS uriId, COUNT(h.ip) AS hits " +
             "FROM EndpointHit h " +
             "WHERE h.timestamp BETWEEN :start AND :end " +
-            "AND (:uris IS NULL OR h.uri IN :uris) " +
-            "GROUP BY h.app, h.uri " +
+            "GROUP BY h.appId, h.uriId " +
+            "ORDER BY COUNT(h.ip) DESC")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<HitCount> streamStats(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            Limit limit);
+
+    @Query("SELECT h.appId AS appId, h.uriId AS uriId, COUNT(h.ip) AS hits " +
+            "FROM EndpointHit h " +
+            "WHERE h.uriId IN :uriIds " +
+            "AND h.timestamp BETWEEN :start AND :end " +
+            "GROUP BY h.appId, h.uriId " +
             "ORDER BY COUNT(h.ip) DESC")
-    List<ru.practicum.ewm.stat.dto.ViewStatsDto> getStats(
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<HitCount> streamStatsByUris(
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end,
-            @Param("uris") List<String> uris);
+            @Param("uriIds") Collection<Integer> uriIds,
+            Limit limit);
 
-    @Query("SELECT new ru.practicum.ewm.stat.dto.ViewStatsDto(h.app, h.uri, COUNT(DISTINCT h.ip)) " +
+    @Query("SELECT h.appId AS appId, h.uriId AS uriId, COUNT(DISTINCT h.ip) AS hits " +
             "FROM EndpointHit h " +
             "WHERE h.timestamp BETWEEN :start AND :end " +
-            "AND (:uris IS NULL OR h.uri IN :uris) " +
-            "GROUP BY h.app, h.uri " +
+            "GROUP BY h.appId, h.uriId " +
             "ORDER BY COUNT(DISTINCT h.ip) DESC")
-    List<ru.practicum.ewm.stat.dto.ViewStatsDto> getStatsUnique(
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<HitCount> streamStatsUnique(
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end,
-            @Param("uris") List<String> uris);
-}
\ No newline at end of file
+            Limit limit);
+
+    @Query("SELECT h.appId AS appId, h.uriId AS uriId, COUNT(DISTINCT h.ip) AS hits " +
+            "FROM EndpointHit h " +
+            "WHERE h.uriId IN :uriIds " +
+            "AND h.timestamp BETWEEN :start AND :end " +
+            "GROUP BY h.appId, h.uriId " +
+            "ORDER BY COUNT(DISTINCT h.ip) DESC")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<HitCount> streamStatsUniqueByUris(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("uriIds") Collection<Integer> uriIds,
+            Limit limit);
+
+    // Half-open [from, to) ranges used by HitCounters for range edges and rebuilds
+
+    @Query("SELECT h.appId AS appId, h.uriId AS uriId, COUNT(h.ip) AS hits " +
+            "FROM EndpointHit h " +
+            "WHERE h.timestamp >= :from AND h.timestamp < :to " +
+            "GROUP BY h.appId, h.uriId")
+    List<HitCount> countHits(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("SELECT h.appId AS appId, h.uriId AS uriId, COUNT(h.ip) AS hits " +
+            "FROM EndpointHit h " +
+            "WHERE h.uriId IN :uriIds " +
+            "AND h.timestamp >= :from AND h.timestamp < :to " +
+            "GROUP BY h.appId, h.uriId")
+    List<HitCount> countHitsByUris(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("uriIds") Collection<Integer> uriIds);
+
+    @Query("SELECT DISTINCT h.appId AS appId, h.uriId AS uriId, h.ip AS ip " +
+            "FROM EndpointHit h " +
+            "WHERE h.uriId IN :uriIds " +
+            "AND h.timestamp >= :from AND h.timestamp < :to")
+    List<RawHit> findDistinctIpsByUris(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("uriIds") Collection<Integer> uriIds);
+
+    @Query("SELECT h.appId AS appId, h.uriId AS uriId, h.ip AS ip, h.timestamp AS timestamp " +
+            "FROM EndpointHit h " +
+            "WHERE h.timestamp >= :from AND h.timestamp < :to")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<RawHit> streamHits(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("SELECT h.appId AS appId, h.uriId AS uriId, h.ip AS ip, h.timestamp AS timestamp " +
+            "FROM EndpointHit h " +
+            "WHERE h.timestamp >= :from")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<RawHit> streamHitsFrom(@Param("from") LocalDateTime from);
+
+    @Query("SELECT MIN(h.timestamp) FROM EndpointHit h WHERE h.timestamp >= :from")
+    Optional<LocalDateTime> findFirstHitTime(@Param("from") LocalDateTime from);
+
+    @Query("SELECT MIN(h.timestamp) FROM EndpointHit h")
+    Optional<LocalDateTime> findFirstHitTime();
+
+    interface HitCount {
+        Integer getAppId();
+
+        Integer getUriId();
+
+        Long getHits();
+    }
+
+    interface RawHit {
+        Integer getAppId();
+
+        Integer getUriId();
+
+        byte[] getIp();
+
+        LocalDateTime getTimestamp();
+    }
+}
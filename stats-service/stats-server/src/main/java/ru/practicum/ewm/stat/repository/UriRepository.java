@@ -0,0 +1,19 @@
+package ru.practicum.ewm.stat.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.ewm.stat.model.Uri;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UriRepository extends JpaRepository<Uri, Integer> {
+
+    Optional<Uri> findByUri(String uri);
+
+    List<Uri> findAllByUriIn(Collection<String> uris);
+
+    List<Uri> findAllByPrefixAndResourceIdIn(String prefix, Collection<Long> resourceIds);
+
+    List<Uri> findAllByPrefixAndResourceIdNotNull(String prefix);
+}
@@ -0,0 +1,151 @@
+package ru.practicum.ewm.stat.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.mapper.ResourceUris;
+import ru.practicum.ewm.stat.model.App;
+import ru.practicum.ewm.stat.model.Uri;
+import ru.practicum.ewm.stat.repository.AppRepository;
+import ru.practicum.ewm.stat.repository.UriRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Interns app names and URIs into the {@code apps} and {@code uris} dictionary tables
+ * and keeps both directions of the mapping in memory.
+ * <p>
+ * A new name is inserted in a transaction of its own. Inside a caller's transaction that would hold a second
+ * pooled connection per thread, so writers intern before opening theirs.
+ */
+@Component
+public class HitDictionary {
+    private static final long MAX_ENTRIES = 100_000;
+
+    private final AppRepository appRepository;
+    private final UriRepository uriRepository;
+    private final TransactionTemplate newTransaction;
+
+    private final Cache<String, Integer> appIds = Caffeine.newBuilder().maximumSize(MAX_ENTRIES).build();
+    private final Cache<Integer, String> appNames = Caffeine.newBuilder().maximumSize(MAX_ENTRIES).build();
+    private final Cache<String, Integer> uriIds = Caffeine.newBuilder().maximumSize(MAX_ENTRIES).build();
+    private final Cache<Integer, String> uris = Caffeine.newBuilder().maximumSize(MAX_ENTRIES).build();
+
+    public HitDictionary(AppRepository appRepository, UriRepository uriRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.appRepository = appRepository;
+        this.uriRepository = uriRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Integer getAppId(String name) {
+        Integer id = get(appIds, name, key -> intern(key,
+                value -> appRepository.findByName(value).map(App::getId),
+                value -> appRepository.saveAndFlush(App.builder().name(value).build()).getId()));
+        appNames.put(id, name);
+        return id;
+    }
+
+    public Integer getUriId(String uri) {
+        Integer id = get(uriIds, uri, key -> intern(key,
+                value -> uriRepository.findByUri(value).map(Uri::getId),
+                value -> uriRepository.saveAndFlush(ResourceUris.toUri(value)).getId()));
+        uris.put(id, uri);
+        return id;
+    }
+
+    /**
+     * Interns the apps and uris of {@code hits} ahead of the transaction that inserts them.
+     */
+    public void intern(Collection<EndpointHitDto> hits) {
+        for (EndpointHitDto hit : hits) {
+            getAppId(hit.getApp());
+            getUriId(hit.getUri());
+        }
+    }
+
+    // Lookup only: URIs that were never hit have no id and are left out
+    public List<Integer> findUriIds(Collection<String> values) {
+        Map<String, Integer> known = uriIds.getAllPresent(values);
+        List<Integer> ids = new ArrayList<>(known.values());
+
+        List<String> missing = values.stream()
+                .filter(value -> !known.containsKey(value))
+                .distinct()
+                .toList();
+        if (!missing.isEmpty()) {
+            for (Uri uri : uriRepository.findAllByUriIn(missing)) {
+                uriIds.put(uri.getUri(), uri.getId());
+                uris.put(uri.getId(), uri.getUri());
+                ids.add(uri.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @param resourceIds ids under {@code prefix}, {@code null} for all of them
+     * @return resource ids of the known uris by uri id
+     */
+    public Map<Integer, Long> findResources(String prefix, Collection<Long> resourceIds) {
+        List<Uri> found = resourceIds == null
+                ? uriRepository.findAllByPrefixAndResourceIdNotNull(prefix)
+                : uriRepository.findAllByPrefixAndResourceIdIn(prefix, resourceIds);
+
+        Map<Integer, Long> resources = new HashMap<>();
+        for (Uri uri : found) {
+            uris.put(uri.getId(), uri.getUri());
+            resources.put(uri.getId(), uri.getResourceId());
+        }
+        return resources;
+    }
+
+    public String getAppName(Integer id) {
+        return get(appNames, id, key -> appRepository.findById(key)
+                .map(App::getName)
+                .orElseThrow(() -> new IllegalStateException("Unknown app id: " + key)));
+    }
+
+    public String getUri(Integer id) {
+        return get(uris, id, key -> uriRepository.findById(key)
+                .map(Uri::getUri)
+                .orElseThrow(() -> new IllegalStateException("Unknown uri id: " + key)));
+    }
+
+    /**
+     * Loads a missing entry outside the cache: Caffeine runs the loader inside a lock of its map, and a query
+     * there would pin a virtual thread to its carrier. Concurrent misses of one key may both query the database,
+     * which {@link #intern} already tolerates.
+     */
+    private static <K, V> V get(Cache<K, V> cache, K key, Function<K, V> loader) {
+        V value = cache.getIfPresent(key);
+        if (value == null) {
+            value = loader.apply(key);
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    private Integer intern(String value, Function<String, Optional<Integer>> find, Function<String, Integer> create) {
+        return find.apply(value).orElseGet(() -> {
+            try {
+                return newTransaction.execute(status -> create.apply(value));
+            } catch (DataIntegrityViolationException e) {
+                // Inserted concurrently by another request or instance
+                return find.apply(value).orElseThrow(() -> e);
+            }
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.ewm.stat.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
+import ru.practicum.ewm.stat.dto.ViewStatsDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link StatsService} for the reactive stack, see it for the meaning of the arguments.
+ */
+public interface ReactiveStatsService {
+    Mono<Void> saveHit(EndpointHitDto endpointHitDto);
+
+    /**
+     * Saves the hits a batch at a time as they arrive, each batch in its own transaction; {@code endpointHitDtos}
+     * is not requested further than the batch being inserted. A rejected batch leaves the earlier ones saved.
+     *
+     * @return the number of saved hits
+     */
+    Mono<Long> saveHits(Flux<EndpointHitDto> endpointHitDtos);
+
+    Flux<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                                Integer limit);
+
+    Flux<ViewStatsDto> getStats(StatsQueryDto query);
+
+    Mono<Map<Long, Long>> getResourceStats(LocalDateTime start, LocalDateTime end, String uriPrefix,
+                                           List<Long> ids, Boolean unique);
+
+    Flux<ViewStatsDto> streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                                   Integer limit);
+
+    Flux<ViewStatsDto> getTop(Duration window, int limit);
+}
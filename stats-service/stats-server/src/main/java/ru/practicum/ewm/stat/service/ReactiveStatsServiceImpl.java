@@ -0,0 +1,216 @@
+package ru.practicum.ewm.stat.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.ewm.stat.counter.HitCounters;
+import ru.practicum.ewm.stat.counter.TrendingHits;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
+import ru.practicum.ewm.stat.dto.ViewStatsDto;
+import ru.practicum.ewm.stat.mapper.IpAddresses;
+import ru.practicum.ewm.stat.model.EndpointHitRow;
+import ru.practicum.ewm.stat.model.EpochMillisConverter;
+import ru.practicum.ewm.stat.repository.ReactiveStatsRepository;
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Reads and writes endpoint_hits over R2DBC. The dictionary and the counters answer from memory but fall back
+ * to their JPA queries, so they are called on {@link Schedulers#boundedElastic()} rather than on the event loop.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveStatsServiceImpl implements ReactiveStatsService {
+    // Hits per insert statement and transaction; the request body is read at most one batch ahead of the database
+    private static final int BATCH_SIZE = 500;
+    // Rows named per hop to the dictionary
+    private static final int NAME_BATCH_SIZE = 256;
+
+    private final ReactiveStatsRepository statsRepository;
+    private final HitDictionary hitDictionary;
+    private final HitCounters hitCounters;
+    private final TrendingHits trendingHits;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<Void> saveHit(EndpointHitDto endpointHitDto) {
+        return saveHits(Flux.just(endpointHitDto)).then();
+    }
+
+    @Override
+    public Mono<Long> saveHits(Flux<EndpointHitDto> endpointHitDtos) {
+        return endpointHitDtos
+                .buffer(BATCH_SIZE)
+                // A transaction per batch, so a slow client does not hold a connection for the whole body; rows are
+                // built first, interning new apps and uris over JDBC while no R2DBC connection is held
+                .concatMap(batch -> blocking(() -> batch.stream().map(this::toRow).toList())
+                        .flatMap(hits -> insert(hits).as(transactionalOperator::transactional)), 1)
+                .reduce(0L, Long::sum);
+    }
+
+    @Override
+    public Flux<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                                       Integer limit) {
+        return countHits(start, end, uris, unique, limit, true).transform(this::toDtos);
+    }
+
+    @Override
+    public Flux<ViewStatsDto> getStats(StatsQueryDto query) {
+        return Flux.defer(() -> getStats(query.getStart(), query.getEnd(), StatsServiceImpl.toUris(query),
+                query.getUnique(), null));
+    }
+
+    @Override
+    public Mono<Map<Long, Long>> getResourceStats(LocalDateTime start, LocalDateTime end, String uriPrefix,
+                                                  List<Long> ids, Boolean unique) {
+        return Mono.defer(() -> {
+            StatsServiceImpl.validateResources(start, end, uriPrefix);
+            boolean uniqueHits = Boolean.TRUE.equals(unique);
+
+            return blocking(() -> hitDictionary.findResources(uriPrefix, ids == null || ids.isEmpty() ? null : ids))
+                    .flatMap(resources -> {
+                        if (resources.isEmpty()) {
+                            return Mono.just(Map.of());
+                        }
+                        List<Integer> uriIds = List.copyOf(resources.keySet());
+                        return blocking(() -> hitCounters.getStats(start, end, uriIds, uniqueHits))
+                                .flatMap(counts -> counts.map(Mono::just)
+                                        .orElseGet(() -> queryHits(start, end, uriIds, uniqueHits, null).collectList()))
+                                .map(counts -> StatsServiceImpl.toResourceHits(resources, counts, uniqueHits));
+                    });
+        });
+    }
+
+    @Override
+    public Flux<ViewStatsDto> streamStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                          Boolean unique, Integer limit) {
+        // Counters answer with a materialized list, which is only small for an explicit uri list
+        return countHits(start, end, uris, unique, limit, false).transform(this::toDtos);
+    }
+
+    @Override
+    public Flux<ViewStatsDto> getTop(Duration window, int limit) {
+        return Flux.defer(() -> trendingHits.getTop(window, limit)
+                        .map(Flux::fromIterable)
+                        .orElseGet(() -> {
+                            LocalDateTime now = LocalDateTime.now();
+                            return countHits(now.minus(window), now, null, false, limit, true);
+                        }))
+                .transform(this::toDtos);
+    }
+
+    private Flux<HitCount> countHits(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                                     Integer limit, boolean countersForAllUris) {
+        return Flux.defer(() -> {
+            StatsServiceImpl.validate(start, end, limit);
+            boolean uniqueHits = Boolean.TRUE.equals(unique);
+
+            Mono<Optional<List<Integer>>> found = uris == null || uris.isEmpty()
+                    ? Mono.just(Optional.empty())
+                    : blocking(() -> Optional.of(hitDictionary.findUriIds(uris)));
+            return found.flatMapMany(uriIds -> {
+                if (uriIds.isPresent() && uriIds.get().isEmpty()) {
+                    return Flux.empty();
+                }
+
+                List<Integer> ids = uriIds.orElse(null);
+                Mono<Optional<List<HitCount>>> fromCounters = ids == null && !countersForAllUris
+                        ? Mono.just(Optional.empty())
+                        : blocking(() -> hitCounters.getStats(start, end, ids, uniqueHits));
+                return fromCounters.flatMapMany(counts -> counts
+                        .map(list -> Flux.fromIterable(list).take(limit == null ? Long.MAX_VALUE : limit))
+                        .orElseGet(() -> queryHits(start, end, ids, uniqueHits, limit)));
+            });
+        });
+    }
+
+    private Flux<HitCount> queryHits(LocalDateTime start, LocalDateTime end, List<Integer> uriIds, boolean unique,
+                                     Integer limit) {
+        long from = EpochMillisConverter.toEpochMilli(start);
+        long to = EpochMillisConverter.toEpochMilli(end);
+        int max = limit == null ? Integer.MAX_VALUE : limit;
+        if (uriIds == null) {
+            return (unique
+                    ? statsRepository.getStatsUnique(from, to, max)
+                    : statsRepository.getStats(from, to, max)).cast(HitCount.class);
+        }
+        Integer[] ids = uriIds.toArray(Integer[]::new);
+        return (unique
+                ? statsRepository.getStatsUniqueByUris(from, to, ids, max)
+                : statsRepository.getStatsByUris(from, to, ids, max)).cast(HitCount.class);
+    }
+
+    private Flux<ViewStatsDto> toDtos(Flux<HitCount> counts) {
+        return counts.buffer(NAME_BATCH_SIZE)
+                .concatMap(batch -> blocking(() -> batch.stream().map(this::toDto).toList()))
+                .flatMapIterable(Function.identity());
+    }
+
+    private ViewStatsDto toDto(HitCount count) {
+        return new ViewStatsDto(hitDictionary.getAppName(count.getAppId()),
+                hitDictionary.getUri(count.getUriId()), count.getHits());
+    }
+
+    private Mono<Long> insert(List<EndpointHitRow> hits) {
+        return statsRepository.insertAll(hits)
+                .then(afterCommit(() -> hits.forEach(this::record)))
+                .thenReturn((long) hits.size());
+    }
+
+    private void record(EndpointHitRow hit) {
+        LocalDateTime timestamp = EpochMillisConverter.fromEpochMilli(hit.getTimestamp());
+        hitCounters.record(hit.getAppId(), hit.getUriId(), hit.getIp(), timestamp);
+        trendingHits.record(hit.getAppId(), hit.getUriId(), timestamp);
+    }
+
+    private EndpointHitRow toRow(EndpointHitDto endpointHitDto) {
+        // Checked first, so a malformed hit does not intern its app and uri
+        byte[] ip = IpAddresses.toBytes(endpointHitDto.getIp());
+        return EndpointHitRow.builder()
+                .appId(hitDictionary.getAppId(endpointHitDto.getApp()))
+                .uriId(hitDictionary.getUriId(endpointHitDto.getUri()))
+                .ip(ip)
+                .ipText(IpAddresses.isAddress(ip) ? null : endpointHitDto.getIp())
+                .timestamp(EpochMillisConverter.toEpochMilli(endpointHitDto.getTimestamp()))
+                .build();
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Counters only see committed hits, a rolled back insert must not be counted
+    private static Mono<Void> afterCommit(Runnable action) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .flatMap(manager -> {
+                    if (!manager.isSynchronizationActive()) {
+                        return Mono.fromRunnable(action);
+                    }
+                    manager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return Mono.fromRunnable(action);
+                        }
+                    });
+                    return Mono.empty();
+                })
+                .onErrorResume(NoTransactionException.class, e -> Mono.fromRunnable(action))
+                .then();
+    }
+}
@@ -1,13 +1,46 @@
 package ru.practicum.ewm.stat.service;
 
 import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
 import ru.practicum.ewm.stat.dto.ViewStatsDto;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface StatsService {
     void saveHit(EndpointHitDto endpointHitDto);
 
+    void saveHits(List<EndpointHitDto> endpointHitDtos);
+
     List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique);
+
+    List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                                Integer limit);
+
+    /**
+     * Stats for a uri list sent in the request body, see {@link StatsQueryDto}.
+     */
+    List<ViewStatsDto> getStats(StatsQueryDto query);
+
+    /**
+     * Hits of the uris {@code uriPrefix} + id, keyed by id; ids without hits are left out.
+     *
+     * @param ids resource ids, {@code null} or empty for every id under the prefix
+     */
+    Map<Long, Long> getResourceStats(LocalDateTime start, LocalDateTime end, String uriPrefix, List<Long> ids,
+                                     Boolean unique);
+
+    /**
+     * Passes stats to {@code consumer} row by row without materializing the result.
+     */
+    void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique, Integer limit,
+                     Consumer<ViewStatsDto> consumer);
+
+    /**
+     * Most hit uris of the last {@code window}, approximate when served from memory.
+     */
+    List<ViewStatsDto> getTop(Duration window, int limit);
 }
\ No newline at end of file
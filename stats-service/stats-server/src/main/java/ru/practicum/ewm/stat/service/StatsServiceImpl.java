@@ -1,32 +1,209 @@
 package ru.practicum.ewm.stat.service;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.stat.counter.HitCounters;
+import ru.practicum.ewm.stat.counter.TrendingHits;
 import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
 import ru.practicum.ewm.stat.dto.ViewStatsDto;
 import ru.practicum.ewm.stat.mapper.StatsMapper;
+import ru.practicum.ewm.stat.model.EndpointHit;
 import ru.practicum.ewm.stat.repository.StatsRepository;
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class StatsServiceImpl implements StatsService {
+    // Longer uri lists are bound as one array instead of an IN list with a parameter per id
+    private static final int ARRAY_PARAMETER_THRESHOLD = 100;
+
     private final StatsRepository statsRepository;
+    private final HitDictionary hitDictionary;
+    private final HitCounters hitCounters;
+    private final TrendingHits trendingHits;
+    private final TransactionTemplate transactionTemplate;
+
+    public StatsServiceImpl(StatsRepository statsRepository, HitDictionary hitDictionary, HitCounters hitCounters,
+                            TrendingHits trendingHits, PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.hitDictionary = hitDictionary;
+        this.hitCounters = hitCounters;
+        this.trendingHits = trendingHits;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
+    /**
+     * Interns the app and uri before opening the transaction that inserts the hit, see {@link HitDictionary}.
+     * Joins the caller's transaction, if any.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void saveHit(EndpointHitDto endpointHitDto) {
-        var endpointHit = StatsMapper.toEntity(endpointHitDto);
-        statsRepository.save(endpointHit);
+        EndpointHit hit = toEntity(endpointHitDto);
+        transactionTemplate.executeWithoutResult(status -> {
+            var saved = statsRepository.save(hit);
+            afterCommit(() -> record(saved));
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void saveHits(List<EndpointHitDto> endpointHitDtos) {
+        List<EndpointHit> hits = endpointHitDtos.stream().map(this::toEntity).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            statsRepository.insertAll(hits);
+            afterCommit(() -> hits.forEach(this::record));
+        });
     }
 
     @Override
     public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end,
                                        List<String> uris, Boolean unique) {
+        return getStats(start, end, uris, unique, null);
+    }
+
+    @Override
+    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end,
+                                       List<String> uris, Boolean unique, Integer limit) {
+        validate(start, end, limit);
+
+        List<Integer> uriIds = uris == null || uris.isEmpty() ? null : hitDictionary.findUriIds(uris);
+        if (uriIds != null && uriIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        boolean uniqueHits = Boolean.TRUE.equals(unique);
+        Optional<List<HitCount>> fromCounters = hitCounters.getStats(start, end, uriIds, uniqueHits);
+        List<HitCount> counts;
+        if (fromCounters.isPresent()) {
+            counts = fromCounters.get().stream().limit(limit == null ? Long.MAX_VALUE : limit).toList();
+        } else if (limit == null) {
+            counts = queryHits(start, end, uriIds, uniqueHits);
+        } else {
+            try (Stream<HitCount> stream = streamHits(start, end, uriIds, uniqueHits, Limit.of(limit))) {
+                counts = stream.toList();
+            }
+        }
+
+        return counts.stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    @Override
+    public List<ViewStatsDto> getStats(StatsQueryDto query) {
+        return getStats(query.getStart(), query.getEnd(), toUris(query), query.getUnique());
+    }
+
+    @Override
+    public Map<Long, Long> getResourceStats(LocalDateTime start, LocalDateTime end, String uriPrefix, List<Long> ids,
+                                            Boolean unique) {
+        validateResources(start, end, uriPrefix);
+
+        Map<Integer, Long> resources = hitDictionary.findResources(uriPrefix,
+                ids == null || ids.isEmpty() ? null : ids);
+        if (resources.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Integer> uriIds = List.copyOf(resources.keySet());
+        boolean uniqueHits = Boolean.TRUE.equals(unique);
+        List<HitCount> counts = hitCounters.getStats(start, end, uriIds, uniqueHits)
+                .orElseGet(() -> queryHits(start, end, uriIds, uniqueHits));
+        return toResourceHits(resources, counts, uniqueHits);
+    }
+
+    @Override
+    public void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                            Integer limit, Consumer<ViewStatsDto> consumer) {
+        validate(start, end, limit);
+
+        List<Integer> uriIds = uris == null || uris.isEmpty() ? null : hitDictionary.findUriIds(uris);
+        if (uriIds != null && uriIds.isEmpty()) {
+            return;
+        }
+
+        boolean uniqueHits = Boolean.TRUE.equals(unique);
+        // Counters answer with a materialized list, which is only small for an explicit uri list
+        if (uriIds != null) {
+            Optional<List<HitCount>> fromCounters = hitCounters.getStats(start, end, uriIds, uniqueHits);
+            if (fromCounters.isPresent()) {
+                fromCounters.get().stream()
+                        .limit(limit == null ? Long.MAX_VALUE : limit)
+                        .map(this::toDto)
+                        .forEach(consumer);
+                return;
+            }
+        }
+
+        try (Stream<HitCount> counts = streamHits(start, end, uriIds, uniqueHits,
+                limit == null ? Limit.unlimited() : Limit.of(limit))) {
+            counts.map(this::toDto).forEach(consumer);
+        }
+    }
+
+    @Override
+    public List<ViewStatsDto> getTop(Duration window, int limit) {
+        Optional<List<HitCount>> top = trendingHits.getTop(window, limit);
+        if (top.isPresent()) {
+            return top.get().stream().map(this::toDto).toList();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return getStats(now.minus(window), now, null, false, limit);
+    }
+
+    // Shared with ReactiveStatsServiceImpl, so both stacks reject the same requests
+
+    static void validateResources(LocalDateTime start, LocalDateTime end, String uriPrefix) {
+        validate(start, end, null);
+        if (uriPrefix == null || uriPrefix.isBlank()) {
+            throw new IllegalArgumentException("Uri prefix must not be blank");
+        }
+    }
+
+    static List<String> toUris(StatsQueryDto query) {
+        List<String> uris = new ArrayList<>();
+        if (query.getUris() != null) {
+            uris.addAll(query.getUris());
+        }
+        if (query.getIds() != null && !query.getIds().isEmpty()) {
+            if (query.getUriPrefix() == null || query.getUriPrefix().isBlank()) {
+                throw new IllegalArgumentException("Uri prefix is required with ids");
+            }
+            query.getIds().forEach(id -> uris.add(query.getUriPrefix() + id));
+        }
+        return uris;
+    }
+
+    static Map<Long, Long> toResourceHits(Map<Integer, Long> resources, List<? extends HitCount> counts,
+                                          boolean unique) {
+        // Hits of several apps add up; their distinct ips may overlap, so the largest count is the safe bound
+        Map<Long, Long> hits = new HashMap<>();
+        counts.forEach(count -> hits.merge(resources.get(count.getUriId()), count.getHits(),
+                unique ? Math::max : Long::sum));
+        return hits;
+    }
+
+    static void validate(LocalDateTime start, LocalDateTime end, Integer limit) {
         if (start == null || end == null) {
             throw new IllegalArgumentException("Start and end dates must not be null");
         }
@@ -35,10 +212,65 @@ public class StatsServiceImpl implements StatsService {
             throw new IllegalArgumentException("Start date must be before end date");
         }
 
-        if (Boolean.TRUE.equals(unique)) {
-            return statsRepository.getStatsUnique(start, end, uris);
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+    }
+
+    private List<HitCount> queryHits(LocalDateTime start, LocalDateTime end, List<Integer> uriIds, boolean unique) {
+        if (uriIds == null) {
+            return unique
+                    ? statsRepository.getStatsUnique(start, end)
+                    : statsRepository.getStats(start, end);
+        }
+        if (uriIds.size() > ARRAY_PARAMETER_THRESHOLD) {
+            return statsRepository.getStatsByUriArray(start, end, uriIds, unique);
+        }
+        return unique
+                ? statsRepository.getStatsUniqueByUris(start, end, uriIds)
+                : statsRepository.getStatsByUris(start, end, uriIds);
+    }
+
+    private Stream<HitCount> streamHits(LocalDateTime start, LocalDateTime end, List<Integer> uriIds,
+                                        boolean unique, Limit limit) {
+        if (uriIds == null) {
+            return unique
+                    ? statsRepository.streamStatsUnique(start, end, limit)
+                    : statsRepository.streamStats(start, end, limit);
+        }
+        return unique
+                ? statsRepository.streamStatsUniqueByUris(start, end, uriIds, limit)
+                : statsRepository.streamStatsByUris(start, end, uriIds, limit);
+    }
+
+    private ViewStatsDto toDto(HitCount count) {
+        return new ViewStatsDto(hitDictionary.getAppName(count.getAppId()),
+                hitDictionary.getUri(count.getUriId()), count.getHits());
+    }
+
+    private void record(EndpointHit hit) {
+        hitCounters.record(hit.getAppId(), hit.getUriId(), hit.getIp(), hit.getTimestamp());
+        trendingHits.record(hit.getAppId(), hit.getUriId(), hit.getTimestamp());
+    }
+
+    private EndpointHit toEntity(EndpointHitDto endpointHitDto) {
+        var endpointHit = StatsMapper.toEntity(endpointHitDto);
+        endpointHit.setAppId(hitDictionary.getAppId(endpointHitDto.getApp()));
+        endpointHit.setUriId(hitDictionary.getUriId(endpointHitDto.getUri()));
+        return endpointHit;
+    }
+
+    // Counters only see committed hits, a rolled back insert must not be counted
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
         } else {
-            return statsRepository.getStats(start, end, uris);
+            action.run();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,256 @@
+package ru.practicum.ewm.stat.wal;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.model.EpochMillisConverter;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only hit log split into numbered segment files. Each record is framed as
+ * {@code [int length][int crc32c][payload]}; a torn frame at the tail of the last segment is cut off on open.
+ * Appends come from a single thread, reads use their own channels and may run concurrently.
+ */
+@Slf4j
+final class HitLog implements Closeable {
+    private static final String PREFIX = "hits-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final Path dir;
+    private final long segmentSize;
+    private long segment;
+    private FileChannel channel;
+    private long size;
+    private long deletedBefore;
+
+    private HitLog(Path dir, long segmentSize) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+    }
+
+    static HitLog open(Path dir, long segmentSize, LogPosition checkpoint) throws IOException {
+        Files.createDirectories(dir);
+        HitLog hitLog = new HitLog(dir, segmentSize);
+        hitLog.deleteBefore(checkpoint.segment());
+
+        long last = hitLog.segments().stream().mapToLong(Long::longValue).max().orElse(-1);
+        if (last < 0) {
+            // Segments are gone but the checkpoint is not: continue after it rather than rewrite drained offsets
+            hitLog.openSegment(checkpoint.offset() == 0 ? checkpoint.segment() : checkpoint.segment() + 1);
+        } else {
+            hitLog.openSegment(last);
+            long valid = hitLog.validLength();
+            if (valid < hitLog.size) {
+                log.warn("Truncating torn tail of hit log segment {} from {} to {} bytes", last, hitLog.size, valid);
+                hitLog.channel.truncate(valid);
+                hitLog.size = valid;
+            }
+        }
+        return hitLog;
+    }
+
+    LogPosition end() {
+        return new LogPosition(segment, size);
+    }
+
+    void append(List<byte[]> records) throws IOException {
+        int i = 0;
+        while (i < records.size()) {
+            if (size > 0 && size + frameSize(records.get(i)) > segmentSize) {
+                roll();
+            }
+
+            int bytes = 0;
+            int j = i;
+            while (j < records.size() && (bytes == 0 || size + bytes + frameSize(records.get(j)) <= segmentSize)) {
+                bytes += frameSize(records.get(j++));
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(bytes);
+            for (int k = i; k < j; k++) {
+                buffer.putInt(records.get(k).length).putInt(crc(records.get(k))).put(records.get(k));
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                size += channel.write(buffer, size);
+            }
+            i = j;
+        }
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Drops everything written after {@code position}, used to undo a partially failed append.
+     */
+    void truncate(LogPosition position) throws IOException {
+        while (segment > position.segment()) {
+            channel.close();
+            Files.deleteIfExists(path(segment));
+            openSegment(segment - 1);
+        }
+        channel.truncate(position.offset());
+        size = position.offset();
+    }
+
+    Batch read(LogPosition from, LogPosition to, int maxRecords) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long current = from.segment();
+        long offset = from.offset();
+
+        while (entries.size() < maxRecords && new LogPosition(current, offset).compareTo(to) < 0) {
+            Path file = path(current);
+            if (!Files.exists(file)) {
+                current++;
+                offset = 0;
+                continue;
+            }
+
+            try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ)) {
+                long limit = current == to.segment() ? to.offset() : reader.size();
+                while (offset < limit && entries.size() < maxRecords) {
+                    ByteBuffer header = readFully(reader, offset, HEADER_BYTES);
+                    byte[] payload = readFully(reader, offset + HEADER_BYTES, header.getInt(0)).array();
+                    if (crc(payload) != header.getInt(Integer.BYTES)) {
+                        throw new IOException("Corrupted hit log record at " + new LogPosition(current, offset));
+                    }
+                    offset += HEADER_BYTES + payload.length;
+                    entries.add(new Entry(payload, new LogPosition(current, offset)));
+                }
+                if (offset >= limit && current < to.segment()) {
+                    current++;
+                    offset = 0;
+                }
+            }
+        }
+        return new Batch(entries, new LogPosition(current, offset));
+    }
+
+    void deleteBefore(long segment) throws IOException {
+        if (segment <= deletedBefore) {
+            return;
+        }
+        for (long existing : segments()) {
+            if (existing < segment) {
+                Files.deleteIfExists(path(existing));
+            }
+        }
+        deletedBefore = segment;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    static byte[] encode(EndpointHitDto hit) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(hit.getApp());
+            out.writeUTF(hit.getUri());
+            out.writeUTF(hit.getIp());
+            out.writeLong(EpochMillisConverter.toEpochMilli(hit.getTimestamp()));
+            return bytes.toByteArray();
+        } catch (UTFDataFormatException e) {
+            throw new IllegalArgumentException("Hit field is too long", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static EndpointHitDto decode(byte[] record) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+            return new EndpointHitDto(null, in.readUTF(), in.readUTF(), in.readUTF(),
+                    EpochMillisConverter.fromEpochMilli(in.readLong()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void roll() throws IOException {
+        // The previous segment must be durable before the batch continues in the next one
+        channel.force(false);
+        channel.close();
+        openSegment(segment + 1);
+    }
+
+    private void openSegment(long id) throws IOException {
+        segment = id;
+        channel = FileChannel.open(path(id), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        size = channel.size();
+    }
+
+    private long validLength() throws IOException {
+        long offset = 0;
+        while (offset + HEADER_BYTES <= size) {
+            ByteBuffer header = readFully(channel, offset, HEADER_BYTES);
+            int length = header.getInt(0);
+            if (length < 0 || length > MAX_RECORD_BYTES || offset + HEADER_BYTES + length > size) {
+                break;
+            }
+            byte[] payload = readFully(channel, offset + HEADER_BYTES, length).array();
+            if (crc(payload) != header.getInt(Integer.BYTES)) {
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .toList();
+        }
+    }
+
+    private Path path(long id) {
+        return dir.resolve(String.format("%s%020d%s", PREFIX, id, SUFFIX));
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of hit log segment at " + position);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static int frameSize(byte[] record) {
+        return HEADER_BYTES + record.length;
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    record Entry(byte[] record, LogPosition next) {
+    }
+
+    record Batch(List<Entry> entries, LogPosition next) {
+    }
+}
@@ -0,0 +1,286 @@
+package ru.practicum.ewm.stat.wal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.exception.HitLogUnavailableException;
+import ru.practicum.ewm.stat.model.HitLogCheckpoint;
+import ru.practicum.ewm.stat.repository.HitLogCheckpointRepository;
+import ru.practicum.ewm.stat.service.HitDictionary;
+import ru.practicum.ewm.stat.service.StatsService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group commit into the {@link HitLog} and asynchronous drain into endpoint_hits.
+ * <p>
+ * Appends are acknowledged once their batch is written (and fsync'd, unless disabled). The drain thread
+ * stores committed records in large batches and moves the checkpoint in the same transaction, so every
+ * record reaches the database exactly once, including the tail replayed after a restart.
+ * <p>
+ * At most {@code queueCapacity} hits wait for their commit, further appends fail right away. An append
+ * cancelled before the committer claims it is never written, so a client that gave up can safely retry.
+ */
+@Slf4j
+public class HitLogWriter implements SmartLifecycle {
+    private final StatsService statsService;
+    private final HitDictionary hitDictionary;
+    private final HitLogCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WalProperties properties;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Semaphore capacity;
+    private HitLog hitLog;
+    private Thread committer;
+    private Thread drainer;
+    private volatile LogPosition committed;
+    private volatile LogPosition drained;
+    private volatile boolean running;
+    private volatile boolean draining;
+
+    public HitLogWriter(StatsService statsService, HitDictionary hitDictionary,
+                        HitLogCheckpointRepository checkpointRepository, PlatformTransactionManager transactionManager,
+                        WalProperties properties) {
+        this.statsService = statsService;
+        this.hitDictionary = hitDictionary;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.capacity = new Semaphore(properties.getQueueCapacity());
+    }
+
+    public CompletableFuture<Void> append(EndpointHitDto hit) {
+        return append(List.of(hit));
+    }
+
+    /**
+     * Appends the hits as one unit: they are committed together or not at all.
+     *
+     * @return completes once the hits are committed; cancelling it before then drops all of them
+     */
+    public CompletableFuture<Void> append(List<EndpointHitDto> hits) {
+        List<byte[]> records = hits.stream().map(HitLog::encode).toList();
+        if (!running) {
+            return CompletableFuture.failedFuture(new HitLogUnavailableException("Hit log is not running"));
+        }
+        if (!capacity.tryAcquire(records.size())) {
+            return CompletableFuture.failedFuture(new HitLogUnavailableException("Hit log queue is full"));
+        }
+
+        Pending pending = new Pending(records, new Ack());
+        queue.add(pending);
+        return pending.ack();
+    }
+
+    @Override
+    public void start() {
+        LogPosition checkpoint = checkpointRepository.findById(properties.getNode())
+                .map(saved -> new LogPosition(saved.getSegment(), saved.getSegmentOffset()))
+                .orElse(LogPosition.START);
+        try {
+            hitLog = HitLog.open(Path.of(properties.getDir()), properties.getSegmentSize().toBytes(), checkpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open hit log in " + properties.getDir(), e);
+        }
+
+        drained = checkpoint;
+        committed = hitLog.end();
+        if (drained.compareTo(committed) < 0) {
+            log.info("Hit log has undrained records from {} to {}, replaying", drained, committed);
+        }
+
+        running = true;
+        draining = true;
+        committer = new Thread(this::commitLoop, "hit-log-commit");
+        drainer = new Thread(this::drainLoop, "hit-log-drain");
+        committer.start();
+        drainer.start();
+    }
+
+    /**
+     * Commits what is queued, then gives the drainer one last pass; anything left is drained on the next start.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        join(committer);
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            capacity.release(pending.records().size());
+            pending.ack().completeExceptionally(new HitLogUnavailableException("Hit log is stopped"));
+        }
+
+        draining = false;
+        LockSupport.unpark(drainer);
+        join(drainer);
+        try {
+            hitLog.close();
+        } catch (IOException e) {
+            log.warn("Failed to close hit log", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void commitLoop() {
+        List<Pending> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                int records = first.records().size();
+                long deadline = System.nanoTime() + properties.getSyncInterval().toNanos();
+                while (records < properties.getCommitBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    records += next.records().size();
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.ack().completeExceptionally(e));
+                return;
+            } finally {
+                batch.forEach(pending -> capacity.release(pending.records().size()));
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        // Appends cancelled while waiting for the group are left out
+        List<Pending> claimed = batch.stream().filter(pending -> pending.ack().claim()).toList();
+        if (claimed.isEmpty()) {
+            return;
+        }
+        try {
+            hitLog.append(claimed.stream().flatMap(pending -> pending.records().stream()).toList());
+            if (properties.isFsync()) {
+                hitLog.force();
+            }
+            committed = hitLog.end();
+        } catch (IOException e) {
+            log.error("Failed to commit {} appends to the hit log", claimed.size(), e);
+            try {
+                hitLog.truncate(committed);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            claimed.forEach(pending -> pending.ack().completeExceptionally(e));
+            return;
+        }
+        claimed.forEach(pending -> pending.ack().complete(null));
+    }
+
+    private void drainLoop() {
+        while (true) {
+            boolean last = !draining;
+            if (drained.compareTo(committed) < 0) {
+                try {
+                    drain();
+                    continue;
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Failed to drain hit log at {}, retrying", drained, e);
+                    if (last) {
+                        return;
+                    }
+                }
+            } else if (last) {
+                return;
+            }
+            LockSupport.parkNanos(properties.getDrainInterval().toNanos());
+        }
+    }
+
+    private void drain() throws IOException {
+        HitLog.Batch batch = hitLog.read(drained, committed, properties.getDrainBatchSize());
+        List<EndpointHitDto> hits = batch.entries().stream()
+                .map(entry -> HitLog.decode(entry.record()))
+                .toList();
+
+        try {
+            save(hits, batch.next());
+            drained = batch.next();
+        } catch (DataIntegrityViolationException | IllegalArgumentException e) {
+            // One bad record must not block the log: store the rest one by one and skip it
+            for (int i = 0; i < hits.size(); i++) {
+                LogPosition next = batch.entries().get(i).next();
+                try {
+                    save(List.of(hits.get(i)), next);
+                } catch (DataIntegrityViolationException | IllegalArgumentException rejected) {
+                    log.error("Skipping hit {} at {}: {}", hits.get(i), drained, rejected.getMessage());
+                    save(List.of(), next);
+                }
+                drained = next;
+            }
+            save(List.of(), batch.next());
+            drained = batch.next();
+        }
+        hitLog.deleteBefore(drained.segment());
+    }
+
+    private void save(List<EndpointHitDto> hits, LogPosition next) {
+        // Not inside the transaction below, where interning would take a second connection
+        hitDictionary.intern(hits);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!hits.isEmpty()) {
+                statsService.saveHits(hits);
+            }
+            checkpointRepository.save(new HitLogCheckpoint(properties.getNode(), next.segment(), next.offset()));
+        });
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Pending(List<byte[]> records, Ack ack) {
+    }
+
+    /**
+     * Cancelling and committing race for the same claim, so a cancelled append is never written and a
+     * claimed one is no longer cancellable.
+     */
+    private static final class Ack extends CompletableFuture<Void> {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return claim() && super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.ewm.stat.wal;
+
+import java.util.Comparator;
+
+record LogPosition(long segment, long offset) implements Comparable<LogPosition> {
+    static final LogPosition START = new LogPosition(0, 0);
+
+    private static final Comparator<LogPosition> ORDER = Comparator.comparingLong(LogPosition::segment)
+            .thenComparingLong(LogPosition::offset);
+
+    @Override
+    public int compareTo(LogPosition other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public String toString() {
+        return segment + ":" + offset;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.ewm.stat.wal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.ewm.stat.repository.HitLogCheckpointRepository;
+import ru.practicum.ewm.stat.service.HitDictionary;
+import ru.practicum.ewm.stat.service.StatsService;
+import ru.practicum.ewm.stat.service.StatsServiceImpl;
+
+@Configuration
+@EnableConfigurationProperties(WalProperties.class)
+@ConditionalOnProperty(prefix = "stats.wal", name = "enabled", havingValue = "true")
+// The reactive API writes over R2DBC and has no hit log
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WalConfig {
+
+    @Bean
+    public HitLogWriter hitLogWriter(StatsServiceImpl statsService, HitDictionary hitDictionary,
+                                     HitLogCheckpointRepository checkpointRepository,
+                                     PlatformTransactionManager transactionManager, WalProperties properties) {
+        return new HitLogWriter(statsService, hitDictionary, checkpointRepository, transactionManager, properties);
+    }
+
+    @Bean
+    @Primary
+    public StatsService walStatsService(StatsServiceImpl statsService, HitLogWriter hitLogWriter,
+                                        WalProperties properties) {
+        return new WalStatsService(statsService, hitLogWriter, properties);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.ewm.stat.wal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "stats.wal")
+public class WalProperties {
+    private boolean enabled = false;
+    private String dir = "data/hit-log";
+    // Checkpoint key; each instance drains its own log directory
+    private String node = "default";
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    // Group commit window: appends arriving within it share one write and fsync
+    private Duration syncInterval = Duration.ofMillis(5);
+    private boolean fsync = true;
+    private int commitBatchSize = 4096;
+    // Hits accepted but not committed yet; appends beyond it are rejected with 503
+    private int queueCapacity = 65_536;
+    private int drainBatchSize = 1000;
+    private Duration drainInterval = Duration.ofMillis(100);
+    private Duration ackTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,109 @@
+package ru.practicum.ewm.stat.wal;
+
+import lombok.RequiredArgsConstructor;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
+import ru.practicum.ewm.stat.dto.ViewStatsDto;
+import ru.practicum.ewm.stat.exception.HitLogUnavailableException;
+import ru.practicum.ewm.stat.mapper.IpAddresses;
+import ru.practicum.ewm.stat.service.StatsService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Accepts hits, single and bulk, into the {@link HitLogWriter} instead of the database; reads go to the
+ * database as before, so a hit shows up in /stats once drained.
+ */
+@RequiredArgsConstructor
+public class WalStatsService implements StatsService {
+    private final StatsService delegate;
+    private final HitLogWriter hitLogWriter;
+    private final WalProperties properties;
+
+    @Override
+    public void saveHit(EndpointHitDto endpointHitDto) {
+        saveHits(List.of(endpointHitDto));
+    }
+
+    /**
+     * The batch is committed as a whole, like the single transaction of {@link StatsService#saveHits}.
+     */
+    @Override
+    public void saveHits(List<EndpointHitDto> endpointHitDtos) {
+        if (endpointHitDtos.isEmpty()) {
+            return;
+        }
+        // Rejected here with 400, the drain could only skip them
+        endpointHitDtos.forEach(hit -> IpAddresses.toBytes(hit.getIp()));
+
+        CompletableFuture<Void> ack = hitLogWriter.append(endpointHitDtos);
+        try {
+            await(ack);
+        } catch (TimeoutException e) {
+            if (ack.cancel(false)) {
+                throw new HitLogUnavailableException("Hits were not committed to the hit log in time", e);
+            }
+            // Already being written, the outcome of that write decides
+            try {
+                await(ack);
+            } catch (TimeoutException stillWriting) {
+                throw new IllegalStateException("Hit log write did not finish in time", stillWriting);
+            }
+        }
+    }
+
+    private void await(CompletableFuture<Void> ack) throws TimeoutException {
+        try {
+            ack.get(properties.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the hit log", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HitLogUnavailableException unavailable) {
+                throw unavailable;
+            }
+            throw new IllegalStateException("Hits were not committed to the hit log", e.getCause());
+        }
+    }
+
+    @Override
+    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
+        return delegate.getStats(start, end, uris, unique);
+    }
+
+    @Override
+    public List<ViewStatsDto> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                                       Integer limit) {
+        return delegate.getStats(start, end, uris, unique, limit);
+    }
+
+    @Override
+    public List<ViewStatsDto> getStats(StatsQueryDto query) {
+        return delegate.getStats(query);
+    }
+
+    @Override
+    public Map<Long, Long> getResourceStats(LocalDateTime start, LocalDateTime end, String uriPrefix, List<Long> ids,
+                                            Boolean unique) {
+        return delegate.getResourceStats(start, end, uriPrefix, ids, unique);
+    }
+
+    @Override
+    public void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique,
+                            Integer limit, Consumer<ViewStatsDto> consumer) {
+        delegate.streamStats(start, end, uris, unique, limit, consumer);
+    }
+
+    @Override
+    public List<ViewStatsDto> getTop(Duration window, int limit) {
+        return delegate.getTop(window, limit);
+    }
+}
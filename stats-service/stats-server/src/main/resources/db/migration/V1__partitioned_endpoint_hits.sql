@@ -0,0 +1,82 @@
+-- Tables created earlier by Hibernate are plain heap tables; move their rows into the partitioned layout
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1
+               FROM pg_class c
+                        JOIN pg_namespace n ON n.oid = c.relnamespace
+               WHERE c.relname = 'endpoint_hits'
+                 AND n.nspname = current_schema()
+                 AND c.relkind = 'r') THEN
+        ALTER TABLE endpoint_hits RENAME TO endpoint_hits_legacy;
+    END IF;
+END
+$$;
+
+-- Identity columns are not allowed on partitioned tables before PostgreSQL 17
+CREATE SEQUENCE endpoint_hits_seq;
+
+CREATE TABLE endpoint_hits
+(
+    id        BIGINT       NOT NULL DEFAULT nextval('endpoint_hits_seq'),
+    app       VARCHAR(255) NOT NULL,
+    uri       VARCHAR(512) NOT NULL,
+    ip        VARCHAR(45)  NOT NULL,
+    timestamp TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE endpoint_hits_seq OWNED BY endpoint_hits.id;
+
+-- Catches rows outside the managed ranges; they are moved out when a matching partition is created
+CREATE TABLE endpoint_hits_default PARTITION OF endpoint_hits DEFAULT;
+
+CREATE INDEX idx_endpoint_hits_timestamp ON endpoint_hits (timestamp);
+
+CREATE FUNCTION create_endpoint_hits_partition(partition_name TEXT, range_start TIMESTAMP, range_end TIMESTAMP)
+    RETURNS BOOLEAN
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE endpoint_hits INCLUDING DEFAULTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM endpoint_hits_default '
+                       || 'WHERE timestamp >= %L AND timestamp < %L RETURNING *) '
+                       || 'INSERT INTO %I SELECT * FROM moved',
+                   range_start, range_end, partition_name);
+    EXECUTE format('ALTER TABLE endpoint_hits ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+    RETURN TRUE;
+EXCEPTION
+    -- The range is already covered by a partition of another granularity
+    WHEN invalid_object_definition THEN
+        RETURN FALSE;
+END
+$$;
+
+DO $$
+DECLARE
+    month_start TIMESTAMP;
+BEGIN
+    IF to_regclass('endpoint_hits_legacy') IS NULL THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO endpoint_hits (id, app, uri, ip, timestamp)
+    SELECT id, app, uri, ip, timestamp
+    FROM endpoint_hits_legacy;
+
+    PERFORM setval('endpoint_hits_seq', COALESCE((SELECT MAX(id) FROM endpoint_hits), 0) + 1, false);
+
+    FOR month_start IN SELECT DISTINCT date_trunc('month', timestamp) FROM endpoint_hits_default
+        LOOP
+            PERFORM create_endpoint_hits_partition('endpoint_hits_p' || to_char(month_start, 'YYYYMM'),
+                                                   month_start, month_start + INTERVAL '1 month');
+        END LOOP;
+
+    DROP TABLE endpoint_hits_legacy;
+END
+$$;
@@ -0,0 +1,7 @@
+-- Both stats queries aggregate over (app, uri, ip), so the indexes carry those columns
+-- and the planner can answer them with index-only scans per partition
+DROP INDEX idx_endpoint_hits_timestamp;
+
+CREATE INDEX idx_endpoint_hits_timestamp ON endpoint_hits (timestamp) INCLUDE (app, uri, ip);
+
+CREATE INDEX idx_endpoint_hits_uri_timestamp ON endpoint_hits (uri, timestamp) INCLUDE (app, ip);
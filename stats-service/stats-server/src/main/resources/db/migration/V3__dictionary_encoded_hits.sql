@@ -0,0 +1,138 @@
+CREATE TABLE apps
+(
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE uris
+(
+    id  INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    uri VARCHAR(512) NOT NULL UNIQUE
+);
+
+-- Keep the text layout aside until its rows are copied; partition names are freed for the new table
+ALTER TABLE endpoint_hits RENAME TO endpoint_hits_text;
+
+DO $$
+DECLARE
+    partition_name TEXT;
+BEGIN
+    FOR partition_name IN SELECT c.relname
+                          FROM pg_inherits i
+                                   JOIN pg_class c ON c.oid = i.inhrelid
+                          WHERE i.inhparent = 'endpoint_hits_text'::regclass
+        LOOP
+            EXECUTE format('ALTER TABLE %I RENAME TO %I', partition_name, partition_name || '_text');
+        END LOOP;
+END
+$$;
+
+DROP INDEX idx_endpoint_hits_timestamp;
+DROP INDEX idx_endpoint_hits_uri_timestamp;
+ALTER SEQUENCE endpoint_hits_seq OWNED BY NONE;
+
+-- ip holds the raw 4 or 16 address bytes, or the SHA-256 of a value that is not an address literal, which is
+-- then kept as is in ip_text; timestamp is the wall-clock time as epoch milliseconds
+CREATE TABLE endpoint_hits
+(
+    id        BIGINT      NOT NULL DEFAULT nextval('endpoint_hits_seq'),
+    app_id    INTEGER     NOT NULL,
+    uri_id    INTEGER     NOT NULL,
+    ip        BYTEA       NOT NULL,
+    ip_text   VARCHAR(45),
+    timestamp BIGINT      NOT NULL,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE endpoint_hits_seq OWNED BY endpoint_hits.id;
+
+CREATE TABLE endpoint_hits_default PARTITION OF endpoint_hits DEFAULT;
+
+DROP FUNCTION create_endpoint_hits_partition(TEXT, TIMESTAMP, TIMESTAMP);
+
+CREATE FUNCTION create_endpoint_hits_partition(partition_name TEXT, range_start BIGINT, range_end BIGINT)
+    RETURNS BOOLEAN
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE endpoint_hits INCLUDING DEFAULTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM endpoint_hits_default '
+                       || 'WHERE timestamp >= %s AND timestamp < %s RETURNING *) '
+                       || 'INSERT INTO %I SELECT * FROM moved',
+                   range_start, range_end, partition_name);
+    EXECUTE format('ALTER TABLE endpoint_hits ATTACH PARTITION %I FOR VALUES FROM (%s) TO (%s)',
+                   partition_name, range_start, range_end);
+    RETURN TRUE;
+EXCEPTION
+    -- The range is already covered by a partition of another granularity
+    WHEN invalid_object_definition THEN
+        RETURN FALSE;
+END
+$$;
+
+-- Null unless ip is an address literal as IpAddresses reads it, inet alone would also take a netmask
+CREATE FUNCTION pg_temp.ip_bytes(ip TEXT)
+    RETURNS BYTEA
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    literal TEXT := btrim(ip);
+BEGIN
+    IF literal !~ '^\d{1,3}(\.\d{1,3}){3}$' AND literal !~ '^[0-9a-fA-F.]*:[0-9a-fA-F:.]*$' THEN
+        RETURN NULL;
+    END IF;
+    -- inet_send prefixes the address with family, netmask, cidr flag and length bytes
+    RETURN substring(inet_send(literal::inet) FROM 5);
+EXCEPTION
+    WHEN invalid_text_representation THEN
+        RETURN NULL;
+END
+$$;
+
+INSERT INTO apps (name)
+SELECT DISTINCT app
+FROM endpoint_hits_text;
+
+INSERT INTO uris (uri)
+SELECT DISTINCT uri
+FROM endpoint_hits_text;
+
+-- Every row is kept: an ip that is not an address literal is encoded as IpAddresses does it
+INSERT INTO endpoint_hits (id, app_id, uri_id, ip, ip_text, timestamp)
+SELECT h.id,
+       a.id,
+       u.id,
+       COALESCE(h.address, sha256(convert_to(h.ip, 'UTF8'))),
+       CASE WHEN h.address IS NULL THEN h.ip END,
+       h.timestamp
+FROM (SELECT id, app, uri, ip, pg_temp.ip_bytes(ip) AS address,
+             (EXTRACT(EPOCH FROM timestamp) * 1000)::BIGINT AS timestamp
+      FROM endpoint_hits_text) h
+         JOIN apps a ON a.name = h.app
+         JOIN uris u ON u.uri = h.uri;
+
+DO $$
+DECLARE
+    month_start TIMESTAMP;
+BEGIN
+    FOR month_start IN SELECT DISTINCT date_trunc('month', timestamp) FROM endpoint_hits_text
+        LOOP
+            PERFORM create_endpoint_hits_partition('endpoint_hits_p' || to_char(month_start, 'YYYYMM'),
+                                                   (EXTRACT(EPOCH FROM month_start) * 1000)::BIGINT,
+                                                   (EXTRACT(EPOCH FROM month_start + INTERVAL '1 month') * 1000)::BIGINT);
+        END LOOP;
+END
+$$;
+
+DROP TABLE endpoint_hits_text;
+
+-- Built after the copy so the bulk insert does not maintain them row by row
+CREATE INDEX idx_endpoint_hits_timestamp ON endpoint_hits (timestamp) INCLUDE (app_id, uri_id, ip);
+
+CREATE INDEX idx_endpoint_hits_uri_timestamp ON endpoint_hits (uri_id, timestamp) INCLUDE (app_id, ip);
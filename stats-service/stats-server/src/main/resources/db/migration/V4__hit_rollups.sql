@@ -0,0 +1,21 @@
+-- Hourly per app/uri hit counts with a serialized distinct-IP sketch, written by the stats-server counters
+CREATE TABLE hit_rollups
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    hour_start BIGINT  NOT NULL,
+    app_id     INTEGER NOT NULL,
+    uri_id     INTEGER NOT NULL,
+    hits       BIGINT  NOT NULL,
+    ips        BYTEA   NOT NULL
+);
+
+CREATE INDEX idx_hit_rollups_hour ON hit_rollups (hour_start) INCLUDE (app_id, uri_id, hits);
+
+CREATE INDEX idx_hit_rollups_uri_hour ON hit_rollups (uri_id, hour_start) INCLUDE (app_id, hits);
+
+CREATE TABLE hit_rollup_state
+(
+    id             INTEGER PRIMARY KEY,
+    rolled_up_from BIGINT NOT NULL,
+    rolled_up_to   BIGINT NOT NULL
+);
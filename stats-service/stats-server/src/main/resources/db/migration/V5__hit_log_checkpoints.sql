@@ -0,0 +1,7 @@
+-- Drain position of each stats-server hit log, moved in the same transaction as the drained rows
+CREATE TABLE hit_log_checkpoints
+(
+    node           VARCHAR(64) PRIMARY KEY,
+    segment        BIGINT NOT NULL,
+    segment_offset BIGINT NOT NULL
+);
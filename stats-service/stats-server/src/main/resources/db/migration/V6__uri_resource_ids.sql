@@ -0,0 +1,11 @@
+-- Uris ending in a numeric segment are split at ingest, so /stats/resources can select and group by the id
+ALTER TABLE uris
+    ADD COLUMN prefix      VARCHAR(512),
+    ADD COLUMN resource_id BIGINT;
+
+UPDATE uris
+SET prefix      = substring(uri FROM '^(.*/)(0|[1-9][0-9]{0,17})$'),
+    resource_id = substring(uri FROM '/(0|[1-9][0-9]{0,17})$')::BIGINT
+WHERE uri ~ '/(0|[1-9][0-9]{0,17})$';
+
+CREATE INDEX idx_uris_prefix_resource_id ON uris (prefix, resource_id);
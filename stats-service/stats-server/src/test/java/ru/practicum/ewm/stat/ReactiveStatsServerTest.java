@@ -0,0 +1,164 @@
+package ru.practicum.ewm.stat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
+import ru.practicum.ewm.stat.dto.ViewStatsDto;
+import ru.practicum.ewm.stat.service.ReactiveStatsService;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The API on WebFlux and R2DBC, on its own in-memory database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1"})
+class ReactiveStatsServerTest {
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+    private static final String START = NOW.minusHours(1).format(FORMAT);
+    private static final String END = NOW.plusHours(1).format(FORMAT);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveStatsService statsService;
+
+    @Test
+    void hits_AreCountedByStatsResourcesAndStream() {
+        post("/hit", hit("/reactive/1", "10.0.0.1")).expectStatus().isCreated();
+        post("/hits", List.of(hit("/reactive/1", "10.0.0.1"), hit("/reactive/1", "10.0.0.2"),
+                hit("/reactive/2", "10.0.0.1"))).expectStatus().isCreated();
+
+        assertEquals(List.of(new ViewStatsDto("ewm-main-service", "/reactive/1", 3L),
+                        new ViewStatsDto("ewm-main-service", "/reactive/2", 1L)),
+                getStats("/stats?start={start}&end={end}&uris=/reactive/1&uris=/reactive/2"));
+        assertEquals(List.of(new ViewStatsDto("ewm-main-service", "/reactive/1", 2L)),
+                getStats("/stats?start={start}&end={end}&uris=/reactive/1&unique=true&limit=1"));
+
+        StatsQueryDto query = new StatsQueryDto(NOW.minusHours(1), NOW.plusHours(1), null, "/reactive/",
+                List.of(1L, 2L), false);
+        assertEquals(2, webTestClient.post().uri("/stats")
+                .bodyValue(query)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ViewStatsDto.class)
+                .returnResult().getResponseBody().size());
+
+        assertEquals(Map.of(1L, 2L, 2L, 1L), webTestClient.get()
+                .uri("/stats/resources?start={start}&end={end}&uriPrefix=/reactive/&unique=true", START, END)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<Map<Long, Long>>() {
+                })
+                .returnResult().getResponseBody());
+
+        // Counted by the database rather than by the counters
+        List<ViewStatsDto> streamed = webTestClient.get()
+                .uri("/stats/stream?start={start}&end={end}&unique=true", START, END)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ViewStatsDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertTrue(streamed.contains(new ViewStatsDto("ewm-main-service", "/reactive/1", 2L)), streamed::toString);
+        assertTrue(streamed.contains(new ViewStatsDto("ewm-main-service", "/reactive/2", 1L)), streamed::toString);
+    }
+
+    @Test
+    void hits_InvalidHit_RejectsWholeBatch() {
+        post("/hits", List.of(hit("/rejected/1", "10.0.0.1"), hit("/rejected/1", null)))
+                .expectStatus().isBadRequest();
+        post("/hits", List.of(hit("/rejected/1", "10.0.0.1"), hit("/rejected/1", "")))
+                .expectStatus().isBadRequest();
+
+        assertEquals(List.of(), getStats("/stats?start={start}&end={end}&uris=/rejected/1"));
+    }
+
+    @Test
+    void saveHits_InvalidHitInLaterBatch_KeepsEarlierBatches() {
+        Flux<EndpointHitDto> hits = Flux.range(0, 501)
+                .map(i -> hit("/partial/1", i < 500 ? "10.0.1." + i % 200 : null));
+
+        StepVerifier.create(statsService.saveHits(hits))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        assertEquals(List.of(new ViewStatsDto("ewm-main-service", "/partial/1", 500L)),
+                getStats("/stats?start={start}&end={end}&uris=/partial/1"));
+    }
+
+    @Test
+    void hits_IpNotAnAddress_IsCountedAsOneIp() {
+        post("/hits", List.of(hit("/unknown-ip/1", "unknown"), hit("/unknown-ip/1", "unknown"),
+                hit("/unknown-ip/1", "10.0.0.1"))).expectStatus().isCreated();
+
+        assertEquals(List.of(new ViewStatsDto("ewm-main-service", "/unknown-ip/1", 2L)),
+                getStats("/stats?start={start}&end={end}&uris=/unknown-ip/1&unique=true"));
+    }
+
+    @Test
+    void stats_InvalidRange_ReturnsBadRequest() {
+        webTestClient.get().uri("/stats?start={start}&end={end}", END, START)
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/stats?end={end}", END)
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/stats/resources?start={start}&end={end}&uriPrefix=", START, END)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void saveHits_RequestsHitsOneBatchAtATime() {
+        AtomicLong largestRequest = new AtomicLong();
+        Flux<EndpointHitDto> hits = Flux.range(0, 5_000)
+                .map(i -> hit("/batched/" + i % 10, "10.0.0." + i % 200))
+                .doOnRequest(requested -> largestRequest.accumulateAndGet(requested, Math::max));
+
+        StepVerifier.create(statsService.saveHits(hits))
+                .expectNext(5_000L)
+                .verifyComplete();
+
+        assertTrue(largestRequest.get() <= 500, "Requested " + largestRequest.get() + " hits at once");
+        assertEquals(500L, getStats("/stats?start={start}&end={end}&uris=/batched/3").get(0).getHits());
+    }
+
+    private WebTestClient.ResponseSpec post(String uri, Object body) {
+        return webTestClient.post().uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange();
+    }
+
+    private List<ViewStatsDto> getStats(String uri) {
+        return webTestClient.get().uri(uri, START, END)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ViewStatsDto.class)
+                .returnResult().getResponseBody();
+    }
+
+    private static EndpointHitDto hit(String uri, String ip) {
+        return new EndpointHitDto(null, "ewm-main-service", uri, ip, NOW.minusMinutes(1));
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.ewm.stat;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.tracing.sampling.probability=1.0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+class StatsServerTracingTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+    private static final String HIT = """
+            {"app": "ewm-main-service", "uri": "/events/1", "ip": "192.168.0.1", "timestamp": "2025-03-15 12:00:00"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @BeforeEach
+    void setUp() {
+        spanExporter.reset();
+    }
+
+    @Test
+    void hit_JoinsCallersTraceWithRepositorySpans() throws Exception {
+        saveHit("00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01");
+
+        List<SpanData> spans = finishedSpans();
+        SpanData request = spans.stream()
+                .filter(span -> span.getName().equals("http post /hit"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No server span in " + spans));
+        assertEquals(TRACE_ID, request.getTraceId());
+        assertEquals(PARENT_SPAN_ID, request.getParentSpanId());
+
+        assertTrue(spans.stream().anyMatch(span -> span.getTraceId().equals(TRACE_ID)
+                        && span.getAttributes().get(AttributeKey.stringKey("repository")) != null),
+                () -> "No repository span in " + spans);
+    }
+
+    @Test
+    void hit_FollowsCallersDecisionNotToSample() throws Exception {
+        saveHit("00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-00");
+
+        assertTrue(finishedSpans().stream().noneMatch(span -> span.getTraceId().equals(TRACE_ID)));
+    }
+
+    private void saveHit(String traceparent) throws Exception {
+        mockMvc.perform(post("/hit")
+                        .header("traceparent", traceparent)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(HIT))
+                .andExpect(status().isCreated());
+    }
+
+    private List<SpanData> finishedSpans() {
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+        return spanExporter.getFinishedSpanItems();
+    }
+
+    @TestConfiguration
+    static class SpanExporterConfig {
+
+        @Bean
+        InMemorySpanExporter spanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
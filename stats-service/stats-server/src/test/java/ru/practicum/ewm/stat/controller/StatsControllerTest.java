@@ -10,17 +10,29 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.ewm.stat.codec.StatsCodec;
 import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
 import ru.practicum.ewm.stat.dto.ViewStatsDto;
 import ru.practicum.ewm.stat.service.StatsService;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -214,4 +226,175 @@ class StatsControllerTest {
                         .param("end", "invalid-date"))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldQueryStatsWithBody() throws Exception {
+        LocalDateTime start = now.minusDays(1).withNano(0);
+        LocalDateTime end = now.plusDays(1).withNano(0);
+        StatsQueryDto query = new StatsQueryDto(start, end, null, "/events/", List.of(1L, 2L), true);
+
+        when(statsService.getStats(query)).thenReturn(List.of(new ViewStatsDto("ewm-main-service", "/events/1", 3L)));
+
+        mockMvc.perform(post("/stats")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(query)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].uri").value("/events/1"))
+                .andExpect(jsonPath("$[0].hits").value(3));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenQueryHasNoRange() throws Exception {
+        mockMvc.perform(post("/stats")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"uris\":[\"/events/1\"]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(statsService, never()).getStats(any(StatsQueryDto.class));
+    }
+
+    @Test
+    void shouldGetResourceStatsAsMap() throws Exception {
+        LocalDateTime start = now.minusDays(1).withNano(0);
+        LocalDateTime end = now.plusDays(1).withNano(0);
+
+        when(statsService.getResourceStats(start, end, "/events/", List.of(1L, 2L), true))
+                .thenReturn(Map.of(1L, 10L));
+
+        mockMvc.perform(get("/stats/resources")
+                        .param("start", start.format(formatter))
+                        .param("end", end.format(formatter))
+                        .param("uriPrefix", "/events/")
+                        .param("ids", "1", "2")
+                        .param("unique", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.1").value(10))
+                .andExpect(jsonPath("$.2").doesNotExist());
+    }
+
+    @Test
+    void shouldGetTopForWindow() throws Exception {
+        when(statsService.getTop(Duration.ofMinutes(5), 3))
+                .thenReturn(List.of(new ViewStatsDto("ewm-main-service", "/events/1", 42L)));
+
+        mockMvc.perform(get("/stats/top")
+                        .param("window", "5m")
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].uri").value("/events/1"))
+                .andExpect(jsonPath("$[0].hits").value(42));
+    }
+
+    @Test
+    void shouldStreamStatsAsNdjson() throws Exception {
+        LocalDateTime start = now.minusDays(1).withNano(0);
+        LocalDateTime end = now.plusDays(1).withNano(0);
+
+        doAnswer(invocation -> {
+            Consumer<ViewStatsDto> consumer = invocation.getArgument(5);
+            consumer.accept(new ViewStatsDto("ewm-main-service", "/events/1", 10L));
+            consumer.accept(new ViewStatsDto("ewm-main-service", "/events/2", 5L));
+            return null;
+        }).when(statsService).streamStats(eq(start), eq(end), eq(null), eq(false), eq(2), any());
+
+        MvcResult result = mockMvc.perform(get("/stats/stream")
+                        .param("start", start.format(formatter))
+                        .param("end", end.format(formatter))
+                        .param("limit", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"app\":\"ewm-main-service\",\"uri\":\"/events/1\",\"hits\":10}\n"
+                                + "{\"app\":\"ewm-main-service\",\"uri\":\"/events/2\",\"hits\":5}\n"));
+    }
+
+    @Test
+    void shouldCreateHitFromBinaryBody() throws Exception {
+        mockMvc.perform(post("/hit")
+                        .contentType(StatsCodec.MEDIA_TYPE)
+                        .content(binaryHits(List.of(endpointHitDto))))
+                .andExpect(status().isCreated());
+
+        verify(statsService).saveHit(endpointHitDto);
+    }
+
+    @Test
+    void shouldCreateHitsInOneBatch() throws Exception {
+        EndpointHitDto second = new EndpointHitDto(null, "ewm-main-service", "/events/2", "10.0.0.1", now);
+
+        mockMvc.perform(post("/hits")
+                        .contentType(StatsCodec.MEDIA_TYPE)
+                        .content(binaryHits(List.of(endpointHitDto, second))))
+                .andExpect(status().isCreated());
+
+        verify(statsService).saveHits(List.of(endpointHitDto, second));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenBatchHasInvalidHit() throws Exception {
+        EndpointHitDto invalidDto = new EndpointHitDto(null, "ewm-main-service", "", "10.0.0.1", now);
+
+        mockMvc.perform(post("/hits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(endpointHitDto, invalidDto))))
+                .andExpect(status().isBadRequest());
+
+        verify(statsService, never()).saveHits(any());
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenBinaryBodyIsTruncated() throws Exception {
+        byte[] body = binaryHits(List.of(endpointHitDto));
+
+        mockMvc.perform(post("/hit")
+                        .contentType(StatsCodec.MEDIA_TYPE)
+                        .content(Arrays.copyOf(body, body.length - 1)))
+                .andExpect(status().isBadRequest());
+
+        verify(statsService, never()).saveHit(any());
+    }
+
+    @Test
+    void shouldWriteStatsInBinaryWhenAccepted() throws Exception {
+        LocalDateTime start = now.minusDays(1);
+        LocalDateTime end = now.plusDays(1);
+        List<ViewStatsDto> expectedStats = List.of(
+                new ViewStatsDto("ewm-main-service", "/events/1", 10L),
+                new ViewStatsDto("ewm-main-service", "/events/2", 3L));
+        when(statsService.getStats(start, end, null, false)).thenReturn(expectedStats);
+
+        byte[] body = mockMvc.perform(get("/stats")
+                        .param("start", start.format(formatter))
+                        .param("end", end.format(formatter))
+                        .accept(StatsCodec.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(StatsCodec.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(expectedStats, StatsCodec.readStats(new ByteArrayInputStream(body)));
+    }
+
+    @Test
+    void shouldKeepJsonAsDefault() throws Exception {
+        LocalDateTime start = now.minusDays(1);
+        LocalDateTime end = now.plusDays(1);
+        when(statsService.getStats(start, end, null, false)).thenReturn(List.of());
+
+        mockMvc.perform(get("/stats")
+                        .param("start", start.format(formatter))
+                        .param("end", end.format(formatter))
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private static byte[] binaryHits(List<EndpointHitDto> hits) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatsCodec.writeHits(hits, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,292 @@
+package ru.practicum.ewm.stat.counter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.stat.model.EndpointHit;
+import ru.practicum.ewm.stat.model.RollupState;
+import ru.practicum.ewm.stat.repository.HitRollupRepository;
+import ru.practicum.ewm.stat.repository.RollupStateRepository;
+import ru.practicum.ewm.stat.repository.StatsRepository;
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:testdb",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class HitCountersTest {
+    private static final byte[] IP_1 = {10, 0, 0, 1};
+    private static final byte[] IP_2 = {10, 0, 0, 2};
+
+    @Autowired
+    private StatsRepository statsRepository;
+
+    @Autowired
+    private HitRollupRepository rollupRepository;
+
+    @Autowired
+    private RollupStateRepository stateRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CounterProperties properties;
+    private MutableClock clock;
+    private HitCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        statsRepository.deleteAll();
+        rollupRepository.deleteAll();
+        stateRepository.deleteAll();
+
+        properties = new CounterProperties();
+        clock = new MutableClock(at(10, 30));
+        counters = new HitCounters(statsRepository, rollupRepository, stateRepository, transactionManager,
+                properties, clock);
+    }
+
+    @Test
+    void shouldAnswerRecentRangesFromMemory() {
+        counters.afterSingletonsInstantiated();
+        hit(7, IP_1, at(10, 5));
+        hit(7, IP_1, at(10, 10));
+        hit(7, IP_2, at(10, 10));
+        hit(8, IP_1, at(10, 12));
+        List<HitCount> expected = statsRepository.getStatsByUris(at(10, 0), at(10, 30), List.of(7));
+
+        statsRepository.deleteAll();
+
+        assertEquals(hits(expected), hits(counters.getStats(at(10, 0), at(10, 30), List.of(7), false).orElseThrow()));
+        assertEquals(List.of("1:7=2"), hits(counters.getStats(at(10, 0), at(10, 30), List.of(7), true).orElseThrow()));
+        assertEquals(List.of("1:7=3", "1:8=1"),
+                hits(counters.getStats(at(10, 0), at(10, 30), null, false).orElseThrow()));
+    }
+
+    @Test
+    void shouldRollUpClosedHoursAndKeepCounts() {
+        counters.afterSingletonsInstantiated();
+        hit(7, IP_1, at(10, 5));
+        hit(7, IP_2, at(10, 50));
+
+        clock.set(at(11, 3));
+        counters.flush();
+        hit(7, IP_1, at(11, 1));
+
+        assertEquals(1, rollupRepository.count());
+        assertEquals(at(11, 0), stateRepository.findById(RollupState.ID).orElseThrow().getRolledUpTo());
+        assertEquals(List.of("1:7=3"), hits(counters.getStats(at(9, 0), at(12, 0), List.of(7), false).orElseThrow()));
+        assertEquals(List.of("1:7=2"), hits(counters.getStats(at(9, 0), at(12, 0), List.of(7), true).orElseThrow()));
+    }
+
+    @Test
+    void shouldReadPartialEdgesFromEndpointHits() {
+        counters.afterSingletonsInstantiated();
+        hit(7, IP_1, at(10, 5).plusSeconds(30));
+        hit(7, IP_1, at(10, 6).plusSeconds(10));
+        hit(7, IP_2, at(10, 20));
+
+        List<HitCount> edge = counters.getStats(at(10, 5).plusSeconds(45), at(10, 6).plusSeconds(20),
+                List.of(7), false).orElseThrow();
+        List<HitCount> mixed = counters.getStats(at(10, 5).plusSeconds(45), at(10, 20),
+                List.of(7), false).orElseThrow();
+
+        assertEquals(List.of("1:7=1"), hits(edge));
+        assertEquals(List.of("1:7=2"), hits(mixed));
+    }
+
+    @Test
+    void shouldBackfillRollupsAndReplayOpenHourOnStartup() {
+        save(7, IP_1, at(8, 10));
+        save(7, IP_2, at(9, 20));
+        save(7, IP_1, at(10, 5));
+
+        counters.afterSingletonsInstantiated();
+        RollupState state = stateRepository.findById(RollupState.ID).orElseThrow();
+        statsRepository.deleteAll();
+
+        assertEquals(at(8, 0), state.getRolledUpFrom());
+        assertEquals(at(10, 0), state.getRolledUpTo());
+        assertEquals(2, rollupRepository.count());
+        assertEquals(List.of("1:7=3"), hits(counters.getStats(at(8, 0), at(10, 30), List.of(7), false).orElseThrow()));
+        assertEquals(List.of("1:7=2"), hits(counters.getStats(at(8, 0), at(10, 30), List.of(7), true).orElseThrow()));
+    }
+
+    @Test
+    void shouldCountLateHitsOfRolledUpHoursOnce() {
+        counters.afterSingletonsInstantiated();
+        hit(7, IP_1, at(10, 5));
+        clock.set(at(11, 3));
+        counters.flush();
+
+        hit(7, IP_2, at(10, 20));
+        List<HitCount> beforeFlush = counters.getStats(at(10, 0), at(11, 0), List.of(7), false).orElseThrow();
+        counters.flush();
+        List<HitCount> afterFlush = counters.getStats(at(10, 0), at(11, 0), List.of(7), false).orElseThrow();
+
+        assertEquals(List.of("1:7=2"), hits(beforeFlush));
+        assertEquals(List.of("1:7=2"), hits(afterFlush));
+        assertEquals(2, rollupRepository.count());
+    }
+
+    @Test
+    void shouldAnswerWhileFlushWritesWithoutCountingTwice() {
+        List<List<HitCount>> duringFlush = new ArrayList<>();
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        List<Runnable> afterCommit = new ArrayList<>();
+        counters = new HitCounters(statsRepository, rollupRepository, stateRepository,
+                committing(afterCommit), properties, clock);
+        counters.afterSingletonsInstantiated();
+        hit(7, IP_1, at(10, 5));
+        hit(7, IP_2, at(10, 50));
+
+        // Rollups are committed but not published yet, a reader on another thread must not wait for the flush
+        afterCommit.add(() -> {
+            try {
+                duringFlush.add(reader.submit(() -> counters.getStats(at(10, 0), at(11, 0), List.of(7), false)
+                        .orElseThrow()).get(5, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        clock.set(at(11, 3));
+        counters.flush();
+        reader.shutdown();
+
+        assertEquals(1, rollupRepository.count());
+        assertEquals(1, duringFlush.size());
+        assertEquals(List.of("1:7=2"), hits(duringFlush.get(0)));
+        assertEquals(List.of("1:7=2"), hits(counters.getStats(at(10, 0), at(11, 0), List.of(7), false).orElseThrow()));
+    }
+
+    @Test
+    void shouldNotLoseHitsRecordedWhileFlushing() throws InterruptedException {
+        counters.afterSingletonsInstantiated();
+        clock.set(at(11, 3));
+        int threads = 8;
+        int hitsPerThread = 5_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            byte[] ip = {10, 0, 1, (byte) t};
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < hitsPerThread; i++) {
+                    counters.record(1, 7, ip, at(10, i % 60));
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        while (!executor.awaitTermination(10, TimeUnit.MILLISECONDS)) {
+            counters.flush();
+        }
+        counters.flush();
+
+        assertEquals(List.of("1:7=" + threads * hitsPerThread),
+                hits(counters.getStats(at(10, 0), at(11, 0), List.of(7), false).orElseThrow()));
+        assertEquals(List.of("1:7=" + threads),
+                hits(counters.getStats(at(10, 0), at(11, 0), List.of(7), true).orElseThrow()));
+    }
+
+    @Test
+    void shouldNotAnswerWhenDisabledOrUniqueOverAllUris() {
+        properties.setEnabled(false);
+        counters.afterSingletonsInstantiated();
+
+        assertTrue(counters.getStats(at(10, 0), at(10, 30), List.of(7), false).isEmpty());
+
+        properties.setEnabled(true);
+        counters.afterSingletonsInstantiated();
+
+        assertTrue(counters.getStats(at(10, 0), at(10, 30), null, true).isEmpty());
+    }
+
+    private PlatformTransactionManager committing(List<Runnable> afterCommit) {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return transactionManager.getTransaction(definition);
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                transactionManager.commit(status);
+                afterCommit.forEach(Runnable::run);
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                transactionManager.rollback(status);
+            }
+        };
+    }
+
+    private void hit(Integer uriId, byte[] ip, LocalDateTime timestamp) {
+        save(uriId, ip, timestamp);
+        counters.record(1, uriId, ip, timestamp);
+    }
+
+    private void save(Integer uriId, byte[] ip, LocalDateTime timestamp) {
+        statsRepository.save(EndpointHit.builder().appId(1).uriId(uriId).ip(ip).timestamp(timestamp).build());
+    }
+
+    private static List<String> hits(List<HitCount> counts) {
+        return counts.stream()
+                .map(count -> count.getAppId() + ":" + count.getUriId() + "=" + count.getHits())
+                .toList();
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return LocalDateTime.of(2025, 3, 15, hour, minute);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(LocalDateTime dateTime) {
+            set(dateTime);
+        }
+
+        void set(LocalDateTime dateTime) {
+            instant = dateTime.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
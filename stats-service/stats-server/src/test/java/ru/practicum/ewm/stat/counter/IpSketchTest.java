@@ -0,0 +1,80 @@
+package ru.practicum.ewm.stat.counter;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IpSketchTest {
+
+    @Test
+    void shouldCountSmallSetsExactly() {
+        IpSketch sketch = new IpSketch();
+        for (int i = 0; i < IpSketch.SPARSE_LIMIT; i++) {
+            sketch.add(IpSketch.hash(ip(i)));
+            sketch.add(IpSketch.hash(ip(i)));
+        }
+
+        assertEquals(IpSketch.SPARSE_LIMIT, sketch.estimate());
+    }
+
+    @Test
+    void shouldEstimateLargeSetsWithinFewPercent() {
+        IpSketch sketch = new IpSketch();
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(IpSketch.hash(ip(i)));
+        }
+
+        assertEquals(100_000, sketch.estimate(), 5_000);
+    }
+
+    @Test
+    void shouldMergeSparseAndDenseSketches() {
+        IpSketch small = new IpSketch();
+        IpSketch large = new IpSketch();
+        for (int i = 0; i < 10; i++) {
+            small.add(IpSketch.hash(ip(i)));
+        }
+        for (int i = 5; i < 2_000; i++) {
+            large.add(IpSketch.hash(ip(i)));
+        }
+
+        IpSketch merged = small.copy();
+        merged.merge(large);
+        IpSketch other = small.copy();
+        other.merge(small);
+
+        assertEquals(2_000, merged.estimate(), 100);
+        assertEquals(10, other.estimate());
+    }
+
+    @Test
+    void shouldRoundTripThroughBytes() {
+        IpSketch sparse = new IpSketch();
+        IpSketch dense = new IpSketch();
+        for (int i = 0; i < 1_000; i++) {
+            dense.add(IpSketch.hash(ip(i)));
+            if (i < 3) {
+                sparse.add(IpSketch.hash(ip(i)));
+            }
+        }
+
+        assertEquals(3, IpSketch.fromBytes(sparse.toBytes()).estimate());
+        assertEquals(dense.estimate(), IpSketch.fromBytes(dense.toBytes()).estimate());
+        assertEquals(1 + IpSketch.REGISTERS, dense.toBytes().length);
+    }
+
+    @Test
+    void shouldHashIpv4AndIpv6Differently() {
+        byte[] ipv4 = {10, 0, 0, 1};
+        byte[] ipv6 = new byte[16];
+        System.arraycopy(ipv4, 0, ipv6, 12, 4);
+
+        assertNotEquals(IpSketch.hash(ipv4), IpSketch.hash(ipv6));
+    }
+
+    private static byte[] ip(int i) {
+        return ByteBuffer.allocate(4).putInt(i).array();
+    }
+}
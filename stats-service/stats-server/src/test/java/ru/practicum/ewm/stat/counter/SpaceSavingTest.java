@@ -0,0 +1,117 @@
+package ru.practicum.ewm.stat.counter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingTest {
+
+    @Test
+    void shouldCountExactlyBelowCapacity() {
+        SpaceSaving summary = new SpaceSaving(10);
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j <= i; j++) {
+                summary.add(i);
+            }
+        }
+
+        assertEquals(List.of(new SpaceSaving.Estimate(4, 5, 0), new SpaceSaving.Estimate(3, 4, 0)), summary.top(2));
+        assertEquals(15, summary.total());
+    }
+
+    @Test
+    void shouldCountWeightedAddsLikeRepeatedOnes() {
+        SpaceSaving repeated = new SpaceSaving(3);
+        SpaceSaving weighted = new SpaceSaving(3);
+        long[][] adds = {{1, 5}, {2, 3}, {3, 1}, {4, 2}, {1, 4}, {5, 6}};
+        for (long[] add : adds) {
+            for (int i = 0; i < add[1]; i++) {
+                repeated.add(add[0]);
+            }
+            weighted.add(add[0], add[1]);
+        }
+
+        assertEquals(repeated.top(3), weighted.top(3));
+        assertEquals(repeated.total(), weighted.total());
+    }
+
+    @Test
+    void shouldKeepErrorWithinBoundOnZipfianStream() {
+        SpaceSaving summary = new SpaceSaving(100);
+        Map<Long, Long> exact = new HashMap<>();
+        zipf(200_000, 10_000, 1).forEach(key -> {
+            summary.add(key);
+            exact.merge(key, 1L, Long::sum);
+        });
+
+        long bound = summary.total() / 100;
+        List<SpaceSaving.Estimate> top = summary.top(100);
+        for (SpaceSaving.Estimate estimate : top) {
+            long actual = exact.get(estimate.key());
+            assertTrue(estimate.count() >= actual);
+            assertTrue(estimate.count() - estimate.error() <= actual);
+            assertTrue(estimate.count() - actual <= bound);
+        }
+
+        Set<Long> monitored = top.stream().map(SpaceSaving.Estimate::key).collect(Collectors.toSet());
+        exact.forEach((key, count) -> {
+            if (count > bound) {
+                assertTrue(monitored.contains(key), "Heavy hitter " + key + " is missing");
+            }
+        });
+        assertEquals(exactTop(exact, 10), summary.top(10).stream().map(SpaceSaving.Estimate::key).toList());
+    }
+
+    @Test
+    void shouldMergeSummariesOfDisjointStreams() {
+        SpaceSaving first = new SpaceSaving(50);
+        SpaceSaving second = new SpaceSaving(50);
+        Map<Long, Long> exact = new HashMap<>();
+        List<Long> stream = zipf(100_000, 5_000, 2);
+        for (int i = 0; i < stream.size(); i++) {
+            (i % 3 == 0 ? first : second).add(stream.get(i));
+            exact.merge(stream.get(i), 1L, Long::sum);
+        }
+
+        SpaceSaving merged = new SpaceSaving(50);
+        merged.merge(first);
+        merged.merge(second);
+
+        assertEquals(100_000, merged.total());
+        for (SpaceSaving.Estimate estimate : merged.top(50)) {
+            long actual = exact.get(estimate.key());
+            assertTrue(estimate.count() >= actual);
+            assertTrue(estimate.count() - actual <= merged.total() / 50);
+        }
+        assertEquals(exactTop(exact, 5), merged.top(5).stream().map(SpaceSaving.Estimate::key).toList());
+    }
+
+    private static List<Long> exactTop(Map<Long, Long> exact, int limit) {
+        return exact.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // Keys 0..n-1 with frequency proportional to 1 / (rank + 1), shuffled with a fixed seed
+    private static List<Long> zipf(int size, int n, long seed) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+
+        Random random = new Random(seed);
+        List<Long> stream = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            stream.add((long) (rank < 0 ? -rank - 1 : rank));
+        }
+        return stream;
+    }
+}
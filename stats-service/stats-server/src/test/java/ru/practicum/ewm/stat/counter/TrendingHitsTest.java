@@ -0,0 +1,192 @@
+package ru.practicum.ewm.stat.counter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.ewm.stat.repository.StatsRepository;
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
+import ru.practicum.ewm.stat.repository.StatsRepository.RawHit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingHitsTest {
+
+    @Mock
+    private StatsRepository statsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Clock clock;
+
+    private CounterProperties.Top properties;
+    private TrendingHits trending;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CounterProperties.Top();
+        lenient().when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        now(at(12, 30));
+        trending = new TrendingHits(statsRepository, transactionManager, properties, clock);
+    }
+
+    @Test
+    void shouldReplayLastDayOnStartup() {
+        Stream<RawHit> hits = Stream.of(raw(7, at(12, 10)), raw(7, at(12, 20)), raw(8, at(3, 0)));
+        when(statsRepository.streamHitsFrom(at(12, 30).minusDays(1))).thenReturn(hits);
+
+        trending.afterSingletonsInstantiated();
+
+        assertEquals(List.of("1:7=2"), hits(trending.getTop(Duration.ofHours(1), 10).orElseThrow()));
+        assertEquals(List.of("1:7=2", "1:8=1"), hits(trending.getTop(Duration.ofDays(1), 10).orElseThrow()));
+    }
+
+    @Test
+    void shouldSlideWindowsWithTheClock() {
+        start();
+        trending.record(1, 7, at(12, 0));
+        trending.record(1, 8, at(12, 27));
+        trending.record(1, 8, at(12, 29));
+        trending.record(1, 9, at(11, 59));
+        trending.record(1, 9, at(11, 59));
+        trending.record(1, 9, at(11, 59));
+
+        assertEquals(List.of("1:8=2"), hits(trending.getTop(Duration.ofMinutes(5), 10).orElseThrow()));
+        assertEquals(List.of("1:8=2", "1:7=1"), hits(trending.getTop(Duration.ofMinutes(31), 10).orElseThrow()));
+        assertEquals(List.of("1:9=3", "1:8=2", "1:7=1"),
+                hits(trending.getTop(Duration.ofHours(1), 10).orElseThrow()));
+
+        now(at(13, 1));
+        assertEquals(List.of(), hits(trending.getTop(Duration.ofMinutes(5), 10).orElseThrow()));
+        assertEquals(List.of("1:8=2"), hits(trending.getTop(Duration.ofMinutes(35), 10).orElseThrow()));
+        assertEquals(List.of("1:9=3", "1:8=2", "1:7=1"),
+                hits(trending.getTop(Duration.ofHours(3), 10).orElseThrow()));
+
+        now(at(12, 30).plusDays(1));
+        assertEquals(List.of(), hits(trending.getTop(Duration.ofDays(1), 10).orElseThrow()));
+    }
+
+    @Test
+    void shouldCountFutureHitsAsCurrent() {
+        start();
+        trending.record(1, 7, at(12, 45));
+
+        assertEquals(List.of("1:7=1"), hits(trending.getTop(Duration.ofMinutes(1), 10).orElseThrow()));
+    }
+
+    @Test
+    void shouldNotLoseHitsRecordedWhileReading() throws Exception {
+        start();
+        int threads = 8;
+        int hitsPerThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int uriId = 7 + t % 2;
+            writers.add(executor.submit(() -> {
+                ready.await();
+                for (int i = 0; i < hitsPerThread; i++) {
+                    trending.record(1, uriId, at(12, i % 30));
+                }
+                return null;
+            }));
+        }
+
+        ready.countDown();
+        while (writers.stream().anyMatch(writer -> !writer.isDone())) {
+            trending.getTop(Duration.ofHours(1), 10);
+        }
+        executor.shutdown();
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+
+        String expected = String.valueOf(threads / 2 * hitsPerThread);
+        assertEquals(List.of("1:8=" + expected, "1:7=" + expected),
+                hits(trending.getTop(Duration.ofHours(1), 10).orElseThrow()));
+        assertEquals(List.of("1:8=" + expected, "1:7=" + expected),
+                hits(trending.getTop(Duration.ofDays(1), 10).orElseThrow()));
+    }
+
+    @Test
+    void shouldKeepWindowsBoundedByCapacity() {
+        properties.setCapacity(10);
+        trending = new TrendingHits(statsRepository, transactionManager, properties, clock);
+        start();
+        for (int uriId = 0; uriId < 10_000; uriId++) {
+            trending.record(1, uriId, at(12, 29));
+        }
+        for (int i = 0; i < 50; i++) {
+            trending.record(1, 7, at(12, 29));
+        }
+
+        assertTrue(trending.maxWindowEntries() <= 10, "Window holds " + trending.maxWindowEntries() + " counters");
+        assertEquals(7, trending.getTop(Duration.ofMinutes(5), 1).orElseThrow().get(0).getUriId());
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> trending.getTop(Duration.ofDays(2), 10));
+        assertThrows(IllegalArgumentException.class, () -> trending.getTop(Duration.ZERO, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> trending.getTop(Duration.ofHours(1), properties.getCapacity() + 1));
+    }
+
+    @Test
+    void shouldNotAnswerWhenDisabled() {
+        properties.setEnabled(false);
+
+        trending.afterSingletonsInstantiated();
+        trending.record(1, 7, at(12, 29));
+
+        assertTrue(trending.getTop(Duration.ofHours(1), 10).isEmpty());
+        verifyNoInteractions(statsRepository);
+    }
+
+    private void start() {
+        when(statsRepository.streamHitsFrom(any())).thenReturn(Stream.empty());
+        trending.afterSingletonsInstantiated();
+    }
+
+    private void now(LocalDateTime dateTime) {
+        lenient().when(clock.instant()).thenReturn(dateTime.toInstant(ZoneOffset.UTC));
+    }
+
+    private static RawHit raw(Integer uriId, LocalDateTime timestamp) {
+        RawHit hit = mock(RawHit.class);
+        when(hit.getAppId()).thenReturn(1);
+        when(hit.getUriId()).thenReturn(uriId);
+        when(hit.getTimestamp()).thenReturn(timestamp);
+        return hit;
+    }
+
+    private static List<String> hits(List<HitCount> counts) {
+        return counts.stream()
+                .map(count -> count.getAppId() + ":" + count.getUriId() + "=" + count.getHits())
+                .toList();
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return LocalDateTime.of(2025, 3, 15, hour, minute);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.ewm.stat.mapper;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.ewm.stat.model.Uri;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceUrisTest {
+
+    @Test
+    void shouldSplitTrailingNumericSegment() {
+        Uri uri = ResourceUris.toUri("/events/42");
+
+        assertEquals("/events/42", uri.getUri());
+        assertEquals("/events/", uri.getPrefix());
+        assertEquals(42L, uri.getResourceId());
+        assertEquals(0L, ResourceUris.toUri("/users/7/events/0").getResourceId());
+        assertEquals("/users/7/events/", ResourceUris.toUri("/users/7/events/0").getPrefix());
+    }
+
+    @Test
+    void shouldLeaveOtherUrisWithoutResource() {
+        for (String value : new String[]{"/events", "/events/", "/events/abc", "/events/042", "/events/1234567890123456789"}) {
+            Uri uri = ResourceUris.toUri(value);
+
+            assertEquals(value, uri.getUri());
+            assertNull(uri.getPrefix(), value);
+            assertNull(uri.getResourceId(), value);
+        }
+    }
+}
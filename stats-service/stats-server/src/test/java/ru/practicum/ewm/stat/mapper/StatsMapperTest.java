@@ -5,6 +5,8 @@ import ru.practicum.ewm.stat.dto.EndpointHitDto;
 import ru.practicum.ewm.stat.model.EndpointHit;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,9 +26,9 @@ class StatsMapperTest {
         EndpointHit entity = StatsMapper.toEntity(dto);
 
         assertNull(entity.getId());
-        assertEquals(dto.getApp(), entity.getApp());
-        assertEquals(dto.getUri(), entity.getUri());
-        assertEquals(dto.getIp(), entity.getIp());
+        assertNull(entity.getAppId());
+        assertNull(entity.getUriId());
+        assertArrayEquals(new byte[]{(byte) 192, (byte) 168, 1, 1}, entity.getIp());
         assertEquals(dto.getTimestamp(), entity.getTimestamp());
     }
 
@@ -35,21 +37,34 @@ class StatsMapperTest {
         LocalDateTime timestamp = LocalDateTime.now();
         EndpointHit entity = EndpointHit.builder()
                 .id(1L)
-                .app("ewm-main-service")
-                .uri("/events/1")
-                .ip("192.168.1.1")
+                .appId(1)
+                .uriId(2)
+                .ip(new byte[]{(byte) 192, (byte) 168, 1, 1})
                 .timestamp(timestamp)
                 .build();
 
-        EndpointHitDto dto = StatsMapper.toDto(entity);
+        EndpointHitDto dto = StatsMapper.toDto(entity, "ewm-main-service", "/events/1");
 
         assertEquals(entity.getId(), dto.getId());
-        assertEquals(entity.getApp(), dto.getApp());
-        assertEquals(entity.getUri(), dto.getUri());
-        assertEquals(entity.getIp(), dto.getIp());
+        assertEquals("ewm-main-service", dto.getApp());
+        assertEquals("/events/1", dto.getUri());
+        assertEquals("192.168.1.1", dto.getIp());
         assertEquals(entity.getTimestamp(), dto.getTimestamp());
     }
 
+    @Test
+    void shouldKeepIpThatIsNotAnAddress() {
+        EndpointHitDto dto = new EndpointHitDto(null, "ewm-main-service", "/events/1", "unknown",
+                LocalDateTime.now());
+
+        EndpointHit entity = StatsMapper.toEntity(dto);
+
+        assertEquals(32, entity.getIp().length);
+        assertArrayEquals(entity.getIp(), StatsMapper.toEntity(dto).getIp());
+        assertEquals("unknown", entity.getIpText());
+        assertEquals("unknown", StatsMapper.toDto(entity, "ewm-main-service", "/events/1").getIp());
+    }
+
     @Test
     void shouldReturnNullWhenDtoIsNull() {
         EndpointHit entity = StatsMapper.toEntity(null);
@@ -58,7 +73,7 @@ class StatsMapperTest {
 
     @Test
     void shouldReturnNullWhenEntityIsNull() {
-        EndpointHitDto dto = StatsMapper.toDto(null);
+        EndpointHitDto dto = StatsMapper.toDto(null, "app", "/uri");
         assertNull(dto);
     }
 
@@ -75,6 +90,31 @@ class StatsMapperTest {
 
         EndpointHit entity = StatsMapper.toEntity(dto);
         assertNull(entity.getId());
-        assertEquals(dto.getApp(), entity.getApp());
+        assertEquals(timestamp, entity.getTimestamp());
+    }
+
+    @Test
+    void shouldEncodeIpv6AsSixteenBytes() {
+        byte[] address = IpAddresses.toBytes("2001:db8::1");
+
+        assertEquals(16, address.length);
+        assertEquals("2001:db8:0:0:0:0:0:1", IpAddresses.toString(address));
+    }
+
+    @Test
+    void shouldDigestNonLiteralIpWithoutResolvingIt() {
+        for (String ip : List.of("localhost", "256.1.1.1", "1.2.3", "::zz")) {
+            byte[] encoded = IpAddresses.toBytes(ip);
+
+            assertEquals(32, encoded.length, ip);
+            assertFalse(IpAddresses.isAddress(encoded), ip);
+        }
+        assertFalse(Arrays.equals(IpAddresses.toBytes("1.2.3"), IpAddresses.toBytes("1.2.4")));
+    }
+
+    @Test
+    void shouldRejectMissingIp() {
+        assertThrows(IllegalArgumentException.class, () -> IpAddresses.toBytes(null));
+        assertThrows(IllegalArgumentException.class, () -> IpAddresses.toBytes(" "));
     }
-}
\ No newline at end of file
+}
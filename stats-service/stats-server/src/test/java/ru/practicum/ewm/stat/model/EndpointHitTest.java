@@ -7,34 +7,35 @@ import java.time.LocalDateTime;
 import static org.junit.jupiter.api.Assertions.*;
 
 class EndpointHitTest {
+    private static final byte[] IP = {(byte) 192, (byte) 168, 1, 1};
 
     @Test
     void shouldCreateEndpointHitWithBuilder() {
         LocalDateTime timestamp = LocalDateTime.now();
         EndpointHit hit = EndpointHit.builder()
                 .id(1L)
-                .app("ewm-main-service")
-                .uri("/events/1")
-                .ip("192.168.1.1")
+                .appId(2)
+                .uriId(3)
+                .ip(IP)
                 .timestamp(timestamp)
                 .build();
 
         assertEquals(1L, hit.getId());
-        assertEquals("ewm-main-service", hit.getApp());
-        assertEquals("/events/1", hit.getUri());
-        assertEquals("192.168.1.1", hit.getIp());
+        assertEquals(2, hit.getAppId());
+        assertEquals(3, hit.getUriId());
+        assertArrayEquals(IP, hit.getIp());
         assertEquals(timestamp, hit.getTimestamp());
     }
 
     @Test
     void shouldCreateEndpointHitWithAllArgsConstructor() {
         LocalDateTime timestamp = LocalDateTime.now();
-        EndpointHit hit = new EndpointHit(1L, "app", "/uri", "127.0.0.1", timestamp);
+        EndpointHit hit = new EndpointHit(1L, 2, 3, IP, null, timestamp);
 
         assertEquals(1L, hit.getId());
-        assertEquals("app", hit.getApp());
-        assertEquals("/uri", hit.getUri());
-        assertEquals("127.0.0.1", hit.getIp());
+        assertEquals(2, hit.getAppId());
+        assertEquals(3, hit.getUriId());
+        assertArrayEquals(IP, hit.getIp());
         assertEquals(timestamp, hit.getTimestamp());
     }
 
@@ -50,23 +51,23 @@ class EndpointHitTest {
         LocalDateTime timestamp = LocalDateTime.now();
 
         hit.setId(1L);
-        hit.setApp("test-app");
-        hit.setUri("/test");
-        hit.setIp("192.168.0.1");
+        hit.setAppId(2);
+        hit.setUriId(3);
+        hit.setIp(IP);
         hit.setTimestamp(timestamp);
 
         assertEquals(1L, hit.getId());
-        assertEquals("test-app", hit.getApp());
-        assertEquals("/test", hit.getUri());
-        assertEquals("192.168.0.1", hit.getIp());
+        assertEquals(2, hit.getAppId());
+        assertEquals(3, hit.getUriId());
+        assertArrayEquals(IP, hit.getIp());
         assertEquals(timestamp, hit.getTimestamp());
     }
 
     @Test
     void shouldBeEqualWithSameId() {
         LocalDateTime timestamp = LocalDateTime.now();
-        EndpointHit hit1 = new EndpointHit(1L, "app", "/uri", "ip", timestamp);
-        EndpointHit hit2 = new EndpointHit(1L, "app", "/uri", "ip", timestamp);
+        EndpointHit hit1 = new EndpointHit(1L, 2, 3, IP.clone(), null, timestamp);
+        EndpointHit hit2 = new EndpointHit(1L, 2, 3, IP.clone(), null, timestamp);
 
         assertEquals(hit1, hit2);
         assertEquals(hit1.hashCode(), hit2.hashCode());
@@ -75,12 +76,21 @@ class EndpointHitTest {
     @Test
     void shouldHaveCorrectToString() {
         LocalDateTime timestamp = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
-        EndpointHit hit = new EndpointHit(1L, "app", "/uri", "ip", timestamp);
+        EndpointHit hit = new EndpointHit(1L, 2, 3, IP, null, timestamp);
 
         String toString = hit.toString();
         assertTrue(toString.contains("id=1"));
-        assertTrue(toString.contains("app=app"));
-        assertTrue(toString.contains("uri=/uri"));
-        assertTrue(toString.contains("ip=ip"));
+        assertTrue(toString.contains("appId=2"));
+        assertTrue(toString.contains("uriId=3"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void epochMillisConverterShouldRoundTrip() {
+        EpochMillisConverter converter = new EpochMillisConverter();
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_000_000);
+
+        assertEquals(1705314600123L, converter.convertToDatabaseColumn(timestamp));
+        assertEquals(timestamp, converter.convertToEntityAttribute(1705314600123L));
+        assertNull(converter.convertToDatabaseColumn(null));
+    }
+}
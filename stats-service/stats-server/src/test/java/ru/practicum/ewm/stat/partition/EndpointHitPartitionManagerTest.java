@@ -0,0 +1,134 @@
+package ru.practicum.ewm.stat.partition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.ewm.stat.model.EpochMillisConverter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EndpointHitPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PartitionProperties properties;
+    private EndpointHitPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PartitionProperties();
+        properties.setEnabled(true);
+        Clock clock = Clock.fixed(LocalDate.of(2025, 3, 15).atStartOfDay(ZoneId.systemDefault()).toInstant(),
+                ZoneId.systemDefault());
+        manager = new EndpointHitPartitionManager(jdbcTemplate, properties, clock);
+    }
+
+    @Test
+    void maintain_MonthlyInterval_CreatesCurrentAndFuturePartitions() {
+        properties.setPremake(2);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any(), any())).thenReturn(true);
+
+        manager.maintain();
+
+        verify(jdbcTemplate).queryForObject(anyString(), eq(Boolean.class), eq("endpoint_hits_p202503"),
+                eq(epochMilli(2025, 3, 1, 0, 0)), eq(epochMilli(2025, 4, 1, 0, 0)));
+        verify(jdbcTemplate).queryForObject(anyString(), eq(Boolean.class), eq("endpoint_hits_p202504"),
+                eq(epochMilli(2025, 4, 1, 0, 0)), eq(epochMilli(2025, 5, 1, 0, 0)));
+        verify(jdbcTemplate).queryForObject(anyString(), eq(Boolean.class), eq("endpoint_hits_p202505"),
+                eq(epochMilli(2025, 5, 1, 0, 0)), eq(epochMilli(2025, 6, 1, 0, 0)));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void maintain_DailyInterval_CreatesDailyPartitions() {
+        properties.setInterval(PartitionInterval.DAY);
+        properties.setPremake(1);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any(), any())).thenReturn(false);
+
+        manager.maintain();
+
+        verify(jdbcTemplate).queryForObject(anyString(), eq(Boolean.class), eq("endpoint_hits_p20250315"),
+                eq(epochMilli(2025, 3, 15, 0, 0)), eq(epochMilli(2025, 3, 16, 0, 0)));
+        verify(jdbcTemplate).queryForObject(anyString(), eq(Boolean.class), eq("endpoint_hits_p20250316"),
+                eq(epochMilli(2025, 3, 16, 0, 0)), eq(epochMilli(2025, 3, 17, 0, 0)));
+    }
+
+    @Test
+    void maintain_CreationFails_ContinuesWithNextPartition() {
+        properties.setPremake(1);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(true);
+
+        assertDoesNotThrow(() -> manager.maintain());
+
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Boolean.class), any(), any(), any());
+    }
+
+    @Test
+    void maintain_WithRetention_DropsOnlyExpiredPartitions() {
+        properties.setPremake(0);
+        properties.setRetention(Duration.ofDays(60));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any(), any())).thenReturn(false);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of(
+                "endpoint_hits_default",
+                "endpoint_hits_p202412",
+                "endpoint_hits_p20250113",
+                "endpoint_hits_p20250114",
+                "endpoint_hits_p202501",
+                "endpoint_hits_p202503"));
+
+        manager.maintain();
+
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS endpoint_hits_p202412");
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS endpoint_hits_p20250113");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS endpoint_hits_p20250114");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS endpoint_hits_p202501");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS endpoint_hits_default");
+        verify(jdbcTemplate).update("DELETE FROM hit_rollups WHERE hour_start < ?", epochMilli(2025, 1, 14, 0, 0));
+    }
+
+    @Test
+    void maintain_RollupDeleteFails_DoesNotThrow() {
+        properties.setPremake(0);
+        properties.setRetention(Duration.ofDays(60));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any(), any())).thenReturn(false);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("endpoint_hits_p202412"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertDoesNotThrow(() -> manager.maintain());
+
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS endpoint_hits_p202412");
+    }
+
+    @Test
+    void rangeEnd_ParsesBothGranularities() {
+        assertEquals(Optional.of(LocalDate.of(2025, 2, 1)), PartitionInterval.rangeEnd("endpoint_hits_p202501"));
+        assertEquals(Optional.of(LocalDate.of(2025, 1, 16)), PartitionInterval.rangeEnd("endpoint_hits_p20250115"));
+        assertTrue(PartitionInterval.rangeEnd("endpoint_hits_default").isEmpty());
+        assertTrue(PartitionInterval.rangeEnd("endpoint_hits_p2025").isEmpty());
+        assertTrue(PartitionInterval.rangeEnd("other_p202501").isEmpty());
+    }
+
+    private long epochMilli(int year, int month, int day, int hour, int minute) {
+        return EpochMillisConverter.toEpochMilli(LocalDateTime.of(year, month, day, hour, minute));
+    }
+}
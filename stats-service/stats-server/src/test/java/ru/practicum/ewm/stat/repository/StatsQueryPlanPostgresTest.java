@@ -0,0 +1,115 @@
+package ru.practicum.ewm.stat.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.practicum.ewm.stat.model.EpochMillisConverter;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the production plans of the stats queries against a real PostgreSQL.
+ * Run with {@code -Dstats.test.postgres.url=jdbc:postgresql://localhost:5432/stats_db?user=...&password=...}.
+ */
+@EnabledIfSystemProperty(named = "stats.test.postgres.url", matches = ".+")
+class StatsQueryPlanPostgresTest {
+    private static final String SCHEMA = "stats_plan_test";
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        String url = System.getProperty("stats.test.postgres.url");
+        connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+
+        Flyway.configure()
+                .dataSource(url, null, null)
+                .schemas(SCHEMA)
+                .load()
+                .migrate();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + SCHEMA);
+            statement.execute("SELECT create_endpoint_hits_partition('endpoint_hits_p202501', " +
+                    epochMilli("2025-01-01") + ", " + epochMilli("2025-02-01") + ")");
+            statement.execute("SELECT create_endpoint_hits_partition('endpoint_hits_p202502', " +
+                    epochMilli("2025-02-01") + ", " + epochMilli("2025-03-01") + ")");
+            statement.execute("INSERT INTO endpoint_hits (app_id, uri_id, ip, timestamp) " +
+                    "SELECT 1, n % 500, int4send(n % 200), " + epochMilli("2025-01-01") + " + n::bigint * 60000 " +
+                    "FROM generate_series(1, 80000) n");
+            statement.execute("VACUUM ANALYZE endpoint_hits");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        if (connection != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            }
+            connection.close();
+        }
+    }
+
+    @Test
+    void statsByUrisShouldUseUriIndexOnPrunedPartition() throws SQLException {
+        String plan = explain("SELECT h.app_id, h.uri_id, COUNT(DISTINCT h.ip) FROM endpoint_hits h " +
+                "WHERE h.uri_id IN (1, 2) " +
+                "AND h.timestamp BETWEEN " + epochMilli("2025-01-10") + " AND " + epochMilli("2025-01-20") + " " +
+                "GROUP BY h.app_id, h.uri_id ORDER BY COUNT(DISTINCT h.ip) DESC");
+
+        assertTrue(plan.contains("on endpoint_hits_p202501_uri_id_timestamp"), plan);
+        assertFalse(plan.contains("endpoint_hits_p202502"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void statsByUriArrayShouldUseUriIndexOnPrunedPartition() throws SQLException {
+        String plan = explain("SELECT app_id, uri_id, COUNT(DISTINCT ip) AS hits FROM endpoint_hits " +
+                "WHERE uri_id = ANY ('{1,2,3,4,5,6,7,8,9,10}'::integer[]) " +
+                "AND timestamp BETWEEN " + epochMilli("2025-01-10") + " AND " + epochMilli("2025-01-20") + " " +
+                "GROUP BY app_id, uri_id ORDER BY hits DESC");
+
+        assertTrue(plan.contains("on endpoint_hits_p202501_uri_id_timestamp"), plan);
+        assertFalse(plan.contains("endpoint_hits_p202502"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void statsShouldUseCoveringTimestampIndexOnPrunedPartition() throws SQLException {
+        String plan = explain("SELECT h.app_id, h.uri_id, COUNT(h.ip) FROM endpoint_hits h " +
+                "WHERE h.timestamp BETWEEN " + epochMilli("2025-02-10") + " AND " + epochMilli("2025-02-11") + " " +
+                "GROUP BY h.app_id, h.uri_id ORDER BY COUNT(h.ip) DESC");
+
+        assertTrue(plan.contains("Index Only Scan using endpoint_hits_p202502_timestamp"), plan);
+        assertFalse(plan.contains("endpoint_hits_p202501"), plan);
+    }
+
+    private static long epochMilli(String date) {
+        return EpochMillisConverter.toEpochMilli(LocalDate.parse(date).atStartOfDay());
+    }
+
+    private String explain(String sql) throws SQLException {
+        StringJoiner plan = new StringJoiner("\n");
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            while (resultSet.next()) {
+                plan.add(resultSet.getString(1));
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -1,15 +1,22 @@
 package ru.practicum.ewm.stat.repository;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.TestPropertySource;
+import ru.practicum.ewm.stat.model.App;
 import ru.practicum.ewm.stat.model.EndpointHit;
-import ru.practicum.ewm.stat.dto.ViewStatsDto;
+import ru.practicum.ewm.stat.model.Uri;
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,63 +31,61 @@ class StatsRepositoryTest {
     @Autowired
     private StatsRepository statsRepository;
 
-    private EndpointHit hit1;
-    private EndpointHit hit2;
-    private EndpointHit hit3;
-    private EndpointHit hit4;
+    @Autowired
+    private AppRepository appRepository;
 
-    @BeforeEach
-    void setUp() {
-        LocalDateTime now = LocalDateTime.now().withNano(0);
+    @Autowired
+    private UriRepository uriRepository;
 
-        hit1 = EndpointHit.builder()
-                .app("ewm-main-service")
-                .uri("/events/1")
-                .ip("192.168.1.1")
-                .timestamp(now.minusHours(1))
-                .build();
+    @Autowired
+    private EntityManager entityManager;
 
-        hit2 = EndpointHit.builder()
-                .app("ewm-main-service")
-                .uri("/events/1")
-                .ip("192.168.1.2")
-                .timestamp(now.minusMinutes(30))
-                .build();
+    private Integer ewmApp;
+    private Integer anotherApp;
+    private Integer event1;
+    private Integer event2;
 
-        hit3 = EndpointHit.builder()
-                .app("ewm-main-service")
-                .uri("/events/2")
-                .ip("192.168.1.1")
-                .timestamp(now.minusMinutes(15))
-                .build();
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
 
-        hit4 = EndpointHit.builder()
-                .app("another-service")
-                .uri("/events/1")
-                .ip("192.168.1.3")
-                .timestamp(now)
-                .build();
+        ewmApp = appRepository.save(App.builder().name("ewm-main-service").build()).getId();
+        anotherApp = appRepository.save(App.builder().name("another-service").build()).getId();
+        event1 = uriRepository.save(Uri.builder().uri("/events/1").build()).getId();
+        event2 = uriRepository.save(Uri.builder().uri("/events/2").build()).getId();
 
-        statsRepository.save(hit1);
-        statsRepository.save(hit2);
-        statsRepository.save(hit3);
-        statsRepository.save(hit4);
+        statsRepository.save(hit(ewmApp, event1, 1, now.minusHours(1)));
+        statsRepository.save(hit(ewmApp, event1, 2, now.minusMinutes(30)));
+        statsRepository.save(hit(ewmApp, event2, 1, now.minusMinutes(15)));
+        statsRepository.save(hit(anotherApp, event1, 3, now));
+        statsRepository.save(hit(ewmApp, event1, 1, now.minusMinutes(5)));
     }
 
     @Test
     void shouldSaveAndFindEndpointHit() {
-        EndpointHit newHit = EndpointHit.builder()
-                .app("test-app")
-                .uri("/test")
-                .ip("127.0.0.1")
-                .timestamp(LocalDateTime.now().withNano(0))
-                .build();
+        EndpointHit saved = statsRepository.save(hit(ewmApp, event2, 9, LocalDateTime.now().withNano(0)));
+        entityManager.flush();
+        entityManager.clear();
+
+        EndpointHit found = statsRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(ewmApp, found.getAppId());
+        assertEquals(event2, found.getUriId());
+        assertArrayEquals(new byte[]{(byte) 192, (byte) 168, 1, 9}, found.getIp());
+        assertEquals(saved.getTimestamp(), found.getTimestamp());
+    }
 
-        EndpointHit saved = statsRepository.save(newHit);
-        assertNotNull(saved.getId());
-        assertEquals("test-app", saved.getApp());
-        assertEquals("/test", saved.getUri());
-        assertEquals("127.0.0.1", saved.getIp());
+    @Test
+    void shouldInsertHitsInBatches() {
+        LocalDateTime at = LocalDateTime.now().plusDays(2).withNano(0);
+        List<EndpointHit> hits = List.of(hit(ewmApp, event2, 7, at), hit(ewmApp, event2, 8, at),
+                hit(anotherApp, event2, 7, at));
+
+        statsRepository.insertAll(hits);
+
+        List<HitCount> stats = statsRepository.getStatsByUris(at, at, List.of(event2));
+        assertEquals(2, stats.size());
+        assertEquals(ewmApp, stats.get(0).getAppId());
+        assertEquals(2L, stats.get(0).getHits());
     }
 
     @Test
@@ -88,57 +93,53 @@ class StatsRepositoryTest {
         LocalDateTime start = LocalDateTime.now().minusDays(1).withNano(0);
         LocalDateTime end = LocalDateTime.now().plusDays(1).withNano(0);
 
-        List<ViewStatsDto> stats = statsRepository.getStats(start, end, null);
+        List<HitCount> stats = statsRepository.getStats(start, end);
 
         assertEquals(3, stats.size());
+        assertEquals(3L, hits(stats, ewmApp, event1));
+        assertEquals(1L, hits(stats, ewmApp, event2));
+        assertEquals(1L, hits(stats, anotherApp, event1));
+        assertEquals(ewmApp, stats.get(0).getAppId());
+        assertEquals(event1, stats.get(0).getUriId());
+    }
 
-        boolean foundEwmEvents1 = false;
-        boolean foundEwmEvents2 = false;
-        boolean foundAnotherEvents1 = false;
-
-        for (ViewStatsDto stat : stats) {
-            if ("ewm-main-service".equals(stat.getApp()) && "/events/1".equals(stat.getUri())) {
-                assertEquals(2L, stat.getHits());
-                foundEwmEvents1 = true;
-            } else if ("ewm-main-service".equals(stat.getApp()) && "/events/2".equals(stat.getUri())) {
-                assertEquals(1L, stat.getHits());
-                foundEwmEvents2 = true;
-            } else if ("another-service".equals(stat.getApp()) && "/events/1".equals(stat.getUri())) {
-                assertEquals(1L, stat.getHits());
-                foundAnotherEvents1 = true;
-            }
-        }
+    @Test
+    void shouldStreamTopStatsWithLimit() {
+        LocalDateTime start = LocalDateTime.now().minusDays(1).withNano(0);
+        LocalDateTime end = LocalDateTime.now().plusDays(1).withNano(0);
 
-        assertTrue(foundEwmEvents1);
-        assertTrue(foundEwmEvents2);
-        assertTrue(foundAnotherEvents1);
+        try (Stream<HitCount> stream = statsRepository.streamStats(start, end, Limit.of(2))) {
+            List<HitCount> stats = stream.toList();
+
+            assertEquals(2, stats.size());
+            assertEquals(3L, stats.get(0).getHits());
+            assertEquals(1L, stats.get(1).getHits());
+        }
     }
 
     @Test
     void shouldGetStatsForSpecificUris() {
         LocalDateTime start = LocalDateTime.now().minusDays(1).withNano(0);
         LocalDateTime end = LocalDateTime.now().plusDays(1).withNano(0);
-        List<String> uris = List.of("/events/1");
 
-        List<ViewStatsDto> stats = statsRepository.getStats(start, end, uris);
+        List<HitCount> stats = statsRepository.getStatsByUris(start, end, List.of(event1));
 
         assertEquals(2, stats.size());
+        assertEquals(3L, hits(stats, ewmApp, event1));
+        assertEquals(1L, hits(stats, anotherApp, event1));
+    }
 
-        boolean foundEwmMainService = false;
-        boolean foundAnotherService = false;
-
-        for (ViewStatsDto stat : stats) {
-            if (stat.getApp().equals("ewm-main-service") && stat.getUri().equals("/events/1")) {
-                assertEquals(2, stat.getHits());
-                foundEwmMainService = true;
-            } else if (stat.getApp().equals("another-service") && stat.getUri().equals("/events/1")) {
-                assertEquals(1, stat.getHits());
-                foundAnotherService = true;
-            }
-        }
+    @Test
+    void shouldGetStatsWithUriArrayParameter() {
+        LocalDateTime start = LocalDateTime.now().minusDays(1).withNano(0);
+        LocalDateTime end = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Integer> uriIds = List.of(event1, event2, -1);
 
-        assertTrue(foundEwmMainService);
-        assertTrue(foundAnotherService);
+        assertEquals(counts(statsRepository.getStatsByUris(start, end, uriIds)),
+                counts(statsRepository.getStatsByUriArray(start, end, uriIds, false)));
+        assertEquals(counts(statsRepository.getStatsUniqueByUris(start, end, uriIds)),
+                counts(statsRepository.getStatsByUriArray(start, end, uriIds, true)));
+        assertEquals(3L, statsRepository.getStatsByUriArray(start, end, uriIds, false).get(0).getHits());
     }
 
     @Test
@@ -146,19 +147,23 @@ class StatsRepositoryTest {
         LocalDateTime start = LocalDateTime.now().minusDays(1).withNano(0);
         LocalDateTime end = LocalDateTime.now().plusDays(1).withNano(0);
 
-        List<ViewStatsDto> stats = statsRepository.getStatsUnique(start, end, null);
+        List<HitCount> stats = statsRepository.getStatsUnique(start, end);
 
         assertEquals(3, stats.size());
+        assertEquals(2L, hits(stats, ewmApp, event1));
+        assertEquals(1L, hits(stats, ewmApp, event2));
+        assertEquals(1L, hits(stats, anotherApp, event1));
+    }
 
-        for (ViewStatsDto stat : stats) {
-            if (stat.getApp().equals("ewm-main-service") && stat.getUri().equals("/events/1")) {
-                assertEquals(2, stat.getHits());
-            } else if (stat.getApp().equals("ewm-main-service") && stat.getUri().equals("/events/2")) {
-                assertEquals(1, stat.getHits());
-            } else if (stat.getApp().equals("another-service") && stat.getUri().equals("/events/1")) {
-                assertEquals(1, stat.getHits());
-            }
-        }
+    @Test
+    void shouldGetUniqueStatsForSpecificUris() {
+        LocalDateTime start = LocalDateTime.now().minusDays(1).withNano(0);
+        LocalDateTime end = LocalDateTime.now().plusDays(1).withNano(0);
+
+        List<HitCount> stats = statsRepository.getStatsUniqueByUris(start, end, List.of(event2));
+
+        assertEquals(1, stats.size());
+        assertEquals(1L, hits(stats, ewmApp, event2));
     }
 
     @Test
@@ -166,7 +171,7 @@ class StatsRepositoryTest {
         LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
         LocalDateTime end = LocalDateTime.now().plusDays(2).withNano(0);
 
-        List<ViewStatsDto> stats = statsRepository.getStats(start, end, null);
+        List<HitCount> stats = statsRepository.getStats(start, end);
         assertTrue(stats.isEmpty());
     }
 
@@ -174,9 +179,62 @@ class StatsRepositoryTest {
     void shouldReturnEmptyListForUnknownUri() {
         LocalDateTime start = LocalDateTime.now().minusDays(1).withNano(0);
         LocalDateTime end = LocalDateTime.now().plusDays(1).withNano(0);
-        List<String> uris = List.of("/unknown");
 
-        List<ViewStatsDto> stats = statsRepository.getStats(start, end, uris);
+        List<HitCount> stats = statsRepository.getStatsByUris(start, end, List.of(-1));
         assertTrue(stats.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFindDictionaryEntries() {
+        assertEquals(ewmApp, appRepository.findByName("ewm-main-service").orElseThrow().getId());
+        assertEquals(List.of(event2), uriRepository.findAllByUriIn(List.of("/events/2", "/unknown")).stream()
+                .map(Uri::getId)
+                .toList());
+    }
+
+    @Test
+    void statsByUrisQueryShouldUseUriTimestampIndex() {
+        String plan = explain("SELECT h.app_id, h.uri_id, COUNT(DISTINCT h.ip) FROM endpoint_hits h " +
+                "WHERE h.uri_id IN (1, 2) " +
+                "AND h.timestamp BETWEEN 0 AND 9999999999999 " +
+                "GROUP BY h.app_id, h.uri_id");
+
+        assertTrue(plan.contains("idx_endpoint_hits_uri_timestamp"), plan);
+    }
+
+    @Test
+    void statsQueryShouldUseTimestampIndex() {
+        String plan = explain("SELECT h.app_id, h.uri_id, COUNT(h.ip) FROM endpoint_hits h " +
+                "WHERE h.timestamp BETWEEN 0 AND 9999999999999 " +
+                "GROUP BY h.app_id, h.uri_id");
+
+        assertTrue(plan.contains("idx_endpoint_hits_timestamp"), plan);
+    }
+
+    private EndpointHit hit(Integer appId, Integer uriId, int host, LocalDateTime timestamp) {
+        return EndpointHit.builder()
+                .appId(appId)
+                .uriId(uriId)
+                .ip(new byte[]{(byte) 192, (byte) 168, 1, (byte) host})
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private static Set<String> counts(List<HitCount> stats) {
+        return stats.stream()
+                .map(count -> count.getAppId() + ":" + count.getUriId() + "=" + count.getHits())
+                .collect(Collectors.toSet());
+    }
+
+    private long hits(List<HitCount> stats, Integer appId, Integer uriId) {
+        return stats.stream()
+                .filter(stat -> stat.getAppId().equals(appId) && stat.getUriId().equals(uriId))
+                .findFirst()
+                .orElseThrow()
+                .getHits();
+    }
+
+    private String explain(String sql) {
+        return entityManager.createNativeQuery("EXPLAIN " + sql).getSingleResult().toString().toLowerCase();
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.ewm.stat.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.stat.model.Uri;
+import ru.practicum.ewm.stat.repository.AppRepository;
+import ru.practicum.ewm.stat.repository.UriRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(HitDictionary.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:testdb",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class HitDictionaryTest {
+
+    @Autowired
+    private HitDictionary hitDictionary;
+
+    @Autowired
+    private AppRepository appRepository;
+
+    @Autowired
+    private UriRepository uriRepository;
+
+    @Test
+    void shouldInternAppOnce() {
+        Integer first = hitDictionary.getAppId("dictionary-app");
+        Integer second = hitDictionary.getAppId("dictionary-app");
+
+        assertEquals(first, second);
+        assertEquals(first, appRepository.findByName("dictionary-app").orElseThrow().getId());
+        assertEquals("dictionary-app", hitDictionary.getAppName(first));
+    }
+
+    @Test
+    void shouldResolveUrisWrittenByAnotherInstance() {
+        Integer id = uriRepository.save(Uri.builder().uri("/dictionary/1").build()).getId();
+
+        assertEquals(List.of(id), hitDictionary.findUriIds(List.of("/dictionary/1", "/dictionary/unknown")));
+        assertEquals("/dictionary/1", hitDictionary.getUri(id));
+        assertEquals(id, hitDictionary.getUriId("/dictionary/1"));
+    }
+
+    @Test
+    void shouldFindResourcesByPrefix() {
+        Integer first = hitDictionary.getUriId("/resources/1");
+        Integer second = hitDictionary.getUriId("/resources/2");
+        hitDictionary.getUriId("/resources/other");
+        hitDictionary.getUriId("/other/1");
+
+        assertEquals(Map.of(first, 1L), hitDictionary.findResources("/resources/", List.of(1L, 3L)));
+        assertEquals(Map.of(first, 1L, second, 2L), hitDictionary.findResources("/resources/", null));
+        assertEquals("/resources/2", hitDictionary.getUri(second));
+    }
+
+    @Test
+    void shouldFailOnUnknownId() {
+        assertThrows(IllegalStateException.class, () -> hitDictionary.getAppName(-1));
+    }
+}
@@ -3,20 +3,36 @@ package ru.practicum.ewm.stat.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.ewm.stat.counter.HitCounters;
+import ru.practicum.ewm.stat.counter.TrendingHits;
 import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.dto.StatsQueryDto;
 import ru.practicum.ewm.stat.dto.ViewStatsDto;
-import ru.practicum.ewm.stat.mapper.StatsMapper;
 import ru.practicum.ewm.stat.model.EndpointHit;
 import ru.practicum.ewm.stat.repository.StatsRepository;
+import ru.practicum.ewm.stat.repository.StatsRepository.HitCount;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +41,18 @@ class StatsServiceImplTest {
     @Mock
     private StatsRepository statsRepository;
 
+    @Mock
+    private HitDictionary hitDictionary;
+
+    @Mock
+    private HitCounters hitCounters;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TrendingHits trendingHits;
+
     @InjectMocks
     private StatsServiceImpl statsService;
 
@@ -45,6 +73,8 @@ class StatsServiceImplTest {
 
     @Test
     void shouldSaveHit() {
+        when(hitDictionary.getAppId("ewm-main-service")).thenReturn(1);
+        when(hitDictionary.getUriId("/events/1")).thenReturn(7);
         when(statsRepository.save(any(EndpointHit.class))).thenAnswer(invocation -> {
             EndpointHit hit = invocation.getArgument(0);
             hit.setId(1L);
@@ -53,7 +83,38 @@ class StatsServiceImplTest {
 
         statsService.saveHit(endpointHitDto);
 
-        verify(statsRepository, times(1)).save(any(EndpointHit.class));
+        ArgumentCaptor<EndpointHit> captor = ArgumentCaptor.forClass(EndpointHit.class);
+        verify(statsRepository, times(1)).save(captor.capture());
+        assertEquals(1, captor.getValue().getAppId());
+        assertEquals(7, captor.getValue().getUriId());
+        assertArrayEquals(new byte[]{(byte) 192, (byte) 168, 1, 1}, captor.getValue().getIp());
+        assertEquals(now, captor.getValue().getTimestamp());
+        verify(hitCounters).record(1, 7, new byte[]{(byte) 192, (byte) 168, 1, 1}, now);
+        verify(trendingHits).record(1, 7, now);
+    }
+
+    @Test
+    void shouldKeepHitWhoseIpIsNotAnAddress() {
+        endpointHitDto.setIp("not-an-ip");
+        when(hitDictionary.getAppId("ewm-main-service")).thenReturn(1);
+        when(hitDictionary.getUriId("/events/1")).thenReturn(7);
+        when(statsRepository.save(any(EndpointHit.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        statsService.saveHit(endpointHitDto);
+
+        ArgumentCaptor<EndpointHit> captor = ArgumentCaptor.forClass(EndpointHit.class);
+        verify(statsRepository, times(1)).save(captor.capture());
+        assertEquals(32, captor.getValue().getIp().length);
+        assertEquals("not-an-ip", captor.getValue().getIpText());
+    }
+
+    @Test
+    void shouldRejectHitWithoutIp() {
+        endpointHitDto.setIp(null);
+
+        assertThrows(IllegalArgumentException.class, () -> statsService.saveHit(endpointHitDto));
+
+        verifyNoInteractions(hitDictionary, statsRepository);
     }
 
     @Test
@@ -61,19 +122,16 @@ class StatsServiceImplTest {
         LocalDateTime start = now.minusDays(1);
         LocalDateTime end = now.plusDays(1);
         List<String> uris = List.of("/events/1");
-        Boolean unique = false;
-
-        List<ViewStatsDto> expectedStats = List.of(
-                new ViewStatsDto("ewm-main-service", "/events/1", 10L)
-        );
 
-        when(statsRepository.getStats(start, end, uris)).thenReturn(expectedStats);
+        when(hitDictionary.findUriIds(uris)).thenReturn(List.of(7));
+        when(statsRepository.getStatsByUris(start, end, List.of(7))).thenReturn(List.of(count(1, 7, 10L)));
+        when(hitDictionary.getAppName(1)).thenReturn("ewm-main-service");
+        when(hitDictionary.getUri(7)).thenReturn("/events/1");
 
-        List<ViewStatsDto> actualStats = statsService.getStats(start, end, uris, unique);
+        List<ViewStatsDto> actualStats = statsService.getStats(start, end, uris, false);
 
-        assertEquals(expectedStats, actualStats);
-        verify(statsRepository, times(1)).getStats(start, end, uris);
-        verify(statsRepository, never()).getStatsUnique(any(), any(), any());
+        assertEquals(List.of(new ViewStatsDto("ewm-main-service", "/events/1", 10L)), actualStats);
+        verify(statsRepository, never()).getStatsUniqueByUris(any(), any(), any());
     }
 
     @Test
@@ -81,19 +139,16 @@ class StatsServiceImplTest {
         LocalDateTime start = now.minusDays(1);
         LocalDateTime end = now.plusDays(1);
         List<String> uris = List.of("/events/1");
-        Boolean unique = true;
-
-        List<ViewStatsDto> expectedStats = List.of(
-                new ViewStatsDto("ewm-main-service", "/events/1", 5L)
-        );
 
-        when(statsRepository.getStatsUnique(start, end, uris)).thenReturn(expectedStats);
+        when(hitDictionary.findUriIds(uris)).thenReturn(List.of(7));
+        when(statsRepository.getStatsUniqueByUris(start, end, List.of(7))).thenReturn(List.of(count(1, 7, 5L)));
+        when(hitDictionary.getAppName(1)).thenReturn("ewm-main-service");
+        when(hitDictionary.getUri(7)).thenReturn("/events/1");
 
-        List<ViewStatsDto> actualStats = statsService.getStats(start, end, uris, unique);
+        List<ViewStatsDto> actualStats = statsService.getStats(start, end, uris, true);
 
-        assertEquals(expectedStats, actualStats);
-        verify(statsRepository, times(1)).getStatsUnique(start, end, uris);
-        verify(statsRepository, never()).getStats(any(), any(), any());
+        assertEquals(List.of(new ViewStatsDto("ewm-main-service", "/events/1", 5L)), actualStats);
+        verify(statsRepository, never()).getStatsByUris(any(), any(), any());
     }
 
     @Test
@@ -101,17 +156,30 @@ class StatsServiceImplTest {
         LocalDateTime start = now.minusDays(1);
         LocalDateTime end = now.plusDays(1);
 
-        List<ViewStatsDto> expectedStats = List.of(
+        when(statsRepository.getStats(start, end)).thenReturn(List.of(count(1, 7, 10L), count(1, 8, 5L)));
+        when(hitDictionary.getAppName(1)).thenReturn("ewm-main-service");
+        when(hitDictionary.getUri(7)).thenReturn("/events/1");
+        when(hitDictionary.getUri(8)).thenReturn("/events/2");
+
+        List<ViewStatsDto> actualStats = statsService.getStats(start, end, null, false);
+
+        assertEquals(List.of(
                 new ViewStatsDto("ewm-main-service", "/events/1", 10L),
                 new ViewStatsDto("ewm-main-service", "/events/2", 5L)
-        );
+        ), actualStats);
+        verify(hitDictionary, never()).findUriIds(any());
+    }
 
-        when(statsRepository.getStats(start, end, null)).thenReturn(expectedStats);
+    @Test
+    void shouldReturnEmptyStatsForUnknownUris() {
+        LocalDateTime start = now.minusDays(1);
+        LocalDateTime end = now.plusDays(1);
+        List<String> uris = List.of("/unknown");
 
-        List<ViewStatsDto> actualStats = statsService.getStats(start, end, null, false);
+        when(hitDictionary.findUriIds(uris)).thenReturn(List.of());
 
-        assertEquals(expectedStats, actualStats);
-        verify(statsRepository, times(1)).getStats(start, end, null);
+        assertTrue(statsService.getStats(start, end, uris, false).isEmpty());
+        verifyNoInteractions(statsRepository);
     }
 
     @Test
@@ -125,26 +193,22 @@ class StatsServiceImplTest {
         );
 
         assertEquals("Start date must be before end date", exception.getMessage());
-        verify(statsRepository, never()).getStats(any(), any(), any());
-        verify(statsRepository, never()).getStatsUnique(any(), any(), any());
+        verifyNoInteractions(statsRepository);
     }
 
     @Test
     void shouldGetStatsWithEmptyUrisList() {
         LocalDateTime start = now.minusDays(1);
         LocalDateTime end = now.plusDays(1);
-        List<String> uris = List.of();
-
-        List<ViewStatsDto> expectedStats = List.of(
-                new ViewStatsDto("ewm-main-service", "/events/1", 10L)
-        );
 
-        when(statsRepository.getStats(start, end, uris)).thenReturn(expectedStats);
+        when(statsRepository.getStats(start, end)).thenReturn(List.of(count(1, 7, 10L)));
+        when(hitDictionary.getAppName(1)).thenReturn("ewm-main-service");
+        when(hitDictionary.getUri(7)).thenReturn("/events/1");
 
-        List<ViewStatsDto> actualStats = statsService.getStats(start, end, uris, false);
+        List<ViewStatsDto> actualStats = statsService.getStats(start, end, List.of(), false);
 
-        assertEquals(expectedStats, actualStats);
-        verify(statsRepository, times(1)).getStats(start, end, uris);
+        assertEquals(List.of(new ViewStatsDto("ewm-main-service", "/events/1", 10L)), actualStats);
+        verify(statsRepository, never()).getStatsByUris(any(), any(), any());
     }
 
     @Test
@@ -152,15 +216,222 @@ class StatsServiceImplTest {
         LocalDateTime start = now.minusDays(1);
         LocalDateTime end = now.plusDays(1);
 
-        List<ViewStatsDto> expectedStats = List.of(
-                new ViewStatsDto("ewm-main-service", "/events/1", 10L)
+        when(statsRepository.getStats(start, end)).thenReturn(List.of());
+
+        List<ViewStatsDto> actualStats = statsService.getStats(start, end, null, null);
+
+        assertTrue(actualStats.isEmpty());
+        verify(statsRepository, times(1)).getStats(start, end);
+    }
+
+    @Test
+    void shouldSaveHitsInOneBatch() {
+        EndpointHitDto other = new EndpointHitDto(null, "ewm-main-service", "/events/2", "10.0.0.1", now);
+        when(hitDictionary.getAppId("ewm-main-service")).thenReturn(1);
+        when(hitDictionary.getUriId("/events/1")).thenReturn(7);
+        when(hitDictionary.getUriId("/events/2")).thenReturn(8);
+
+        statsService.saveHits(List.of(endpointHitDto, other));
+
+        verify(statsRepository).insertAll(argThat(hits -> hits.size() == 2
+                && hits.get(0).getUriId() == 7 && hits.get(1).getUriId() == 8));
+        verify(statsRepository, never()).save(any());
+        verify(hitCounters).record(1, 8, new byte[]{10, 0, 0, 1}, now);
+    }
+
+    @Test
+    void shouldInternBeforeOpeningTransaction() {
+        when(hitDictionary.getAppId("ewm-main-service")).thenReturn(1);
+        when(hitDictionary.getUriId("/events/1")).thenReturn(7);
+
+        statsService.saveHits(List.of(endpointHitDto));
+
+        InOrder order = inOrder(hitDictionary, transactionManager, statsRepository);
+        order.verify(hitDictionary).getUriId("/events/1");
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(statsRepository).insertAll(anyList());
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void shouldAnswerFromCountersWhenTheyCoverRange() {
+        LocalDateTime start = now.minusHours(1);
+        LocalDateTime end = now;
+
+        when(hitDictionary.findUriIds(List.of("/events/1"))).thenReturn(List.of(7));
+        when(hitCounters.getStats(start, end, List.of(7), true)).thenReturn(Optional.of(List.of(count(1, 7, 3L))));
+        when(hitDictionary.getAppName(1)).thenReturn("ewm-main-service");
+        when(hitDictionary.getUri(7)).thenReturn("/events/1");
+
+        List<ViewStatsDto> actualStats = statsService.getStats(start, end, List.of("/events/1"), true);
+
+        assertEquals(List.of(new ViewStatsDto("ewm-main-service", "/events/1", 3L)), actualStats);
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    void shouldPushLimitIntoQuery() {
+        LocalDateTime start = now.minusDays(1);
+        LocalDateTime end = now.plusDays(1);
+
+        when(hitCounters.getStats(start, end, null, false)).thenReturn(Optional.empty());
+        when(statsRepository.streamStats(start, end, Limit.of(1))).thenReturn(Stream.of(count(1, 7, 10L)));
+        when(hitDictionary.getAppName(1)).thenReturn("ewm-main-service");
+        when(hitDictionary.getUri(7)).thenReturn("/events/1");
+
+        List<ViewStatsDto> actualStats = statsService.getStats(start, end, null, false, 1);
+
+        assertEquals(List.of(new ViewStatsDto("ewm-main-service", "/events/1", 10L)), actualStats);
+        verify(statsRepository, never()).getStats(any(), any());
+    }
+
+    @Test
+    void shouldRejectNonPositiveLimit() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> statsService.getStats(now.minusDays(1), now, null, false, 0)
         );
 
-        when(statsRepository.getStats(start, end, null)).thenReturn(expectedStats);
+        assertEquals("Limit must be positive", exception.getMessage());
+        verifyNoInteractions(statsRepository);
+    }
 
-        List<ViewStatsDto> actualStats = statsService.getStats(start, end, null, null);
+    @Test
+    void shouldStreamStatsFromCursorWithoutCounters() {
+        LocalDateTime start = now.minusDays(1);
+        LocalDateTime end = now.plusDays(1);
+        List<ViewStatsDto> streamed = new ArrayList<>();
+
+        when(statsRepository.streamStatsUnique(start, end, Limit.unlimited()))
+                .thenReturn(Stream.of(count(1, 7, 10L), count(1, 8, 5L)));
+        when(hitDictionary.getAppName(1)).thenReturn("ewm-main-service");
+        when(hitDictionary.getUri(7)).thenReturn("/events/1");
+        when(hitDictionary.getUri(8)).thenReturn("/events/2");
+
+        statsService.streamStats(start, end, null, true, null, streamed::add);
+
+        assertEquals(List.of(
+                new ViewStatsDto("ewm-main-service", "/events/1", 10L),
+                new ViewStatsDto("ewm-main-service", "/events/2", 5L)
+        ), streamed);
+        verifyNoInteractions(hitCounters);
+    }
+
+    @Test
+    void shouldGetTopFromTrendingHits() {
+        when(trendingHits.getTop(Duration.ofMinutes(5), 3)).thenReturn(Optional.of(List.of(count(1, 7, 42L))));
+        when(hitDictionary.getAppName(1)).thenReturn("ewm-main-service");
+        when(hitDictionary.getUri(7)).thenReturn("/events/1");
+
+        List<ViewStatsDto> top = statsService.getTop(Duration.ofMinutes(5), 3);
+
+        assertEquals(List.of(new ViewStatsDto("ewm-main-service", "/events/1", 42L)), top);
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    void shouldFallBackToLimitedQueryForTop() {
+        when(trendingHits.getTop(Duration.ofHours(1), 3)).thenReturn(Optional.empty());
+        when(hitCounters.getStats(any(), any(), any(), eq(false))).thenReturn(Optional.empty());
+        when(statsRepository.streamStats(any(), any(), eq(Limit.of(3)))).thenReturn(Stream.of(count(1, 7, 10L)));
+        when(hitDictionary.getAppName(1)).thenReturn("ewm-main-service");
+        when(hitDictionary.getUri(7)).thenReturn("/events/1");
+
+        List<ViewStatsDto> top = statsService.getTop(Duration.ofHours(1), 3);
+
+        assertEquals(List.of(new ViewStatsDto("ewm-main-service", "/events/1", 10L)), top);
+    }
+
+    @Test
+    void shouldBindLongUriListsAsArray() {
+        LocalDateTime start = now.minusDays(1);
+        LocalDateTime end = now.plusDays(1);
+        List<String> uris = IntStream.range(0, 150).mapToObj(i -> "/events/" + i).toList();
+        List<Integer> uriIds = IntStream.range(0, 150).boxed().toList();
+
+        when(hitDictionary.findUriIds(uris)).thenReturn(uriIds);
+        when(hitCounters.getStats(start, end, uriIds, true)).thenReturn(Optional.empty());
+        when(statsRepository.getStatsByUriArray(start, end, uriIds, true)).thenReturn(List.of(count(1, 7, 4L)));
+        when(hitDictionary.getAppName(1)).thenReturn("ewm-main-service");
+        when(hitDictionary.getUri(7)).thenReturn("/events/7");
+
+        List<ViewStatsDto> actualStats = statsService.getStats(start, end, uris, true);
+
+        assertEquals(List.of(new ViewStatsDto("ewm-main-service", "/events/7", 4L)), actualStats);
+        verify(statsRepository, never()).getStatsUniqueByUris(any(), any(), any());
+    }
+
+    @Test
+    void shouldExpandIdsWithUriPrefix() {
+        LocalDateTime start = now.minusDays(1);
+        LocalDateTime end = now.plusDays(1);
+        StatsQueryDto query = new StatsQueryDto(start, end, List.of("/events"), "/events/", List.of(1L, 2L), false);
+
+        when(hitDictionary.findUriIds(List.of("/events", "/events/1", "/events/2"))).thenReturn(List.of());
+
+        assertTrue(statsService.getStats(query).isEmpty());
+    }
+
+    @Test
+    void shouldRequireUriPrefixWithIds() {
+        StatsQueryDto query = new StatsQueryDto(now.minusDays(1), now, null, null, List.of(1L), false);
+
+        assertThrows(IllegalArgumentException.class, () -> statsService.getStats(query));
+        verifyNoInteractions(hitDictionary, statsRepository);
+    }
+
+    @Test
+    void shouldSumResourceHitsOfAllApps() {
+        LocalDateTime start = now.minusDays(1);
+        LocalDateTime end = now.plusDays(1);
+
+        when(hitDictionary.findResources("/events/", List.of(1L, 2L, 3L))).thenReturn(Map.of(7, 1L, 8, 2L));
+        when(hitCounters.getStats(eq(start), eq(end), any(), eq(false))).thenReturn(Optional.empty());
+        when(statsRepository.getStatsByUris(eq(start), eq(end), any()))
+                .thenReturn(List.of(count(1, 7, 10L), count(2, 7, 5L), count(1, 8, 1L)));
+
+        Map<Long, Long> hits = statsService.getResourceStats(start, end, "/events/", List.of(1L, 2L, 3L), false);
+
+        assertEquals(Map.of(1L, 15L, 2L, 1L), hits);
+        verify(hitDictionary, never()).getUri(any());
+    }
+
+    @Test
+    void shouldTakeLargestUniqueResourceHitsOfAllApps() {
+        LocalDateTime start = now.minusDays(1);
+        LocalDateTime end = now.plusDays(1);
+
+        when(hitDictionary.findResources("/events/", null)).thenReturn(Map.of(7, 1L));
+        when(hitCounters.getStats(start, end, List.of(7), true))
+                .thenReturn(Optional.of(List.of(count(1, 7, 4L), count(2, 7, 6L))));
+
+        assertEquals(Map.of(1L, 6L), statsService.getResourceStats(start, end, "/events/", List.of(), true));
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    void shouldRejectBlankUriPrefix() {
+        assertThrows(IllegalArgumentException.class,
+                () -> statsService.getResourceStats(now.minusDays(1), now, " ", List.of(1L), false));
+        verifyNoInteractions(hitDictionary);
+    }
 
-        assertEquals(expectedStats, actualStats);
-        verify(statsRepository, times(1)).getStats(start, end, null);
+    private HitCount count(Integer appId, Integer uriId, Long hits) {
+        return new HitCount() {
+            @Override
+            public Integer getAppId() {
+                return appId;
+            }
+
+            @Override
+            public Integer getUriId() {
+                return uriId;
+            }
+
+            @Override
+            public Long getHits() {
+                return hits;
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package ru.practicum.ewm.stat.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HitLogTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void shouldRoundTripHits() {
+        EndpointHitDto hit = hit(1);
+
+        EndpointHitDto decoded = HitLog.decode(HitLog.encode(hit));
+
+        assertEquals(hit.getApp(), decoded.getApp());
+        assertEquals(hit.getUri(), decoded.getUri());
+        assertEquals(hit.getIp(), decoded.getIp());
+        assertEquals(hit.getTimestamp(), decoded.getTimestamp());
+    }
+
+    @Test
+    void shouldReadAcrossSegments() throws IOException {
+        try (HitLog hitLog = HitLog.open(dir, 200, LogPosition.START)) {
+            hitLog.append(records(0, 10));
+            hitLog.append(records(10, 15));
+
+            HitLog.Batch first = hitLog.read(LogPosition.START, hitLog.end(), 8);
+            HitLog.Batch rest = hitLog.read(first.next(), hitLog.end(), 100);
+
+            assertTrue(hitLog.end().segment() > 0);
+            assertEquals(8, first.entries().size());
+            assertEquals(7, rest.entries().size());
+            assertEquals(hitLog.end(), rest.next());
+            assertEquals("/events/14", HitLog.decode(rest.entries().get(6).record()).getUri());
+        }
+    }
+
+    @Test
+    void shouldTruncateTornTailOnOpen() throws IOException {
+        LogPosition end;
+        try (HitLog hitLog = HitLog.open(dir, 1 << 20, LogPosition.START)) {
+            hitLog.append(records(0, 3));
+            end = hitLog.end();
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(java.nio.ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2}));
+        }
+
+        try (HitLog hitLog = HitLog.open(dir, 1 << 20, LogPosition.START)) {
+            assertEquals(end, hitLog.end());
+            assertEquals(3, hitLog.read(LogPosition.START, hitLog.end(), 100).entries().size());
+        }
+    }
+
+    @Test
+    void shouldDropSegmentsBeforeCheckpoint() throws IOException {
+        LogPosition checkpoint;
+        try (HitLog hitLog = HitLog.open(dir, 200, LogPosition.START)) {
+            hitLog.append(records(0, 10));
+            checkpoint = hitLog.read(LogPosition.START, hitLog.end(), 6).next();
+        }
+
+        try (HitLog hitLog = HitLog.open(dir, 200, checkpoint)) {
+            List<HitLog.Entry> rest = hitLog.read(checkpoint, hitLog.end(), 100).entries();
+
+            assertEquals(4, rest.size());
+            assertEquals("/events/6", HitLog.decode(rest.get(0).record()).getUri());
+            assertTrue(segments().size() < 5);
+        }
+    }
+
+    @Test
+    void shouldUndoFailedAppend() throws IOException {
+        try (HitLog hitLog = HitLog.open(dir, 200, LogPosition.START)) {
+            hitLog.append(records(0, 2));
+            LogPosition committed = hitLog.end();
+            hitLog.append(records(2, 10));
+
+            hitLog.truncate(committed);
+
+            assertEquals(committed, hitLog.end());
+            assertEquals(2, hitLog.read(LogPosition.START, hitLog.end(), 100).entries().size());
+        }
+    }
+
+    @Test
+    void shouldRejectFieldsThatDoNotFit() {
+        EndpointHitDto hit = hit(1);
+        hit.setUri("/".repeat(70_000));
+
+        assertThrows(IllegalArgumentException.class, () -> HitLog.encode(hit));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static List<byte[]> records(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> HitLog.encode(hit(i))).toList();
+    }
+
+    private static EndpointHitDto hit(int i) {
+        return new EndpointHitDto(null, "ewm-main-service", "/events/" + i, "192.168.0." + i,
+                LocalDateTime.of(2025, 3, 15, 10, 0, i));
+    }
+}
@@ -0,0 +1,234 @@
+package ru.practicum.ewm.stat.wal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.exception.HitLogUnavailableException;
+import ru.practicum.ewm.stat.model.HitLogCheckpoint;
+import ru.practicum.ewm.stat.repository.HitLogCheckpointRepository;
+import ru.practicum.ewm.stat.service.HitDictionary;
+import ru.practicum.ewm.stat.service.StatsService;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HitLogWriterTest {
+
+    @TempDir
+    private Path dir;
+
+    @Mock
+    private StatsService statsService;
+
+    @Mock
+    private HitDictionary hitDictionary;
+
+    @Mock
+    private HitLogCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> stored = new CopyOnWriteArrayList<>();
+    private volatile HitLogCheckpoint checkpoint;
+    private WalProperties properties;
+    private HitLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WalProperties();
+        properties.setDir(dir.toString());
+        properties.setDrainInterval(Duration.ofMillis(10));
+        properties.setDrainBatchSize(7);
+
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(checkpointRepository.findById("default")).thenAnswer(invocation -> Optional.ofNullable(checkpoint));
+        when(checkpointRepository.save(any())).thenAnswer(invocation -> checkpoint = invocation.getArgument(0));
+        doAnswer(invocation -> {
+            List<EndpointHitDto> hits = invocation.getArgument(0);
+            hits.forEach(hit -> stored.add(hit.getUri()));
+            return null;
+        }).when(statsService).saveHits(anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null && writer.isRunning()) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void shouldAcknowledgeAndDrainAllHits() throws Exception {
+        writer = start();
+
+        List<CompletableFuture<Void>> acks = IntStream.range(0, 20).mapToObj(i -> writer.append(hit(i))).toList();
+        CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        awaitStored(20);
+        assertEquals(IntStream.range(0, 20).mapToObj(i -> "/events/" + i).toList(), stored);
+        verify(statsService, atLeast(3)).saveHits(anyList());
+        // Interned before each transaction rather than inside it
+        InOrder order = inOrder(hitDictionary, transactionManager, statsService);
+        order.verify(hitDictionary).intern(anyList());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(statsService).saveHits(anyList());
+    }
+
+    @Test
+    void shouldReplayUndrainedTailAfterRestart() throws Exception {
+        doThrow(new DataAccessResourceFailureException("down")).when(statsService).saveHits(anyList());
+        writer = start();
+        writer.append(hit(1)).get(5, TimeUnit.SECONDS);
+        writer.append(hit(2)).get(5, TimeUnit.SECONDS);
+        writer.stop();
+
+        assertTrue(stored.isEmpty());
+
+        doAnswer(invocation -> {
+            List<EndpointHitDto> hits = invocation.getArgument(0);
+            hits.forEach(hit -> stored.add(hit.getUri()));
+            return null;
+        }).when(statsService).saveHits(anyList());
+        writer = start();
+
+        awaitStored(2);
+        assertEquals(List.of("/events/1", "/events/2"), stored);
+    }
+
+    @Test
+    void shouldNotDrainTwiceAfterRestart() throws Exception {
+        writer = start();
+        writer.append(hit(1)).get(5, TimeUnit.SECONDS);
+        awaitStored(1);
+        writer.stop();
+
+        writer = start();
+        writer.append(hit(2)).get(5, TimeUnit.SECONDS);
+
+        awaitStored(2);
+        assertEquals(List.of("/events/1", "/events/2"), stored);
+    }
+
+    @Test
+    void shouldSkipHitThatCannotBeStored() throws Exception {
+        doAnswer(invocation -> {
+            List<EndpointHitDto> hits = invocation.getArgument(0);
+            if (hits.stream().anyMatch(hit -> hit.getUri().equals("/events/3"))) {
+                throw new DataIntegrityViolationException("too long");
+            }
+            hits.forEach(hit -> stored.add(hit.getUri()));
+            return null;
+        }).when(statsService).saveHits(anyList());
+        writer = start();
+
+        for (int i = 0; i < 5; i++) {
+            writer.append(hit(i)).get(5, TimeUnit.SECONDS);
+        }
+
+        awaitStored(4);
+        assertEquals(List.of("/events/0", "/events/1", "/events/2", "/events/4"), stored);
+    }
+
+    @Test
+    void shouldRejectAppendsWhenStopped() {
+        writer = start();
+        writer.stop();
+
+        CompletableFuture<Void> ack = writer.append(hit(1));
+
+        assertTrue(ack.isCompletedExceptionally());
+    }
+
+    @Test
+    void shouldCommitBatchAsOneAppendAndDrainInOrder() throws Exception {
+        writer = start();
+
+        writer.append(IntStream.range(0, 10).mapToObj(HitLogWriterTest::hit).toList()).get(5, TimeUnit.SECONDS);
+
+        awaitStored(10);
+        assertEquals(IntStream.range(0, 10).mapToObj(i -> "/events/" + i).toList(), stored);
+    }
+
+    @Test
+    void shouldRejectAppendsBeyondQueueCapacity() throws Exception {
+        // The group commit window keeps the first appends uncommitted while the rest arrive
+        properties.setSyncInterval(Duration.ofMillis(500));
+        properties.setQueueCapacity(3);
+        writer = start();
+
+        CompletableFuture<Void> first = writer.append(List.of(hit(1), hit(2)));
+        CompletableFuture<Void> second = writer.append(hit(3));
+        CompletableFuture<Void> rejected = writer.append(hit(4));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(HitLogUnavailableException.class, e.getCause());
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        writer.append(hit(5)).get(5, TimeUnit.SECONDS);
+        awaitStored(4);
+        assertEquals(List.of("/events/1", "/events/2", "/events/3", "/events/5"), stored);
+    }
+
+    @Test
+    void shouldNotWriteAppendsCancelledBeforeCommit() throws Exception {
+        properties.setSyncInterval(Duration.ofMillis(500));
+        writer = start();
+
+        CompletableFuture<Void> kept = writer.append(hit(1));
+        CompletableFuture<Void> cancelled = writer.append(hit(2));
+
+        assertTrue(cancelled.cancel(false));
+        kept.get(5, TimeUnit.SECONDS);
+        assertFalse(kept.cancel(false));
+
+        awaitStored(1);
+        assertEquals(List.of("/events/1"), stored);
+    }
+
+    private HitLogWriter start() {
+        HitLogWriter hitLogWriter = new HitLogWriter(statsService, hitDictionary, checkpointRepository,
+                transactionManager, properties);
+        hitLogWriter.start();
+        return hitLogWriter;
+    }
+
+    private void awaitStored(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (stored.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+    }
+
+    private static EndpointHitDto hit(int i) {
+        return new EndpointHitDto(null, "ewm-main-service", "/events/" + i, "10.0.0." + i,
+                LocalDateTime.of(2025, 3, 15, 10, 0, i));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.ewm.stat.wal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.ewm.stat.dto.EndpointHitDto;
+import ru.practicum.ewm.stat.exception.HitLogUnavailableException;
+import ru.practicum.ewm.stat.service.StatsService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WalStatsServiceTest {
+
+    @Mock
+    private StatsService delegate;
+
+    @Mock
+    private HitLogWriter hitLogWriter;
+
+    private WalStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        WalProperties properties = new WalProperties();
+        properties.setAckTimeout(Duration.ofMillis(50));
+        service = new WalStatsService(delegate, hitLogWriter, properties);
+    }
+
+    @Test
+    void saveHits_GoesThroughHitLog() {
+        List<EndpointHitDto> hits = List.of(hit("10.0.0.1"), hit("10.0.0.2"));
+        when(hitLogWriter.append(hits)).thenReturn(CompletableFuture.completedFuture(null));
+
+        service.saveHits(hits);
+
+        verify(hitLogWriter).append(hits);
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void saveHits_MissingIp_RejectsWholeBatchBeforeLogging() {
+        List<EndpointHitDto> hits = List.of(hit("10.0.0.1"), hit(null));
+
+        assertThrows(IllegalArgumentException.class, () -> service.saveHits(hits));
+
+        verifyNoInteractions(hitLogWriter);
+    }
+
+    @Test
+    void saveHit_NotCommittedInTime_CancelsAndReportsUnavailable() {
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        when(hitLogWriter.append(anyList())).thenReturn(ack);
+
+        assertThrows(HitLogUnavailableException.class, () -> service.saveHit(hit("10.0.0.1")));
+
+        assertTrue(ack.isCancelled());
+    }
+
+    @Test
+    void saveHit_QueueFull_ReportsUnavailable() {
+        when(hitLogWriter.append(anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new HitLogUnavailableException("Hit log queue is full")));
+
+        assertThrows(HitLogUnavailableException.class, () -> service.saveHit(hit("10.0.0.1")));
+    }
+
+    private static EndpointHitDto hit(String ip) {
+        return new EndpointHitDto(null, "ewm-main-service", "/events/1", ip, LocalDateTime.of(2025, 3, 15, 10, 0));
+    }
+}